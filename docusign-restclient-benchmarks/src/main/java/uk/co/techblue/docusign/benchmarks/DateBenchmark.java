@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.benchmarks;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.co.techblue.docusign.client.dto.utils.DtoHelper;
+import uk.co.techblue.docusign.client.dto.utils.ISO8601DateCodec;
+
+/**
+ * ISO 8601 date parsing and formatting, run for every date of every DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateBenchmark {
+
+    /** A date in the UTC form DocuSign returns, with seven fraction digits. */
+    private final String utcDate = "2015-10-19T00:00:00.1230000Z";
+
+    /** A date with an offset. */
+    private final String offsetDate = "2015-10-19T01:00:00.123+01:00";
+
+    /** A UTC date inside a larger buffer, as the Jackson parser exposes it. */
+    private final char[] quotedUtcDate = ("\"" + utcDate + "\"").toCharArray();
+
+    private final Date date = DtoFixtures.DATE;
+
+    @Benchmark
+    public Date parseUtcDate() throws Exception {
+        return DtoHelper.parseISO8601Date(utcDate);
+    }
+
+    @Benchmark
+    public Date parseOffsetDate() throws Exception {
+        return DtoHelper.parseISO8601Date(offsetDate);
+    }
+
+    @Benchmark
+    public long parseUtcDateFromBuffer() throws Exception {
+        return ISO8601DateCodec.parse(quotedUtcDate, 1, utcDate.length());
+    }
+
+    @Benchmark
+    public String formatDate() throws Exception {
+        return DtoHelper.formatISO8601Date(date);
+    }
+}
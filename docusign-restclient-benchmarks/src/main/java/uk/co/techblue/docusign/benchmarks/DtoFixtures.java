@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.benchmarks;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import uk.co.techblue.docusign.client.dto.BaseDto;
+import uk.co.techblue.docusign.jackson.ISO8601DateSerializer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Builds fully populated DTO graphs for the benchmarks. Every public setter of a DTO is given a value: strings,
+ * numbers, booleans, dates and enums directly, nested DTOs and lists of DTOs recursively up to a fixed depth.
+ */
+final class DtoFixtures {
+
+    /** The date set on every date property. */
+    static final Date DATE = new Date(1445212800123L);
+
+    private static final int MAX_DEPTH = 4;
+
+    private DtoFixtures() {
+    }
+
+    /**
+     * Creates a populated instance of the DTO class.
+     *
+     * @param <T> the DTO type
+     * @param dtoClass the DTO class
+     * @param listSize the number of elements of each list property
+     * @return the populated DTO
+     */
+    static <T> T populate(final Class<T> dtoClass, final int listSize) {
+        return populate(dtoClass, listSize, 0);
+    }
+
+    /**
+     * Creates a list of populated instances of the DTO class.
+     *
+     * @param <T> the DTO type
+     * @param dtoClass the DTO class
+     * @param size the size of the list
+     * @param listSize the number of elements of each nested list property
+     * @return the list
+     */
+    static <T> List<T> populateList(final Class<T> dtoClass, final int size, final int listSize) {
+        final List<T> list = new ArrayList<T>(size);
+        for (int index = 0; index < size; index++) {
+            list.add(populate(dtoClass, listSize, 1));
+        }
+        return list;
+    }
+
+    /**
+     * Creates an object mapper writing dates in the ISO 8601 format DocuSign responses use.
+     *
+     * @return the object mapper
+     */
+    private static ObjectMapper newPayloadMapper() {
+        final SimpleModule module = new SimpleModule();
+        module.addSerializer(Date.class, new ISO8601DateSerializer());
+        return new ObjectMapper().registerModule(module);
+    }
+
+    /**
+     * Serializes the response DTO the way DocuSign sends it: dates in ISO 8601 and without the derived
+     * <code>allTabs</code> property, which only exists on the client side.
+     *
+     * @param dto the response DTO
+     * @return the payload
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    static byte[] toPayload(final Object dto) throws IOException {
+        final ObjectMapper payloadMapper = newPayloadMapper();
+        final JsonNode tree = payloadMapper.valueToTree(dto);
+        removeProperty(tree, "allTabs");
+        return payloadMapper.writeValueAsBytes(tree);
+    }
+
+    private static void removeProperty(final JsonNode node, final String property) {
+        if (node instanceof ObjectNode) {
+            ((ObjectNode) node).remove(property);
+        }
+        for (final JsonNode child : node) {
+            removeProperty(child, property);
+        }
+    }
+
+    private static <T> T populate(final Class<T> dtoClass, final int listSize, final int depth) {
+        final T dto;
+        try {
+            dto = dtoClass.getDeclaredConstructor().newInstance();
+        } catch (final Exception e) {
+            throw new IllegalStateException("Cannot instantiate " + dtoClass.getName(), e);
+        }
+        for (final Method method : dtoClass.getMethods()) {
+            if (!method.getName().startsWith("set") || method.getParameterTypes().length != 1) {
+                continue;
+            }
+            final Object value = valueOf(method.getParameterTypes()[0], method.getGenericParameterTypes()[0],
+                method.getName().substring(3), listSize, depth);
+            if (value == null) {
+                continue;
+            }
+            try {
+                method.invoke(dto, value);
+            } catch (final Exception e) {
+                // Setters with side effects or validation are left unset
+            }
+        }
+        return dto;
+    }
+
+    private static Object valueOf(final Class<?> type, final Type genericType, final String property, final int listSize,
+        final int depth) {
+        if (type == String.class) {
+            return property + "-" + depth;
+        }
+        if (type == int.class || type == Integer.class) {
+            return depth + 1;
+        }
+        if (type == long.class || type == Long.class) {
+            return (long) depth + 1;
+        }
+        if (type == double.class || type == Double.class) {
+            return depth + 1.5d;
+        }
+        if (type == float.class || type == Float.class) {
+            return depth + 1.5f;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return Boolean.TRUE;
+        }
+        if (type == Date.class) {
+            return DATE;
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (depth >= MAX_DEPTH) {
+            return null;
+        }
+        if (isConcreteDto(type)) {
+            return populate(type, listSize, depth + 1);
+        }
+        if (type == List.class && genericType instanceof ParameterizedType) {
+            final Type elementType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (!(elementType instanceof Class)) {
+                return null;
+            }
+            final List<Object> list = new ArrayList<Object>(listSize);
+            for (int index = 0; index < listSize; index++) {
+                final Object element = valueOf((Class<?>) elementType, elementType, property, listSize, depth + 1);
+                if (element == null) {
+                    return null;
+                }
+                list.add(element);
+            }
+            return list;
+        }
+        return null;
+    }
+
+    private static boolean isConcreteDto(final Class<?> type) {
+        return BaseDto.class.isAssignableFrom(type) && !Modifier.isAbstract(type.getModifiers());
+    }
+}
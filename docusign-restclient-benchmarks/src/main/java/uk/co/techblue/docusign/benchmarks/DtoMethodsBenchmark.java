@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.co.techblue.docusign.client.dto.tabs.SignHereTab;
+
+/**
+ * The generated equals, hashCode and toString of the DTOs against the reflective builders they replace, on a DTO
+ * without nested DTOs so that the reflective variants do not call into generated code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMethodsBenchmark {
+
+    private SignHereTab tab;
+    private SignHereTab otherTab;
+
+    @Setup
+    public void setUp() {
+        tab = DtoFixtures.populate(SignHereTab.class, 1);
+        otherTab = DtoFixtures.populate(SignHereTab.class, 1);
+    }
+
+    @Benchmark
+    public boolean equals() {
+        return tab.equals(otherTab);
+    }
+
+    @Benchmark
+    public boolean reflectionEquals() {
+        return EqualsBuilder.reflectionEquals(tab, otherTab);
+    }
+
+    @Benchmark
+    public int hashCodeGenerated() {
+        return tab.hashCode();
+    }
+
+    @Benchmark
+    public int reflectionHashCode() {
+        return HashCodeBuilder.reflectionHashCode(tab);
+    }
+
+    @Benchmark
+    public String toStringGenerated() {
+        return tab.toString();
+    }
+
+    @Benchmark
+    public String reflectionToString() {
+        return ToStringBuilder.reflectionToString(tab, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.co.techblue.docusign.client.dto.DocumentSignatureRequest;
+import uk.co.techblue.docusign.client.dto.DocumentTabCollection;
+import uk.co.techblue.docusign.client.dto.Envelope;
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusResponse;
+import uk.co.techblue.docusign.client.dto.recipients.LazyRecipientStatusCollection;
+import uk.co.techblue.docusign.client.dto.recipients.RecipientStatus;
+import uk.co.techblue.docusign.client.dto.recipients.RecipientStatusCollection;
+import uk.co.techblue.docusign.resteasy.providers.ObjectMapperContextResolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of the request DTOs and deserialization of large response payloads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    /** The number of envelopes of the status response payload. */
+    private static final int ENVELOPES = 500;
+
+    /** The number of recipients of each type of the recipient status payload. */
+    private static final int RECIPIENTS = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** The mapper the client uses for every request. */
+    private final ObjectMapper sharedObjectMapper = ObjectMapperContextResolver.getObjectMapper();
+
+    private Envelope envelope;
+    private DocumentSignatureRequest signatureRequest;
+    private DocumentTabCollection tabCollection;
+    private byte[] envelopeStatusPayload;
+    private byte[] recipientStatusPayload;
+
+    @Setup
+    public void setUp() throws Exception {
+        envelope = DtoFixtures.populate(Envelope.class, 3);
+        signatureRequest = DtoFixtures.populate(DocumentSignatureRequest.class, 3);
+        tabCollection = DtoFixtures.populate(DocumentTabCollection.class, 5);
+
+        final EnvelopeStatusResponse statusResponse = new EnvelopeStatusResponse();
+        statusResponse.setEnvelopes(DtoFixtures.populateList(EnvelopeInfo.class, ENVELOPES, 1));
+        statusResponse.setResultSetSize(ENVELOPES);
+        envelopeStatusPayload = DtoFixtures.toPayload(statusResponse);
+
+        final RecipientStatusCollection recipients = DtoFixtures.populate(RecipientStatusCollection.class, 1);
+        recipients.setSigners(DtoFixtures.populateList(RecipientStatus.class, RECIPIENTS, 2));
+        recipients.setCarbonCopies(DtoFixtures.populateList(RecipientStatus.class, RECIPIENTS, 2));
+        recipientStatusPayload = DtoFixtures.toPayload(recipients);
+
+        // Fail fast if the payloads do not round trip
+        deserializeEnvelopeStatusResponse();
+        deserializeRecipientStatusCollection();
+    }
+
+    @Benchmark
+    public byte[] serializeEnvelope() throws Exception {
+        return objectMapper.writeValueAsBytes(envelope);
+    }
+
+    @Benchmark
+    public byte[] serializeDocumentSignatureRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(signatureRequest);
+    }
+
+    @Benchmark
+    public byte[] serializeDocumentTabCollection() throws Exception {
+        return objectMapper.writeValueAsBytes(tabCollection);
+    }
+
+    @Benchmark
+    public EnvelopeStatusResponse deserializeEnvelopeStatusResponse() throws Exception {
+        return objectMapper.readValue(envelopeStatusPayload, EnvelopeStatusResponse.class);
+    }
+
+    @Benchmark
+    public RecipientStatusCollection deserializeRecipientStatusCollection() throws Exception {
+        return objectMapper.readValue(recipientStatusPayload, RecipientStatusCollection.class);
+    }
+
+    @Benchmark
+    public LazyRecipientStatusCollection deserializeRecipientStatusCollectionLazily() throws Exception {
+        return objectMapper.readValue(recipientStatusPayload, LazyRecipientStatusCollection.class);
+    }
+
+    @Benchmark
+    public EnvelopeStatusResponse deserializeEnvelopeStatusResponseWithSharedMapper() throws Exception {
+        return sharedObjectMapper.readValue(envelopeStatusPayload, EnvelopeStatusResponse.class);
+    }
+
+    @Benchmark
+    public RecipientStatusCollection deserializeRecipientStatusCollectionWithSharedMapper() throws Exception {
+        return sharedObjectMapper.readValue(recipientStatusPayload, RecipientStatusCollection.class);
+    }
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.resteasy.plugins.providers.multipart.MultipartFormDataOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.co.techblue.docusign.client.dto.Document;
+import uk.co.techblue.docusign.client.dto.DocumentSignatureRequest;
+import uk.co.techblue.docusign.client.utils.DocuSignUtils;
+
+/**
+ * Building the multipart body of a signature request with three documents, and writing the streamed body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultipartBenchmark {
+
+    private static final int DOCUMENTS = 3;
+
+    /** The size of each document in kilobytes. */
+    @Param({"1024"})
+    public int documentKilobytes;
+
+    private final List<Path> files = new ArrayList<Path>();
+
+    private DocumentSignatureRequest signatureRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        signatureRequest = DtoFixtures.populate(DocumentSignatureRequest.class, 1);
+        final List<Document> documents = new ArrayList<Document>();
+        for (int index = 1; index <= DOCUMENTS; index++) {
+            final Path file = Files.createTempFile("benchmark-document", ".pdf");
+            Files.write(file, new byte[documentKilobytes * 1024]);
+            files.add(file);
+            final Document document = new Document();
+            document.setDocumentId(String.valueOf(index));
+            document.setName(file.getFileName().toString());
+            document.setPath(file.toString());
+            documents.add(document);
+        }
+        signatureRequest.setDocuments(documents);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (final Path file : files) {
+            Files.deleteIfExists(file);
+        }
+        files.clear();
+    }
+
+    @Benchmark
+    public MultipartFormDataOutput generateMultipartFormDataOutput() {
+        return DocuSignUtils.generateMultipartFormDataOutput(signatureRequest);
+    }
+
+    @Benchmark
+    public long generateStreamingMultipart() throws IOException {
+        return DocuSignUtils.generateStreamingMultipart(signatureRequest, null).getContentLength();
+    }
+
+    @Benchmark
+    public long writeStreamingMultipart() throws IOException {
+        final CountingOutputStream output = new CountingOutputStream();
+        DocuSignUtils.generateStreamingMultipart(signatureRequest, null).writeTo(output);
+        return output.count;
+    }
+
+    /**
+     * Output stream discarding the bytes written, standing for the connection.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.connect;
+
+/**
+ * Receives the notifications accepted by a {@link ConnectReceiver}. Notifications of the same envelope are delivered
+ * one at a time and in the order they were received; notifications of different envelopes may be delivered
+ * concurrently.
+ */
+@FunctionalInterface
+public interface ConnectListener {
+
+    /**
+     * Called for every notification received.
+     *
+     * @param notification the notification
+     */
+    void onNotification(ConnectNotification notification);
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.connect;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.recipients.RecipientStatus;
+
+/**
+ * An envelope status change pushed by DocuSign Connect, mapped onto the DTOs the REST API returns for the same
+ * envelope.
+ */
+public class ConnectNotification {
+
+    /** The envelope status. */
+    private final EnvelopeInfo envelope;
+
+    /** The recipient statuses. */
+    private final List<RecipientStatus> recipients;
+
+    /** The time DocuSign generated the notification. */
+    private final Date timeGenerated;
+
+    /**
+     * Instantiates a new connect notification.
+     *
+     * @param envelope the envelope status
+     * @param recipients the recipient statuses
+     * @param timeGenerated the time DocuSign generated the notification, or null if not sent
+     */
+    public ConnectNotification(final EnvelopeInfo envelope, final List<RecipientStatus> recipients,
+        final Date timeGenerated) {
+        this.envelope = envelope;
+        this.recipients = Collections.unmodifiableList(recipients);
+        this.timeGenerated = timeGenerated;
+    }
+
+    /**
+     * Gets the envelope status. Its <code>statusChangedDateTime</code> is the time of the event matching the
+     * current status, or the time the notification was generated if the event time is not sent.
+     *
+     * @return the envelope status
+     */
+    public EnvelopeInfo getEnvelope() {
+        return envelope;
+    }
+
+    /**
+     * Gets the recipient statuses.
+     *
+     * @return the recipient statuses
+     */
+    public List<RecipientStatus> getRecipients() {
+        return recipients;
+    }
+
+    /**
+     * Gets the time DocuSign generated the notification.
+     *
+     * @return the time generated, or null if not sent
+     */
+    public Date getTimeGenerated() {
+        return timeGenerated;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectNotification[envelopeId=" + envelope.getEnvelopeId() + ", status=" + envelope.getStatus()
+            + ", recipients=" + recipients.size() + "]";
+    }
+}
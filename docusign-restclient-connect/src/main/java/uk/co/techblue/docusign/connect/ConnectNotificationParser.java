@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.connect;
+
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.recipients.RecipientStatus;
+import uk.co.techblue.docusign.client.dto.utils.ISO8601DateCodec;
+import uk.co.techblue.docusign.client.envelope.attributes.Status;
+
+/**
+ * Parses the <code>DocuSignEnvelopeInformation</code> XML documents posted by DocuSign Connect with a StAX reader, so
+ * the notification is read straight from the request body and the elements it does not map, including the embedded
+ * document PDFs, are skipped without being held in memory. DTDs and external entities are not processed.
+ * <p>
+ * Connect writes its dates in the time zone of the account, without an offset; they are converted with the
+ * <code>TimeZoneOffset</code> of the notification, or read as UTC if it has none. Instances are thread-safe.
+ */
+public class ConnectNotificationParser {
+
+    private static final String ROOT = "DocuSignEnvelopeInformation";
+
+    /** The envelope elements holding the time of the event of the same name as the status. */
+    private static final String[] ENVELOPE_EVENTS = {"Created", "Sent", "Delivered", "Signed", "Completed", "Declined",
+        "Voided"};
+
+    private static final long MILLIS_PER_HOUR = 3600000L;
+
+    /** The factory of the stream readers. */
+    private final XMLInputFactory factory;
+
+    /**
+     * Instantiates a new connect notification parser.
+     */
+    public ConnectNotificationParser() {
+        factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+    }
+
+    /**
+     * Parses the notification.
+     *
+     * @param input the XML document, which is not closed
+     * @return the notification
+     * @throws XMLStreamException if the document is not a valid Connect notification
+     */
+    public ConnectNotification parse(final InputStream input) throws XMLStreamException {
+        final XMLStreamReader reader = factory.createXMLStreamReader(input);
+        try {
+            return parse(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private ConnectNotification parse(final XMLStreamReader reader) throws XMLStreamException {
+        reader.nextTag();
+        if (!ROOT.equals(reader.getLocalName())) {
+            throw new XMLStreamException("Not a DocuSign Connect notification: " + reader.getLocalName(),
+                reader.getLocation());
+        }
+        final Notification notification = new Notification();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+            case "EnvelopeStatus":
+                parseEnvelopeStatus(reader, notification);
+                break;
+            case "TimeZoneOffset":
+                notification.timeZoneOffset = text(reader);
+                break;
+            default:
+                skip(reader);
+            }
+        }
+        if (notification.envelope.getEnvelopeId() == null) {
+            throw new XMLStreamException("No EnvelopeID in the DocuSign Connect notification");
+        }
+        return notification.build();
+    }
+
+    private void parseEnvelopeStatus(final XMLStreamReader reader, final Notification notification)
+        throws XMLStreamException {
+        final EnvelopeInfo envelope = notification.envelope;
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            final String name = reader.getLocalName();
+            switch (name) {
+            case "RecipientStatuses":
+                parseRecipientStatuses(reader, notification);
+                break;
+            case "EnvelopeID":
+                envelope.setEnvelopeId(text(reader));
+                break;
+            case "Status":
+                notification.status = text(reader);
+                envelope.setStatus(status(notification.status));
+                break;
+            case "TimeGenerated":
+                notification.timeGenerated = text(reader);
+                break;
+            case "TimeZoneOffset":
+                notification.timeZoneOffset = text(reader);
+                break;
+            default:
+                if (isEnvelopeEvent(name)) {
+                    notification.envelopeEvents.put(name, text(reader));
+                } else {
+                    skip(reader);
+                }
+            }
+        }
+    }
+
+    private void parseRecipientStatuses(final XMLStreamReader reader, final Notification notification)
+        throws XMLStreamException {
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if ("RecipientStatus".equals(reader.getLocalName())) {
+                notification.recipients.add(parseRecipientStatus(reader, notification));
+            } else {
+                skip(reader);
+            }
+        }
+    }
+
+    private RecipientStatus parseRecipientStatus(final XMLStreamReader reader, final Notification notification)
+        throws XMLStreamException {
+        final RecipientStatus recipient = new RecipientStatus();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+            case "RecipientId":
+                recipient.setRecipientId(text(reader));
+                break;
+            case "Email":
+                recipient.setEmail(text(reader));
+                break;
+            case "UserName":
+                recipient.setName(text(reader));
+                break;
+            case "RoleName":
+                recipient.setRoleName(text(reader));
+                break;
+            case "RoutingOrder":
+                final String routingOrder = text(reader);
+                if (routingOrder != null) {
+                    try {
+                        recipient.setRoutingOrder(Integer.parseInt(routingOrder));
+                    } catch (final NumberFormatException nfe) {
+                        throw new XMLStreamException("Invalid RoutingOrder: " + routingOrder, reader.getLocation());
+                    }
+                }
+                break;
+            case "Status":
+                recipient.setStatus(status(text(reader)));
+                break;
+            case "DeclineReason":
+                recipient.setDeclinedReason(text(reader));
+                break;
+            case "Delivered":
+                notification.date(text(reader), recipient::setDeliveredDateTime);
+                break;
+            case "Signed":
+                notification.date(text(reader), recipient::setSignedDateTime);
+                break;
+            case "Declined":
+                notification.date(text(reader), recipient::setDeclinedDateTime);
+                break;
+            default:
+                skip(reader);
+            }
+        }
+        return recipient;
+    }
+
+    private static boolean isEnvelopeEvent(final String name) {
+        for (final String event : ENVELOPE_EVENTS) {
+            if (event.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Maps the Connect status, e.g. <code>Completed</code> or <code>AutoResponded</code>, onto the status of the REST
+     * API.
+     */
+    private static Status status(final String text) {
+        if (text != null) {
+            for (final Status status : Status.values()) {
+                if (status.name().equalsIgnoreCase(text)) {
+                    return status;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the text of the current element, positioning the reader on its end.
+     *
+     * @return the text, or null if the element is empty
+     */
+    private static String text(final XMLStreamReader reader) throws XMLStreamException {
+        final String text = reader.getElementText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    /**
+     * Skips the current element and its content, positioning the reader on its end.
+     */
+    private static void skip(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * The state of a notification being parsed. The dates are only converted once the time zone, which Connect may
+     * send after them, is known.
+     */
+    private static class Notification {
+
+        final EnvelopeInfo envelope = new EnvelopeInfo();
+
+        final List<RecipientStatus> recipients = new ArrayList<RecipientStatus>();
+
+        final Map<String, String> envelopeEvents = new HashMap<String, String>();
+
+        final List<String> dates = new ArrayList<String>();
+
+        final List<Consumer<Date>> dateSetters = new ArrayList<Consumer<Date>>();
+
+        String status;
+
+        String timeGenerated;
+
+        String timeZoneOffset;
+
+        Date timeGeneratedDate;
+
+        void date(final String text, final Consumer<Date> setter) {
+            if (text != null) {
+                dates.add(text);
+                dateSetters.add(setter);
+            }
+        }
+
+        ConnectNotification build() throws XMLStreamException {
+            date(timeGenerated, date -> timeGeneratedDate = date);
+            final String statusChanged = status != null ? envelopeEvents.get(status) : null;
+            date(statusChanged != null ? statusChanged : timeGenerated, envelope::setStatusChangedDateTime);
+
+            long offsetMillis = 0;
+            if (timeZoneOffset != null) {
+                try {
+                    offsetMillis = Math.round(Double.parseDouble(timeZoneOffset) * MILLIS_PER_HOUR);
+                } catch (final NumberFormatException nfe) {
+                    throw new XMLStreamException("Invalid TimeZoneOffset: " + timeZoneOffset);
+                }
+            }
+            for (int i = 0; i < dates.size(); i++) {
+                final String text = dates.get(i);
+                try {
+                    final long time = ISO8601DateCodec.parse(text);
+                    dateSetters.get(i).accept(new Date(hasZone(text) ? time : time - offsetMillis));
+                } catch (final ParseException pe) {
+                    throw new XMLStreamException("Invalid date in the DocuSign Connect notification: " + text, pe);
+                }
+            }
+            return new ConnectNotification(envelope, recipients, timeGeneratedDate);
+        }
+
+        /**
+         * Checks if the date carries its own zone, after the <code>yyyy-MM-ddTHH:mm</code> part.
+         */
+        private static boolean hasZone(final String text) {
+            for (int i = 16; i < text.length(); i++) {
+                final char c = text.charAt(i);
+                if (c == 'Z' || c == 'z' || c == '+' || c == '-') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
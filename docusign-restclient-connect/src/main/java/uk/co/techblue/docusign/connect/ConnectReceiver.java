@@ -0,0 +1,335 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.connect;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.stream.XMLStreamException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.BasicAuthenticator;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import uk.co.techblue.docusign.client.utils.DaemonThreadFactory;
+
+/**
+ * An embedded HTTP endpoint receiving the envelope status notifications of DocuSign Connect, as an alternative to
+ * polling the envelope and recipient status.
+ * <p>
+ * Each posted notification is parsed on the request thread and queued for the registered {@link ConnectListener}s.
+ * Notifications are spread over single-threaded lanes by envelope id, so the changes of one envelope are delivered in
+ * order while different envelopes are processed in parallel. The lanes have bounded queues: when the lane of a
+ * notification is full the request is answered with <code>503 Service Unavailable</code>, and Connect delivers it
+ * again later, instead of the receiver buffering an unbounded backlog. A notification is acknowledged with
+ * <code>200 OK</code> once queued; a listener failure is logged and does not cause a redelivery.
+ * <p>
+ * The receiver accepts notifications from anyone who can reach it, so it must not be exposed beyond a trusted network
+ * unless it authenticates them: with the HMAC signatures Connect computes from the key of the account, see
+ * {@link #setHmacSecret(String)}, with basic authentication, see {@link #setBasicAuthentication(String, String)}, or
+ * both. Requests failing either check are answered with <code>401 Unauthorized</code>.
+ */
+public class ConnectReceiver implements AutoCloseable {
+
+    /** The default path of the endpoint. */
+    public static final String DEFAULT_PATH = "/docusign/connect";
+
+    /** The default number of threads delivering notifications. */
+    public static final int DEFAULT_WORKERS = 4;
+
+    /** The default number of notifications queued across all workers. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    /** The prefix of the HMAC signature headers, numbered from 1 for each key of the Connect configuration. */
+    public static final String SIGNATURE_HEADER_PREFIX = "X-DocuSign-Signature-";
+
+    /** The realm of the basic authentication. */
+    private static final String REALM = "DocuSign Connect";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    /** The time in milliseconds the queued notifications are given to be delivered on close. */
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private final static Logger logger = LoggerFactory.getLogger(ConnectReceiver.class);
+
+    /** The HTTP server. */
+    private final HttpServer server;
+
+    /** The threads handling the HTTP requests. */
+    private final ExecutorService requestExecutor;
+
+    /** The context of the endpoint. */
+    private final HttpContext context;
+
+    /** The key of the HMAC signatures, null if the signatures are not checked. */
+    private volatile SecretKeySpec hmacKey;
+
+    /** The single-threaded lanes delivering the notifications. */
+    private final ThreadPoolExecutor[] lanes;
+
+    /** The notification parser. */
+    private final ConnectNotificationParser parser = new ConnectNotificationParser();
+
+    /** The listeners. */
+    private final List<ConnectListener> listeners = new CopyOnWriteArrayList<ConnectListener>();
+
+    /**
+     * Instantiates a new connect receiver on the default path, with the default number of workers and queue capacity.
+     *
+     * @param address the address to listen on
+     * @throws IOException if the address cannot be bound
+     */
+    public ConnectReceiver(final InetSocketAddress address) throws IOException {
+        this(address, DEFAULT_PATH, DEFAULT_WORKERS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Instantiates a new connect receiver. The receiver does not accept requests until it is started.
+     *
+     * @param address the address to listen on
+     * @param path the path of the endpoint
+     * @param workers the number of threads delivering notifications, which is also the number of threads handling
+     *            requests
+     * @param queueCapacity the number of notifications queued across all workers before requests are refused
+     * @throws IOException if the address cannot be bound
+     */
+    public ConnectReceiver(final InetSocketAddress address, final String path, final int workers,
+        final int queueCapacity) throws IOException {
+        if (workers < 1) {
+            throw new IllegalArgumentException("The number of workers must be positive: " + workers);
+        }
+        if (queueCapacity < workers) {
+            throw new IllegalArgumentException("The queue capacity must be at least the number of workers: "
+                + queueCapacity);
+        }
+        lanes = new ThreadPoolExecutor[workers];
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity / workers),
+                new DaemonThreadFactory("docusign-connect-dispatch-" + i));
+        }
+        requestExecutor = Executors.newFixedThreadPool(workers, new DaemonThreadFactory("docusign-connect-http"));
+        server = HttpServer.create(address, 0);
+        server.setExecutor(requestExecutor);
+        context = server.createContext(path, this::handle);
+    }
+
+    /**
+     * Requires every notification to carry an <code>X-DocuSign-Signature-</code><i>n</i> header matching the
+     * HMAC-SHA256 signature of its body, as sent by Connect when HMAC signatures are enabled for the account.
+     *
+     * @param secret the HMAC key of the Connect configuration, or null to accept unsigned notifications
+     */
+    public void setHmacSecret(final String secret) {
+        hmacKey = secret == null ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    /**
+     * Requires every request to carry the basic authentication credentials configured in Connect.
+     *
+     * @param username the user name, or null to accept requests without credentials
+     * @param password the password
+     */
+    public void setBasicAuthentication(final String username, final String password) {
+        if (username == null) {
+            context.setAuthenticator(null);
+            return;
+        }
+        final byte[] expectedUsername = username.getBytes(StandardCharsets.UTF_8);
+        final byte[] expectedPassword = password.getBytes(StandardCharsets.UTF_8);
+        context.setAuthenticator(new BasicAuthenticator(REALM) {
+            @Override
+            public boolean checkCredentials(final String user, final String pass) {
+                // both are compared so that the time taken does not tell which one is wrong
+                final boolean userMatches = MessageDigest.isEqual(expectedUsername,
+                    user.getBytes(StandardCharsets.UTF_8));
+                final boolean passwordMatches = MessageDigest.isEqual(expectedPassword,
+                    pass.getBytes(StandardCharsets.UTF_8));
+                return userMatches && passwordMatches;
+            }
+        });
+    }
+
+    /**
+     * Adds a listener.
+     *
+     * @param listener the listener
+     */
+    public void addListener(final ConnectListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(final ConnectListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts accepting notifications.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Gets the address the receiver listens on, with the actual port if it was bound to port 0.
+     *
+     * @return the address
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stops accepting notifications and waits a few seconds for the queued ones to be delivered.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        requestExecutor.shutdown();
+        for (final ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MILLIS);
+        try {
+            for (final ThreadPoolExecutor lane : lanes) {
+                if (!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    logger.warn("Dropping {} undelivered DocuSign Connect notifications", lane.shutdownNow().size());
+                }
+            }
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                respond(exchange, HttpURLConnection.HTTP_BAD_METHOD);
+                return;
+            }
+            final SecretKeySpec key = hmacKey;
+            final ConnectNotification notification;
+            try (InputStream body = exchange.getRequestBody()) {
+                if (key == null) {
+                    notification = parser.parse(body);
+                } else {
+                    final byte[] content = readFully(body);
+                    if (!isSigned(exchange, content, key)) {
+                        logger.warn("Refusing a DocuSign Connect notification without a valid HMAC signature from {}",
+                            exchange.getRemoteAddress());
+                        respond(exchange, HttpURLConnection.HTTP_UNAUTHORIZED);
+                        return;
+                    }
+                    notification = parser.parse(new ByteArrayInputStream(content));
+                }
+            } catch (final XMLStreamException xse) {
+                logger.warn("Invalid DocuSign Connect notification: {}", xse.getMessage());
+                respond(exchange, HttpURLConnection.HTTP_BAD_REQUEST);
+                return;
+            }
+            try {
+                lane(notification.getEnvelope().getEnvelopeId()).execute(() -> dispatch(notification));
+            } catch (final RejectedExecutionException ree) {
+                logger.debug("Refusing {}, the delivery queue is full", notification);
+                respond(exchange, HttpURLConnection.HTTP_UNAVAILABLE);
+                return;
+            }
+            respond(exchange, HttpURLConnection.HTTP_OK);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Checks whether one of the signature headers of the request is the signature of the body.
+     */
+    private static boolean isSigned(final HttpExchange exchange, final byte[] content, final SecretKeySpec key) {
+        final byte[] signature;
+        try {
+            final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            signature = Base64.getEncoder().encode(mac.doFinal(content));
+        } catch (final GeneralSecurityException gse) {
+            throw new IllegalStateException("Unable to compute the HMAC signature", gse);
+        }
+        for (int i = 1;; i++) {
+            final String header = exchange.getRequestHeaders().getFirst(SIGNATURE_HEADER_PREFIX + i);
+            if (header == null) {
+                return false;
+            }
+            if (MessageDigest.isEqual(signature, header.trim().getBytes(StandardCharsets.US_ASCII))) {
+                return true;
+            }
+        }
+    }
+
+    private static byte[] readFully(final InputStream input) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    private ThreadPoolExecutor lane(final String envelopeId) {
+        return lanes[Math.floorMod(envelopeId.hashCode(), lanes.length)];
+    }
+
+    private void dispatch(final ConnectNotification notification) {
+        for (final ConnectListener listener : listeners) {
+            try {
+                listener.onNotification(notification);
+            } catch (final RuntimeException re) {
+                logger.error("Listener " + listener + " failed to process " + notification, re);
+            }
+        }
+    }
+
+    private static void respond(final HttpExchange exchange, final int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+}
@@ -0,0 +1,70 @@
+package uk.co.techblue.docusign.connect;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.dto.recipients.RecipientStatus;
+import uk.co.techblue.docusign.client.dto.utils.ISO8601DateCodec;
+import uk.co.techblue.docusign.client.envelope.attributes.Status;
+
+public class ConnectNotificationParserTest {
+
+    private final ConnectNotificationParser parser = new ConnectNotificationParser();
+
+    @Test
+    public void testParseCompletedEnvelope() throws Exception {
+        final ConnectNotification notification;
+        try (InputStream input = getClass().getResourceAsStream("/connect-completed.xml")) {
+            notification = parser.parse(input);
+        }
+        Assert.assertEquals("f3b4c5d6-e7f8-4a9b-8c0d-1e2f3a4b5c6d", notification.getEnvelope().getEnvelopeId());
+        Assert.assertEquals(Status.completed, notification.getEnvelope().getStatus());
+        Assert.assertEquals("the completion time, converted from the account time zone",
+            ISO8601DateCodec.parse("2015-10-19T08:10:01.7Z"), notification.getEnvelope().getStatusChangedDateTime().getTime());
+        Assert.assertEquals(ISO8601DateCodec.parse("2015-10-19T08:10:05.5Z"), notification.getTimeGenerated().getTime());
+
+        Assert.assertEquals(2, notification.getRecipients().size());
+        final RecipientStatus signer = notification.getRecipients().get(0);
+        Assert.assertEquals("6f1e2c1a-0a5b-4d8e-9c3f-1b2a3c4d5e6f", signer.getRecipientId());
+        Assert.assertEquals("jane.doe@example.com", signer.getEmail());
+        Assert.assertEquals("Jane Doe", signer.getName());
+        Assert.assertEquals(1, signer.getRoutingOrder());
+        Assert.assertEquals(Status.completed, signer.getStatus());
+        Assert.assertNull(signer.getDeclinedReason());
+        Assert.assertEquals(ISO8601DateCodec.parse("2015-10-19T08:05:00.45Z"), signer.getDeliveredDateTime().getTime());
+        Assert.assertEquals(ISO8601DateCodec.parse("2015-10-19T08:10:00Z"), signer.getSignedDateTime().getTime());
+        Assert.assertEquals(2, notification.getRecipients().get(1).getRoutingOrder());
+    }
+
+    @Test
+    public void testDatesWithZoneAreNotShifted() throws Exception {
+        final String xml = "<DocuSignEnvelopeInformation xmlns=\"http://www.docusign.net/API/3.0\"><EnvelopeStatus>"
+            + "<EnvelopeID>env-1</EnvelopeID><Status>Sent</Status><Sent>2015-10-19T01:00:00Z</Sent>"
+            + "</EnvelopeStatus><TimeZoneOffset>-7</TimeZoneOffset></DocuSignEnvelopeInformation>";
+        final ConnectNotification notification =
+            parser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(Status.sent, notification.getEnvelope().getStatus());
+        Assert.assertEquals(ISO8601DateCodec.parse("2015-10-19T01:00:00Z"),
+            notification.getEnvelope().getStatusChangedDateTime().getTime());
+        Assert.assertTrue(notification.getRecipients().isEmpty());
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testRejectsOtherDocuments() throws Exception {
+        parser.parse(new ByteArrayInputStream("<Envelope><EnvelopeID>env-1</EnvelopeID></Envelope>".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testRejectsDocumentType() throws Exception {
+        final String xml = "<!DOCTYPE DocuSignEnvelopeInformation [<!ENTITY id SYSTEM \"file:///etc/hostname\">]>"
+            + "<DocuSignEnvelopeInformation><EnvelopeStatus><EnvelopeID>&id;</EnvelopeID></EnvelopeStatus>"
+            + "</DocuSignEnvelopeInformation>";
+        parser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,155 @@
+package uk.co.techblue.docusign.connect;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.envelope.attributes.Status;
+
+public class ConnectReceiverTest {
+
+    private ConnectReceiver receiver;
+
+    private byte[] payload;
+
+    @Before
+    public void setUp() throws Exception {
+        receiver = new ConnectReceiver(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+            ConnectReceiver.DEFAULT_PATH, 1, 1);
+        receiver.start();
+        try (InputStream input = getClass().getResourceAsStream("/connect-completed.xml")) {
+            payload = new byte[input.available()];
+            Assert.assertEquals(payload.length, input.read(payload));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        receiver.close();
+    }
+
+    @Test
+    public void testNotificationIsDelivered() throws Exception {
+        final BlockingQueue<ConnectNotification> received = new LinkedBlockingQueue<ConnectNotification>();
+        receiver.addListener(received::add);
+        Assert.assertEquals(HttpURLConnection.HTTP_OK, post(payload));
+        final ConnectNotification notification = received.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(notification);
+        Assert.assertEquals("f3b4c5d6-e7f8-4a9b-8c0d-1e2f3a4b5c6d", notification.getEnvelope().getEnvelopeId());
+        Assert.assertEquals(Status.completed, notification.getEnvelope().getStatus());
+    }
+
+    @Test
+    public void testInvalidRequestsAreRefused() throws Exception {
+        Assert.assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, post("<html/>".getBytes(StandardCharsets.UTF_8)));
+        final HttpURLConnection connection = (HttpURLConnection) endpoint().openConnection();
+        Assert.assertEquals(HttpURLConnection.HTTP_BAD_METHOD, connection.getResponseCode());
+        connection.disconnect();
+    }
+
+    @Test
+    public void testFullQueueAppliesBackpressure() throws Exception {
+        final CountDownLatch delivering = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        receiver.addListener(notification -> {
+            delivering.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            Assert.assertEquals(HttpURLConnection.HTTP_OK, post(payload));
+            Assert.assertTrue(delivering.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals("queued behind the blocked listener", HttpURLConnection.HTTP_OK, post(payload));
+            Assert.assertEquals(HttpURLConnection.HTTP_UNAVAILABLE, post(payload));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testHmacSignatureIsVerified() throws Exception {
+        final BlockingQueue<ConnectNotification> received = new LinkedBlockingQueue<ConnectNotification>();
+        receiver.addListener(received::add);
+        receiver.setHmacSecret("connect-key");
+        final Map<String, String> headers = new HashMap<String, String>();
+        Assert.assertEquals(HttpURLConnection.HTTP_UNAUTHORIZED, post(payload, headers));
+        headers.put(ConnectReceiver.SIGNATURE_HEADER_PREFIX + 1, sign("other-key", payload));
+        Assert.assertEquals(HttpURLConnection.HTTP_UNAUTHORIZED, post(payload, headers));
+        headers.put(ConnectReceiver.SIGNATURE_HEADER_PREFIX + 2, sign("connect-key", payload));
+        Assert.assertEquals("any of the signatures may match", HttpURLConnection.HTTP_OK, post(payload, headers));
+        Assert.assertNotNull(received.poll(5, TimeUnit.SECONDS));
+        Assert.assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testBasicAuthenticationIsVerified() throws Exception {
+        receiver.setBasicAuthentication("connect", "secret");
+        final Map<String, String> headers = new HashMap<String, String>();
+        Assert.assertEquals(HttpURLConnection.HTTP_UNAUTHORIZED, post(payload, headers));
+        headers.put("Authorization", basic("connect:wrong"));
+        Assert.assertEquals(HttpURLConnection.HTTP_UNAUTHORIZED, post(payload, headers));
+        headers.put("Authorization", basic("connect:secret"));
+        Assert.assertEquals(HttpURLConnection.HTTP_OK, post(payload, headers));
+    }
+
+    private static String basic(final String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sign(final String secret, final byte[] body) throws Exception {
+        final Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getEncoder().encodeToString(mac.doFinal(body));
+    }
+
+    private URL endpoint() throws IOException {
+        return new URL("http", receiver.getAddress().getHostString(), receiver.getAddress().getPort(),
+            ConnectReceiver.DEFAULT_PATH);
+    }
+
+    private int post(final byte[] body) throws IOException {
+        return post(body, Collections.<String, String> emptyMap());
+    }
+
+    private int post(final byte[] body, final Map<String, String> headers) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) endpoint().openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "text/xml; charset=utf-8");
+            for (final Map.Entry<String, String> header : headers.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body);
+            }
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
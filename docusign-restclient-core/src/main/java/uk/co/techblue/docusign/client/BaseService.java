@@ -15,10 +15,9 @@
  ******************************************************************************/
 package uk.co.techblue.docusign.client;
 
-import java.util.HashMap;
-
 import org.apache.commons.lang3.StringUtils;
 
+import uk.co.techblue.docusign.client.cache.ExpiringCache;
 import uk.co.techblue.docusign.client.credential.DocuSignCredentials;
 import uk.co.techblue.docusign.client.dto.user.ClientInfo;
 import uk.co.techblue.docusign.client.dto.user.LoginAccount;
@@ -36,10 +35,29 @@ import uk.co.techblue.docusign.client.services.LoginService;
  */
 public abstract class BaseService<RT extends Resource> extends Service<RT> {
 
+    private static final String BASE_URI_CACHE_TTL = "docusign.baseuri.cache.ttl";
+    private static final String BASE_URI_CACHE_SIZE = "docusign.baseuri.cache.size";
+
     /** The credentials. */
     protected final DocuSignCredentials credentials;
-    private static  HashMap<BaseService.CredentialsCacheKey, String> restBaseUriCache = 
-    		new HashMap<BaseService.CredentialsCacheKey, String>();
+
+    /**
+     * The rest base uri of the default account, cached against server uri and credentials. Concurrent lookups for the
+     * same credentials share a single login call.
+     */
+    private static final ExpiringCache<BaseService.CredentialsCacheKey, String> restBaseUriCache =
+        new ExpiringCache<BaseService.CredentialsCacheKey, String>(
+            DocuSignClient.getIntegerProperty(BASE_URI_CACHE_TTL, 24 * 60 * 60 * 1000),
+            DocuSignClient.getIntegerProperty(BASE_URI_CACHE_SIZE, 1000));
+
+    /** Looks up the rest base uri of the default account on a cache miss. */
+    private static final ExpiringCache.Loader<BaseService.CredentialsCacheKey, String, ServiceInitException> restBaseUriLoader =
+        new ExpiringCache.Loader<BaseService.CredentialsCacheKey, String, ServiceInitException>() {
+            @Override
+            public String load(final CredentialsCacheKey key) throws ServiceInitException {
+                return loadRestBaseUri(key.serverUri, key.credentials);
+            }
+        };
 
     /**
      * Instantiates a new base service. Uses the default login account to
@@ -87,13 +105,36 @@ public abstract class BaseService<RT extends Resource> extends Service<RT> {
      */
     private static String getRestBaseUri(String serverUri, DocuSignCredentials credentials)
             throws ServiceInitException {
-    	String baseUrl;
-    	BaseService.CredentialsCacheKey cacheKey = new BaseService.CredentialsCacheKey(serverUri, credentials);
-    	baseUrl = restBaseUriCache.get(cacheKey);
-    	if (baseUrl != null) {
-    		return baseUrl;
-    	}
-    	
+        return restBaseUriCache.get(new BaseService.CredentialsCacheKey(serverUri, credentials), restBaseUriLoader);
+    }
+
+    /**
+     * Removes the cached rest base uri, so that the next service instantiated with the same server uri and credentials
+     * looks up the default account again.
+     * 
+     * @param serverUri
+     *            the server uri
+     * @param credentials
+     *            the credentials
+     */
+    public static void invalidateRestBaseUri(String serverUri, DocuSignCredentials credentials) {
+        restBaseUriCache.invalidate(new BaseService.CredentialsCacheKey(serverUri, credentials));
+    }
+
+    /**
+     * Loads the rest base uri of the default account.
+     * 
+     * @param serverUri
+     *            the server uri
+     * @param credentials
+     *            the credentials
+     * @return the rest base uri
+     * @throws ServiceInitException
+     *             the service init exception
+     */
+    private static String loadRestBaseUri(String serverUri, DocuSignCredentials credentials)
+            throws ServiceInitException {
+        String baseUrl;
         LoginAccount defaultAccount = getDefaultAccount(serverUri, credentials);
         if (defaultAccount == null) {
             throw new ServiceInitException("Default account not found for docusign user");
@@ -103,9 +144,6 @@ public abstract class BaseService<RT extends Resource> extends Service<RT> {
             throw new ServiceInitException("Base REST URL not found for the default account: \n"
                     + defaultAccount + "'");
         }
-        
-        restBaseUriCache.put(cacheKey, baseUrl);
-        
         return baseUrl;
     }
 
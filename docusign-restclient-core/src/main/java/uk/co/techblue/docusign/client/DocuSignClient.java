@@ -18,6 +18,13 @@ package uk.co.techblue.docusign.client;
 import java.io.IOException;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.ext.Provider;
 
@@ -27,7 +34,6 @@ import org.apache.http.HttpHost;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.jboss.resteasy.client.jaxrs.ResteasyClient;
 import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
@@ -38,16 +44,82 @@ import org.jboss.resteasy.spi.ResteasyProviderFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import uk.co.techblue.docusign.client.cache.ConditionalGetInvocationHandler;
+import uk.co.techblue.docusign.client.cache.LruCache;
+import uk.co.techblue.docusign.client.cache.ResponseCache;
+import uk.co.techblue.docusign.client.credential.CredentialBindingInvocationHandler;
+import uk.co.techblue.docusign.client.credential.CredentialsContext;
 import uk.co.techblue.docusign.client.credential.DocuSignCredentials;
+import uk.co.techblue.docusign.client.multipart.StreamingMultipart;
+import uk.co.techblue.docusign.client.ratelimit.RateLimitMode;
+import uk.co.techblue.docusign.client.ratelimit.RateLimiter;
+import uk.co.techblue.docusign.client.ratelimit.RateLimitingInvocationHandler;
+import uk.co.techblue.docusign.client.retry.RetryMetrics;
+import uk.co.techblue.docusign.client.retry.RetryPolicy;
+import uk.co.techblue.docusign.client.retry.RetryingInvocationHandler;
+import uk.co.techblue.docusign.client.utils.DaemonThreadFactory;
 import uk.co.techblue.docusign.client.utils.DocuSignUtils;
+import uk.co.techblue.docusign.resteasy.filters.ConditionalRequestFilter;
+import uk.co.techblue.docusign.resteasy.filters.CredentialsRequestFilter;
+import uk.co.techblue.docusign.resteasy.engines.StreamingApacheHttpClient4Engine;
 import uk.co.techblue.docusign.resteasy.providers.DocumentFileProvider;
+import uk.co.techblue.docusign.resteasy.providers.ObjectMapperContextResolver;
+import uk.co.techblue.docusign.resteasy.providers.StreamingMultipartProvider;
 import uk.co.techblue.docusign.route.DynamicProxyRoutePlanner;
 
 /**
  * The HTTP client can be configured adding in the classpath the following properties file:
- * uk.co.techblue.docusign.client.DocuSignClient.properties The configuration allows to set the timeout and the maximum number
- * of connections per route: docusign.connection.timeout=20000 docusign.max.per.route=50 It can also configure a proxy:
- * docusign.https.proxyHost=<IP address or hostname of the proxy> docusign.https.proxyPort=listening port of the proxy
+ * uk.co.techblue.docusign.client.DocuSignClient.properties. A single pooled HTTP client is shared by all the service
+ * instances; call {@link #shutdown()} to release it.
+ * <p>
+ * Connections:
+ * <ul>
+ * <li>docusign.connection.timeout=20000: the connection timeout in milliseconds</li>
+ * <li>docusign.max.per.route=50: the maximum number of connections per route</li>
+ * <li>docusign.max.total: the maximum number of connections, defaulting to docusign.max.per.route</li>
+ * <li>docusign.https.proxyHost, docusign.https.proxyPort: the host name and port of the proxy, if any</li>
+ * </ul>
+ * Resource proxies, shared by all the credentials of a server uri and written on each request from the
+ * {@link CredentialsContext}, and the rest base uri discovered through the login call:
+ * <ul>
+ * <li>docusign.proxy.cache.size=256: the number of cached resource proxies</li>
+ * <li>docusign.baseuri.cache.ttl=86400000: the time in milliseconds a rest base uri is cached</li>
+ * <li>docusign.baseuri.cache.size=1000: the number of cached rest base uris</li>
+ * </ul>
+ * Asynchronous service calls:
+ * <ul>
+ * <li>docusign.async.pool.size: the number of threads, defaulting to docusign.max.per.route</li>
+ * <li>docusign.async.queue.size=1000: the number of queued calls, beyond which calls fail with a
+ * RejectedExecutionException</li>
+ * </ul>
+ * Retries of idempotent calls answered with 429 or a transient 5xx, backing off with full jitter or as told by
+ * Retry-After:
+ * <ul>
+ * <li>docusign.retry.max.attempts=3: the maximum number of retries</li>
+ * <li>docusign.retry.initial.backoff=200: the first backoff in milliseconds</li>
+ * <li>docusign.retry.max.backoff=10000: the longest backoff in milliseconds</li>
+ * <li>docusign.retry.deadline=30000: the time in milliseconds after which a call is no longer retried</li>
+ * </ul>
+ * Rate limiting, spreading the calls over the window of each account reported by the X-RateLimit-Remaining and
+ * X-RateLimit-Reset headers:
+ * <ul>
+ * <li>docusign.ratelimit.mode=BLOCK: BLOCK makes calls wait for the budget, FAIL_FAST refuses them and DISABLED turns
+ * the limiter off</li>
+ * <li>docusign.ratelimit.burst=10: the number of calls sent in one burst</li>
+ * <li>docusign.ratelimit.max.wait=60000: the time in milliseconds a call waits for the budget</li>
+ * </ul>
+ * Responses of the envelope reads annotated with ConditionalGet, revalidated with If-None-Match or If-Modified-Since:
+ * <ul>
+ * <li>docusign.response.cache.size=1000: the number of cached responses, zero to disable the cache</li>
+ * <li>docusign.response.cache.bytes=16777216: the size of the cached response bodies, zero to disable the cache</li>
+ * </ul>
+ * Others:
+ * <ul>
+ * <li>docusign.download.directory: the directory documents read as DocumentFile are spooled to, defaulting to the
+ * system temporary directory</li>
+ * <li>docusign.jackson.prewarm=false: true builds the serializers and deserializers of the DTOs on a background thread
+ * when the client is loaded, instead of on their first use</li>
+ * </ul>
  */
 public class DocuSignClient {
 
@@ -55,27 +127,75 @@ public class DocuSignClient {
     private final static String PROXY_PORT_PROPERTY = "docusign.https.proxyPort";
     private final static String CONNECTION_TIMEOUT = "docusign.connection.timeout";
     private static final String CONNECTION_DEFAULT_MAX_PER_ROUTE = "docusign.max.per.route";
+    private static final String CONNECTION_MAX_TOTAL = "docusign.max.total";
+    private static final String PROXY_CACHE_SIZE = "docusign.proxy.cache.size";
+    private static final String ASYNC_POOL_SIZE = "docusign.async.pool.size";
+    private static final String ASYNC_QUEUE_SIZE = "docusign.async.queue.size";
+    private static final String RETRY_MAX_ATTEMPTS = "docusign.retry.max.attempts";
+    private static final String RETRY_INITIAL_BACKOFF = "docusign.retry.initial.backoff";
+    private static final String RETRY_MAX_BACKOFF = "docusign.retry.max.backoff";
+    private static final String RETRY_DEADLINE = "docusign.retry.deadline";
+    private static final String DOWNLOAD_DIRECTORY = "docusign.download.directory";
+    private static final String RATE_LIMIT_MODE = "docusign.ratelimit.mode";
+    private static final String RATE_LIMIT_BURST = "docusign.ratelimit.burst";
+    private static final String RATE_LIMIT_MAX_WAIT = "docusign.ratelimit.max.wait";
+    private static final String RESPONSE_CACHE_SIZE = "docusign.response.cache.size";
+    private static final String RESPONSE_CACHE_BYTES = "docusign.response.cache.bytes";
+    private static final String JACKSON_PREWARM = "docusign.jackson.prewarm";
     private final static String CONNECTION_URL = "docusign.connection.port.redirect";
     private static HttpClientConfiguration httpClientConfiguration;
     private final static Logger logger = LoggerFactory.getLogger(DocuSignClient.class);
 
-    private static HttpClient client = null;
+    private static volatile HttpClient client = null;
+    private static volatile PoolingHttpClientConnectionManager connectionManager = null;
+    private static volatile ResteasyClient resteasyClient = null;
+    private static final LruCache<ResourceProxyKey, Object> resourceProxyCache;
+    private static volatile Executor asyncExecutor = null;
+    private static boolean asyncExecutorOwned = false;
+    private static volatile RetryPolicy retryPolicy;
+    private static final RetryMetrics retryMetrics = new RetryMetrics();
+    private static volatile RateLimitMode rateLimitMode;
+    private static final ConcurrentMap<String, RateLimiter> rateLimiters = new ConcurrentHashMap<String, RateLimiter>();
+    private static volatile ResponseCache responseCache;
 
     static {
         initializeProviderFactory();
         httpClientConfiguration = new HttpClientConfiguration();
+        resourceProxyCache = new LruCache<ResourceProxyKey, Object>(httpClientConfiguration.getProxyCacheSize());
+        retryPolicy = httpClientConfiguration.getRetryPolicy();
+        rateLimitMode = httpClientConfiguration.getRateLimitMode();
+        responseCache = httpClientConfiguration.getResponseCache();
+        prewarmObjectMapper();
     }
 
     private static void initializeProviderFactory() {
         try {
             final ResteasyProviderFactory providerFactory = ResteasyProviderFactory.getInstance();
             registerResteasyProvider(providerFactory, DocumentFileProvider.class);
+            registerResteasyProvider(providerFactory, StreamingMultipartProvider.class);
+            registerResteasyProvider(providerFactory, ObjectMapperContextResolver.class);
             RegisterBuiltin.register(providerFactory);
         } catch (final Exception e) {
             logger.error("Error occurred while registering custom resteasy providers", e);
         }
     }
 
+    /**
+     * Builds the serializers and deserializers of the DTOs in the background when
+     * {@value #JACKSON_PREWARM} is enabled, so that the first requests do not pay for it.
+     */
+    private static void prewarmObjectMapper() {
+        if (!httpClientConfiguration.isJacksonPrewarm()) {
+            return;
+        }
+        new DaemonThreadFactory("docusign-jackson-prewarm").newThread(new Runnable() {
+            @Override
+            public void run() {
+                ObjectMapperContextResolver.prewarm();
+            }
+        }).start();
+    }
+
     private static void registerResteasyProvider(final ResteasyProviderFactory providerFactory, final Class<?> providerClass) {
         final boolean registered = false; // EXARI: providerFactory.getClasses().getInstance(providerClass) != null;
         if (!registered) {
@@ -156,6 +276,65 @@ public class DocuSignClient {
             return getInteger(CONNECTION_DEFAULT_MAX_PER_ROUTE, 50);
         }
 
+        private int getMaxTotal(final int defaultValue) {
+            return getInteger(CONNECTION_MAX_TOTAL, defaultValue);
+        }
+
+        private int getProxyCacheSize() {
+            return getInteger(PROXY_CACHE_SIZE, 256);
+        }
+
+        private int getAsyncPoolSize() {
+            return getInteger(ASYNC_POOL_SIZE, getDefaultMaxPerRoute());
+        }
+
+        private boolean isJacksonPrewarm() {
+            return Boolean.parseBoolean(getString(JACKSON_PREWARM, "false"));
+        }
+
+        private int getAsyncQueueSize() {
+            return getInteger(ASYNC_QUEUE_SIZE, 1000);
+        }
+
+        private RetryPolicy getRetryPolicy() {
+            return new RetryPolicy(getInteger(RETRY_MAX_ATTEMPTS, 3), getInteger(RETRY_INITIAL_BACKOFF, 200),
+                getInteger(RETRY_MAX_BACKOFF, 10000), getInteger(RETRY_DEADLINE, 30000));
+        }
+
+        private RateLimitMode getRateLimitMode() {
+            final String mode = getString(RATE_LIMIT_MODE, null);
+            if (StringUtils.isBlank(mode)) {
+                return RateLimitMode.BLOCK;
+            }
+            try {
+                return RateLimitMode.valueOf(mode.trim().toUpperCase());
+            } catch (final IllegalArgumentException iae) {
+                logger.warn("Ignoring invalid " + RATE_LIMIT_MODE + ": " + mode);
+                return RateLimitMode.BLOCK;
+            }
+        }
+
+        private int getRateLimitBurst() {
+            return getInteger(RATE_LIMIT_BURST, 10);
+        }
+
+        private int getRateLimitMaxWait() {
+            return getInteger(RATE_LIMIT_MAX_WAIT, 60000);
+        }
+
+        private ResponseCache getResponseCache() {
+            final int size = getInteger(RESPONSE_CACHE_SIZE, 1000);
+            final int bytes = getInteger(RESPONSE_CACHE_BYTES, 16 * 1024 * 1024);
+            if (size <= 0 || bytes <= 0) {
+                return null;
+            }
+            return new ResponseCache(size, bytes);
+        }
+
+        private String getDownloadDirectory() {
+            return getString(DOWNLOAD_DIRECTORY, null);
+        }
+
         private int getTimeout() {
             return getInteger(CONNECTION_TIMEOUT, 20000);
         }
@@ -173,6 +352,24 @@ public class DocuSignClient {
         }
     }
 
+    /**
+     * Gets an integer property from the client configuration file.
+     * 
+     * @param key the property key
+     * @param defaultValue the value returned if the property is not defined
+     * @return the property value
+     */
+    static int getIntegerProperty(final String key, final int defaultValue) {
+        return httpClientConfiguration.getInteger(key, defaultValue);
+    }
+
+    /**
+     * Gets the process-wide HTTP client backed by a pooled connection manager. The pool is sized from
+     * {@value #CONNECTION_DEFAULT_MAX_PER_ROUTE} and {@value #CONNECTION_MAX_TOTAL}; the proxy can be configured through
+     * the properties file or the <code>proxy.host</code>/<code>proxy.port</code> system properties.
+     * 
+     * @return the shared HTTP client
+     */
     private static HttpClient getHttpClient() {
         if (client == null) {
             synchronized (DocuSignClient.class) {
@@ -181,7 +378,7 @@ public class DocuSignClient {
 
                     final int maxPerRoute = httpClientConfiguration.getDefaultMaxPerRoute();
                     cm.setDefaultMaxPerRoute(maxPerRoute);
-                    cm.setMaxTotal(maxPerRoute);
+                    cm.setMaxTotal(httpClientConfiguration.getMaxTotal(maxPerRoute));
 
                     final int timeout = httpClientConfiguration.getTimeout();
                     final String proxyHost = httpClientConfiguration.getProxyHost();
@@ -195,7 +392,14 @@ public class DocuSignClient {
                         configBuilder.setProxy(proxy);
                     }
                     final RequestConfig config = configBuilder.build();
-                    client = HttpClientBuilder.create().setConnectionManager(cm).setDefaultRequestConfig(config).build();
+                    final HttpClientBuilder httpClientBuilder =
+                        HttpClientBuilder.create().setConnectionManager(cm).setDefaultRequestConfig(config);
+                    final DynamicProxyRoutePlanner routePlanner = getSystemProxyRoutePlanner();
+                    if (routePlanner != null) {
+                        httpClientBuilder.setRoutePlanner(routePlanner);
+                    }
+                    connectionManager = cm;
+                    client = httpClientBuilder.build();
                 }
             }
         }
@@ -204,33 +408,325 @@ public class DocuSignClient {
     }
 
     /**
-     * Gets the client service.
+     * Gets the route planner for the proxy defined by the <code>proxy.host</code> and <code>proxy.port</code> system
+     * properties.
+     * 
+     * @return the route planner, or null if no proxy is defined
+     */
+    private static DynamicProxyRoutePlanner getSystemProxyRoutePlanner() {
+        final String proxyHost = System.getProperty("proxy.host");
+        if (StringUtils.isBlank(proxyHost)) {
+            return null;
+        }
+        final int proxyPort = NumberUtils.toInt(System.getProperty("proxy.port"));
+        return new DynamicProxyRoutePlanner(new HttpHost(proxyHost, proxyPort));
+    }
+
+    /**
+     * Gets the process-wide RESTEasy client. All resource proxies are created from this client so that they share the
+     * same HTTP engine and connection pool. The engine streams {@link StreamingMultipart} request bodies instead of
+     * buffering them.
+     * 
+     * @return the shared RESTEasy client
+     */
+    public static ResteasyClient getResteasyClient() {
+        if (resteasyClient == null) {
+            synchronized (DocuSignClient.class) {
+                if (resteasyClient == null) {
+                    final ApacheHttpClient4Engine engine = new StreamingApacheHttpClient4Engine(getHttpClient(), true);
+                    resteasyClient = new ResteasyClientBuilder().httpEngine(engine).build();
+                }
+            }
+        }
+        return resteasyClient;
+    }
+
+    /**
+     * Gets the executor running the asynchronous service calls. Unless an executor has been set through
+     * {@link #setAsyncExecutor(Executor)}, a pool of {@value #ASYNC_POOL_SIZE} daemon threads is created on first use.
+     * The pool defaults to the maximum number of connections per route, as each call holds a pooled connection. Calls
+     * waiting for a thread are queued up to {@value #ASYNC_QUEUE_SIZE}; once the queue is full the executor rejects
+     * further calls, which makes the returned futures fail rather than letting the backlog grow without bound.
+     * 
+     * @return the asynchronous executor
+     */
+    public static Executor getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            synchronized (DocuSignClient.class) {
+                if (asyncExecutor == null) {
+                    final int poolSize = httpClientConfiguration.getAsyncPoolSize();
+                    final ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<Runnable>(httpClientConfiguration.getAsyncQueueSize()),
+                        new DaemonThreadFactory("docusign-async"), new ThreadPoolExecutor.AbortPolicy());
+                    executor.allowCoreThreadTimeOut(true);
+                    asyncExecutorOwned = true;
+                    asyncExecutor = executor;
+                }
+            }
+        }
+        return asyncExecutor;
+    }
+
+    /**
+     * Sets the executor running the asynchronous service calls. An executor set by the caller is not shut down by
+     * {@link #shutdown()}.
+     * 
+     * @param executor the executor
+     */
+    public static void setAsyncExecutor(final Executor executor) {
+        synchronized (DocuSignClient.class) {
+            shutdownAsyncExecutor();
+            asyncExecutor = executor;
+        }
+    }
+
+    private static void shutdownAsyncExecutor() {
+        if (asyncExecutorOwned && asyncExecutor instanceof ExecutorService) {
+            ((ExecutorService) asyncExecutor).shutdown();
+        }
+        asyncExecutorOwned = false;
+        asyncExecutor = null;
+    }
+
+    /**
+     * Gets the policy applied to idempotent calls answered with a throttling or transient server error. It is configured
+     * through {@value #RETRY_MAX_ATTEMPTS}, {@value #RETRY_INITIAL_BACKOFF}, {@value #RETRY_MAX_BACKOFF} and
+     * {@value #RETRY_DEADLINE}.
+     * 
+     * @return the retry policy
+     */
+    public static RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the retry policy. The cached resource proxies are discarded so that new proxies pick up the policy.
+     * 
+     * @param policy the retry policy, {@link RetryPolicy#NO_RETRY} to disable retries
+     */
+    public static void setRetryPolicy(final RetryPolicy policy) {
+        synchronized (DocuSignClient.class) {
+            retryPolicy = policy == null ? RetryPolicy.NO_RETRY : policy;
+            resourceProxyCache.clear();
+        }
+    }
+
+    /**
+     * Gets the metrics of the retried calls.
+     * 
+     * @return the retry metrics
+     */
+    public static RetryMetrics getRetryMetrics() {
+        return retryMetrics;
+    }
+
+    /**
+     * Gets the directory the documents read as {@link uk.co.techblue.docusign.client.dto.DocumentFile} are spooled to,
+     * configured through {@value #DOWNLOAD_DIRECTORY}.
+     * 
+     * @return the download directory, or null to use the system temporary directory
+     */
+    public static String getDownloadDirectory() {
+        return StringUtils.trimToNull(httpClientConfiguration.getDownloadDirectory());
+    }
+
+    /**
+     * Gets what a call does when the rate limit budget of its account is exhausted, configured through
+     * {@value #RATE_LIMIT_MODE}.
+     * 
+     * @return the rate limit mode
+     */
+    public static RateLimitMode getRateLimitMode() {
+        return rateLimitMode;
+    }
+
+    /**
+     * Sets the rate limit mode. The cached resource proxies are discarded so that new proxies pick up the mode.
+     * 
+     * @param mode the rate limit mode
+     */
+    public static void setRateLimitMode(final RateLimitMode mode) {
+        synchronized (DocuSignClient.class) {
+            rateLimitMode = mode == null ? RateLimitMode.DISABLED : mode;
+            resourceProxyCache.clear();
+        }
+    }
+
+    /**
+     * Gets the maximum time in milliseconds a call waits for the rate limit budget: {@value #RATE_LIMIT_MAX_WAIT} when
+     * blocking, zero when failing fast.
+     * 
+     * @return the maximum wait
+     */
+    public static long getRateLimitMaxWaitMillis() {
+        return rateLimitMode == RateLimitMode.BLOCK ? httpClientConfiguration.getRateLimitMaxWait() : 0;
+    }
+
+    /**
+     * Gets the rate limiter shared by all the calls made to the server uri, which identifies the account.
+     * 
+     * @param serverUri the server uri
+     * @return the rate limiter, or null if rate limiting is disabled
+     */
+    public static RateLimiter getRateLimiter(final String serverUri) {
+        if (rateLimitMode == RateLimitMode.DISABLED || serverUri == null) {
+            return null;
+        }
+        RateLimiter rateLimiter = rateLimiters.get(serverUri);
+        if (rateLimiter == null) {
+            rateLimiter = new RateLimiter(httpClientConfiguration.getRateLimitBurst());
+            final RateLimiter existing = rateLimiters.putIfAbsent(serverUri, rateLimiter);
+            if (existing != null) {
+                rateLimiter = existing;
+            }
+        }
+        return rateLimiter;
+    }
+
+    /**
+     * Gets the cache of the responses of the resource methods annotated with
+     * {@link uk.co.techblue.docusign.client.cache.ConditionalGet}, configured through {@value #RESPONSE_CACHE_SIZE} and
+     * {@value #RESPONSE_CACHE_BYTES}.
+     * 
+     * @return the response cache, or null if responses are not cached
+     */
+    public static ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Sets the response cache. The cached resource proxies are discarded so that new proxies pick up the cache.
+     * 
+     * @param cache the response cache, null to stop caching responses
+     */
+    public static void setResponseCache(final ResponseCache cache) {
+        synchronized (DocuSignClient.class) {
+            responseCache = cache;
+            resourceProxyCache.clear();
+        }
+    }
+
+    /**
+     * Closes the shared RESTEasy client and releases all the pooled connections. A new client and pool are created on
+     * the next request for a resource proxy.
+     */
+    public static void shutdown() {
+        synchronized (DocuSignClient.class) {
+            if (resteasyClient != null) {
+                resteasyClient.close();
+                resteasyClient = null;
+            }
+            if (connectionManager != null) {
+                connectionManager.shutdown();
+                connectionManager = null;
+            }
+            client = null;
+            resourceProxyCache.clear();
+            shutdownAsyncExecutor();
+        }
+    }
+
+    /**
+     * Gets the client service making its calls with the given credentials. The returned proxy binds the credentials to
+     * the {@link CredentialsContext} around each call and delegates to the proxy shared by all the credentials of the
+     * server uri, see {@link #getClientService(Class, String)}.
      * 
      * @param <T> the generic type
      * @param clazz the clazz
      * @param serverUri the server uri
+     * @param credentials the credentials
      * @return the client service
      */
     public static <T> T getClientService(final Class<T> clazz, final String serverUri, final DocuSignCredentials credentials) {
+        return CredentialBindingInvocationHandler.wrap(clazz, getClientService(clazz, serverUri), credentials);
+    }
+
+    /**
+     * Gets the client service shared by all the credentials of the server uri. Its calls are authenticated with the
+     * credentials bound to the calling thread by the {@link CredentialsContext}. Proxies are cached against the
+     * resource class and server uri, so repeated service instantiations reuse the same proxy. The cache is bounded by
+     * {@value #PROXY_CACHE_SIZE} and evicts the least recently used proxy.
+     * 
+     * @param <T> the generic type
+     * @param clazz the clazz
+     * @param serverUri the server uri
+     * @return the client service
+     */
+    public static <T> T getClientService(final Class<T> clazz, final String serverUri) {
+        final ResourceProxyKey cacheKey = new ResourceProxyKey(clazz, serverUri);
+        Object proxy = resourceProxyCache.get(cacheKey);
+        if (proxy == null) {
+            proxy = resourceProxyCache.putIfAbsent(cacheKey, createClientService(clazz, serverUri));
+        }
+        return clazz.cast(proxy);
+    }
+
+    /**
+     * Creates the client service. The proxy is bound to the shared RESTEasy client; the credential headers are written
+     * on each request by a {@link CredentialsRequestFilter} registered on the proxy target, from the credentials bound
+     * to the calling thread. The responses of the methods annotated with
+     * {@link uk.co.techblue.docusign.client.cache.ConditionalGet} are kept in the {@link ResponseCache} and revalidated
+     * by a {@link ConditionalGetInvocationHandler}, whose validators are written by a {@link ConditionalRequestFilter}.
+     * Idempotent calls are retried by a {@link RetryingInvocationHandler} wrapped around the
+     * proxy, each attempt taking a permit from the {@link RateLimiter} of the server uri through a
+     * {@link RateLimitingInvocationHandler}.
+     * 
+     * @param <T> the generic type
+     * @param clazz the clazz
+     * @param serverUri the server uri
+     * @return the client service
+     */
+    private static <T> T createClientService(final Class<T> clazz, final String serverUri) {
         logger.info("Generating REST resource proxy for: " + clazz.getName());
-        final String proxyHost = System.getProperty("proxy.host");
-        final int proxyPort = NumberUtils.toInt(System.getProperty("proxy.port"));
-        DynamicProxyRoutePlanner routePlanner = null;
-        if (StringUtils.isNotBlank(proxyHost)) {
-            final HttpHost httpProxy = new HttpHost(proxyHost, proxyPort);
-            routePlanner = new DynamicProxyRoutePlanner(httpProxy);
+        final ResteasyWebTarget target = getResteasyClient().target(serverUri);
+        target.register(new CredentialsRequestFilter());
+        target.register(new ConditionalRequestFilter());
+        T proxy = target.proxy(clazz);
+        final ResponseCache cache = responseCache;
+        if (cache != null) {
+            proxy = ConditionalGetInvocationHandler.wrap(clazz, proxy, serverUri, cache);
+        }
+        final RateLimiter rateLimiter = getRateLimiter(serverUri);
+        if (rateLimiter != null) {
+            proxy = RateLimitingInvocationHandler.wrap(clazz, proxy, rateLimiter, getRateLimitMaxWaitMillis());
         }
+        final RetryPolicy policy = retryPolicy;
+        if (policy.getMaxAttempts() <= 1) {
+            return proxy;
+        }
+        return RetryingInvocationHandler.wrap(clazz, proxy, policy, retryMetrics);
+    }
+
+    /**
+     * The key identifying a cached resource proxy.
+     */
+    final static class ResourceProxyKey {
+        final Class<?> resourceClass;
+        final String serverUri;
+        private final int hash;
 
-        final HttpClientBuilder httpClientBuilder = HttpClientBuilder.create();
-        httpClientBuilder.setRoutePlanner(routePlanner);
+        ResourceProxyKey(final Class<?> resourceClass, final String serverUri) {
+            this.resourceClass = resourceClass;
+            this.serverUri = serverUri;
+            this.hash = 31 * resourceClass.hashCode() + (serverUri == null ? 0 : serverUri.hashCode());
+        }
 
-        final HttpClient httpclient =
-            HttpClients.custom().setRoutePlanner(routePlanner).setDefaultHeaders(credentials.getHeader()).build();
+        @Override
+        public int hashCode() {
+            return hash;
+        }
 
-        final ApacheHttpClient4Engine engine = new ApacheHttpClient4Engine(httpclient);
-        final ResteasyClientBuilder resteasyClientBuilder = new ResteasyClientBuilder().connectionPoolSize(20);
-        final ResteasyClient client = resteasyClientBuilder.httpEngine(engine).build();
-        final ResteasyWebTarget target = client.target(serverUri);
-        return target.proxy(clazz);
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResourceProxyKey)) {
+                return false;
+            }
+            final ResourceProxyKey that = (ResourceProxyKey) obj;
+            return resourceClass == that.resourceClass
+                && (serverUri == null ? that.serverUri == null : serverUri.equals(that.serverUri));
+        }
     }
 }
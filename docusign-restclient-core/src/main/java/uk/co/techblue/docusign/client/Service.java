@@ -16,6 +16,11 @@
 package uk.co.techblue.docusign.client;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 import javax.ws.rs.client.ResponseProcessingException;
 import javax.ws.rs.core.Response;
@@ -24,6 +29,7 @@ import javax.ws.rs.core.Response.Status.Family;
 import uk.co.techblue.docusign.client.credential.DocuSignCredentials;
 import uk.co.techblue.docusign.client.dto.ErrorResponse;
 import uk.co.techblue.docusign.client.exception.DocuSignException;
+import uk.co.techblue.docusign.client.ratelimit.RateLimiter;
 
 public abstract class Service<RT extends Resource> {
     /** The rest base uri. */
@@ -134,6 +140,86 @@ public abstract class Service<RT extends Resource> {
         return DocuSignClient.getClientService(clazz, serverUri, credentials);
     }
 
+    /**
+     * Runs the service call on the asynchronous executor. A {@link DocuSignException} thrown by the call completes the
+     * future exceptionally with that exception, so callers see the same exception mapping as the blocking methods. When
+     * the rate limit budget of the account is exhausted the call is scheduled once a permit is available, without
+     * holding an executor thread while waiting. When the executor is saturated and rejects the call, the future is
+     * completed exceptionally with the {@link RejectedExecutionException}.
+     * 
+     * @param <T> the result type
+     * @param call the service call
+     * @return the future result of the call
+     */
+    protected <T> CompletableFuture<T> supplyAsync(final ServiceCall<T> call) {
+        final RateLimiter rateLimiter = DocuSignClient.getRateLimiter(restBaseUri);
+        if (rateLimiter == null) {
+            return submit(call, null);
+        }
+        return rateLimiter.acquireAsync(DocuSignClient.getRateLimitMaxWaitMillis()).thenCompose(
+            new Function<Void, CompletionStage<T>>() {
+                @Override
+                public CompletionStage<T> apply(final Void ignored) {
+                    return submit(call, rateLimiter);
+                }
+            });
+    }
+
+    private <T> CompletableFuture<T> submit(final ServiceCall<T> call, final RateLimiter rateLimiter) {
+        final CompletableFuture<T> result = new CompletableFuture<T>();
+        try {
+            getAsyncExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (rateLimiter != null) {
+                        rateLimiter.holdPermit();
+                    }
+                    try {
+                        result.complete(call.call());
+                    } catch (final Throwable t) {
+                        result.completeExceptionally(t);
+                    } finally {
+                        if (rateLimiter != null) {
+                            rateLimiter.releaseHeldPermit();
+                        }
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException ree) {
+            if (rateLimiter != null) {
+                rateLimiter.cancel();
+            }
+            result.completeExceptionally(ree);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the executor running the asynchronous service calls.
+     * 
+     * @return the asynchronous executor
+     */
+    protected Executor getAsyncExecutor() {
+        return DocuSignClient.getAsyncExecutor();
+    }
+
+    /**
+     * A blocking service call run asynchronously by {@link Service#supplyAsync(ServiceCall)}.
+     * 
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    protected interface ServiceCall<T> {
+
+        /**
+         * Performs the call.
+         * 
+         * @return the result
+         * @throws DocuSignException if the call fails
+         */
+        T call() throws DocuSignException;
+    }
+
     public <EX extends DocuSignException> void validateResponseAndReleaseConnection(final Response clientResponse, final Class<EX> exceptionClazz) throws EX {
         try {
             validateResponseSuccess(clientResponse, exceptionClazz);
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An append-only journal of the envelopes already archived, one envelope id per line. Every record is forced to disk
+ * before {@link #record(String)} returns, so an envelope is never reported archived and then lost by a crash. A line
+ * left incomplete by a crash is discarded when the journal is opened.
+ */
+public class ArchiveJournal implements Closeable {
+
+    /** The journal file. */
+    private final Path file;
+
+    /** The channel appending to the journal. */
+    private final FileChannel channel;
+
+    /** The envelope ids recorded. */
+    private final Set<String> archived = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Opens the journal, creating it if it does not exist.
+     *
+     * @param file the journal file
+     * @throws IOException if the journal cannot be read or opened
+     */
+    public ArchiveJournal(final Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            final byte[] content = Files.readAllBytes(file);
+            int end = content.length;
+            while (end > 0 && content[end - 1] != '\n') {
+                end--;
+            }
+            for (final String line : new String(content, 0, end, StandardCharsets.UTF_8).split("\n")) {
+                if (!line.isEmpty()) {
+                    archived.add(line);
+                }
+            }
+            channel.truncate(end);
+            channel.position(end);
+        } catch (final IOException ioe) {
+            channel.close();
+            throw ioe;
+        }
+    }
+
+    /**
+     * Checks if the envelope has been archived.
+     *
+     * @param envelopeId the envelope id
+     * @return true, if the envelope is recorded in the journal
+     */
+    public boolean isArchived(final String envelopeId) {
+        return archived.contains(envelopeId);
+    }
+
+    /**
+     * Gets the number of envelopes recorded.
+     *
+     * @return the number of envelopes
+     */
+    public int size() {
+        return archived.size();
+    }
+
+    /**
+     * Records the envelope as archived.
+     *
+     * @param envelopeId the envelope id
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized void record(final String envelopeId) throws IOException {
+        if (envelopeId.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Invalid envelope id: " + envelopeId);
+        }
+        if (archived.contains(envelopeId)) {
+            return;
+        }
+        final ByteBuffer line = ByteBuffer.wrap((envelopeId + '\n').getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        channel.force(false);
+        archived.add(envelopeId);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveJournal[file=" + file + ", archived=" + archived.size() + "]";
+    }
+}
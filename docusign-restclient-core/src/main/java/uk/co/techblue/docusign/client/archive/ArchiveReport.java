@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.archive;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The outcome of an {@link EnvelopeArchiver} run.
+ */
+public class ArchiveReport {
+
+    /** The number of envelopes archived by the run. */
+    private final AtomicInteger archived = new AtomicInteger();
+
+    /** The number of envelopes skipped because the journal records them as archived. */
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    /** The envelopes that could not be archived and the cause. */
+    private final Map<String, Exception> failures = new LinkedHashMap<String, Exception>();
+
+    void archived() {
+        archived.incrementAndGet();
+    }
+
+    void skipped() {
+        skipped.incrementAndGet();
+    }
+
+    synchronized void failed(final String envelopeId, final Exception cause) {
+        failures.put(envelopeId, cause);
+    }
+
+    /**
+     * Gets the number of envelopes archived by the run.
+     *
+     * @return the number of envelopes archived
+     */
+    public int getArchived() {
+        return archived.get();
+    }
+
+    /**
+     * Gets the number of envelopes skipped because a previous run archived them.
+     *
+     * @return the number of envelopes skipped
+     */
+    public int getSkipped() {
+        return skipped.get();
+    }
+
+    /**
+     * Gets the envelopes that could not be archived. They are not recorded in the journal, so the next run tries them
+     * again.
+     *
+     * @return the cause of the failure, keyed by envelope id
+     */
+    public synchronized Map<String, Exception> getFailures() {
+        return Collections.unmodifiableMap(new LinkedHashMap<String, Exception>(failures));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ArchiveReport[archived=" + archived + ", skipped=" + skipped + ", failed=" + failures.size() + "]";
+    }
+}
@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.co.techblue.docusign.client.document.DocumentStream;
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusQueryForm;
+import uk.co.techblue.docusign.client.envelope.attributes.Status;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.paging.EnvelopeStatusIterator;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+import uk.co.techblue.docusign.client.utils.DaemonThreadFactory;
+
+/**
+ * Archives completed envelopes: the combined PDF, the certificate and the audit events, as the JSON returned by
+ * DocuSign, of each envelope are streamed to a directory or a zip file named after the envelope under the archive
+ * root.
+ * <p>
+ * A run discovers the envelopes page by page with an {@link EnvelopeStatusIterator} and archives up to
+ * <code>concurrency</code> of them at the same time, discovery pausing while all the workers are busy. Each archive
+ * is written under a temporary name and renamed once complete, then recorded in an {@link ArchiveJournal} kept in the
+ * archive root, so a run that crashed resumes without downloading the recorded envelopes again. The requests of every
+ * worker go through the rate limiter of the account, so the concurrency can be raised up to what the account budget
+ * allows without being throttled by DocuSign.
+ */
+public class EnvelopeArchiver {
+
+    /**
+     * How the artifacts of an envelope are stored.
+     */
+    public enum Layout {
+
+        /** A directory per envelope. */
+        DIRECTORY,
+
+        /** A zip file per envelope. */
+        ZIP
+    }
+
+    /** The default number of envelopes archived at the same time. */
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    /** The name of the journal in the archive root. */
+    public static final String JOURNAL_FILE = ".archive-journal";
+
+    /** The name of the combined PDF in an envelope archive. */
+    public static final String COMBINED_PDF = "combined.pdf";
+
+    /** The name of the certificate in an envelope archive. */
+    public static final String CERTIFICATE_PDF = "certificate.pdf";
+
+    /** The name of the audit events in an envelope archive. */
+    public static final String AUDIT_EVENTS_JSON = "audit-events.json";
+
+    private static final String ZIP_EXTENSION = ".zip";
+
+    private static final String PART_EXTENSION = ".part";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final static Logger logger = LoggerFactory.getLogger(EnvelopeArchiver.class);
+
+    /** The envelope service. */
+    private final EnvelopeService envelopeService;
+
+    /** The archive root. */
+    private final Path root;
+
+    /** How the artifacts are stored. */
+    private final Layout layout;
+
+    /** The number of envelopes archived at the same time. */
+    private final int concurrency;
+
+    /**
+     * Instantiates a new envelope archiver with the default concurrency.
+     *
+     * @param envelopeService the envelope service
+     * @param root the archive root, created if needed
+     * @param layout how the artifacts are stored
+     */
+    public EnvelopeArchiver(final EnvelopeService envelopeService, final Path root, final Layout layout) {
+        this(envelopeService, root, layout, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Instantiates a new envelope archiver.
+     *
+     * @param envelopeService the envelope service
+     * @param root the archive root, created if needed
+     * @param layout how the artifacts are stored
+     * @param concurrency the number of envelopes archived at the same time
+     */
+    public EnvelopeArchiver(final EnvelopeService envelopeService, final Path root, final Layout layout,
+        final int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The concurrency must be positive: " + concurrency);
+        }
+        this.envelopeService = envelopeService;
+        this.root = root;
+        this.layout = layout;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Archives the completed envelopes matching the query which are not recorded in the journal yet. The query is
+     * restricted to completed envelopes if it has no status of its own. An envelope that cannot be archived is
+     * reported and not recorded, so the next run tries it again.
+     *
+     * @param queryForm the query discovering the envelopes
+     * @return the report of the run
+     * @throws EnvelopeException if the discovery query fails
+     * @throws IOException if the archive root or the journal cannot be written
+     */
+    public ArchiveReport archive(final EnvelopeStatusQueryForm queryForm) throws EnvelopeException, IOException {
+        final EnvelopeStatusQueryForm discoveryForm = new EnvelopeStatusQueryForm(queryForm);
+        if (discoveryForm.getStatuses() == null) {
+            discoveryForm.setStatuses(Collections.singletonList(Status.completed));
+        }
+        Files.createDirectories(root);
+        final ArchiveReport report = new ArchiveReport();
+        final Semaphore workers = new Semaphore(concurrency);
+        final ExecutorService executor =
+            Executors.newFixedThreadPool(concurrency, new DaemonThreadFactory("docusign-archiver"));
+        try (ArchiveJournal journal = new ArchiveJournal(root.resolve(JOURNAL_FILE));
+            EnvelopeStatusIterator envelopes = envelopeService.iterateEnvelopeStatus(discoveryForm)) {
+            try {
+                while (envelopes.hasNext()) {
+                    final EnvelopeInfo envelope = envelopes.next();
+                    final String envelopeId = envelope.getEnvelopeId();
+                    if (envelope.getStatus() != null && envelope.getStatus() != Status.completed) {
+                        continue;
+                    }
+                    if (journal.isArchived(envelopeId)) {
+                        report.skipped();
+                        continue;
+                    }
+                    workers.acquireUninterruptibly();
+                    executor.execute(() -> {
+                        try {
+                            archiveEnvelope(envelopeId);
+                            journal.record(envelopeId);
+                            report.archived();
+                        } catch (final EnvelopeException | IOException | RuntimeException e) {
+                            logger.warn("Unable to archive envelope " + envelopeId, e);
+                            report.failed(envelopeId, e);
+                        } finally {
+                            workers.release();
+                        }
+                    });
+                }
+            } catch (final CompletionException ce) {
+                if (ce.getCause() instanceof EnvelopeException) {
+                    throw (EnvelopeException) ce.getCause();
+                }
+                throw new EnvelopeException("Error occurred while discovering the envelopes to archive", ce.getCause());
+            } finally {
+                workers.acquireUninterruptibly(concurrency);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return report;
+    }
+
+    /**
+     * Archives the envelope, replacing any previous archive of it. The journal is not updated.
+     *
+     * @param envelopeId the envelope id
+     * @return the archive, a directory or a zip file depending on the layout
+     * @throws EnvelopeException if an artifact cannot be downloaded
+     * @throws IOException if the archive cannot be written
+     */
+    public Path archiveEnvelope(final String envelopeId) throws EnvelopeException, IOException {
+        if (!envelopeId.matches("[A-Za-z0-9-]+")) {
+            throw new IllegalArgumentException("Invalid envelope id: " + envelopeId);
+        }
+        Files.createDirectories(root);
+        final Path target = root.resolve(layout == Layout.ZIP ? envelopeId + ZIP_EXTENSION : envelopeId);
+        final Path part = target.resolveSibling(target.getFileName() + PART_EXTENSION);
+        delete(part);
+        try {
+            if (layout == Layout.ZIP) {
+                writeZip(envelopeId, part);
+            } else {
+                writeDirectory(envelopeId, part);
+            }
+            delete(target);
+            try {
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException amnse) {
+                Files.move(part, target);
+            }
+            return target;
+        } finally {
+            delete(part);
+        }
+    }
+
+    private void writeDirectory(final String envelopeId, final Path directory) throws EnvelopeException, IOException {
+        Files.createDirectories(directory);
+        envelopeService.downloadDocumentsCombined(envelopeId, directory.resolve(COMBINED_PDF));
+        envelopeService.downloadCertificate(envelopeId, null, null, directory.resolve(CERTIFICATE_PDF));
+        envelopeService.downloadAuditEvents(envelopeId, directory.resolve(AUDIT_EVENTS_JSON));
+    }
+
+    private void writeZip(final String envelopeId, final Path file) throws EnvelopeException, IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            zip.putNextEntry(new ZipEntry(COMBINED_PDF));
+            copy(envelopeService.getDocumentsCombinedStream(envelopeId), zip);
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry(CERTIFICATE_PDF));
+            copy(envelopeService.getCertificateStream(envelopeId, null, null), zip);
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry(AUDIT_EVENTS_JSON));
+            copy(envelopeService.getAuditEventsStream(envelopeId), zip);
+            zip.closeEntry();
+        }
+    }
+
+    private static void copy(final DocumentStream documentStream, final OutputStream output) throws IOException {
+        try (InputStream input = documentStream) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+                output.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private static void delete(final Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
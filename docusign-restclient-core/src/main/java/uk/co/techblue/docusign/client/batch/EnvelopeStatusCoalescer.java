@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.batch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import uk.co.techblue.docusign.client.DocuSignClient;
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusQueryForm;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusResponse;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+import uk.co.techblue.docusign.client.utils.DaemonThreadFactory;
+
+/**
+ * Coalesces single envelope status lookups made by independent threads into batched <code>envelope_ids</code> queries.
+ * Lookups are collected for a short window, or until the maximum batch size is reached, and are then resolved by a
+ * single {@link EnvelopeService#getEnvelopeStatus(EnvelopeStatusQueryForm)} call whose results are fanned back out to
+ * each caller. Concurrent lookups of the same envelope share one slot in the batch. Envelope ids are matched without
+ * regard to case, as DocuSign does. The windows of all the coalescers are timed by one shared daemon thread.
+ */
+public class EnvelopeStatusCoalescer {
+
+    /** The default batching window in milliseconds. */
+    public static final long DEFAULT_WINDOW_MILLIS = 10;
+
+    /** The default maximum number of envelope ids per query. */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 50;
+
+    /** The envelope service. */
+    private final EnvelopeService envelopeService;
+
+    /** The batching window in milliseconds. */
+    private final long windowMillis;
+
+    /** The maximum number of envelope ids per query. */
+    private final int maxBatchSize;
+
+    /** The executor running the batched queries. */
+    private final Executor executor;
+
+    /** The scheduler flushing the batches once their window elapses, shared by all the coalescers. */
+    private static volatile ScheduledExecutorService scheduler;
+
+    /** The callers waiting for each envelope id of the current batch. */
+    private Map<String, List<CompletableFuture<EnvelopeInfo>>> pending = new LinkedHashMap<String, List<CompletableFuture<EnvelopeInfo>>>();
+
+    /** The scheduled flush of the current batch. */
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * Instantiates a new envelope status coalescer with the default window and batch size.
+     *
+     * @param envelopeService the envelope service
+     */
+    public EnvelopeStatusCoalescer(final EnvelopeService envelopeService) {
+        this(envelopeService, DEFAULT_WINDOW_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Instantiates a new envelope status coalescer.
+     *
+     * @param envelopeService the envelope service
+     * @param windowMillis the time in milliseconds a lookup waits for other lookups to join its batch
+     * @param maxBatchSize the maximum number of envelope ids per query
+     */
+    public EnvelopeStatusCoalescer(final EnvelopeService envelopeService, final long windowMillis, final int maxBatchSize) {
+        this(envelopeService, windowMillis, maxBatchSize, DocuSignClient.getAsyncExecutor());
+    }
+
+    /**
+     * Instantiates a new envelope status coalescer.
+     *
+     * @param envelopeService the envelope service
+     * @param windowMillis the time in milliseconds a lookup waits for other lookups to join its batch
+     * @param maxBatchSize the maximum number of envelope ids per query
+     * @param executor the executor running the batched queries
+     */
+    public EnvelopeStatusCoalescer(final EnvelopeService envelopeService, final long windowMillis, final int maxBatchSize,
+        final Executor executor) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than zero: " + maxBatchSize);
+        }
+        this.envelopeService = envelopeService;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the envelope status, blocking until the batch it joined has been resolved.
+     *
+     * @param envelopeId the envelope id
+     * @return the envelope status, or null if the envelope was not returned by the query
+     * @throws EnvelopeException the envelope exception
+     */
+    public EnvelopeInfo getEnvelopeStatus(final String envelopeId) throws EnvelopeException {
+        try {
+            return getEnvelopeStatusAsync(envelopeId).get();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new EnvelopeException("Interrupted while waiting for the status of envelope " + envelopeId, ie);
+        } catch (final ExecutionException ee) {
+            if (ee.getCause() instanceof EnvelopeException) {
+                throw (EnvelopeException) ee.getCause();
+            }
+            throw new EnvelopeException("Error occurred while getting the status of envelope " + envelopeId, ee.getCause());
+        }
+    }
+
+    /**
+     * Gets the envelope status asynchronously. The lookup joins the current batch.
+     *
+     * @param envelopeId the envelope id
+     * @return the future envelope status, completed with null if the envelope was not returned by the query
+     */
+    public CompletableFuture<EnvelopeInfo> getEnvelopeStatusAsync(final String envelopeId) {
+        final CompletableFuture<EnvelopeInfo> result = new CompletableFuture<EnvelopeInfo>();
+        Map<String, List<CompletableFuture<EnvelopeInfo>>> fullBatch = null;
+        synchronized (this) {
+            final boolean firstInBatch = pending.isEmpty();
+            List<CompletableFuture<EnvelopeInfo>> waiters = pending.get(envelopeId);
+            if (waiters == null) {
+                waiters = new ArrayList<CompletableFuture<EnvelopeInfo>>(1);
+                pending.put(envelopeId, waiters);
+            }
+            waiters.add(result);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (firstInBatch) {
+                scheduledFlush = getScheduler().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                }, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            submit(fullBatch);
+        }
+        return result;
+    }
+
+    /**
+     * Sends the current batch without waiting for its window to elapse.
+     */
+    public void flush() {
+        final Map<String, List<CompletableFuture<EnvelopeInfo>>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            submit(batch);
+        }
+    }
+
+    /**
+     * Sends the pending lookups. The coalescer holds no thread of its own, so it does not need to be closed once idle.
+     */
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Takes the pending lookups, starting a new batch. Must be called holding the lock.
+     *
+     * @return the pending lookups
+     */
+    private Map<String, List<CompletableFuture<EnvelopeInfo>>> takePending() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        final Map<String, List<CompletableFuture<EnvelopeInfo>>> batch = pending;
+        pending = new LinkedHashMap<String, List<CompletableFuture<EnvelopeInfo>>>();
+        return batch;
+    }
+
+    /**
+     * Runs the batched query on the executor.
+     *
+     * @param batch the batch
+     */
+    private void submit(final Map<String, List<CompletableFuture<EnvelopeInfo>>> batch) {
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    resolve(batch);
+                }
+            });
+        } catch (final RuntimeException re) {
+            fail(batch, re);
+        }
+    }
+
+    /**
+     * Queries the status of all the envelopes of the batch and completes the waiting callers.
+     *
+     * @param batch the batch
+     */
+    private void resolve(final Map<String, List<CompletableFuture<EnvelopeInfo>>> batch) {
+        final EnvelopeStatusQueryForm statusQueryForm = new EnvelopeStatusQueryForm();
+        statusQueryForm.setEnvelopeIds(new ArrayList<String>(batch.keySet()));
+        final EnvelopeStatusResponse statusResponse;
+        try {
+            statusResponse = envelopeService.getEnvelopeStatus(statusQueryForm);
+        } catch (final EnvelopeException ee) {
+            fail(batch, ee);
+            return;
+        } catch (final RuntimeException re) {
+            fail(batch, re);
+            return;
+        }
+        final Map<String, EnvelopeInfo> envelopes = new HashMap<String, EnvelopeInfo>();
+        if (statusResponse != null && statusResponse.getEnvelopes() != null) {
+            for (final EnvelopeInfo envelope : statusResponse.getEnvelopes()) {
+                if (envelope.getEnvelopeId() != null) {
+                    envelopes.put(envelope.getEnvelopeId().toLowerCase(Locale.ROOT), envelope);
+                }
+            }
+        }
+        for (final Map.Entry<String, List<CompletableFuture<EnvelopeInfo>>> entry : batch.entrySet()) {
+            final EnvelopeInfo envelope = envelopes.get(entry.getKey().toLowerCase(Locale.ROOT));
+            for (final CompletableFuture<EnvelopeInfo> waiter : entry.getValue()) {
+                waiter.complete(envelope);
+            }
+        }
+    }
+
+    /**
+     * Completes all the waiting callers of the batch exceptionally.
+     *
+     * @param batch the batch
+     * @param cause the cause
+     */
+    private void fail(final Map<String, List<CompletableFuture<EnvelopeInfo>>> batch, final Throwable cause) {
+        for (final List<CompletableFuture<EnvelopeInfo>> waiters : batch.values()) {
+            for (final CompletableFuture<EnvelopeInfo> waiter : waiters) {
+                waiter.completeExceptionally(cause);
+            }
+        }
+    }
+
+    private static ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            synchronized (EnvelopeStatusCoalescer.class) {
+                if (scheduler == null) {
+                    final ScheduledThreadPoolExecutor executor =
+                        new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("docusign-status-coalescer"));
+                    executor.setRemoveOnCancelPolicy(true);
+                    scheduler = executor;
+                }
+            }
+        }
+        return scheduler;
+    }
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.cache;
+
+import uk.co.techblue.docusign.client.credential.DocuSignCredentials;
+import uk.co.techblue.docusign.client.dto.AuditEventsResponse;
+
+/**
+ * A cache of the audit trails of completed envelopes, set on a
+ * {@link uk.co.techblue.docusign.client.services.EnvelopeService} through
+ * {@link uk.co.techblue.docusign.client.services.EnvelopeService#setAuditEventsCache(AuditEventsCache)} and shared by
+ * any number of services. Entries are kept against the account and credentials they were read with, so a trail read by
+ * one user is never handed to another, and the least recently used entries are evicted once the cache is full. The
+ * cached responses are handed to every caller and must not be modified.
+ */
+public class AuditEventsCache {
+
+    /** The default maximum number of audit trails. */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /** The audit trails. */
+    private final LruCache<Key, AuditEventsResponse> auditTrails;
+
+    /**
+     * Instantiates a new audit events cache of the default size.
+     */
+    public AuditEventsCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Instantiates a new audit events cache.
+     *
+     * @param maxSize the maximum number of audit trails, must be greater than zero
+     */
+    public AuditEventsCache(final int maxSize) {
+        this.auditTrails = new LruCache<Key, AuditEventsResponse>(maxSize);
+    }
+
+    /**
+     * Gets the audit trail of the envelope.
+     *
+     * @param restBaseUri the rest base uri of the account
+     * @param credentials the credentials
+     * @param envelopeId the envelope id
+     * @return the audit trail, or null if not cached
+     */
+    public AuditEventsResponse get(final String restBaseUri, final DocuSignCredentials credentials,
+        final String envelopeId) {
+        return auditTrails.get(new Key(restBaseUri, credentials, envelopeId));
+    }
+
+    /**
+     * Caches the audit trail of the envelope unless one is already cached.
+     *
+     * @param restBaseUri the rest base uri of the account
+     * @param credentials the credentials
+     * @param envelopeId the envelope id
+     * @param auditEvents the audit trail
+     * @return the audit trail cached against the envelope, which is the one given unless another was cached first
+     */
+    public AuditEventsResponse putIfAbsent(final String restBaseUri, final DocuSignCredentials credentials,
+        final String envelopeId, final AuditEventsResponse auditEvents) {
+        return auditTrails.putIfAbsent(new Key(restBaseUri, credentials, envelopeId), auditEvents);
+    }
+
+    /**
+     * Removes the audit trail of the envelope, so that the next lookup reads it again.
+     *
+     * @param restBaseUri the rest base uri of the account
+     * @param credentials the credentials
+     * @param envelopeId the envelope id
+     */
+    public void invalidate(final String restBaseUri, final DocuSignCredentials credentials, final String envelopeId) {
+        auditTrails.remove(new Key(restBaseUri, credentials, envelopeId));
+    }
+
+    /**
+     * Removes all the audit trails.
+     */
+    public void invalidateAll() {
+        auditTrails.clear();
+    }
+
+    /**
+     * Gets the number of cached audit trails.
+     *
+     * @return the size
+     */
+    public int size() {
+        return auditTrails.size();
+    }
+
+    /**
+     * Identifies the audit trail of an envelope as read with some credentials.
+     */
+    static final class Key {
+        final String restBaseUri;
+        final DocuSignCredentials credentials;
+        final String envelopeId;
+
+        Key(final String restBaseUri, final DocuSignCredentials credentials, final String envelopeId) {
+            this.restBaseUri = restBaseUri;
+            this.credentials = credentials;
+            this.envelopeId = envelopeId;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = restBaseUri == null ? 0 : restBaseUri.hashCode();
+            result = 31 * result + (credentials == null ? 0 : credentials.hashCode());
+            return 31 * result + (envelopeId == null ? 0 : envelopeId.hashCode());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) obj;
+            return (restBaseUri == null ? that.restBaseUri == null : restBaseUri.equals(that.restBaseUri))
+                && (credentials == null ? that.credentials == null : credentials.equals(that.credentials))
+                && (envelopeId == null ? that.envelopeId == null : envelopeId.equals(that.envelopeId));
+        }
+    }
+}
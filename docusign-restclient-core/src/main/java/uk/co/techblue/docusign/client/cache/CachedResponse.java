@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.Providers;
+
+import org.jboss.resteasy.core.Headers;
+import org.jboss.resteasy.specimpl.BuiltResponse;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+
+/**
+ * A successful response served from a {@link ResponseCache} entry. The entity is deserialized from the cached body the
+ * first time it is read and then kept in the entry, so the responses served after a <code>304 Not Modified</code> hand
+ * out the same entity without deserializing it again.
+ */
+class CachedResponse extends BuiltResponse {
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    private final ResponseCache.Entry entry;
+
+    CachedResponse(final ResponseCache.Entry entry) {
+        super(Response.Status.OK.getStatusCode(), headers(entry), null, NO_ANNOTATIONS);
+        this.entry = entry;
+    }
+
+    private static Headers<Object> headers(final ResponseCache.Entry entry) {
+        final Headers<Object> headers = new Headers<Object>();
+        headers.putAll(entry.getHeaders());
+        return headers;
+    }
+
+    @Override
+    public boolean hasEntity() {
+        return true;
+    }
+
+    @Override
+    public <T> T readEntity(final Class<T> type, final Type genericType, final Annotation[] annotations) {
+        abortIfClosed();
+        final Object cached = entry.getEntity();
+        if (type.isInstance(cached)) {
+            return type.cast(cached);
+        }
+        final T entity = deserialize(type, genericType == null ? type : genericType,
+            annotations == null ? NO_ANNOTATIONS : annotations);
+        if (entity != null && !(entity instanceof InputStream)) {
+            entry.setEntity(entity);
+        }
+        return entity;
+    }
+
+    private <T> T deserialize(final Class<T> type, final Type genericType, final Annotation[] annotations) {
+        final MediaType mediaType = getMediaType() == null ? MediaType.WILDCARD_TYPE : getMediaType();
+        final ResteasyProviderFactory providerFactory = ResteasyProviderFactory.getInstance();
+        final MessageBodyReader<T> reader = providerFactory.getMessageBodyReader(type, genericType, annotations, mediaType);
+        if (reader == null) {
+            throw new ProcessingException("No reader of " + type.getName() + " for " + mediaType);
+        }
+        // the readers look the providers up from the context, as when reading a response of the client
+        final Providers current = ResteasyProviderFactory.getContextData(Providers.class);
+        ResteasyProviderFactory.pushContext(Providers.class, providerFactory);
+        try {
+            return reader.readFrom(type, genericType, annotations, mediaType, getStringHeaders(),
+                new ByteArrayInputStream(entry.getContent()));
+        } catch (final IOException ioe) {
+            throw new ProcessingException("Error occurred while reading cached " + type.getName(), ioe);
+        } finally {
+            ResteasyProviderFactory.popContextData(Providers.class);
+            if (current != null) {
+                ResteasyProviderFactory.pushContext(Providers.class, current);
+            }
+        }
+    }
+}
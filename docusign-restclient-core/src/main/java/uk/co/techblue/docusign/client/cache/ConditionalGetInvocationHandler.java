@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.cache;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import uk.co.techblue.docusign.client.credential.CredentialsContext;
+
+/**
+ * Wraps a resource proxy so that the responses of the methods annotated with {@link ConditionalGet} are kept in a
+ * {@link ResponseCache}. A call with a cached response is sent with its validators, written by the
+ * {@link uk.co.techblue.docusign.resteasy.filters.ConditionalRequestFilter}, and a <code>304 Not Modified</code> answer
+ * is turned into a successful response carrying the cached entity. Successful responses with an <code>ETag</code> or
+ * <code>Last-Modified</code> header are read into memory and cached; any other answer removes the cached response.
+ */
+public class ConditionalGetInvocationHandler implements InvocationHandler {
+
+    private static final String NO_STORE = "no-store";
+
+    /** The cached response being revalidated by the current thread. */
+    private static final ThreadLocal<ResponseCache.Entry> REVALIDATING = new ThreadLocal<ResponseCache.Entry>();
+
+    /** Whether each resource method is annotated with {@link ConditionalGet}. */
+    private static final ConcurrentMap<Method, Boolean> conditionalMethods = new ConcurrentHashMap<Method, Boolean>();
+
+    /** The wrapped resource proxy. */
+    private final Object target;
+
+    /** The server uri of the resource proxy. */
+    private final String serverUri;
+
+    /** The response cache. */
+    private final ResponseCache responseCache;
+
+    /**
+     * Instantiates a new conditional GET invocation handler.
+     *
+     * @param target the wrapped resource proxy
+     * @param serverUri the server uri of the resource proxy
+     * @param responseCache the response cache
+     */
+    public ConditionalGetInvocationHandler(final Object target, final String serverUri, final ResponseCache responseCache) {
+        this.target = target;
+        this.serverUri = serverUri;
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Wraps the resource proxy in a caching proxy.
+     *
+     * @param <T> the resource type
+     * @param resourceClass the resource class
+     * @param target the resource proxy
+     * @param serverUri the server uri of the resource proxy
+     * @param responseCache the response cache
+     * @return the caching resource proxy
+     */
+    public static <T> T wrap(final Class<T> resourceClass, final T target, final String serverUri,
+        final ResponseCache responseCache) {
+        return resourceClass.cast(Proxy.newProxyInstance(resourceClass.getClassLoader(), new Class<?>[] {resourceClass},
+            new ConditionalGetInvocationHandler(target, serverUri, responseCache)));
+    }
+
+    /**
+     * Gets the cached response the current thread is revalidating.
+     *
+     * @return the cached response, or null if the current call is not revalidating one
+     */
+    public static ResponseCache.Entry getRevalidatedEntry() {
+        return REVALIDATING.get();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+     */
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeObjectMethod(proxy, method, args);
+        }
+        if (!isConditional(method)) {
+            return invokeTarget(method, args);
+        }
+        final ResponseCache.Key key = new ResponseCache.Key(serverUri, method, args, CredentialsContext.getCredentials());
+        final ResponseCache.Entry entry = responseCache.get(key);
+        final Object result;
+        if (entry != null) {
+            REVALIDATING.set(entry);
+        }
+        try {
+            result = invokeTarget(method, args);
+        } finally {
+            REVALIDATING.remove();
+        }
+        if (!(result instanceof Response)) {
+            return result;
+        }
+        final Response response = (Response) result;
+        final int status = response.getStatus();
+        if (status == Response.Status.NOT_MODIFIED.getStatusCode() && entry != null) {
+            response.close();
+            responseCache.recordHit();
+            return new CachedResponse(entry);
+        }
+        if (status != Response.Status.OK.getStatusCode()) {
+            responseCache.remove(key);
+            return response;
+        }
+        responseCache.recordMiss();
+        final String entityTag = response.getHeaderString(HttpHeaders.ETAG);
+        final String lastModified = response.getHeaderString(HttpHeaders.LAST_MODIFIED);
+        final String cacheControl = response.getHeaderString(HttpHeaders.CACHE_CONTROL);
+        if ((entityTag == null && lastModified == null)
+            || (cacheControl != null && cacheControl.toLowerCase().contains(NO_STORE))) {
+            responseCache.remove(key);
+            return response;
+        }
+        final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<String, Object>();
+        headers.putAll(response.getHeaders());
+        final byte[] content;
+        try {
+            content = response.readEntity(byte[].class);
+        } finally {
+            response.close();
+        }
+        final ResponseCache.Entry fresh = new ResponseCache.Entry(entityTag, lastModified, headers, content);
+        responseCache.put(key, fresh);
+        return new CachedResponse(fresh);
+    }
+
+    private static boolean isConditional(final Method method) {
+        Boolean conditional = conditionalMethods.get(method);
+        if (conditional == null) {
+            conditional = method.isAnnotationPresent(ConditionalGet.class);
+            conditionalMethods.putIfAbsent(method, conditional);
+        }
+        return conditional;
+    }
+
+    private Object invokeTarget(final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+    }
+
+    private Object invokeObjectMethod(final Object proxy, final Method method, final Object[] args) {
+        final String name = method.getName();
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        }
+        return "Conditional GET proxy for " + target;
+    }
+}
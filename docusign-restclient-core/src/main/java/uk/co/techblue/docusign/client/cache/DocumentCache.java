@@ -0,0 +1,601 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.cache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.MediaType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.co.techblue.docusign.client.DocuSignClient;
+import uk.co.techblue.docusign.client.document.DigestingChannel;
+import uk.co.techblue.docusign.client.document.DocumentStream;
+import uk.co.techblue.docusign.client.dto.DocumentFile;
+
+/**
+ * A disk cache of the documents of completed envelopes, which never change once the envelope is complete. The content
+ * is stored once per SHA-256 checksum under <code>blobs</code>, so the same PDF cached under several keys, for
+ * instance with and without the watermark flag, takes the space of one copy. An index maps each key to its content and
+ * is kept in least recently used order; once the content exceeds the maximum size the least recently used keys are
+ * evicted and content no longer referenced is deleted.
+ * <p>
+ * Content is written to temporary files that only replace the final ones once complete, so a crash never leaves a
+ * truncated document behind; leftovers are removed when the cache is opened. The stored content is read-only. Hits are
+ * served from it as a stream, linked into place as a {@link DocumentFile} where the file system supports hard links,
+ * or else copied by the file system with
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} rather than read through the heap.
+ * <p>
+ * Changes are appended to the index as they are made, and the index is only rewritten in least recently used order
+ * once most of its lines are stale. A line left incomplete by a crash is ignored. Reads are not recorded, so the
+ * recency of the entries read since the last rewrite is lost on restart.
+ * <p>
+ * Only content that can no longer change must be cached: it is up to the caller to check the envelope is complete,
+ * as the {@link uk.co.techblue.docusign.client.services.EnvelopeService} does. Once a document of an envelope is cached
+ * under a key made by {@link #key(String, String, Boolean, Boolean)}, the envelope is known to be complete. The cache
+ * does not know who may read an envelope either: a cache shared by several accounts or users must only be read once the
+ * reader is known to have access to the envelope, which the service checks with a status call before every hit.
+ */
+public class DocumentCache {
+
+    /** The name of the directory holding the content. */
+    static final String BLOBS = "blobs";
+
+    /** The name of the index file. */
+    static final String INDEX = "index";
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private static final String PDF_EXTENSION = ".pdf";
+
+    private static final MediaType PDF = new MediaType("application", "pdf");
+
+    /** The second field of the index lines recording a removal. */
+    private static final String REMOVED = "-";
+
+    /** The number of index lines below which the index is never rewritten. */
+    private static final int MIN_COMPACT_LINES = 64;
+
+    private final static Logger logger = LoggerFactory.getLogger(DocumentCache.class);
+
+    private final Path directory;
+
+    private final Path blobs;
+
+    private final long maxBytes;
+
+    /** The entries, in access order. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    /** The number of keys referencing each content checksum. */
+    private final Map<String, Integer> references = new HashMap<String, Integer>();
+
+    /** The number of keys of each envelope. */
+    private final Map<String, Integer> envelopes = new HashMap<String, Integer>();
+
+    /** The size of the content referenced by the index. */
+    private long size;
+
+    /** The number of lines of the index file. */
+    private int indexLines;
+
+    /**
+     * Opens the cache in the directory, creating it if needed.
+     *
+     * @param directory the cache directory
+     * @param maxBytes the maximum size of the cached content, must be greater than zero
+     * @throws IOException if the directory or its index cannot be read
+     */
+    public DocumentCache(final Path directory, final long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than zero: " + maxBytes);
+        }
+        this.directory = directory;
+        this.blobs = directory.resolve(BLOBS);
+        this.maxBytes = maxBytes;
+        Files.createDirectories(blobs);
+        load();
+    }
+
+    /**
+     * Gets the key of a document of an envelope.
+     *
+     * @param envelopeId the envelope id
+     * @param documentId the document id, or a name such as <code>combined</code> for the other downloads
+     * @param watermark the watermark flag of the request, may be null
+     * @param certificate the certificate flag of the request, may be null
+     * @return the key
+     */
+    public static String key(final String envelopeId, final String documentId, final Boolean watermark,
+        final Boolean certificate) {
+        return envelopeId + '/' + documentId + '/' + watermark + '/' + certificate;
+    }
+
+    /**
+     * Checks if a document of the envelope is cached under a key made by {@link #key(String, String, Boolean, Boolean)},
+     * which means that the envelope is complete.
+     *
+     * @param envelopeId the envelope id
+     * @return true, if a document of the envelope is cached
+     */
+    public synchronized boolean containsEnvelope(final String envelopeId) {
+        return envelopes.containsKey(envelopeId);
+    }
+
+    /**
+     * Opens the cached content as a stream, marking it as recently used. The stream reads the stored content, which is
+     * not copied, and must be closed.
+     *
+     * @param key the key
+     * @return the document stream, or null if the key is not cached
+     * @throws IOException if the content cannot be opened
+     */
+    public DocumentStream openStream(final String key) throws IOException {
+        final Entry entry = lookup(key);
+        if (entry == null) {
+            return null;
+        }
+        final FileInputStream content;
+        try {
+            content = new FileInputStream(blobs.resolve(entry.sha256).toFile());
+        } catch (final FileNotFoundException fnfe) {
+            // evicted since the lookup
+            return null;
+        }
+        return new DocumentStream(content, entry.documentId, entry.name, PDF, entry.length);
+    }
+
+    /**
+     * Copies the cached content to the file, replacing it if it exists.
+     *
+     * @param key the key
+     * @param target the target file
+     * @return the number of bytes written, or -1 if the key is not cached
+     * @throws IOException if the content cannot be copied
+     */
+    public long transferTo(final String key, final Path target) throws IOException {
+        final Entry entry = lookup(key);
+        return entry == null ? -1 : copy(entry, target);
+    }
+
+    /**
+     * Links the cached content to a new temporary file, created like the ones of
+     * {@link uk.co.techblue.docusign.resteasy.providers.DocumentFileProvider}. The file is a read-only hard link to the
+     * stored content, or a copy of it if the file system cannot link it. The file is owned by the caller, who must
+     * delete it once done; deleting it leaves the cached content alone.
+     *
+     * @param key the key
+     * @return the document file, or null if the key is not cached
+     * @throws IOException if the content cannot be linked or copied
+     */
+    public DocumentFile get(final String key) throws IOException {
+        final Entry entry = lookup(key);
+        if (entry == null) {
+            return null;
+        }
+        final File file = createTempFile(entry.name);
+        boolean copied = false;
+        try {
+            copied = link(entry, file.toPath()) || copy(entry, file.toPath()) >= 0;
+        } finally {
+            if (!copied && !file.delete()) {
+                logger.warn("Could not delete temporary file " + file);
+            }
+        }
+        if (!copied) {
+            return null;
+        }
+        final DocumentFile documentFile = new DocumentFile();
+        documentFile.setDocumentId(entry.documentId);
+        documentFile.setName(entry.name);
+        documentFile.setDocFile(file);
+        return documentFile;
+    }
+
+    /**
+     * Caches the remaining content of the document stream, replacing any content cached against the key. The stream is
+     * left open.
+     *
+     * @param key the key
+     * @param documentStream the document stream
+     * @throws IOException if the content cannot be written
+     */
+    public void put(final String key, final DocumentStream documentStream) throws IOException {
+        final Path temporary = Files.createTempFile(blobs, null, TEMPORARY_SUFFIX);
+        try {
+            final long length;
+            final String sha256;
+            try (DigestingChannel channel = new DigestingChannel(FileChannel.open(temporary, StandardOpenOption.WRITE))) {
+                length = documentStream.transferTo(channel);
+                sha256 = channel.getHexDigest();
+            }
+            synchronized (this) {
+                final Path blob = blobs.resolve(sha256);
+                if (references.containsKey(sha256) || Files.exists(blob)) {
+                    Files.delete(temporary);
+                } else {
+                    move(temporary, blob);
+                    if (!blob.toFile().setReadOnly()) {
+                        logger.debug("Could not make cached document " + sha256 + " read-only");
+                    }
+                }
+                final Entry entry = new Entry(sha256, length, documentStream.getDocumentId(), documentStream.getName());
+                final Entry previous = entries.put(key, entry);
+                reference(sha256, length);
+                if (previous != null) {
+                    release(previous);
+                } else {
+                    addEnvelope(key);
+                }
+                final StringBuilder changes = new StringBuilder(line(key, entry));
+                for (final String evicted : evict(key)) {
+                    changes.append(removal(evicted));
+                }
+                append(changes);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Removes the content cached against the key.
+     *
+     * @param key the key
+     * @throws IOException if the index cannot be written
+     */
+    public synchronized void remove(final String key) throws IOException {
+        final Entry entry = entries.remove(key);
+        if (entry != null) {
+            release(entry);
+            removeEnvelope(key);
+            append(removal(key));
+        }
+    }
+
+    /**
+     * Checks if content is cached against the key, without marking it as recently used.
+     *
+     * @param key the key
+     * @return true, if cached
+     */
+    public synchronized boolean contains(final String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Gets the size of the cached content.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the maximum size of the cached content.
+     *
+     * @return the maximum size in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Gets the cache directory.
+     *
+     * @return the directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /** Looks the entry up and marks it as recently used. */
+    private synchronized Entry lookup(final String key) {
+        return entries.get(key);
+    }
+
+    /** Replaces the file with a hard link to the content of the entry, or returns false if it cannot be linked. */
+    private boolean link(final Entry entry, final Path target) {
+        try {
+            Files.delete(target);
+            Files.createLink(target, blobs.resolve(entry.sha256));
+            return true;
+        } catch (final IOException ioe) {
+            logger.debug("Could not link cached document " + entry.sha256 + " to " + target, ioe);
+        } catch (final UnsupportedOperationException uoe) {
+            logger.debug("Could not link cached document " + entry.sha256 + " to " + target, uoe);
+        }
+        return false;
+    }
+
+    /** Copies the content of the entry to the file, or returns -1 if it has been evicted since the lookup. */
+    private long copy(final Entry entry, final Path target) throws IOException {
+        final FileChannel source;
+        try {
+            source = FileChannel.open(blobs.resolve(entry.sha256), StandardOpenOption.READ);
+        } catch (final NoSuchFileException nsfe) {
+            return -1;
+        }
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long length = source.size();
+            long position = 0;
+            while (position < length) {
+                position += source.transferTo(position, length - position, channel);
+            }
+            return position;
+        } finally {
+            source.close();
+        }
+    }
+
+    private void reference(final String sha256, final long length) {
+        final Integer count = references.get(sha256);
+        if (count == null) {
+            references.put(sha256, 1);
+            size += length;
+        } else {
+            references.put(sha256, count + 1);
+        }
+    }
+
+    private void release(final Entry entry) {
+        final int count = references.get(entry.sha256) - 1;
+        if (count > 0) {
+            references.put(entry.sha256, count);
+            return;
+        }
+        references.remove(entry.sha256);
+        size -= entry.length;
+        try {
+            final Path blob = blobs.resolve(entry.sha256);
+            blob.toFile().setWritable(true);
+            Files.deleteIfExists(blob);
+        } catch (final IOException ioe) {
+            logger.warn("Could not delete cached document " + entry.sha256, ioe);
+        }
+    }
+
+    private void addEnvelope(final String key) {
+        final String envelopeId = getEnvelopeId(key);
+        if (envelopeId != null) {
+            final Integer count = envelopes.get(envelopeId);
+            envelopes.put(envelopeId, count == null ? 1 : count + 1);
+        }
+    }
+
+    private void removeEnvelope(final String key) {
+        final String envelopeId = getEnvelopeId(key);
+        if (envelopeId != null) {
+            final int count = envelopes.get(envelopeId) - 1;
+            if (count > 0) {
+                envelopes.put(envelopeId, count);
+            } else {
+                envelopes.remove(envelopeId);
+            }
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until the content fits, always keeping the entry just cached.
+     *
+     * @return the evicted keys
+     */
+    private List<String> evict(final String keep) {
+        final List<String> evicted = new ArrayList<String>();
+        final Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (size > maxBytes && eldest.hasNext()) {
+            final Map.Entry<String, Entry> entry = eldest.next();
+            if (!entry.getKey().equals(keep)) {
+                eldest.remove();
+                release(entry.getValue());
+                removeEnvelope(entry.getKey());
+                evicted.add(entry.getKey());
+            }
+        }
+        return evicted;
+    }
+
+    private void load() throws IOException {
+        final Path index = directory.resolve(INDEX);
+        try (BufferedReader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                indexLines++;
+                final String[] fields = line.split("\t", -1);
+                if (fields.length == 2 && REMOVED.equals(fields[1])) {
+                    final Entry removed = entries.remove(fields[0]);
+                    if (removed != null) {
+                        unreference(removed);
+                        removeEnvelope(fields[0]);
+                    }
+                    continue;
+                }
+                final Entry entry = parse(fields);
+                if (entry == null || !Files.isRegularFile(blobs.resolve(entry.sha256))) {
+                    logger.warn("Ignoring invalid document cache entry: " + line);
+                    continue;
+                }
+                final Entry previous = entries.put(fields[0], entry);
+                reference(entry.sha256, entry.length);
+                if (previous != null) {
+                    unreference(previous);
+                } else {
+                    addEnvelope(fields[0]);
+                }
+            }
+        } catch (final NoSuchFileException nsfe) {
+            // a new cache
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(blobs)) {
+            for (final Path file : files) {
+                if (!references.containsKey(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        evict(null);
+        if (indexLines > entries.size()) {
+            save();
+        }
+    }
+
+    private static Entry parse(final String[] fields) {
+        if (fields.length != 5) {
+            return null;
+        }
+        try {
+            return new Entry(fields[1], Long.parseLong(fields[2]), emptyToNull(fields[3]), emptyToNull(fields[4]));
+        } catch (final NumberFormatException nfe) {
+            return null;
+        }
+    }
+
+    /** Drops a reference read from the index, keeping the content, which is checked once the whole index is read. */
+    private void unreference(final Entry entry) {
+        final int count = references.get(entry.sha256) - 1;
+        if (count > 0) {
+            references.put(entry.sha256, count);
+        } else {
+            references.remove(entry.sha256);
+            size -= entry.length;
+        }
+    }
+
+    /** Appends the changes to the index, rewriting it instead once most of its lines are stale. */
+    private void append(final CharSequence changes) throws IOException {
+        for (int i = 0; i < changes.length(); i++) {
+            if (changes.charAt(i) == '\n') {
+                indexLines++;
+            }
+        }
+        if (indexLines > MIN_COMPACT_LINES && indexLines > 2 * entries.size()) {
+            save();
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve(INDEX), StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            writer.append(changes);
+        }
+    }
+
+    private static String line(final String key, final Entry entry) {
+        return key + '\t' + entry.sha256 + '\t' + entry.length + '\t' + clean(entry.documentId) + '\t'
+            + clean(entry.name) + '\n';
+    }
+
+    private static String removal(final String key) {
+        return key + '\t' + REMOVED + '\n';
+    }
+
+    /** Rewrites the index in least recently used order, so the order survives a restart. */
+    private void save() throws IOException {
+        final Path index = directory.resolve(INDEX);
+        final Path temporary = Files.createTempFile(directory, INDEX, TEMPORARY_SUFFIX);
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                for (final Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    writer.write(line(entry.getKey(), entry.getValue()));
+                }
+            }
+            move(temporary, index);
+            indexLines = entries.size();
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void move(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final AtomicMoveNotSupportedException amnse) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static File createTempFile(final String name) throws IOException {
+        String prefix = name == null ? null : name.replaceAll("\\.[^.]*$", "");
+        if (prefix == null || prefix.length() < 3) {
+            prefix = "pfx";
+        }
+        final String downloadDirectory = DocuSignClient.getDownloadDirectory();
+        if (downloadDirectory != null) {
+            try {
+                return File.createTempFile(prefix, PDF_EXTENSION, new File(downloadDirectory));
+            } catch (final IOException ioe) {
+                logger.error("Could not bind to specified download directory " + downloadDirectory
+                    + " so will use temp dir.");
+            }
+        }
+        return File.createTempFile(prefix, PDF_EXTENSION);
+    }
+
+    private static String clean(final String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private static String getEnvelopeId(final String key) {
+        final int separator = key.indexOf('/');
+        return separator > 0 ? key.substring(0, separator) : null;
+    }
+
+    private static String emptyToNull(final String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * The content cached against a key.
+     */
+    private static class Entry {
+
+        final String sha256;
+
+        final long length;
+
+        final String documentId;
+
+        final String name;
+
+        Entry(final String sha256, final long length, final String documentId, final String name) {
+            this.sha256 = sha256;
+            this.length = length;
+            this.documentId = documentId;
+            this.name = name;
+        }
+    }
+}
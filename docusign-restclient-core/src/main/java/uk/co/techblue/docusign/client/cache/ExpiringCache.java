@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.cache;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread-safe cache whose entries expire after a fixed time to live. Concurrent misses for the same key are collapsed
+ * into a single load: the first caller runs the loader and the others wait for its result. Failed loads are not cached.
+ * Once the maximum size is exceeded the entry loaded the longest time ago is evicted.
+ * <p>
+ * With a refresh-ahead time, an entry looked up within that time of its expiry is reloaded in the background on the
+ * refresh executor while the lookups keep returning the current value; the reloaded value replaces it once loaded, and
+ * a failed reload leaves it in place until it expires. Only one reload of an entry runs at a time.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ExpiringCache<K, V> {
+
+    /**
+     * Loads the value for a key on a cache miss.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param <EX> the exception thrown if the value cannot be loaded
+     */
+    public interface Loader<K, V, EX extends Exception> {
+
+        /**
+         * Loads the value.
+         *
+         * @param key the key
+         * @return the value, must not be null
+         * @throws EX if the value cannot be loaded
+         */
+        V load(K key) throws EX;
+    }
+
+    /** The entries. */
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<K, Entry<V>>();
+
+    /** The time to live in milliseconds, zero or less for no expiry. */
+    private final long timeToLiveMillis;
+
+    /** The maximum number of entries. */
+    private final int maxSize;
+
+    /** How long before expiry a lookup reloads the entry in the background, zero or less to never refresh ahead. */
+    private final long refreshAheadMillis;
+
+    /** The executor reloading the entries in the background. */
+    private final Executor refreshExecutor;
+
+    private final static Logger logger = LoggerFactory.getLogger(ExpiringCache.class);
+
+    /**
+     * Instantiates a new expiring cache.
+     *
+     * @param timeToLiveMillis the time to live of an entry in milliseconds, zero or less for no expiry
+     * @param maxSize the maximum number of entries, must be greater than zero
+     */
+    public ExpiringCache(final long timeToLiveMillis, final int maxSize) {
+        this(timeToLiveMillis, maxSize, 0, null);
+    }
+
+    /**
+     * Instantiates a new expiring cache refreshing its entries ahead of expiry.
+     *
+     * @param timeToLiveMillis the time to live of an entry in milliseconds, zero or less for no expiry
+     * @param maxSize the maximum number of entries, must be greater than zero
+     * @param refreshAheadMillis how long before expiry a lookup reloads the entry in the background, zero or less to
+     *        never refresh ahead
+     * @param refreshExecutor the executor reloading the entries in the background, required to refresh ahead
+     */
+    public ExpiringCache(final long timeToLiveMillis, final int maxSize, final long refreshAheadMillis,
+        final Executor refreshExecutor) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than zero: " + maxSize);
+        }
+        if (refreshAheadMillis > 0 && refreshExecutor == null) {
+            throw new IllegalArgumentException("Refreshing ahead requires an executor");
+        }
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.maxSize = maxSize;
+        this.refreshAheadMillis = refreshAheadMillis;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Gets the value cached against the key, loading it if it is missing or expired.
+     *
+     * @param <EX> the exception thrown by the loader
+     * @param key the key
+     * @param loader the loader
+     * @return the value
+     * @throws EX if the value cannot be loaded
+     */
+    public <EX extends Exception> V get(final K key, final Loader<? super K, V, EX> loader) throws EX {
+        while (true) {
+            final Entry<V> entry = entries.get(key);
+            if (entry != null && !isExpired(entry)) {
+                if (isDueForRefresh(entry)) {
+                    refresh(key, entry, loader);
+                }
+                return await(key, entry);
+            }
+            final Entry<V> loading = new Entry<V>(key, loader);
+            final boolean installed = entry == null ? entries.putIfAbsent(key, loading) == null
+                : entries.replace(key, entry, loading);
+            if (installed) {
+                loading.task.run();
+                evictIfNecessary();
+                return await(key, loading);
+            }
+        }
+    }
+
+    /**
+     * Gets the value cached against the key without loading it.
+     *
+     * @param key the key
+     * @return the value, or null if it is missing, expired or still loading
+     */
+    public V getIfPresent(final K key) {
+        final Entry<V> entry = entries.get(key);
+        if (entry == null || !entry.task.isDone() || isExpired(entry)) {
+            return null;
+        }
+        try {
+            return entry.task.get();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (final ExecutionException ee) {
+            return null;
+        }
+    }
+
+    /**
+     * Removes the entry cached against the key, so that the next lookup reloads it.
+     *
+     * @param key the key
+     */
+    public void invalidate(final K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of entries, including the ones still loading.
+     *
+     * @return the size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Checks if the entry has outlived the time to live.
+     *
+     * @param entry the entry
+     * @return true, if expired
+     */
+    private boolean isExpired(final Entry<V> entry) {
+        return timeToLiveMillis > 0 && entry.task.isDone()
+            && System.currentTimeMillis() - entry.loadedAt > timeToLiveMillis;
+    }
+
+    /**
+     * Checks if the entry is loaded and close enough to its expiry to be reloaded ahead.
+     *
+     * @param entry the entry
+     * @return true, if the entry should be reloaded
+     */
+    private boolean isDueForRefresh(final Entry<V> entry) {
+        return refreshAheadMillis > 0 && timeToLiveMillis > 0 && entry.task.isDone() && !entry.refreshing.get()
+            && System.currentTimeMillis() - entry.loadedAt > timeToLiveMillis - refreshAheadMillis;
+    }
+
+    /**
+     * Reloads the entry on the refresh executor, replacing it once the value is loaded.
+     *
+     * @param key the key
+     * @param entry the entry
+     * @param loader the loader
+     */
+    private void refresh(final K key, final Entry<V> entry, final Loader<? super K, V, ?> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        final Entry<V> refreshed = new Entry<V>(key, loader);
+        try {
+            refreshExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    refreshed.task.run();
+                    try {
+                        refreshed.task.get();
+                        entries.replace(key, entry, refreshed);
+                    } catch (final InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        entry.refreshing.set(false);
+                    } catch (final ExecutionException ee) {
+                        logger.warn("Error occurred while refreshing cached entry " + key, ee.getCause());
+                        entry.refreshing.set(false);
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException ree) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Waits for the entry to be loaded. A failed entry is removed so that a later lookup retries the load.
+     *
+     * @param <EX> the exception thrown by the loader
+     * @param key the key
+     * @param entry the entry
+     * @return the value
+     * @throws EX the exception thrown by the loader
+     */
+    @SuppressWarnings("unchecked")
+    private <EX extends Exception> V await(final K key, final Entry<V> entry) throws EX {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return entry.task.get();
+                } catch (final InterruptedException ie) {
+                    interrupted = true;
+                } catch (final ExecutionException ee) {
+                    entries.remove(key, entry);
+                    final Throwable cause = ee.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw (EX) cause;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Evicts the entries loaded the longest time ago until the cache fits its maximum size.
+     */
+    private void evictIfNecessary() {
+        while (entries.size() > maxSize) {
+            Map.Entry<K, Entry<V>> eldest = null;
+            for (final Map.Entry<K, Entry<V>> candidate : entries.entrySet()) {
+                if (!candidate.getValue().task.isDone()) {
+                    continue;
+                }
+                if (eldest == null || candidate.getValue().loadedAt < eldest.getValue().loadedAt) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            entries.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * A cache entry, holding the task which loads its value.
+     *
+     * @param <V> the value type
+     */
+    private static final class Entry<V> {
+        final FutureTask<V> task;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long loadedAt;
+
+        <K> Entry(final K key, final Loader<? super K, V, ?> loader) {
+            this.task = new FutureTask<V>(new Callable<V>() {
+                @Override
+                public V call() throws Exception {
+                    final V value = loader.load(key);
+                    loadedAt = System.currentTimeMillis();
+                    return value;
+                }
+            });
+        }
+    }
+}
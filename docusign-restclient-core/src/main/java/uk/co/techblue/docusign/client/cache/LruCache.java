@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe, size bounded cache which evicts the least recently used entry once the maximum size is reached.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LruCache<K, V> {
+
+    /** The maximum number of entries. */
+    private final int maxSize;
+
+    /** The entries in access order. */
+    private final Map<K, V> entries;
+
+    /**
+     * Instantiates a new LRU cache.
+     *
+     * @param maxSize the maximum number of entries, must be greater than zero
+     */
+    public LruCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than zero: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached value and marks it as recently used.
+     *
+     * @param key the key
+     * @return the value, or null if not cached
+     */
+    public synchronized V get(final K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches the value unless another value is already cached against the key.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the value cached against the key after the call
+     */
+    public synchronized V putIfAbsent(final K key, final V value) {
+        final V existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        entries.put(key, value);
+        return value;
+    }
+
+    /**
+     * Caches the value, replacing any previous value cached against the key.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public synchronized void put(final K key, final V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Removes the value cached against the key.
+     *
+     * @param key the key
+     * @return the removed value, or null if not cached
+     */
+    public synchronized V remove(final K key) {
+        return entries.remove(key);
+    }
+
+    /**
+     * Removes all the cached entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached entries.
+     *
+     * @return the size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the maximum number of entries.
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.cache;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import uk.co.techblue.docusign.client.credential.DocuSignCredentials;
+
+/**
+ * A thread-safe cache of the responses of the resource methods annotated with {@link ConditionalGet}, kept against the
+ * request and the credentials it was made with, along with their <code>ETag</code> and <code>Last-Modified</code>
+ * validators. The cache is bounded by a number of entries and by the total size of the response bodies, and evicts the
+ * least recently used entries once either is exceeded. Responses are revalidated on every call, never served without
+ * asking the server, and a <code>304 Not Modified</code> counts as a hit.
+ * <p>
+ * The deserialized entity of an entry is handed to every caller served from it, so the entities read from cached
+ * responses must not be modified.
+ */
+public class ResponseCache {
+
+    /** The maximum number of entries. */
+    private final int maxEntries;
+
+    /** The maximum total size of the response bodies. */
+    private final long maxBytes;
+
+    /** The entries in access order. */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+
+    /** The total size of the cached response bodies. */
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Instantiates a new response cache.
+     *
+     * @param maxEntries the maximum number of entries, must be greater than zero
+     * @param maxBytes the maximum total size of the response bodies, must be greater than zero
+     */
+    public ResponseCache(final int maxEntries, final long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than zero: " + maxEntries + " entries, "
+                + maxBytes + " bytes");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the cached entry and marks it as recently used.
+     *
+     * @param key the key
+     * @return the entry, or null if not cached
+     */
+    synchronized Entry get(final Key key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches the entry, replacing any previous entry cached against the key. An entry larger than the cache is not
+     * cached.
+     *
+     * @param key the key
+     * @param entry the entry
+     */
+    synchronized void put(final Key key, final Entry entry) {
+        remove(key);
+        if (entry.content.length > maxBytes) {
+            return;
+        }
+        entries.put(key, entry);
+        bytes += entry.content.length;
+        final Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            bytes -= eldest.next().content.length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Removes the entry cached against the key.
+     *
+     * @param key the key
+     */
+    synchronized void remove(final Key key) {
+        final Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.content.length;
+        }
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * Removes all the cached entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Gets the number of cached entries.
+     *
+     * @return the size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the total size of the cached response bodies.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the number of calls answered with <code>304 Not Modified</code> and served from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of calls of cacheable methods which downloaded the response.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the maximum number of entries.
+     *
+     * @return the maximum number of entries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the maximum total size of the response bodies.
+     *
+     * @return the maximum size in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Identifies a request: the resource method and arguments, which give its URL under the server uri, and the
+     * credentials it is made with.
+     */
+    static final class Key {
+        private final String serverUri;
+        private final Method method;
+        private final Object[] args;
+        private final DocuSignCredentials credentials;
+        private final int hash;
+
+        Key(final String serverUri, final Method method, final Object[] args, final DocuSignCredentials credentials) {
+            this.serverUri = serverUri;
+            this.method = method;
+            this.args = args == null ? new Object[0] : args.clone();
+            this.credentials = credentials;
+            int result = serverUri == null ? 0 : serverUri.hashCode();
+            result = 31 * result + method.hashCode();
+            result = 31 * result + Arrays.hashCode(this.args);
+            this.hash = 31 * result + (credentials == null ? 0 : credentials.hashCode());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) obj;
+            return hash == that.hash && method.equals(that.method) && Arrays.equals(args, that.args)
+                && (serverUri == null ? that.serverUri == null : serverUri.equals(that.serverUri))
+                && (credentials == null ? that.credentials == null : credentials.equals(that.credentials));
+        }
+    }
+
+    /**
+     * A cached response: its validators, headers and body, and the entity last read from it.
+     */
+    public static final class Entry {
+        private final String entityTag;
+        private final String lastModified;
+        private final MultivaluedMap<String, Object> headers;
+        private final byte[] content;
+        private volatile Object entity;
+
+        Entry(final String entityTag, final String lastModified, final MultivaluedMap<String, Object> headers,
+            final byte[] content) {
+            this.entityTag = entityTag;
+            this.lastModified = lastModified;
+            this.headers = headers;
+            this.content = content;
+        }
+
+        /**
+         * Gets the <code>ETag</code> of the response.
+         *
+         * @return the entity tag, or null if the response had none
+         */
+        public String getEntityTag() {
+            return entityTag;
+        }
+
+        /**
+         * Gets the <code>Last-Modified</code> date of the response.
+         *
+         * @return the date, as sent by the server, or null if the response had none
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        MultivaluedMap<String, Object> getHeaders() {
+            return headers;
+        }
+
+        byte[] getContent() {
+            return content;
+        }
+
+        Object getEntity() {
+            return entity;
+        }
+
+        void setEntity(final Object entity) {
+            this.entity = entity;
+        }
+    }
+}
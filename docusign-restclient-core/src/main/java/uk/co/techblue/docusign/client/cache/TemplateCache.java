@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.cache;
+
+import java.util.concurrent.Executor;
+
+import uk.co.techblue.docusign.client.DocuSignClient;
+import uk.co.techblue.docusign.client.credential.DocuSignCredentials;
+import uk.co.techblue.docusign.client.dto.Template;
+import uk.co.techblue.docusign.client.dto.TemplateInfo;
+import uk.co.techblue.docusign.client.exception.TemplateException;
+
+/**
+ * A cache of template definitions and template lists, set on a
+ * {@link uk.co.techblue.docusign.client.services.TemplateService} through
+ * {@link uk.co.techblue.docusign.client.services.TemplateService#setTemplateCache(TemplateCache)} and shared by any
+ * number of services. Entries are kept against the account and credentials they were looked up with, expire after the
+ * time to live and are reloaded in the background shortly before, so frequent lookups never wait for a reload.
+ * Concurrent lookups of a missing template share a single call. The cached templates are handed to every caller and
+ * must not be modified.
+ */
+public class TemplateCache {
+
+    /** The default time to live of an entry: ten minutes. */
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 10 * 60 * 1000;
+
+    /** The default time before expiry at which an entry looked up is reloaded in the background: one minute. */
+    public static final long DEFAULT_REFRESH_AHEAD_MILLIS = 60 * 1000;
+
+    /** The default maximum number of templates. */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /** The template definitions. */
+    private final ExpiringCache<Key, Template> templates;
+
+    /** The template lists. */
+    private final ExpiringCache<Key, TemplateInfo> templateLists;
+
+    /**
+     * Instantiates a new template cache with the default time to live, refresh-ahead and size, reloading the entries on
+     * the asynchronous executor of the client.
+     */
+    public TemplateCache() {
+        this(DEFAULT_TIME_TO_LIVE_MILLIS, DEFAULT_REFRESH_AHEAD_MILLIS, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Instantiates a new template cache reloading the entries on the asynchronous executor of the client.
+     *
+     * @param timeToLiveMillis the time to live of an entry in milliseconds
+     * @param refreshAheadMillis how long before expiry a lookup reloads the entry in the background, zero or less to
+     *        never refresh ahead
+     * @param maxSize the maximum number of templates, must be greater than zero
+     */
+    public TemplateCache(final long timeToLiveMillis, final long refreshAheadMillis, final int maxSize) {
+        this(timeToLiveMillis, refreshAheadMillis, maxSize, DocuSignClient.getAsyncExecutor());
+    }
+
+    /**
+     * Instantiates a new template cache.
+     *
+     * @param timeToLiveMillis the time to live of an entry in milliseconds
+     * @param refreshAheadMillis how long before expiry a lookup reloads the entry in the background, zero or less to
+     *        never refresh ahead
+     * @param maxSize the maximum number of templates, must be greater than zero
+     * @param refreshExecutor the executor reloading the entries in the background
+     */
+    public TemplateCache(final long timeToLiveMillis, final long refreshAheadMillis, final int maxSize,
+        final Executor refreshExecutor) {
+        this.templates = new ExpiringCache<Key, Template>(timeToLiveMillis, maxSize, refreshAheadMillis, refreshExecutor);
+        this.templateLists = new ExpiringCache<Key, TemplateInfo>(timeToLiveMillis, maxSize, refreshAheadMillis,
+            refreshExecutor);
+    }
+
+    /**
+     * Gets the template definition, loading it if it is missing or expired.
+     *
+     * @param restBaseUri the rest base uri of the account
+     * @param credentials the credentials
+     * @param templateId the template id
+     * @param loader loads the template from its id
+     * @return the template
+     * @throws TemplateException if the template cannot be loaded
+     */
+    public Template getTemplate(final String restBaseUri, final DocuSignCredentials credentials, final String templateId,
+        final ExpiringCache.Loader<String, Template, TemplateException> loader) throws TemplateException {
+        return templates.get(new Key(restBaseUri, credentials, templateId),
+            (final Key key) -> loader.load(key.templateId));
+    }
+
+    /**
+     * Gets the template list of the account, loading it if it is missing or expired.
+     *
+     * @param restBaseUri the rest base uri of the account
+     * @param credentials the credentials
+     * @param loader loads the template list from the rest base uri
+     * @return the template list
+     * @throws TemplateException if the template list cannot be loaded
+     */
+    public TemplateInfo getTemplates(final String restBaseUri, final DocuSignCredentials credentials,
+        final ExpiringCache.Loader<String, TemplateInfo, TemplateException> loader) throws TemplateException {
+        return templateLists.get(new Key(restBaseUri, credentials, null), (final Key key) -> loader.load(key.restBaseUri));
+    }
+
+    /**
+     * Removes the template definition, so that the next lookup reloads it.
+     *
+     * @param restBaseUri the rest base uri of the account
+     * @param credentials the credentials
+     * @param templateId the template id
+     */
+    public void invalidateTemplate(final String restBaseUri, final DocuSignCredentials credentials,
+        final String templateId) {
+        templates.invalidate(new Key(restBaseUri, credentials, templateId));
+    }
+
+    /**
+     * Removes the template list of the account, so that the next lookup reloads it.
+     *
+     * @param restBaseUri the rest base uri of the account
+     * @param credentials the credentials
+     */
+    public void invalidateTemplates(final String restBaseUri, final DocuSignCredentials credentials) {
+        templateLists.invalidate(new Key(restBaseUri, credentials, null));
+    }
+
+    /**
+     * Removes all the template definitions and template lists.
+     */
+    public void invalidateAll() {
+        templates.invalidateAll();
+        templateLists.invalidateAll();
+    }
+
+    /**
+     * Gets the number of cached template definitions, including the ones still loading.
+     *
+     * @return the size
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    /**
+     * Identifies a template definition, or the template list when the template id is null.
+     */
+    static final class Key {
+        final String restBaseUri;
+        final DocuSignCredentials credentials;
+        final String templateId;
+
+        Key(final String restBaseUri, final DocuSignCredentials credentials, final String templateId) {
+            this.restBaseUri = restBaseUri;
+            this.credentials = credentials;
+            this.templateId = templateId;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = restBaseUri == null ? 0 : restBaseUri.hashCode();
+            result = 31 * result + (credentials == null ? 0 : credentials.hashCode());
+            return 31 * result + (templateId == null ? 0 : templateId.hashCode());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) obj;
+            return (restBaseUri == null ? that.restBaseUri == null : restBaseUri.equals(that.restBaseUri))
+                && (credentials == null ? that.credentials == null : credentials.equals(that.credentials))
+                && (templateId == null ? that.templateId == null : templateId.equals(that.templateId));
+        }
+    }
+}
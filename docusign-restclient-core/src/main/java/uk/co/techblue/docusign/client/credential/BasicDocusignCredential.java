@@ -15,8 +15,9 @@
  ******************************************************************************/
 package uk.co.techblue.docusign.client.credential;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
@@ -29,7 +30,8 @@ import uk.co.techblue.docusign.client.utils.DocuSignConstants;
 
 
 /**
- * The Class BasicDocusignCredential.
+ * The Class BasicDocusignCredential. Instances are immutable: the authentication header and the hash code are built
+ * once, when the credentials are created.
  * 
  * @author <a href="mailto:dheeraj.arora@techblue.co.uk">Dheeraj Arora</a>
  */
@@ -38,6 +40,9 @@ public class BasicDocusignCredential extends BaseDto implements DocuSignCredenti
     /** The Constant serialVersionUID. */
     private static final long serialVersionUID = 1488586910913230749L;
 
+    /** The Constant ROOT_ELEMENT. */
+    private static final String ROOT_ELEMENT = DocuSignCredentials.class.getSimpleName();
+
     /** The Constant TAG_USERNAME. */
     private static final String TAG_USERNAME = "Username";
 
@@ -51,16 +56,25 @@ public class BasicDocusignCredential extends BaseDto implements DocuSignCredenti
     private static final String SEND_ON_BEHALF_OF = "SendOnBehalfOf";
 
     /** The username. */
-    private String username;
+    private final String username;
 
     /** The password. */
-    private String password;
+    private final String password;
 
     /** The integrator key. */
-    private String integratorKey;
+    private final String integratorKey;
 
     /** The send on behalf of. */
-    private String sendOnBehalfOf;
+    private final String sendOnBehalfOf;
+
+    /** The value of the authentication header, built once. */
+    private final transient String headerValue;
+
+    /** The authentication header, built once. */
+    private final transient List<Header> headers;
+
+    /** The hash code, computed once. */
+    private final transient int hash;
 
     /**
      * Instantiates a new docu sign credentials.
@@ -70,9 +84,7 @@ public class BasicDocusignCredential extends BaseDto implements DocuSignCredenti
      * @param integratorKey the integrator key
      */
     public BasicDocusignCredential(final String username, final String password, final String integratorKey) {
-        this.username = username;
-        this.password = password;
-        this.integratorKey = integratorKey;
+        this(username, password, integratorKey, null);
     }
 
     /**
@@ -84,8 +96,14 @@ public class BasicDocusignCredential extends BaseDto implements DocuSignCredenti
      * @param sendOnBehalfOf the user to send on behalf of
      */
     public BasicDocusignCredential(final String username, final String password, final String integratorKey, final String sendOnBehalfOf) {
-        this(username, password, integratorKey);
+        this.username = username;
+        this.password = password;
+        this.integratorKey = integratorKey;
         this.sendOnBehalfOf = sendOnBehalfOf;
+        this.headerValue = buildHeaderValue(username, password, integratorKey, sendOnBehalfOf);
+        this.headers = Collections.<Header> singletonList(
+            new BasicHeader(DocuSignConstants.HEADER_PARAM_AUTHENTICATION, headerValue));
+        this.hash = Objects.hash(username, password, integratorKey, sendOnBehalfOf);
     }
 
     /**
@@ -95,46 +113,41 @@ public class BasicDocusignCredential extends BaseDto implements DocuSignCredenti
      * @return the string representation of credentials
      */
     public static String valueOf(final BasicDocusignCredential credentials) {
-        final String rootElement = DocuSignCredentials.class.getSimpleName();
-        final StringBuffer buffer = new StringBuffer();
-        buffer.append(wrapInAngularBrackets(rootElement, false));
-
-        buffer.append(wrapInAngularBrackets(TAG_USERNAME, false));
-        buffer.append(String.valueOf(credentials.getUsername()));
-        buffer.append(wrapInAngularBrackets(TAG_USERNAME, true));
-
-        buffer.append(wrapInAngularBrackets(TAG_PASSWORD, false));
-        buffer.append(String.valueOf(credentials.getPassword()));
-        buffer.append(wrapInAngularBrackets(TAG_PASSWORD, true));
-
-        buffer.append(wrapInAngularBrackets(TAG_INTEGRATOR_KEY, false));
-        buffer.append(String.valueOf(credentials.getIntegratorKey()));
-        buffer.append(wrapInAngularBrackets(TAG_INTEGRATOR_KEY, true));
-
-        if (!StringUtils.isBlank(credentials.getSendOnBehalfOf())) {
-            buffer.append(wrapInAngularBrackets(SEND_ON_BEHALF_OF, false));
-            buffer.append(String.valueOf(credentials.getSendOnBehalfOf()));
-            buffer.append(wrapInAngularBrackets(SEND_ON_BEHALF_OF, true));
-        }
+        return credentials.headerValue;
+    }
 
-        buffer.append(wrapInAngularBrackets(rootElement, true));
+    /**
+     * Builds the XML value of the authentication header.
+     *
+     * @param username the username
+     * @param password the password
+     * @param integratorKey the integrator key
+     * @param sendOnBehalfOf the user to send on behalf of
+     * @return the header value
+     */
+    private static String buildHeaderValue(final String username, final String password, final String integratorKey,
+        final String sendOnBehalfOf) {
+        final StringBuilder buffer = new StringBuilder(160);
+        buffer.append('<').append(ROOT_ELEMENT).append('>');
+        appendElement(buffer, TAG_USERNAME, username);
+        appendElement(buffer, TAG_PASSWORD, password);
+        appendElement(buffer, TAG_INTEGRATOR_KEY, integratorKey);
+        if (!StringUtils.isBlank(sendOnBehalfOf)) {
+            appendElement(buffer, SEND_ON_BEHALF_OF, sendOnBehalfOf);
+        }
+        buffer.append("</").append(ROOT_ELEMENT).append('>');
         return buffer.toString();
     }
 
     /**
-     * Wrap in angular brackets.
+     * Appends an element to the header value.
      * 
+     * @param buffer the buffer
      * @param tagName the tag name
-     * @param isClosing the is closing
-     * @return the string
+     * @param value the value
      */
-    private static String wrapInAngularBrackets(final String tagName, final boolean isClosing) {
-        String wrapped = "<";
-        if (isClosing) {
-            wrapped += "/";
-        }
-        wrapped += tagName + ">";
-        return wrapped;
+    private static void appendElement(final StringBuilder buffer, final String tagName, final String value) {
+        buffer.append('<').append(tagName).append('>').append(value).append("</").append(tagName).append('>');
     }
 
     /**
@@ -147,15 +160,6 @@ public class BasicDocusignCredential extends BaseDto implements DocuSignCredenti
         return username;
     }
 
-    /**
-     * Sets the username.
-     * 
-     * @param username the new username
-     */
-    public void setUsername(final String username) {
-        this.username = username;
-    }
-
     /**
      * Gets the password.
      * 
@@ -165,15 +169,6 @@ public class BasicDocusignCredential extends BaseDto implements DocuSignCredenti
         return password;
     }
 
-    /**
-     * Sets the password.
-     * 
-     * @param password the new password
-     */
-    public void setPassword(final String password) {
-        this.password = password;
-    }
-
     /**
      * Gets the integrator key.
      * 
@@ -183,15 +178,6 @@ public class BasicDocusignCredential extends BaseDto implements DocuSignCredenti
         return integratorKey;
     }
 
-    /**
-     * Sets the integrator key.
-     * 
-     * @param integratorKey the new integrator key
-     */
-    public void setIntegratorKey(final String integratorKey) {
-        this.integratorKey = integratorKey;
-    }
-
     /**
      * Gets the send on behalf of value.
      *
@@ -201,15 +187,6 @@ public class BasicDocusignCredential extends BaseDto implements DocuSignCredenti
         return sendOnBehalfOf;
     }
 
-    /**
-     * Sets the send on behalf of value.
-     *
-     * @param sendOnBehalfOf the new send on behalf of value
-     */
-    public void setSendOnBehalfOf(final String sendOnBehalfOf) {
-        this.sendOnBehalfOf = sendOnBehalfOf;
-    }
-
     /*
      * (non-Javadoc)
      * 
@@ -217,7 +194,7 @@ public class BasicDocusignCredential extends BaseDto implements DocuSignCredenti
      */
     @Override
     public String toString() {
-        return valueOf(this);
+        return headerValue;
     }
 
     /*
@@ -228,33 +205,42 @@ public class BasicDocusignCredential extends BaseDto implements DocuSignCredenti
     @Override
     public void setHeader(final ClientInvocation request) {
         final ClientRequestHeaders headers = new ClientRequestHeaders(request.getClientConfiguration());
-        headers.header(DocuSignConstants.HEADER_PARAM_AUTHENTICATION, this);
+        headers.header(DocuSignConstants.HEADER_PARAM_AUTHENTICATION, headerValue);
         request.setHeaders(headers);
     }
 
     @Override
     public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
         if (!(obj instanceof BasicDocusignCredential)) {
             return false;
         }
         final BasicDocusignCredential that = (BasicDocusignCredential) obj;
-
-        /* username, password and integratorKey must be not null */
-        return this.username.equals(that.username)
-            && this.password.equals(that.password)
-            && this.integratorKey.equals(that.integratorKey);
+        return hash == that.hash
+            && Objects.equals(username, that.username)
+            && Objects.equals(password, that.password)
+            && Objects.equals(integratorKey, that.integratorKey)
+            && Objects.equals(sendOnBehalfOf, that.sendOnBehalfOf);
     }
 
     @Override
     public int hashCode() {
-        return (username + password + integratorKey).hashCode();
+        return hash;
     }
 
     @Override
     public List<Header> getHeader() {
-        final Header header = new BasicHeader(DocuSignConstants.HEADER_PARAM_AUTHENTICATION, valueOf(this));
-        final List<Header> headers = new ArrayList<>();
-        headers.add(header);
         return headers;
     }
+
+    /**
+     * Rebuilds the cached header and hash, which are not serialized.
+     *
+     * @return the credentials
+     */
+    private Object readResolve() {
+        return new BasicDocusignCredential(username, password, integratorKey, sendOnBehalfOf);
+    }
 }
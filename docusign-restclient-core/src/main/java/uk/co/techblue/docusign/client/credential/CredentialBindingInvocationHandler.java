@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.credential;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Wraps a shared resource proxy so that each call is made with the given credentials bound to the
+ * {@link CredentialsContext}. The wrapper is cheap to create, so each service holds its own over the proxy shared by all
+ * the credentials of its server uri.
+ */
+public class CredentialBindingInvocationHandler implements InvocationHandler {
+
+    /** The shared resource proxy. */
+    private final Object target;
+
+    /** The credentials of the calls. */
+    private final DocuSignCredentials credentials;
+
+    /**
+     * Instantiates a new credential binding invocation handler.
+     *
+     * @param target the shared resource proxy
+     * @param credentials the credentials of the calls
+     */
+    public CredentialBindingInvocationHandler(final Object target, final DocuSignCredentials credentials) {
+        this.target = target;
+        this.credentials = credentials;
+    }
+
+    /**
+     * Wraps the shared resource proxy in a proxy making its calls with the credentials.
+     *
+     * @param <T> the resource type
+     * @param resourceClass the resource class
+     * @param target the shared resource proxy
+     * @param credentials the credentials of the calls
+     * @return the resource proxy bound to the credentials
+     */
+    public static <T> T wrap(final Class<T> resourceClass, final T target, final DocuSignCredentials credentials) {
+        return resourceClass.cast(Proxy.newProxyInstance(resourceClass.getClassLoader(), new Class<?>[] {resourceClass},
+            new CredentialBindingInvocationHandler(target, credentials)));
+    }
+
+    /**
+     * Gets the credentials of the calls.
+     *
+     * @return the credentials
+     */
+    public DocuSignCredentials getCredentials() {
+        return credentials;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+     */
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeObjectMethod(proxy, method, args);
+        }
+        final DocuSignCredentials previous = CredentialsContext.bind(credentials);
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException ite) {
+            throw ite.getCause();
+        } finally {
+            CredentialsContext.restore(previous);
+        }
+    }
+
+    /**
+     * Invokes a method declared by {@link Object} on the proxy itself.
+     *
+     * @param proxy the proxy
+     * @param method the method
+     * @param args the arguments
+     * @return the result
+     */
+    private Object invokeObjectMethod(final Object proxy, final Method method, final Object[] args) {
+        final String name = method.getName();
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        }
+        return "Proxy bound to " + (credentials == null ? null : credentials.getUsername()) + " for " + target;
+    }
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.credential;
+
+/**
+ * Holds the credentials of the calls made by the current thread. Resource proxies are shared by all the credentials of a
+ * server uri, and the {@link uk.co.techblue.docusign.resteasy.filters.CredentialsRequestFilter} writes the headers of
+ * the credentials bound here when the request is sent. Services bind their own credentials around each call through a
+ * {@link CredentialBindingInvocationHandler}; code calling a shared proxy directly binds them itself:
+ *
+ * <pre>
+ * final DocuSignCredentials previous = CredentialsContext.bind(credentials);
+ * try {
+ *     resource.getLoginInformation();
+ * } finally {
+ *     CredentialsContext.restore(previous);
+ * }
+ * </pre>
+ */
+public final class CredentialsContext {
+
+    /** The credentials bound to the current thread. */
+    private static final ThreadLocal<DocuSignCredentials> CURRENT = new ThreadLocal<DocuSignCredentials>();
+
+    private CredentialsContext() {
+    }
+
+    /**
+     * Gets the credentials bound to the current thread.
+     *
+     * @return the credentials, or null if none are bound
+     */
+    public static DocuSignCredentials getCredentials() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds the credentials to the current thread.
+     *
+     * @param credentials the credentials
+     * @return the credentials previously bound, to be passed to {@link #restore(DocuSignCredentials)}
+     */
+    public static DocuSignCredentials bind(final DocuSignCredentials credentials) {
+        final DocuSignCredentials previous = CURRENT.get();
+        CURRENT.set(credentials);
+        return previous;
+    }
+
+    /**
+     * Restores the credentials bound before the matching {@link #bind(DocuSignCredentials)}.
+     *
+     * @param previous the credentials returned by the matching bind
+     */
+    public static void restore(final DocuSignCredentials previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
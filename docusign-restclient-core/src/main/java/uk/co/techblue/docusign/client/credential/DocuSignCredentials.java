@@ -42,9 +42,10 @@ public interface DocuSignCredentials {
     public String getUsername();
 
     /**
-     * Gets the header.
+     * Gets the headers authenticating a request. Implementations build the list once and return the same unmodifiable
+     * instance on every call.
      * 
-     * @param request the new header
+     * @return the headers
      */
     public List<Header> getHeader();
 }
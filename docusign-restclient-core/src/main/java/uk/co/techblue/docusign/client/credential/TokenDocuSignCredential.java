@@ -16,9 +16,14 @@
 package uk.co.techblue.docusign.client.credential;
 
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
+import org.apache.http.message.BasicHeader;
 import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
 import org.jboss.resteasy.client.jaxrs.internal.ClientRequestHeaders;
 
@@ -26,7 +31,8 @@ import uk.co.techblue.docusign.client.dto.BaseDto;
 import uk.co.techblue.docusign.client.utils.DocuSignConstants;
 
 /**
- * The Class TokenDocuSignCredential.
+ * The Class TokenDocuSignCredential. Instances are immutable: the authorization headers and the hash code are built
+ * once, when the credentials are created.
  */
 public class TokenDocuSignCredential extends BaseDto implements DocuSignCredentials {
 
@@ -42,6 +48,12 @@ public class TokenDocuSignCredential extends BaseDto implements DocuSignCredenti
     /** X-DocuSign-Act-As-User. */
     private final String xDocuSignActAsUser;
 
+    /** The authorization headers, built once. */
+    private final transient List<Header> headers;
+
+    /** The hash code, computed once. */
+    private final transient int hash;
+
     /**
      * Instantiates a new token docu sign credential.
      * 
@@ -53,6 +65,14 @@ public class TokenDocuSignCredential extends BaseDto implements DocuSignCredenti
         this.token = token;
         this.username = username;
         this.xDocuSignActAsUser = xDocuSignActAsUser;
+        final Header authorization = new BasicHeader(DocuSignConstants.HEADER_PARAM_AUTHORIZATION, "bearer " + token);
+        if (StringUtils.isEmpty(xDocuSignActAsUser)) {
+            this.headers = Collections.singletonList(authorization);
+        } else {
+            this.headers = Collections.unmodifiableList(Arrays.<Header> asList(authorization,
+                new BasicHeader(DocuSignConstants.HEADER_PARAM_ACT_AS_USER, xDocuSignActAsUser)));
+        }
+        this.hash = Objects.hash(token, username, xDocuSignActAsUser);
     }
 
     /*
@@ -81,35 +101,54 @@ public class TokenDocuSignCredential extends BaseDto implements DocuSignCredenti
      */
     @Override
     public void setHeader(final ClientInvocation request) {
-        final ClientRequestHeaders headers = new ClientRequestHeaders(request.getClientConfiguration());
-        headers.header(DocuSignConstants.HEADER_PARAM_AUTHORIZATION, "bearer " + token);
-        if (xDocuSignActAsUser != null && !xDocuSignActAsUser.equals("")) {
-            headers.header(DocuSignConstants.HEADER_PARAM_ACT_AS_USER, xDocuSignActAsUser);
+        final ClientRequestHeaders requestHeaders = new ClientRequestHeaders(request.getClientConfiguration());
+        for (int i = 0; i < headers.size(); i++) {
+            requestHeaders.header(headers.get(i).getName(), headers.get(i).getValue());
         }
-        request.setHeaders(headers);
+        request.setHeaders(requestHeaders);
     }
 
     @Override
     public int hashCode() {
-        return (token + username + (xDocuSignActAsUser != null? xDocuSignActAsUser: "")).hashCode();
+        return hash;
     }
 
     @Override
-    public boolean equals (final Object obj) {
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
         if (!(obj instanceof TokenDocuSignCredential)) {
             return false;
         }
-        final TokenDocuSignCredential that = (TokenDocuSignCredential)obj;
+        final TokenDocuSignCredential that = (TokenDocuSignCredential) obj;
+        return hash == that.hash
+            && Objects.equals(token, that.token)
+            && Objects.equals(username, that.username)
+            && Objects.equals(xDocuSignActAsUser, that.xDocuSignActAsUser);
+    }
 
-        return token.equals(that.token) 
-            && username.equals(that.username)
-            && ((xDocuSignActAsUser == null && that.xDocuSignActAsUser == null)
-                || (xDocuSignActAsUser != null && xDocuSignActAsUser.equals(that.xDocuSignActAsUser)));
+    /**
+     * Writes the token as the username only, so that the token does not end up in logs.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return "TokenDocuSignCredential[username=" + username + ",xDocuSignActAsUser=" + xDocuSignActAsUser + "]";
     }
 
     @Override
     public List<Header> getHeader() {
-        // TODO Auto-generated method stub
-        return null;
+        return headers;
+    }
+
+    /**
+     * Rebuilds the cached headers and hash, which are not serialized.
+     *
+     * @return the credentials
+     */
+    private Object readResolve() {
+        return new TokenDocuSignCredential(token, username, xDocuSignActAsUser);
     }
 }
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.document;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Computes the SHA-256 checksum of the bytes written to a channel, so content can be checksummed while it is written
+ * to disk rather than read again afterwards.
+ */
+public class DigestingChannel implements WritableByteChannel {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final WritableByteChannel channel;
+
+    private final MessageDigest digest;
+
+    /**
+     * Instantiates a new digesting channel.
+     *
+     * @param channel the channel the bytes are written to
+     */
+    public DigestingChannel(final WritableByteChannel channel) {
+        this.channel = channel;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 is not supported", nsae);
+        }
+    }
+
+    @Override
+    public int write(final ByteBuffer source) throws IOException {
+        final ByteBuffer written = source.duplicate();
+        final int count = channel.write(source);
+        written.limit(written.position() + count);
+        digest.update(written);
+        return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Completes the checksum of the bytes written so far and resets it.
+     *
+     * @return the SHA-256 checksum, in lower case hexadecimal
+     */
+    public String getHexDigest() {
+        final byte[] bytes = digest.digest();
+        final char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.document;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The manifest of the documents of an envelope downloaded by a {@link DocumentBundleDownloader}: the file, size and
+ * SHA-256 checksum of every document and of the certificate.
+ */
+public class DocumentBundle {
+
+    /** The envelope id. */
+    private final String envelopeId;
+
+    /** The directory holding the files. */
+    private final Path directory;
+
+    /** The downloaded files, documents first and certificate last. */
+    private final List<Entry> entries;
+
+    /**
+     * Instantiates a new document bundle.
+     *
+     * @param envelopeId the envelope id
+     * @param directory the directory holding the files
+     * @param entries the downloaded files
+     */
+    public DocumentBundle(final String envelopeId, final Path directory, final List<Entry> entries) {
+        this.envelopeId = envelopeId;
+        this.directory = directory;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Gets the envelope id.
+     *
+     * @return the envelope id
+     */
+    public String getEnvelopeId() {
+        return envelopeId;
+    }
+
+    /**
+     * Gets the directory holding the files.
+     *
+     * @return the directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets the downloaded files, in the order of the envelope documents, the certificate last.
+     *
+     * @return the entries
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the total size of the downloaded files.
+     *
+     * @return the size in bytes
+     */
+    public long getTotalSize() {
+        long total = 0;
+        for (final Entry entry : entries) {
+            total += entry.getSize();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentBundle[envelopeId=" + envelopeId + ", directory=" + directory + ", entries=" + entries + "]";
+    }
+
+    /**
+     * A downloaded file.
+     */
+    public static class Entry {
+
+        /** The document id, <code>certificate</code> for the certificate. */
+        private final String documentId;
+
+        /** The document name. */
+        private final String name;
+
+        /** The file. */
+        private final Path file;
+
+        /** The size in bytes. */
+        private final long size;
+
+        /** The SHA-256 checksum, in lower case hexadecimal. */
+        private final String sha256;
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param documentId the document id
+         * @param name the document name
+         * @param file the file
+         * @param size the size in bytes
+         * @param sha256 the SHA-256 checksum, in lower case hexadecimal
+         */
+        public Entry(final String documentId, final String name, final Path file, final long size, final String sha256) {
+            this.documentId = documentId;
+            this.name = name;
+            this.file = file;
+            this.size = size;
+            this.sha256 = sha256;
+        }
+
+        /**
+         * Gets the document id.
+         *
+         * @return the document id, <code>certificate</code> for the certificate
+         */
+        public String getDocumentId() {
+            return documentId;
+        }
+
+        /**
+         * Gets the document name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the file.
+         *
+         * @return the file
+         */
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * Gets the size.
+         *
+         * @return the size in bytes
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Gets the SHA-256 checksum.
+         *
+         * @return the checksum, in lower case hexadecimal
+         */
+        public String getSha256() {
+            return sha256;
+        }
+
+        @Override
+        public String toString() {
+            return documentId + ":" + file.getFileName() + "[" + size + " bytes, sha256=" + sha256 + "]";
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.document;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import uk.co.techblue.docusign.client.DocuSignClient;
+import uk.co.techblue.docusign.client.dto.EnvelopeDocument;
+import uk.co.techblue.docusign.client.dto.EnvelopeDocumentInfo;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+
+/**
+ * Downloads all the documents of an envelope and its certificate into a directory, several at a time. Each file is
+ * streamed from the response to disk while its SHA-256 checksum is computed, and is written under a temporary name
+ * that is only renamed once complete, so an interrupted download never leaves a truncated file under the final name.
+ * <p>
+ * The downloads of one envelope are spread over at most <code>parallelism</code> workers: one runs on the calling
+ * thread and the others on the executor, so a parallelism of one downloads sequentially without using the executor.
+ * Workers the executor rejects are not started, the others taking over their downloads. All the workers have
+ * finished when {@link #download(String, Path)} returns or throws. The requests still go through the rate limiting of
+ * the client.
+ */
+public class DocumentBundleDownloader {
+
+    /** The default number of files of one envelope downloaded at the same time. */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    /** The document id DocuSign gives the certificate in the document list. */
+    public static final String CERTIFICATE_ID = "certificate";
+
+    private static final String PDF_EXTENSION = ".pdf";
+
+    private static final String PART_EXTENSION = ".part";
+
+    /** The envelope service. */
+    private final EnvelopeService envelopeService;
+
+    /** The number of files of one envelope downloaded at the same time. */
+    private final int parallelism;
+
+    /** The executor running the additional workers. */
+    private final Executor executor;
+
+    /**
+     * Instantiates a new document bundle downloader with the default parallelism.
+     *
+     * @param envelopeService the envelope service
+     */
+    public DocumentBundleDownloader(final EnvelopeService envelopeService) {
+        this(envelopeService, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Instantiates a new document bundle downloader running its additional workers on the asynchronous executor of
+     * the client.
+     *
+     * @param envelopeService the envelope service
+     * @param parallelism the number of files of one envelope downloaded at the same time
+     */
+    public DocumentBundleDownloader(final EnvelopeService envelopeService, final int parallelism) {
+        this(envelopeService, parallelism, DocuSignClient.getAsyncExecutor());
+    }
+
+    /**
+     * Instantiates a new document bundle downloader.
+     *
+     * @param envelopeService the envelope service
+     * @param parallelism the number of files of one envelope downloaded at the same time
+     * @param executor the executor running the additional workers
+     */
+    public DocumentBundleDownloader(final EnvelopeService envelopeService, final int parallelism,
+        final Executor executor) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive: " + parallelism);
+        }
+        this.envelopeService = envelopeService;
+        this.parallelism = parallelism;
+        this.executor = executor;
+    }
+
+    /**
+     * Downloads the documents and the certificate of the envelope into the directory, which is created if needed.
+     * Existing files of the same names are replaced.
+     *
+     * @param envelopeId the envelope id
+     * @param directory the target directory
+     * @return the manifest of the downloaded files
+     * @throws EnvelopeException if the document list or one of the files cannot be downloaded
+     */
+    public DocumentBundle download(final String envelopeId, final Path directory) throws EnvelopeException {
+        try {
+            Files.createDirectories(directory);
+        } catch (final IOException ioe) {
+            throw new EnvelopeException("Unable to create directory " + directory, ioe);
+        }
+        final EnvelopeDocumentInfo documentsInfo = envelopeService.getDocumentsInfo(envelopeId);
+        final List<Download> downloads = new ArrayList<Download>();
+        if (documentsInfo.getEnvelopeDocuments() != null) {
+            for (final EnvelopeDocument document : documentsInfo.getEnvelopeDocuments()) {
+                if (!CERTIFICATE_ID.equals(document.getDocumentId())) {
+                    downloads.add(new Download(document.getDocumentId(), document.getName(),
+                        directory.resolve(fileName(document.getDocumentId(), document.getName()))));
+                }
+            }
+        }
+        downloads.add(new Download(CERTIFICATE_ID, CERTIFICATE_ID, directory.resolve(CERTIFICATE_ID + PDF_EXTENSION)));
+
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicReference<EnvelopeException> failure = new AtomicReference<EnvelopeException>();
+        final Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < downloads.size() && failure.get() == null;
+                i = next.getAndIncrement()) {
+                try {
+                    downloads.get(i).run(envelopeId);
+                } catch (final EnvelopeException ee) {
+                    addFailure(failure, ee);
+                } catch (final RuntimeException re) {
+                    addFailure(failure, new EnvelopeException("Error occurred while downloading document "
+                        + downloads.get(i).documentId + " of envelope " + envelopeId, re));
+                }
+            }
+        };
+        final int workers = Math.min(parallelism, downloads.size());
+        final List<CompletableFuture<?>> others = new ArrayList<CompletableFuture<?>>(workers - 1);
+        try {
+            for (int i = 1; i < workers; i++) {
+                others.add(CompletableFuture.runAsync(worker, executor));
+            }
+        } catch (final RejectedExecutionException ree) {
+            // the worker of the calling thread goes through the remaining downloads
+        }
+        try {
+            worker.run();
+        } finally {
+            CompletableFuture.allOf(others.toArray(new CompletableFuture<?>[others.size()])).join();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        final List<DocumentBundle.Entry> entries = new ArrayList<DocumentBundle.Entry>(downloads.size());
+        for (final Download download : downloads) {
+            entries.add(download.entry);
+        }
+        return new DocumentBundle(envelopeId, directory, entries);
+    }
+
+    /**
+     * Keeps the first failure of the downloads, adding the later ones to it as suppressed.
+     */
+    private static void addFailure(final AtomicReference<EnvelopeException> failure, final EnvelopeException ee) {
+        if (!failure.compareAndSet(null, ee)) {
+            failure.get().addSuppressed(ee);
+        }
+    }
+
+    /**
+     * Gets the name of the file of a document, prefixed with its id so documents of the same name do not collide.
+     */
+    static String fileName(final String documentId, final String name) {
+        final StringBuilder fileName = new StringBuilder(documentId).append('_');
+        final String baseName = name == null || name.isEmpty() ? "document" : name;
+        for (int i = 0; i < baseName.length(); i++) {
+            final char c = baseName.charAt(i);
+            fileName.append(Character.isLetterOrDigit(c) || c == '.' || c == '-' || c == '_' ? c : '_');
+        }
+        if (!baseName.toLowerCase().endsWith(PDF_EXTENSION)) {
+            fileName.append(PDF_EXTENSION);
+        }
+        return fileName.toString();
+    }
+
+    /**
+     * The download of one file.
+     */
+    private class Download {
+
+        private final String documentId;
+
+        private final String name;
+
+        private final Path target;
+
+        /** The entry of the downloaded file, set once it is complete. */
+        private volatile DocumentBundle.Entry entry;
+
+        Download(final String documentId, final String name, final Path target) {
+            this.documentId = documentId;
+            this.name = name;
+            this.target = target;
+        }
+
+        void run(final String envelopeId) throws EnvelopeException {
+            final DocumentStream documentStream = CERTIFICATE_ID.equals(documentId)
+                ? envelopeService.getCertificateStream(envelopeId, null, null)
+                : envelopeService.getDocumentStream(envelopeId, documentId);
+            final Path part = target.resolveSibling(target.getFileName() + PART_EXTENSION);
+            try {
+                final long size;
+                final String sha256;
+                try (DigestingChannel channel = new DigestingChannel(FileChannel.open(part, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+                    size = documentStream.transferTo(channel);
+                    sha256 = channel.getHexDigest();
+                } finally {
+                    documentStream.close();
+                }
+                try {
+                    Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (final AtomicMoveNotSupportedException amnse) {
+                    Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                entry = new DocumentBundle.Entry(documentId, name, target, size, sha256);
+            } catch (final IOException ioe) {
+                try {
+                    Files.deleteIfExists(part);
+                } catch (final IOException suppressed) {
+                    ioe.addSuppressed(suppressed);
+                }
+                throw new EnvelopeException("Error occurred while downloading document " + documentId
+                    + " of envelope " + envelopeId + " to " + target, ioe);
+            }
+        }
+    }
+}
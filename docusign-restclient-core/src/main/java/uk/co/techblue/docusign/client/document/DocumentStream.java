@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.document;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.mail.internet.ContentDisposition;
+import javax.mail.internet.ParseException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.james.mime4j.field.FieldName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The content of a downloaded document, read straight from the HTTP response. Closing the stream releases the
+ * connection, so it must always be closed, even if it is not read to the end.
+ */
+public class DocumentStream extends FilterInputStream {
+
+    private static final String PARAM_FILENAME = "filename";
+    private static final String PARAM_DOCUMENT_ID = "documentId";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final static Logger logger = LoggerFactory.getLogger(DocumentStream.class);
+
+    /** The response the content is read from, null if the content is not read from a response. */
+    private final Response response;
+
+    /** The document name. */
+    private final String name;
+
+    /** The document id. */
+    private final String documentId;
+
+    /** The media type. */
+    private final MediaType mediaType;
+
+    /** The content length, -1 if unknown. */
+    private final long contentLength;
+
+    /**
+     * Instantiates a new document stream over the entity of a successful response.
+     *
+     * @param response the response
+     */
+    public DocumentStream(final Response response) {
+        this(response, response.readEntity(InputStream.class));
+    }
+
+    /**
+     * Instantiates a new document stream.
+     *
+     * @param response the response
+     * @param content the content of the response
+     */
+    DocumentStream(final Response response, final InputStream content) {
+        super(content);
+        this.response = response;
+        this.mediaType = response.getMediaType();
+        this.contentLength = response.getLength();
+        final ContentDisposition contentDisposition =
+            getContentDisposition(response.getHeaderString(FieldName.CONTENT_DISPOSITION));
+        if (contentDisposition != null) {
+            this.name = contentDisposition.getParameter(PARAM_FILENAME);
+            this.documentId = contentDisposition.getParameter(PARAM_DOCUMENT_ID);
+        } else {
+            this.name = null;
+            this.documentId = null;
+        }
+    }
+
+    /**
+     * Instantiates a new document stream over content which is not read from a response, such as a document served
+     * from the {@link uk.co.techblue.docusign.client.cache.DocumentCache}.
+     *
+     * @param content the content
+     * @param documentId the document id, may be null
+     * @param name the document name, may be null
+     * @param mediaType the media type
+     * @param contentLength the content length, -1 if unknown
+     */
+    public DocumentStream(final InputStream content, final String documentId, final String name,
+        final MediaType mediaType, final long contentLength) {
+        super(content);
+        this.response = null;
+        this.documentId = documentId;
+        this.name = name;
+        this.mediaType = mediaType;
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * Writes the remaining content to the channel. When the channel is a file channel the content is transferred by the
+     * file system without going through an intermediate stream.
+     *
+     * @param target the target channel, left open
+     * @return the number of bytes written
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public long transferTo(final WritableByteChannel target) throws IOException {
+        final ReadableByteChannel source = Channels.newChannel(in);
+        if (target instanceof FileChannel) {
+            final FileChannel fileChannel = (FileChannel) target;
+            long position = fileChannel.position();
+            final long start = position;
+            long transferred;
+            do {
+                transferred = fileChannel.transferFrom(source, position, Long.MAX_VALUE - position);
+                position += transferred;
+            } while (transferred > 0);
+            fileChannel.position(position);
+            return position - start;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long total = 0;
+        while (source.read(buffer) >= 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                total += target.write(buffer);
+            }
+            buffer.clear();
+        }
+        return total;
+    }
+
+    /**
+     * Writes the remaining content to the file, replacing it if it exists.
+     *
+     * @param target the target file
+     * @return the number of bytes written
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public long transferTo(final Path target) throws IOException {
+        final FileChannel fileChannel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            return transferTo(fileChannel);
+        } finally {
+            fileChannel.close();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.io.FilterInputStream#close()
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * Gets the document name.
+     *
+     * @return the name, or null if the response has no content disposition
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the document id.
+     *
+     * @return the document id, or null if the response has no content disposition
+     */
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    /**
+     * Gets the media type.
+     *
+     * @return the media type
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Gets the content length.
+     *
+     * @return the content length, -1 if unknown
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    private static ContentDisposition getContentDisposition(final String dispositionHeader) {
+        if (StringUtils.isBlank(dispositionHeader)) {
+            return null;
+        }
+        try {
+            return new ContentDisposition(dispositionHeader);
+        } catch (final ParseException pe) {
+            logger.warn("Ignoring invalid " + FieldName.CONTENT_DISPOSITION + " header: " + dispositionHeader);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.multipart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The content of a document sent in a multipart request. Sources read from a file or a buffer know their length up
+ * front, so that the length of the whole request can be sent instead of chunking it, and can be written again if the
+ * request is retried.
+ */
+public abstract class DocumentSource {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Creates a source reading the file at the given filesystem path.
+     *
+     * @param path the filesystem path
+     * @return the document source
+     * @throws IOException if the file cannot be read
+     */
+    public static DocumentSource fromFile(final String path) throws IOException {
+        if (path == null) {
+            throw new IOException("No path given for the document");
+        }
+        return fromPath(Paths.get(path));
+    }
+
+    /**
+     * Creates a source reading the file. The file is expected not to change until the request has been sent.
+     *
+     * @param path the file
+     * @return the document source
+     * @throws IOException if the file cannot be read
+     */
+    public static DocumentSource fromPath(final Path path) throws IOException {
+        return new PathSource(path, Files.size(path));
+    }
+
+    /**
+     * Creates a source reading the remaining bytes of the buffer, which is left unchanged.
+     *
+     * @param buffer the buffer
+     * @return the document source
+     */
+    public static DocumentSource fromBuffer(final ByteBuffer buffer) {
+        return new BufferSource(buffer.duplicate());
+    }
+
+    /**
+     * Creates a source reading the stream, which can only be written once.
+     *
+     * @param stream the stream, closed once written
+     * @param length the number of bytes in the stream, -1 if unknown, in which case the request is sent chunked
+     * @return the document source
+     */
+    public static DocumentSource fromStream(final InputStream stream, final long length) {
+        return new StreamSource(stream, length);
+    }
+
+    /**
+     * Gets the number of bytes of the document.
+     *
+     * @return the length, -1 if unknown
+     */
+    public abstract long getLength();
+
+    /**
+     * Checks if the document can be written more than once.
+     *
+     * @return true, if repeatable
+     */
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    /**
+     * Gets the name of the file the document is read from, used to guess its content type.
+     *
+     * @return the file name, or null if the document is not read from a file
+     */
+    public String getFileName() {
+        return null;
+    }
+
+    /**
+     * Writes the document.
+     *
+     * @param output the output stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public abstract void writeTo(OutputStream output) throws IOException;
+
+    /**
+     * A document read from a file, transferred by the file channel without being copied into the heap.
+     */
+    private static final class PathSource extends DocumentSource {
+        private final Path path;
+        private final long length;
+
+        PathSource(final Path path, final long length) {
+            this.path = path;
+            this.length = length;
+        }
+
+        @Override
+        public long getLength() {
+            return length;
+        }
+
+        @Override
+        public String getFileName() {
+            return path.getFileName() == null ? null : path.getFileName().toString();
+        }
+
+        @Override
+        public void writeTo(final OutputStream output) throws IOException {
+            final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                final WritableByteChannel target = Channels.newChannel(output);
+                long position = 0;
+                while (position < length) {
+                    final long transferred = fileChannel.transferTo(position, length - position, target);
+                    if (transferred <= 0) {
+                        throw new IOException("File " + path + " was truncated while being sent: expected " + length
+                            + " bytes, found " + position);
+                    }
+                    position += transferred;
+                }
+            } finally {
+                fileChannel.close();
+            }
+        }
+    }
+
+    /**
+     * A document held in a buffer.
+     */
+    private static final class BufferSource extends DocumentSource {
+        private final ByteBuffer buffer;
+
+        BufferSource(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public long getLength() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public void writeTo(final OutputStream output) throws IOException {
+            final ByteBuffer content = buffer.duplicate();
+            if (content.hasArray()) {
+                output.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+                return;
+            }
+            final WritableByteChannel target = Channels.newChannel(output);
+            while (content.hasRemaining()) {
+                target.write(content);
+            }
+        }
+    }
+
+    /**
+     * A document read from a stream.
+     */
+    private static final class StreamSource extends DocumentSource {
+        private final InputStream stream;
+        private final long length;
+        private boolean written;
+
+        StreamSource(final InputStream stream, final long length) {
+            this.stream = stream;
+            this.length = length;
+        }
+
+        @Override
+        public long getLength() {
+            return length;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public synchronized void writeTo(final OutputStream output) throws IOException {
+            if (written) {
+                throw new IOException("The document stream has already been sent");
+            }
+            written = true;
+            try {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                long total = 0;
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                    total += read;
+                }
+                if (length >= 0 && total != length) {
+                    throw new IOException("Document stream length mismatch: expected " + length + " bytes, read " + total);
+                }
+            } finally {
+                stream.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.multipart;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.activation.FileTypeMap;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.james.mime4j.field.FieldName;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import uk.co.techblue.docusign.client.dto.Document;
+import uk.co.techblue.docusign.client.utils.DocuSignUtils;
+import uk.co.techblue.docusign.resteasy.providers.ObjectMapperContextResolver;
+
+/**
+ * A multipart/form-data request body whose document parts are streamed from their {@link DocumentSource} while the
+ * request is written. Only the small JSON parts are held in memory. When the length of every document is known the
+ * length of the whole body is computed up front, so that the request is sent with a Content-Length header.
+ */
+public class StreamingMultipart {
+
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DASHES = "--".getBytes(StandardCharsets.US_ASCII);
+
+    /** The mapper of the JSON parts, the one used for the JSON entities of the other requests. */
+    private static final ObjectMapper objectMapper = ObjectMapperContextResolver.getObjectMapper();
+
+    /** The boundary. */
+    private final String boundary = UUID.randomUUID().toString();
+
+    /** The boundary bytes. */
+    private final byte[] boundaryBytes = boundary.getBytes(StandardCharsets.US_ASCII);
+
+    /** The parts. */
+    private final List<Part> parts = new ArrayList<Part>();
+
+    /**
+     * Adds a JSON part. A string value is sent as is, any other value is serialized.
+     *
+     * @param name the part name
+     * @param value the value
+     * @return this multipart
+     * @throws IOException if the value cannot be serialized
+     */
+    public StreamingMultipart addJsonPart(final String name, final Object value) throws IOException {
+        final byte[] body = value instanceof String ? ((String) value).getBytes(StandardCharsets.UTF_8)
+            : objectMapper.writeValueAsBytes(value);
+        parts.add(new Part(headers("form-data; name=\"" + name + "\"", MediaType.APPLICATION_JSON), body, null));
+        return this;
+    }
+
+    /**
+     * Adds a document part.
+     *
+     * @param document the document
+     * @param source the document content, or null to read the file at the document path
+     * @return this multipart
+     * @throws IOException if the document file cannot be read
+     */
+    public StreamingMultipart addDocument(final Document document, final DocumentSource source) throws IOException {
+        final DocumentSource content = source != null ? source : DocumentSource.fromFile(document.getPath());
+        final String fileName = content.getFileName() != null ? content.getFileName() : document.getName();
+        final String contentType = FileTypeMap.getDefaultFileTypeMap().getContentType(fileName == null ? "" : fileName);
+        parts.add(new Part(headers(DocuSignUtils.getContentDispositionHeader(document), contentType), null, content));
+        return this;
+    }
+
+    /**
+     * Gets the media type, carrying the boundary.
+     *
+     * @return the media type
+     */
+    public MediaType getMediaType() {
+        return MediaType.valueOf(MediaType.MULTIPART_FORM_DATA + "; boundary=" + boundary);
+    }
+
+    /**
+     * Gets the length of the whole body.
+     *
+     * @return the content length, -1 if the length of a document is unknown
+     */
+    public long getContentLength() {
+        long length = 0;
+        for (final Part part : parts) {
+            final long partLength = part.getLength();
+            if (partLength < 0) {
+                return -1;
+            }
+            length += DASHES.length + boundaryBytes.length + CRLF.length + part.headers.length + partLength + CRLF.length;
+        }
+        return length + DASHES.length + boundaryBytes.length + DASHES.length + CRLF.length;
+    }
+
+    /**
+     * Checks if the body can be written more than once, so that the request can be retried.
+     *
+     * @return true, if repeatable
+     */
+    public boolean isRepeatable() {
+        for (final Part part : parts) {
+            if (part.source != null && !part.source.isRepeatable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the body.
+     *
+     * @param output the output stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeTo(final OutputStream output) throws IOException {
+        for (final Part part : parts) {
+            output.write(DASHES);
+            output.write(boundaryBytes);
+            output.write(CRLF);
+            output.write(part.headers);
+            if (part.source != null) {
+                part.source.writeTo(output);
+            } else {
+                output.write(part.body);
+            }
+            output.write(CRLF);
+        }
+        output.write(DASHES);
+        output.write(boundaryBytes);
+        output.write(DASHES);
+        output.write(CRLF);
+        output.flush();
+    }
+
+    private static byte[] headers(final String contentDisposition, final String contentType) {
+        return (FieldName.CONTENT_DISPOSITION + ": " + contentDisposition + "\r\n" + FieldName.CONTENT_TYPE + ": "
+            + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A part of the body, holding either its content or the source it is streamed from.
+     */
+    private static final class Part {
+        final byte[] headers;
+        final byte[] body;
+        final DocumentSource source;
+
+        Part(final byte[] headers, final byte[] body, final DocumentSource source) {
+            this.headers = headers;
+            this.body = body;
+            this.source = source;
+        }
+
+        long getLength() {
+            return source != null ? source.getLength() : body.length;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.paging;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusQueryForm;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusResponse;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+
+/**
+ * Walks the results of an envelope status query page by page, using the <code>start_position</code> and
+ * <code>count</code> parameters, so only a bounded number of pages is ever held in memory. While the caller processes
+ * the current page, up to <code>prefetchPages</code> following pages are requested in the background through
+ * {@link EnvelopeService#getEnvelopeStatusAsync(EnvelopeStatusQueryForm)}. No request is sent until the first call to
+ * {@link #hasNext()}.
+ * <p>
+ * A failed page request is reported by {@link #hasNext()} or {@link #next()} as a {@link CompletionException} whose
+ * cause is the {@link EnvelopeException}, as with the asynchronous service methods, and closes the iterator. An
+ * iterator that is not read to the end should be closed to cancel the outstanding requests. Instances are not
+ * thread-safe.
+ */
+public class EnvelopeStatusIterator implements Iterator<EnvelopeInfo>, AutoCloseable {
+
+    /** The default number of envelopes requested per page. */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /** The default number of pages requested ahead of the current one. */
+    public static final int DEFAULT_PREFETCH_PAGES = 2;
+
+    /** The envelope service. */
+    private final EnvelopeService envelopeService;
+
+    /** The query, copied for every page request. */
+    private final EnvelopeStatusQueryForm queryForm;
+
+    /** The number of pages requested ahead of the current one. */
+    private final int prefetchPages;
+
+    /** The pages requested and not consumed yet, in order. */
+    private final Deque<Page> pages = new ArrayDeque<Page>();
+
+    /** The number of envelopes requested per page, lowered if the server returns smaller pages. */
+    private int pageSize;
+
+    /** The start position of the next page to request. */
+    private int nextStart;
+
+    /** The number of envelopes matching the query, once reported by the server. */
+    private Integer totalSetSize;
+
+    /** Whether the last page has been requested. */
+    private boolean lastPageRequested;
+
+    /** Whether the iterator has been closed. */
+    private boolean closed;
+
+    /** The envelopes of the current page. */
+    private Iterator<EnvelopeInfo> current = Collections.<EnvelopeInfo> emptyIterator();
+
+    /**
+     * Instantiates a new envelope status iterator with the default page size and prefetch.
+     *
+     * @param envelopeService the envelope service
+     * @param queryForm the status query form, whose own start position and count are ignored
+     */
+    public EnvelopeStatusIterator(final EnvelopeService envelopeService, final EnvelopeStatusQueryForm queryForm) {
+        this(envelopeService, queryForm, DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_PAGES);
+    }
+
+    /**
+     * Instantiates a new envelope status iterator.
+     *
+     * @param envelopeService the envelope service
+     * @param queryForm the status query form, whose own start position and count are ignored
+     * @param pageSize the number of envelopes requested per page
+     * @param prefetchPages the number of pages requested ahead of the current one
+     */
+    public EnvelopeStatusIterator(final EnvelopeService envelopeService, final EnvelopeStatusQueryForm queryForm,
+        final int pageSize, final int prefetchPages) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("The page size must be positive: " + pageSize);
+        }
+        if (prefetchPages < 1) {
+            throw new IllegalArgumentException("The number of prefetched pages must be positive: " + prefetchPages);
+        }
+        this.envelopeService = envelopeService;
+        this.queryForm = new EnvelopeStatusQueryForm(queryForm);
+        this.pageSize = pageSize;
+        this.prefetchPages = prefetchPages;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (closed) {
+                return false;
+            }
+            requestPages();
+            final Page page = pages.poll();
+            if (page == null) {
+                return false;
+            }
+            final EnvelopeStatusResponse response;
+            try {
+                response = page.response.join();
+            } catch (final CompletionException ce) {
+                close();
+                throw ce;
+            }
+            current = consume(page.start, response);
+            requestPages();
+        }
+        return true;
+    }
+
+    @Override
+    public EnvelopeInfo next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Cancels the outstanding page requests. Further calls to {@link #hasNext()} return false.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        cancelPages();
+        current = Collections.<EnvelopeInfo> emptyIterator();
+    }
+
+    private Iterator<EnvelopeInfo> consume(final int start, final EnvelopeStatusResponse response) {
+        final List<EnvelopeInfo> envelopes = response.getEnvelopes();
+        final int size = envelopes == null ? 0 : envelopes.size();
+        if (response.getTotalSetSize() != null) {
+            totalSetSize = response.getTotalSetSize();
+        }
+        if (size == 0 || (totalSetSize != null ? start + size >= totalSetSize : size < pageSize)) {
+            lastPageRequested = true;
+            cancelPages();
+        } else if (size < pageSize) {
+            // the server caps the page size: the pages requested ahead start at the wrong position
+            cancelPages();
+            pageSize = size;
+            nextStart = start + size;
+        }
+        return size == 0 ? Collections.<EnvelopeInfo> emptyIterator() : envelopes.iterator();
+    }
+
+    private void requestPages() {
+        while (!lastPageRequested && pages.size() < prefetchPages) {
+            if (totalSetSize != null && nextStart >= totalSetSize) {
+                lastPageRequested = true;
+                return;
+            }
+            final EnvelopeStatusQueryForm pageForm = new EnvelopeStatusQueryForm(queryForm);
+            pageForm.setStartPosition(nextStart);
+            pageForm.setCount(pageSize);
+            pages.add(new Page(nextStart, envelopeService.getEnvelopeStatusAsync(pageForm)));
+            nextStart += pageSize;
+        }
+    }
+
+    private void cancelPages() {
+        for (Page page = pages.poll(); page != null; page = pages.poll()) {
+            page.response.cancel(false);
+        }
+    }
+
+    /**
+     * A requested page.
+     */
+    private static class Page {
+
+        /** The start position of the page. */
+        private final int start;
+
+        /** The future response. */
+        private final CompletableFuture<EnvelopeStatusResponse> response;
+
+        Page(final int start, final CompletableFuture<EnvelopeStatusResponse> response) {
+            this.start = start;
+            this.response = response;
+        }
+    }
+}
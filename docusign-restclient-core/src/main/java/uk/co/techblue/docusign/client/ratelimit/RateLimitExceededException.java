@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.ratelimit;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Thrown when a call is refused because the rate limit budget of its account is exhausted.
+ */
+public class RateLimitExceededException extends ProcessingException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The time in milliseconds until the budget would allow the call. */
+    private final long waitMillis;
+
+    /**
+     * Instantiates a new rate limit exceeded exception.
+     *
+     * @param message the message
+     * @param waitMillis the time in milliseconds until the budget would allow the call
+     */
+    public RateLimitExceededException(final String message, final long waitMillis) {
+        super(message);
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * Gets the time in milliseconds until the budget would allow the call.
+     *
+     * @return the wait
+     */
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.ratelimit;
+
+/**
+ * What a call does when the rate limit budget of its account is exhausted.
+ */
+public enum RateLimitMode {
+
+    /** Wait for the budget to allow the call, up to the configured maximum wait. */
+    BLOCK,
+
+    /** Throw a {@link RateLimitExceededException} straight away. */
+    FAIL_FAST,
+
+    /** Do not limit the calls. */
+    DISABLED
+}
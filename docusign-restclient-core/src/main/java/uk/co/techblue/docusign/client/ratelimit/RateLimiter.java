@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.ratelimit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import uk.co.techblue.docusign.client.utils.DaemonThreadFactory;
+
+/**
+ * A token bucket spreading the calls of one account over its API rate limit window. The bucket learns the budget from
+ * the <code>X-RateLimit-Remaining</code> and <code>X-RateLimit-Reset</code> response headers: the remaining calls are
+ * refilled evenly until the reset time, on top of a small burst. Until the first headers are seen, and again once the
+ * window has reset, the budget is unknown and calls are not limited.
+ */
+public class RateLimiter {
+
+    /** The header carrying the number of calls left in the current window. */
+    public static final String HEADER_RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+
+    /** The header carrying the end of the current window, in seconds since the epoch. */
+    public static final String HEADER_RATE_LIMIT_RESET = "X-RateLimit-Reset";
+
+    /** The permit paid for by an asynchronous call, held by the thread running it. */
+    private static final ThreadLocal<RateLimiter> heldPermit = new ThreadLocal<RateLimiter>();
+
+    /** The scheduler completing the asynchronous acquisitions. */
+    private static volatile ScheduledExecutorService scheduler;
+
+    /** The maximum number of calls sent back to back. */
+    private final int burst;
+
+    /** The available permits, negative when calls are waiting for reserved permits. */
+    private double permits;
+
+    /** The permits added per millisecond, infinite while the budget is unknown. */
+    private double refillPerMilli = Double.POSITIVE_INFINITY;
+
+    /** The time of the last refill. */
+    private long lastRefill;
+
+    /** The end of the current window in milliseconds since the epoch, zero while the budget is unknown. */
+    private long resetAt;
+
+    /**
+     * Instantiates a new rate limiter.
+     *
+     * @param burst the maximum number of calls sent back to back, must be greater than zero
+     */
+    public RateLimiter(final int burst) {
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be greater than zero: " + burst);
+        }
+        this.burst = burst;
+        this.permits = burst;
+    }
+
+    /**
+     * Takes a permit if one is available without waiting.
+     *
+     * @return true, if a permit was taken
+     */
+    public synchronized boolean tryAcquire() {
+        refill(System.currentTimeMillis());
+        if (permits < 1) {
+            return false;
+        }
+        permits -= 1;
+        return true;
+    }
+
+    /**
+     * Takes a permit, waiting for it if necessary.
+     *
+     * @param maxWaitMillis the maximum time to wait, zero to fail if no permit is available straight away
+     * @throws RateLimitExceededException if the permit is not available within the maximum wait
+     */
+    public void acquire(final long maxWaitMillis) {
+        final long waitMillis = reserve(System.currentTimeMillis(), maxWaitMillis);
+        if (waitMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(waitMillis);
+        } catch (final InterruptedException ie) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new ProcessingException("Interrupted while waiting for the rate limit", ie);
+        }
+    }
+
+    /**
+     * Takes a permit without blocking the calling thread.
+     *
+     * @param maxWaitMillis the maximum time to wait, zero to fail if no permit is available straight away
+     * @return the future completed once the permit is available, or completed exceptionally with a
+     *         {@link RateLimitExceededException} if it is not available within the maximum wait
+     */
+    public CompletableFuture<Void> acquireAsync(final long maxWaitMillis) {
+        final CompletableFuture<Void> result = new CompletableFuture<Void>();
+        final long waitMillis;
+        try {
+            waitMillis = reserve(System.currentTimeMillis(), maxWaitMillis);
+        } catch (final RateLimitExceededException rlee) {
+            result.completeExceptionally(rlee);
+            return result;
+        }
+        if (waitMillis <= 0) {
+            result.complete(null);
+        } else {
+            getScheduler().schedule(() -> result.complete(null), waitMillis, TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    /**
+     * Updates the budget from the rate limit headers of a response. Headers which are missing or invalid are ignored.
+     *
+     * @param remaining the <code>X-RateLimit-Remaining</code> header value
+     * @param reset the <code>X-RateLimit-Reset</code> header value
+     */
+    public void update(final String remaining, final String reset) {
+        final long remainingCalls = NumberUtils.toLong(remaining, -1);
+        final long resetSeconds = NumberUtils.toLong(reset, -1);
+        if (remainingCalls < 0 || resetSeconds <= 0) {
+            return;
+        }
+        update(remainingCalls, resetSeconds * 1000L, System.currentTimeMillis());
+    }
+
+    /**
+     * Updates the budget: the remaining calls are spread evenly until the end of the window.
+     *
+     * @param remaining the number of calls left in the window
+     * @param resetAtMillis the end of the window in milliseconds since the epoch
+     * @param now the current time in milliseconds
+     */
+    public synchronized void update(final long remaining, final long resetAtMillis, final long now) {
+        if (resetAtMillis <= now) {
+            return;
+        }
+        refill(now);
+        permits = Math.min(permits, remaining);
+        resetAt = resetAtMillis;
+        refillPerMilli = Math.max(0, remaining - Math.max(permits, 0)) / (double) (resetAtMillis - now);
+    }
+
+    /**
+     * Gets the number of permits available without waiting.
+     *
+     * @return the available permits
+     */
+    public synchronized int getAvailablePermits() {
+        refill(System.currentTimeMillis());
+        return (int) Math.max(0, Math.floor(permits));
+    }
+
+    /**
+     * Reserves a permit.
+     *
+     * @param now the current time in milliseconds
+     * @param maxWaitMillis the maximum time to wait
+     * @return the time in milliseconds until the reserved permit may be used
+     * @throws RateLimitExceededException if the permit is not available within the maximum wait
+     */
+    synchronized long reserve(final long now, final long maxWaitMillis) {
+        refill(now);
+        final long waitMillis;
+        if (permits >= 1) {
+            waitMillis = 0;
+        } else if (refillPerMilli > 0) {
+            waitMillis = (long) Math.ceil((1 - permits) / refillPerMilli);
+        } else {
+            waitMillis = resetAt - now;
+        }
+        if (waitMillis > maxWaitMillis) {
+            throw new RateLimitExceededException("Rate limit budget exhausted, next call allowed in " + waitMillis + "ms",
+                waitMillis);
+        }
+        permits -= 1;
+        return waitMillis;
+    }
+
+    /**
+     * Gives back a permit which was taken, for instance through {@link #acquireAsync(long)}, but will not be used.
+     */
+    public synchronized void cancel() {
+        permits += 1;
+    }
+
+    /**
+     * Adds the permits accrued since the last refill. Once the window has reset the budget is unknown again.
+     *
+     * @param now the current time in milliseconds
+     */
+    private void refill(final long now) {
+        if (resetAt > 0 && now >= resetAt) {
+            resetAt = 0;
+            refillPerMilli = Double.POSITIVE_INFINITY;
+        }
+        if (refillPerMilli == Double.POSITIVE_INFINITY) {
+            permits = burst;
+        } else if (now > lastRefill) {
+            permits = Math.min(burst, permits + (now - lastRefill) * refillPerMilli);
+        }
+        lastRefill = now;
+    }
+
+    /**
+     * Hands a permit taken through {@link #acquireAsync(long)} to the current thread, so that the next call made by the
+     * thread through this limiter does not take another one.
+     */
+    public void holdPermit() {
+        heldPermit.set(this);
+    }
+
+    /**
+     * Takes back the permit held by the current thread. A permit which has not been used is given back to the bucket.
+     */
+    public void releaseHeldPermit() {
+        if (heldPermit.get() == this) {
+            heldPermit.remove();
+            cancel();
+        }
+    }
+
+    /**
+     * Uses the permit held by the current thread, if any.
+     *
+     * @return true, if the current thread held a permit of this limiter
+     */
+    boolean consumeHeldPermit() {
+        if (heldPermit.get() == this) {
+            heldPermit.remove();
+            return true;
+        }
+        return false;
+    }
+
+    private static ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            synchronized (RateLimiter.class) {
+                if (scheduler == null) {
+                    final ScheduledThreadPoolExecutor executor =
+                        new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("docusign-rate-limiter"));
+                    executor.setRemoveOnCancelPolicy(true);
+                    scheduler = executor;
+                }
+            }
+        }
+        return scheduler;
+    }
+}
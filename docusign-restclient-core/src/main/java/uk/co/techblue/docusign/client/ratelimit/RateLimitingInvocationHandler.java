@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.ratelimit;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import uk.co.techblue.docusign.client.retry.RetryPolicy;
+
+/**
+ * Wraps a resource proxy so that each call takes a permit from the {@link RateLimiter} of its account before being sent,
+ * and feeds the rate limit headers of each response back into the limiter. A 429 response empties the bucket until the
+ * window resets, or until the time given by <code>Retry-After</code>.
+ */
+public class RateLimitingInvocationHandler implements InvocationHandler {
+
+    /** The wrapped resource proxy. */
+    private final Object target;
+
+    /** The rate limiter of the account. */
+    private final RateLimiter rateLimiter;
+
+    /** The maximum time in milliseconds a call waits for a permit. */
+    private final long maxWaitMillis;
+
+    /**
+     * Instantiates a new rate limiting invocation handler.
+     *
+     * @param target the wrapped resource proxy
+     * @param rateLimiter the rate limiter of the account
+     * @param maxWaitMillis the maximum time in milliseconds a call waits for a permit, zero to fail fast
+     */
+    public RateLimitingInvocationHandler(final Object target, final RateLimiter rateLimiter, final long maxWaitMillis) {
+        this.target = target;
+        this.rateLimiter = rateLimiter;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Wraps the resource proxy in a rate limited proxy.
+     *
+     * @param <T> the resource type
+     * @param resourceClass the resource class
+     * @param target the resource proxy
+     * @param rateLimiter the rate limiter of the account
+     * @param maxWaitMillis the maximum time in milliseconds a call waits for a permit, zero to fail fast
+     * @return the rate limited resource proxy
+     */
+    public static <T> T wrap(final Class<T> resourceClass, final T target, final RateLimiter rateLimiter,
+        final long maxWaitMillis) {
+        return resourceClass.cast(Proxy.newProxyInstance(resourceClass.getClassLoader(), new Class<?>[] {resourceClass},
+            new RateLimitingInvocationHandler(target, rateLimiter, maxWaitMillis)));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+     */
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeObjectMethod(proxy, method, args);
+        }
+        if (!rateLimiter.consumeHeldPermit()) {
+            rateLimiter.acquire(maxWaitMillis);
+        }
+        final Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (final InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+        if (result instanceof Response) {
+            updateRateLimiter((Response) result);
+        }
+        return result;
+    }
+
+    /**
+     * Updates the rate limiter from the response headers.
+     *
+     * @param response the response
+     */
+    private void updateRateLimiter(final Response response) {
+        final String remaining = response.getHeaderString(RateLimiter.HEADER_RATE_LIMIT_REMAINING);
+        final String reset = response.getHeaderString(RateLimiter.HEADER_RATE_LIMIT_RESET);
+        if (response.getStatus() == 429 && reset == null) {
+            final long now = System.currentTimeMillis();
+            final long retryAfter =
+                RetryPolicy.parseRetryAfterMillis(response.getHeaderString(HttpHeaders.RETRY_AFTER), now);
+            if (retryAfter > 0) {
+                rateLimiter.update(0, now + retryAfter, now);
+            }
+            return;
+        }
+        rateLimiter.update(response.getStatus() == 429 ? "0" : remaining, reset);
+    }
+
+    private Object invokeObjectMethod(final Object proxy, final Method method, final Object[] args) {
+        final String name = method.getName();
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        }
+        return "Rate limited proxy for " + target;
+    }
+}
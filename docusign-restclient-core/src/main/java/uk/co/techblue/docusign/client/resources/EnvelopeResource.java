@@ -23,10 +23,13 @@ import org.jboss.resteasy.annotations.Form;
 import org.jboss.resteasy.plugins.providers.multipart.MultipartFormDataOutput;
 
 import uk.co.techblue.docusign.client.Resource;
+import uk.co.techblue.docusign.client.cache.ConditionalGet;
 import uk.co.techblue.docusign.client.dto.EnvelopeStatusQueryForm;
 import uk.co.techblue.docusign.client.dto.StatusChangeRequest;
 import uk.co.techblue.docusign.client.dto.VoidEnvelopeRequest;
 import uk.co.techblue.docusign.client.dto.recipients.Signers;
+import uk.co.techblue.docusign.client.multipart.StreamingMultipart;
+import uk.co.techblue.docusign.client.retry.Idempotent;
 import uk.co.techblue.docusign.client.utils.DocuSignConstants;
 
 /**
@@ -55,6 +58,7 @@ public interface EnvelopeResource extends Resource {
      * @return the response
      */
     @PUT
+    @Idempotent
     @Path("envelopes/{envelopeId}/status")
     @Consumes(MediaType.APPLICATION_JSON)
     public Response changeStatus(@PathParam("envelopeId") String envelopeId, StatusChangeRequest statusChangeRequest);
@@ -92,6 +96,7 @@ public interface EnvelopeResource extends Resource {
      * @return the envelope
      */
     @GET
+    @ConditionalGet
     @Path("envelopes/{envelopeId}")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getEnvelope(@PathParam("envelopeId") String envelopeId);
@@ -107,6 +112,17 @@ public interface EnvelopeResource extends Resource {
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     public Response saveToDrafts(MultipartFormDataOutput formDataOutput);
 
+    /**
+     * Response.
+     *
+     * @param multipart the streamed multipart body
+     * @return the response
+     */
+    @POST
+    @Path("folders/draft")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    public Response saveToDrafts(StreamingMultipart multipart);
+
     /**
      * Gets the envelope status.
      *
@@ -169,6 +185,7 @@ public interface EnvelopeResource extends Resource {
      * @return the custom fields
      */
     @GET
+    @ConditionalGet
     @Path("/envelopes/{envelopeId}/custom_fields")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getCustomFields(@PathParam("envelopeId") String envelopeId);
@@ -180,6 +197,7 @@ public interface EnvelopeResource extends Resource {
      * @return the notification info
      */
     @GET
+    @ConditionalGet
     @Path("/envelopes/{envelopeId}/notification")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getNotificationInfo(@PathParam("envelopeId") String envelopeId);
@@ -193,6 +211,7 @@ public interface EnvelopeResource extends Resource {
      * @return the recipient status
      */
     @GET
+    @ConditionalGet
     @Path("/envelopes/{envelopeId}/recipients")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getRecipientStatus(@PathParam("envelopeId") String envelopeId, @QueryParam("include_tabs") Boolean includeTabs,
@@ -16,6 +16,7 @@
 package uk.co.techblue.docusign.client.resources;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
@@ -26,6 +27,8 @@ import org.jboss.resteasy.plugins.providers.multipart.MultipartFormDataOutput;
 
 import uk.co.techblue.docusign.client.Resource;
 import uk.co.techblue.docusign.client.dto.TemplateSignatureRequest;
+import uk.co.techblue.docusign.client.multipart.StreamingMultipart;
+import uk.co.techblue.docusign.client.retry.IdempotencyKey;
 import uk.co.techblue.docusign.client.utils.DocuSignConstants;
 
 /**
@@ -58,4 +61,20 @@ public interface RequestSignatureResource extends Resource {
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     Response sendDocument(MultipartFormDataOutput formDataOutput);
 
+    /**
+     * Response. When the idempotency key is set, the request is retried only if the server did not process it: on a 429
+     * response, or if the connection could not be established. A 5xx response or a read timeout is returned or thrown
+     * as is, since the envelope may have been created. The request is sent once if its body cannot be written twice.
+     *
+     * @param idempotencyKey the idempotency key, or null to send the request once
+     * @param multipart the streamed multipart body
+     * @return the response
+     */
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("envelopes")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    Response sendDocument(@HeaderParam(DocuSignConstants.HEADER_PARAM_IDEMPOTENCY_KEY) @IdempotencyKey String idempotencyKey,
+        StreamingMultipart multipart);
+
 }
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing the retries performed by the client.
+ */
+public class RetryMetrics {
+
+    /** The number of retries sent. */
+    private final AtomicLong retries = new AtomicLong();
+
+    /** The number of retries triggered by a 429 response. */
+    private final AtomicLong throttledRetries = new AtomicLong();
+
+    /** The number of calls which succeeded after at least one retry. */
+    private final AtomicLong recoveredCalls = new AtomicLong();
+
+    /** The number of calls which still failed once the attempts or the deadline were exhausted. */
+    private final AtomicLong exhaustedCalls = new AtomicLong();
+
+    void recordRetry(final int status) {
+        retries.incrementAndGet();
+        if (status == 429) {
+            throttledRetries.incrementAndGet();
+        }
+    }
+
+    void recordRecovered() {
+        recoveredCalls.incrementAndGet();
+    }
+
+    void recordExhausted() {
+        exhaustedCalls.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of retries sent.
+     *
+     * @return the retries
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * Gets the number of retries triggered by a 429 response.
+     *
+     * @return the throttled retries
+     */
+    public long getThrottledRetries() {
+        return throttledRetries.get();
+    }
+
+    /**
+     * Gets the number of calls which succeeded after at least one retry.
+     *
+     * @return the recovered calls
+     */
+    public long getRecoveredCalls() {
+        return recoveredCalls.get();
+    }
+
+    /**
+     * Gets the number of calls which still failed once the attempts or the deadline were exhausted.
+     *
+     * @return the exhausted calls
+     */
+    public long getExhaustedCalls() {
+        return exhaustedCalls.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RetryMetrics[retries=" + retries + ", throttledRetries=" + throttledRetries + ", recoveredCalls="
+            + recoveredCalls + ", exhaustedCalls=" + exhaustedCalls + "]";
+    }
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.retry;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.client.utils.DateUtils;
+
+/**
+ * The policy deciding whether and when a throttled (429) or transiently failed (5xx) request is sent again. Delays grow
+ * exponentially from the initial backoff up to the maximum backoff, with full jitter; a <code>Retry-After</code> header
+ * sent by DocuSign takes precedence over the computed delay. No attempt is started once the deadline of the call has
+ * passed.
+ */
+public class RetryPolicy {
+
+    /** The policy which never retries. */
+    public static final RetryPolicy NO_RETRY = new RetryPolicy(1, 0, 0, 0);
+
+    /** The maximum number of attempts, including the first one. */
+    private final int maxAttempts;
+
+    /** The initial backoff in milliseconds. */
+    private final long initialBackoffMillis;
+
+    /** The maximum backoff in milliseconds. */
+    private final long maxBackoffMillis;
+
+    /** The total time budget of a call in milliseconds, zero or less for no deadline. */
+    private final long deadlineMillis;
+
+    /**
+     * Instantiates a new retry policy.
+     *
+     * @param maxAttempts the maximum number of attempts, including the first one
+     * @param initialBackoffMillis the backoff before the first retry in milliseconds
+     * @param maxBackoffMillis the maximum backoff in milliseconds
+     * @param deadlineMillis the total time budget of a call in milliseconds, zero or less for no deadline
+     */
+    public RetryPolicy(final int maxAttempts, final long initialBackoffMillis, final long maxBackoffMillis,
+        final long deadlineMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is required: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * Checks if a response with the status is worth retrying.
+     *
+     * @param status the HTTP status
+     * @return true, if the status signals throttling or a transient server failure
+     */
+    public boolean isRetryableStatus(final int status) {
+        return status == 429 || status == 500 || status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * Gets the backoff before the given retry: a random delay between zero and the capped exponential backoff.
+     *
+     * @param retry the retry number, starting at 1
+     * @return the backoff in milliseconds
+     */
+    public long getBackoffMillis(final int retry) {
+        final int shift = Math.min(Math.max(retry - 1, 0), 30);
+        final long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << shift);
+        if (ceiling <= 0) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Parses the value of a <code>Retry-After</code> header, given either in seconds or as an HTTP date.
+     *
+     * @param retryAfter the header value
+     * @param now the current time in milliseconds
+     * @return the delay in milliseconds, or -1 if the value is missing or invalid
+     */
+    public static long parseRetryAfterMillis(final String retryAfter, final long now) {
+        if (StringUtils.isBlank(retryAfter)) {
+            return -1;
+        }
+        final String value = retryAfter.trim();
+        if (StringUtils.isNumeric(value)) {
+            try {
+                return Long.parseLong(value) * 1000L;
+            } catch (final NumberFormatException nfe) {
+                return -1;
+            }
+        }
+        final Date date = DateUtils.parseDate(value);
+        if (date == null) {
+            return -1;
+        }
+        return Math.max(0, date.getTime() - now);
+    }
+
+    /**
+     * Gets the maximum number of attempts, including the first one.
+     *
+     * @return the maximum number of attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Gets the initial backoff in milliseconds.
+     *
+     * @return the initial backoff
+     */
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    /**
+     * Gets the maximum backoff in milliseconds.
+     *
+     * @return the maximum backoff
+     */
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    /**
+     * Gets the total time budget of a call in milliseconds.
+     *
+     * @return the deadline, zero or less for no deadline
+     */
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy[maxAttempts=" + maxAttempts + ", initialBackoffMillis=" + initialBackoffMillis
+            + ", maxBackoffMillis=" + maxBackoffMillis + ", deadlineMillis=" + deadlineMillis + "]";
+    }
+}
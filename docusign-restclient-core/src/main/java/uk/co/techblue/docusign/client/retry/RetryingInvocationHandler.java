@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.retry;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status.Family;
+
+import org.apache.http.conn.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.co.techblue.docusign.client.multipart.StreamingMultipart;
+import uk.co.techblue.docusign.client.ratelimit.RateLimitExceededException;
+
+/**
+ * Wraps a resource proxy so that idempotent calls answered with a throttling or transient server error, or failing to
+ * reach the server, are sent again according to a {@link RetryPolicy}. Calls refused by the client side rate limiter are
+ * not retried. GET methods and methods annotated with
+ * {@link Idempotent} are retried; any other method is retried only when its {@link IdempotencyKey} argument is set, and
+ * then only when the server did not process the request: on a 429 response, or when the connection could not be
+ * established. DocuSign does not promise to discard duplicates carrying the same key, so a request which may have
+ * reached the server, answered with a 5xx or timing out, is never sent twice. Calls whose {@link StreamingMultipart}
+ * body cannot be written twice are not retried. Once the attempts or the deadline are exhausted the last response is
+ * returned unchanged, so the services map it to their usual exception.
+ */
+public class RetryingInvocationHandler implements InvocationHandler {
+
+    private final static Logger logger = LoggerFactory.getLogger(RetryingInvocationHandler.class);
+
+    /** Marks a method which is never retried. */
+    private static final int NOT_RETRYABLE = -2;
+
+    /** Marks a method which is always retried. */
+    private static final int ALWAYS_RETRYABLE = -1;
+
+    /** Marks a call which is retried only if the server did not process it. */
+    private static final int RETRYABLE_IF_NOT_PROCESSED = -3;
+
+    /** The status of the responses to throttled requests, which the server has not processed. */
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /** The retry classification of each resource method, or the index of its idempotency key parameter. */
+    private static final ConcurrentMap<Method, Integer> methodClassification = new ConcurrentHashMap<Method, Integer>();
+
+    /** The wrapped resource proxy. */
+    private final Object target;
+
+    /** The retry policy. */
+    private final RetryPolicy retryPolicy;
+
+    /** The retry metrics. */
+    private final RetryMetrics retryMetrics;
+
+    /**
+     * Instantiates a new retrying invocation handler.
+     *
+     * @param target the wrapped resource proxy
+     * @param retryPolicy the retry policy
+     * @param retryMetrics the retry metrics
+     */
+    public RetryingInvocationHandler(final Object target, final RetryPolicy retryPolicy, final RetryMetrics retryMetrics) {
+        this.target = target;
+        this.retryPolicy = retryPolicy;
+        this.retryMetrics = retryMetrics;
+    }
+
+    /**
+     * Wraps the resource proxy in a retrying proxy.
+     *
+     * @param <T> the resource type
+     * @param resourceClass the resource class
+     * @param target the resource proxy
+     * @param retryPolicy the retry policy
+     * @param retryMetrics the retry metrics
+     * @return the retrying resource proxy
+     */
+    public static <T> T wrap(final Class<T> resourceClass, final T target, final RetryPolicy retryPolicy,
+        final RetryMetrics retryMetrics) {
+        return resourceClass.cast(Proxy.newProxyInstance(resourceClass.getClassLoader(), new Class<?>[] {resourceClass},
+            new RetryingInvocationHandler(target, retryPolicy, retryMetrics)));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+     */
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeObjectMethod(proxy, method, args);
+        }
+        final int retryMode = retryPolicy.getMaxAttempts() <= 1 ? NOT_RETRYABLE : getRetryMode(method, args);
+        if (retryMode == NOT_RETRYABLE) {
+            return invokeTarget(method, args);
+        }
+        final boolean onlyIfNotProcessed = retryMode == RETRYABLE_IF_NOT_PROCESSED;
+        final long start = System.currentTimeMillis();
+        int attempt = 1;
+        while (true) {
+            Object result = null;
+            ProcessingException failure = null;
+            try {
+                result = invokeTarget(method, args);
+            } catch (final RateLimitExceededException rlee) {
+                throw rlee;
+            } catch (final ProcessingException pe) {
+                if (onlyIfNotProcessed && !isNotConnected(pe)) {
+                    throw pe;
+                }
+                failure = pe;
+            }
+            final Response response = result instanceof Response ? (Response) result : null;
+            final int status = response != null ? response.getStatus() : 0;
+            final boolean retryableStatus =
+                onlyIfNotProcessed ? status == TOO_MANY_REQUESTS : retryPolicy.isRetryableStatus(status);
+            if (failure == null && (response == null || !retryableStatus)) {
+                if (attempt > 1 && (response == null || response.getStatusInfo().getFamily() == Family.SUCCESSFUL)) {
+                    retryMetrics.recordRecovered();
+                }
+                return result;
+            }
+            final long now = System.currentTimeMillis();
+            long delay = response != null
+                ? RetryPolicy.parseRetryAfterMillis(response.getHeaderString(HttpHeaders.RETRY_AFTER), now) : -1;
+            if (delay < 0) {
+                delay = retryPolicy.getBackoffMillis(attempt);
+            }
+            final boolean deadlineExceeded =
+                retryPolicy.getDeadlineMillis() > 0 && now + delay - start > retryPolicy.getDeadlineMillis();
+            if (attempt >= retryPolicy.getMaxAttempts() || deadlineExceeded) {
+                retryMetrics.recordExhausted();
+                if (failure != null) {
+                    throw failure;
+                }
+                return result;
+            }
+            if (response != null) {
+                response.close();
+            }
+            retryMetrics.recordRetry(status);
+            logger.debug("Retrying " + method.getName() + " in " + delay + "ms after attempt " + attempt
+                + (failure != null ? " failed: " + failure.getMessage() : " returned HTTP " + status));
+            sleep(delay);
+            attempt++;
+        }
+    }
+
+    /**
+     * Checks if the call may be sent again.
+     *
+     * @param method the resource method
+     * @param args the arguments
+     * @return {@link #ALWAYS_RETRYABLE} if the call is idempotent, {@link #RETRYABLE_IF_NOT_PROCESSED} if it carries an
+     *         idempotency key, otherwise {@link #NOT_RETRYABLE}
+     */
+    private int getRetryMode(final Method method, final Object[] args) {
+        Integer classification = methodClassification.get(method);
+        if (classification == null) {
+            classification = classify(method);
+            methodClassification.putIfAbsent(method, classification);
+        }
+        if (classification == NOT_RETRYABLE || hasUnrepeatableBody(args)) {
+            return NOT_RETRYABLE;
+        }
+        if (classification == ALWAYS_RETRYABLE) {
+            return ALWAYS_RETRYABLE;
+        }
+        return args != null && args[classification] != null ? RETRYABLE_IF_NOT_PROCESSED : NOT_RETRYABLE;
+    }
+
+    private static boolean hasUnrepeatableBody(final Object[] args) {
+        if (args != null) {
+            for (final Object arg : args) {
+                if (arg instanceof StreamingMultipart && !((StreamingMultipart) arg).isRepeatable()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the request failed before the connection was established, so that it never reached the server.
+     *
+     * @param failure the failure
+     * @return true, if the request was not sent
+     */
+    private static boolean isNotConnected(final ProcessingException failure) {
+        for (Throwable cause = failure.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException
+                || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Classifies the resource method.
+     *
+     * @param method the resource method
+     * @return the classification, or the index of the idempotency key parameter
+     */
+    private static int classify(final Method method) {
+        if (method.isAnnotationPresent(GET.class) || method.isAnnotationPresent(Idempotent.class)) {
+            return ALWAYS_RETRYABLE;
+        }
+        final Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int index = 0; index < parameterAnnotations.length; index++) {
+            for (final Annotation annotation : parameterAnnotations[index]) {
+                if (annotation instanceof IdempotencyKey) {
+                    return index;
+                }
+            }
+        }
+        return NOT_RETRYABLE;
+    }
+
+    private Object invokeTarget(final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+    }
+
+    private Object invokeObjectMethod(final Object proxy, final Method method, final Object[] args) {
+        final String name = method.getName();
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        }
+        return "Retrying proxy for " + target;
+    }
+
+    private static void sleep(final long delay) {
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException("Interrupted while waiting to retry the request", ie);
+        }
+    }
+}
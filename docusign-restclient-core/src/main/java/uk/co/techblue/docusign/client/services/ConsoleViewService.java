@@ -15,6 +15,8 @@
  ******************************************************************************/
 package uk.co.techblue.docusign.client.services;
 
+import java.util.concurrent.CompletableFuture;
+
 import javax.ws.rs.core.Response;
 
 import uk.co.techblue.docusign.client.BaseService;
@@ -107,6 +109,57 @@ public class ConsoleViewService extends BaseService<ConsoleViewResource> {
         return parseEntityFromResponse(clientResponse, UrlResponse.class, ConsoleViewException.class);
     }
 
+    /**
+     * Gets the envelope sender view asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @param envelopeSenderViewRequest the envelope sender view request
+     * @return the future envelope sender view, completed exceptionally with {@link ConsoleViewException} on failure
+     */
+    public CompletableFuture<UrlResponse> getEnvelopeSenderViewAsync(final String envelopeId,
+        final EnvelopeSenderViewRequest envelopeSenderViewRequest) {
+        return supplyAsync(new ServiceCall<UrlResponse>() {
+            @Override
+            public UrlResponse call() throws ConsoleViewException {
+                return getEnvelopeSenderView(envelopeId, envelopeSenderViewRequest);
+            }
+        });
+    }
+
+    /**
+     * Gets the envelope recipient view asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @param recipientViewRequest the recipient view request
+     * @return the future envelope recipient view, completed exceptionally with {@link ConsoleViewException} on failure
+     */
+    public CompletableFuture<UrlResponse> getEnvelopeRecipientViewAsync(final String envelopeId,
+        final RecipientViewRequest recipientViewRequest) {
+        return supplyAsync(new ServiceCall<UrlResponse>() {
+            @Override
+            public UrlResponse call() throws ConsoleViewException {
+                return getEnvelopeRecipientView(envelopeId, recipientViewRequest);
+            }
+        });
+    }
+
+    /**
+     * Gets the envelope correction view asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @param correctionViewRequest the correction view request
+     * @return the future envelope correction view, completed exceptionally with {@link ConsoleViewException} on failure
+     */
+    public CompletableFuture<UrlResponse> getEnvelopeCorrectionViewAsync(final String envelopeId,
+        final CorrectionViewRequest correctionViewRequest) {
+        return supplyAsync(new ServiceCall<UrlResponse>() {
+            @Override
+            public UrlResponse call() throws ConsoleViewException {
+                return getEnvelopeCorrectionView(envelopeId, correctionViewRequest);
+            }
+        });
+    }
+
     /*
      * (non-Javadoc)
      * 
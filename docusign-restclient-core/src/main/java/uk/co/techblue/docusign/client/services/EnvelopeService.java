@@ -4,19 +4,28 @@
  ******************************************************************************/
 package uk.co.techblue.docusign.client.services;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.activation.FileDataSource;
-import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
-import org.apache.james.mime4j.field.FieldName;
-import org.jboss.resteasy.plugins.providers.multipart.MultipartFormDataOutput;
-import org.jboss.resteasy.plugins.providers.multipart.OutputPart;
-
 import uk.co.techblue.docusign.client.BaseService;
+import uk.co.techblue.docusign.client.cache.AuditEventsCache;
+import uk.co.techblue.docusign.client.cache.DocumentCache;
 import uk.co.techblue.docusign.client.credential.DocuSignCredentials;
+import uk.co.techblue.docusign.client.document.DocumentBundle;
+import uk.co.techblue.docusign.client.document.DocumentBundleDownloader;
+import uk.co.techblue.docusign.client.document.DocumentStream;
+import uk.co.techblue.docusign.client.dto.AuditEvent;
 import uk.co.techblue.docusign.client.dto.AuditEventsResponse;
 import uk.co.techblue.docusign.client.dto.CustomFields;
 import uk.co.techblue.docusign.client.dto.Document;
@@ -29,8 +38,10 @@ import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
 import uk.co.techblue.docusign.client.dto.EnvelopeNotificationInfo;
 import uk.co.techblue.docusign.client.dto.EnvelopeStatusQueryForm;
 import uk.co.techblue.docusign.client.dto.EnvelopeStatusResponse;
+import uk.co.techblue.docusign.client.dto.LazyDocumentTabCollection;
 import uk.co.techblue.docusign.client.dto.StatusChangeRequest;
 import uk.co.techblue.docusign.client.dto.VoidEnvelopeRequest;
+import uk.co.techblue.docusign.client.dto.recipients.LazyRecipientStatusCollection;
 import uk.co.techblue.docusign.client.dto.recipients.RecipientStatusCollection;
 import uk.co.techblue.docusign.client.dto.recipients.RecipientUpdateResults;
 import uk.co.techblue.docusign.client.dto.recipients.Signers;
@@ -39,6 +50,9 @@ import uk.co.techblue.docusign.client.envelope.attributes.Status;
 import uk.co.techblue.docusign.client.exception.EnvelopeException;
 import uk.co.techblue.docusign.client.exception.ServiceInitException;
 import uk.co.techblue.docusign.client.exception.SignatureRequestException;
+import uk.co.techblue.docusign.client.multipart.DocumentSource;
+import uk.co.techblue.docusign.client.multipart.StreamingMultipart;
+import uk.co.techblue.docusign.client.paging.EnvelopeStatusIterator;
 import uk.co.techblue.docusign.client.resources.EnvelopeResource;
 import uk.co.techblue.docusign.client.utils.DocuSignUtils;
 
@@ -47,6 +61,18 @@ import uk.co.techblue.docusign.client.utils.DocuSignUtils;
  */
 public class EnvelopeService extends BaseService<EnvelopeResource> {
 
+    /** The document id the combined documents are cached against. */
+    private static final String COMBINED = "combined";
+
+    /** The document id the certificate is cached against. */
+    private static final String CERTIFICATE = "certificate";
+
+    /** The cache of the documents of completed envelopes, null if disabled. */
+    private volatile DocumentCache documentCache;
+
+    /** The cache of the audit events of completed envelopes, null if disabled. */
+    private volatile AuditEventsCache auditEventsCache;
+
     /**
      * Instantiates a new envelope service.
      * 
@@ -122,10 +148,40 @@ public class EnvelopeService extends BaseService<EnvelopeResource> {
      * @throws EnvelopeException the envelope exception
      */
     public AuditEventsResponse getAuditEvents(final String envelopeId) throws EnvelopeException {
+        final AuditEventsCache cache = auditEventsCache;
+        if (cache != null) {
+            final AuditEventsResponse cached = cache.get(getRestBaseUri(), credentials, envelopeId);
+            if (cached != null) {
+                return cached;
+            }
+        }
 
         final Response clientResponse = resourceProxy.getAuditEvents(envelopeId);
 
-        return parseEntityFromResponse(clientResponse, AuditEventsResponse.class, EnvelopeException.class);
+        final AuditEventsResponse auditEvents =
+            parseEntityFromResponse(clientResponse, AuditEventsResponse.class, EnvelopeException.class);
+        if (cache != null && isCompleted(auditEvents)) {
+            return cache.putIfAbsent(getRestBaseUri(), credentials, envelopeId, auditEvents);
+        }
+        return auditEvents;
+    }
+
+    /**
+     * Checks whether the audit trail records the completion of the envelope, after which it is treated as final.
+     * 
+     * @param auditEvents the audit events
+     * @return true if an event left the envelope completed
+     */
+    private static boolean isCompleted(final AuditEventsResponse auditEvents) {
+        if (auditEvents == null || auditEvents.getAuditEvents() == null) {
+            return false;
+        }
+        for (final AuditEvent auditEvent : auditEvents.getAuditEvents()) {
+            if (Status.completed.name().equalsIgnoreCase(auditEvent.getEventField(AuditEvent.ENVELOPE_STATUS))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -159,36 +215,55 @@ public class EnvelopeService extends BaseService<EnvelopeResource> {
     }
 
     /**
-     * Save to drafts.
+     * Save to drafts. The documents are streamed from the files at their paths.
      * 
      * @param envelope the envelope
      * @return the string
      * @throws SignatureRequestException the signature request exception
      */
     public String saveToDrafts(final Envelope envelope) throws SignatureRequestException {
-        final MultipartFormDataOutput dataOut = generateMultipartFormDataOutput(envelope);
-        final Response clientResponse = resourceProxy.saveToDrafts(dataOut);
+        return saveToDrafts(envelope, null);
+    }
+
+    /**
+     * Save to drafts. Each document is streamed from its source, or from the file at its path if it has no source, so
+     * that no document is held in memory.
+     * 
+     * @param envelope the envelope
+     * @param documentSources the document sources by document id, may be null
+     * @return the string
+     * @throws SignatureRequestException the signature request exception
+     */
+    public String saveToDrafts(final Envelope envelope, final Map<String, DocumentSource> documentSources)
+        throws SignatureRequestException {
+        final StreamingMultipart multipart;
+        try {
+            multipart = generateStreamingMultipart(envelope, documentSources);
+        } catch (final IOException ioe) {
+            throw new SignatureRequestException("Error occurred while reading the documents of the draft", ioe);
+        }
+        final Response clientResponse = resourceProxy.saveToDrafts(multipart);
         return parseEntityFromResponse(clientResponse, String.class, SignatureRequestException.class);
         // return parseEntityFromResponse(clientResponse, String.class, SignatureRequestException.class).get("envelopeId");
     }
 
     /**
-     * Generates multipart form data output.
+     * Generates the streamed multipart body of a draft.
      * 
      * @param envelope the envelope
-     * @return the multipart form data output
+     * @param documentSources the document sources by document id, may be null
+     * @return the streaming multipart
+     * @throws IOException if a document file cannot be read
      */
-    private MultipartFormDataOutput generateMultipartFormDataOutput(final Envelope envelope) {
-        final MultipartFormDataOutput dataOut = new MultipartFormDataOutput();
-        dataOut.addFormData("request-type", "Save envelope as draft", MediaType.APPLICATION_JSON_TYPE);
-        dataOut.addFormData("envelope_definition", envelope, MediaType.APPLICATION_JSON_TYPE);
-        // metadataPart.getHeaders().putSingle(FieldName.CONTENT_DISPOSITION, "form-data");
+    private StreamingMultipart generateStreamingMultipart(final Envelope envelope,
+        final Map<String, DocumentSource> documentSources) throws IOException {
+        final StreamingMultipart multipart = new StreamingMultipart();
+        multipart.addJsonPart("request-type", "Save envelope as draft");
+        multipart.addJsonPart(DocuSignUtils.ENVELOPE_DEFINITION, envelope);
         for (final DocumentInfo document : envelope.getDocuments()) {
-            final FileDataSource dataSource = new FileDataSource(document.getPath());
-            final OutputPart filePart = dataOut.addFormData(document.getName(), dataSource, MediaType.valueOf(dataSource.getContentType()));
-            filePart.getHeaders().putSingle(FieldName.CONTENT_DISPOSITION, DocuSignUtils.getContentDispositionHeader(document));
+            multipart.addDocument(document, DocuSignUtils.getDocumentSource(document, documentSources));
         }
-        return dataOut;
+        return multipart;
     }
 
     /**
@@ -235,8 +310,7 @@ public class EnvelopeService extends BaseService<EnvelopeResource> {
      * @throws EnvelopeException the envelope exception
      */
     public DocumentFile getCertificate(final String envelopeId) throws EnvelopeException {
-        final Response clientResponse = resourceProxy.getCertificate(envelopeId, null, null);
-        return parseEntityFromResponse(clientResponse, DocumentFile.class, EnvelopeException.class);
+        return getCertificate(envelopeId, null, null);
     }
 
     /**
@@ -253,6 +327,12 @@ public class EnvelopeService extends BaseService<EnvelopeResource> {
      * @throws EnvelopeException the envelope exception
      */
     public DocumentFile getCertificate(final String envelopeId, final Boolean watermark, final Boolean certificate) throws EnvelopeException {
+        final DocumentFile cached = getCachedDocument(envelopeId,
+            DocumentCache.key(envelopeId, CERTIFICATE, watermark, certificate),
+            () -> getCertificateStream(envelopeId, watermark, certificate));
+        if (cached != null) {
+            return cached;
+        }
         final Response clientResponse = resourceProxy.getCertificate(envelopeId, watermark, certificate);
         return parseEntityFromResponse(clientResponse, DocumentFile.class, EnvelopeException.class);
     }
@@ -265,6 +345,11 @@ public class EnvelopeService extends BaseService<EnvelopeResource> {
      * @throws EnvelopeException the envelope exception
      */
     public DocumentFile getDocumentsCombined(final String envelopeId) throws EnvelopeException {
+        final DocumentFile cached = getCachedDocument(envelopeId, DocumentCache.key(envelopeId, COMBINED, null, null),
+            () -> getDocumentsCombinedStream(envelopeId));
+        if (cached != null) {
+            return cached;
+        }
         final Response clientResponse = resourceProxy.getDocumentsCombined(envelopeId);
         return parseEntityFromResponse(clientResponse, DocumentFile.class, EnvelopeException.class);
     }
@@ -290,10 +375,360 @@ public class EnvelopeService extends BaseService<EnvelopeResource> {
      * @throws EnvelopeException the envelope exception
      */
     public DocumentFile getDocument(final String envelopeId, final String documentId) throws EnvelopeException {
+        final DocumentFile cached = getCachedDocument(envelopeId, DocumentCache.key(envelopeId, documentId, null, null),
+            () -> getDocumentStream(envelopeId, documentId));
+        if (cached != null) {
+            return cached;
+        }
         final Response clientResponse = resourceProxy.getDocument(envelopeId, documentId);
         return parseEntityFromResponse(clientResponse, DocumentFile.class, EnvelopeException.class);
     }
 
+    /**
+     * Opens the content of the document without spooling it to a temporary file. The stream must be closed to release
+     * the connection.
+     * 
+     * @param envelopeId the envelope id
+     * @param documentId the document id
+     * @return the document stream
+     * @throws EnvelopeException the envelope exception
+     */
+    public DocumentStream getDocumentStream(final String envelopeId, final String documentId) throws EnvelopeException {
+        final DocumentStream cached =
+            openCachedDocument(envelopeId, DocumentCache.key(envelopeId, documentId, null, null));
+        if (cached != null) {
+            return cached;
+        }
+        return openDocumentStream(resourceProxy.getDocument(envelopeId, documentId));
+    }
+
+    /**
+     * Opens the PDF containing the combined content of all documents and the certificate without spooling it to a
+     * temporary file. The stream must be closed to release the connection.
+     * 
+     * @param envelopeId the envelope id
+     * @return the documents combined stream
+     * @throws EnvelopeException the envelope exception
+     */
+    public DocumentStream getDocumentsCombinedStream(final String envelopeId) throws EnvelopeException {
+        final DocumentStream cached =
+            openCachedDocument(envelopeId, DocumentCache.key(envelopeId, COMBINED, null, null));
+        if (cached != null) {
+            return cached;
+        }
+        return openDocumentStream(resourceProxy.getDocumentsCombined(envelopeId));
+    }
+
+    /**
+     * Opens the certificate without spooling it to a temporary file. The stream must be closed to release the
+     * connection.
+     * 
+     * @param envelopeId the envelope id
+     * @param watermark the watermark
+     * @param certificate the certificate
+     * @return the certificate stream
+     * @throws EnvelopeException the envelope exception
+     */
+    public DocumentStream getCertificateStream(final String envelopeId, final Boolean watermark, final Boolean certificate)
+        throws EnvelopeException {
+        final DocumentStream cached =
+            openCachedDocument(envelopeId, DocumentCache.key(envelopeId, CERTIFICATE, watermark, certificate));
+        if (cached != null) {
+            return cached;
+        }
+        return openDocumentStream(resourceProxy.getCertificate(envelopeId, watermark, certificate));
+    }
+
+    /**
+     * Opens the audit events as the JSON document returned by DocuSign, without binding it to
+     * {@link AuditEventsResponse}. The stream must be closed to release the connection.
+     * 
+     * @param envelopeId the envelope id
+     * @return the audit events stream
+     * @throws EnvelopeException the envelope exception
+     */
+    public DocumentStream getAuditEventsStream(final String envelopeId) throws EnvelopeException {
+        return openDocumentStream(resourceProxy.getAuditEvents(envelopeId));
+    }
+
+    /**
+     * Downloads the document straight to the target file, replacing it if it exists.
+     * 
+     * @param envelopeId the envelope id
+     * @param documentId the document id
+     * @param target the target file
+     * @return the number of bytes written
+     * @throws EnvelopeException the envelope exception
+     */
+    public long downloadDocument(final String envelopeId, final String documentId, final Path target) throws EnvelopeException {
+        final long cached = downloadCachedDocument(envelopeId, DocumentCache.key(envelopeId, documentId, null, null),
+            () -> getDocumentStream(envelopeId, documentId), target);
+        return cached >= 0 ? cached : download(getDocumentStream(envelopeId, documentId), target);
+    }
+
+    /**
+     * Downloads the documents combined straight to the target file, replacing it if it exists.
+     * 
+     * @param envelopeId the envelope id
+     * @param target the target file
+     * @return the number of bytes written
+     * @throws EnvelopeException the envelope exception
+     */
+    public long downloadDocumentsCombined(final String envelopeId, final Path target) throws EnvelopeException {
+        final long cached = downloadCachedDocument(envelopeId, DocumentCache.key(envelopeId, COMBINED, null, null),
+            () -> getDocumentsCombinedStream(envelopeId), target);
+        return cached >= 0 ? cached : download(getDocumentsCombinedStream(envelopeId), target);
+    }
+
+    /**
+     * Downloads the certificate straight to the target file, replacing it if it exists.
+     * 
+     * @param envelopeId the envelope id
+     * @param watermark the watermark
+     * @param certificate the certificate
+     * @param target the target file
+     * @return the number of bytes written
+     * @throws EnvelopeException the envelope exception
+     */
+    public long downloadCertificate(final String envelopeId, final Boolean watermark, final Boolean certificate,
+        final Path target) throws EnvelopeException {
+        final long cached = downloadCachedDocument(envelopeId,
+            DocumentCache.key(envelopeId, CERTIFICATE, watermark, certificate),
+            () -> getCertificateStream(envelopeId, watermark, certificate), target);
+        return cached >= 0 ? cached : download(getCertificateStream(envelopeId, watermark, certificate), target);
+    }
+
+    /**
+     * Downloads the audit events, as the JSON document returned by DocuSign, straight to the target file, replacing it
+     * if it exists.
+     * 
+     * @param envelopeId the envelope id
+     * @param target the target file
+     * @return the number of bytes written
+     * @throws EnvelopeException the envelope exception
+     */
+    public long downloadAuditEvents(final String envelopeId, final Path target) throws EnvelopeException {
+        return download(getAuditEventsStream(envelopeId), target);
+    }
+
+    /**
+     * Downloads all the documents of the envelope and its certificate into the directory, a few at a time.
+     * 
+     * @param envelopeId the envelope id
+     * @param directory the target directory, created if needed
+     * @return the manifest of the downloaded files, with their sizes and SHA-256 checksums
+     * @throws EnvelopeException the envelope exception
+     * @see DocumentBundleDownloader
+     */
+    public DocumentBundle downloadBundle(final String envelopeId, final Path directory) throws EnvelopeException {
+        return new DocumentBundleDownloader(this).download(envelopeId, directory);
+    }
+
+    /**
+     * Downloads all the documents of the envelope and its certificate into the directory.
+     * 
+     * @param envelopeId the envelope id
+     * @param directory the target directory, created if needed
+     * @param parallelism the number of files downloaded at the same time
+     * @return the manifest of the downloaded files, with their sizes and SHA-256 checksums
+     * @throws EnvelopeException the envelope exception
+     * @see DocumentBundleDownloader
+     */
+    public DocumentBundle downloadBundle(final String envelopeId, final Path directory, final int parallelism)
+        throws EnvelopeException {
+        return new DocumentBundleDownloader(this, parallelism).download(envelopeId, directory);
+    }
+
+    /**
+     * Gets the cache of the documents of completed envelopes.
+     * 
+     * @return the document cache, null if documents are not cached
+     */
+    public DocumentCache getDocumentCache() {
+        return documentCache;
+    }
+
+    /**
+     * Sets the cache of the documents of completed envelopes. When set, the documents, documents combined and
+     * certificates of completed envelopes, whether returned as a {@link DocumentFile} or downloaded to a file, are
+     * downloaded once and then served from the cache. The cache is not trusted to know who may read a document: the
+     * status of the envelope is fetched with the credentials of this service before every document is served, cached
+     * or not, so each request still costs one status call but no download once cached, and the cache may be shared by
+     * services of different accounts and users. The streaming methods read the documents already cached, after the
+     * same check, but do not cache the ones they download.
+     * 
+     * @param documentCache the document cache, null to stop caching
+     */
+    public void setDocumentCache(final DocumentCache documentCache) {
+        this.documentCache = documentCache;
+    }
+
+    /**
+     * Gets the cache of the audit events of completed envelopes.
+     * 
+     * @return the audit events cache, null if audit events are not cached
+     */
+    public AuditEventsCache getAuditEventsCache() {
+        return auditEventsCache;
+    }
+
+    /**
+     * Sets the cache of the audit events of completed envelopes. When set, {@link #getAuditEvents(String)} fetches the
+     * audit trail of an envelope once its trail records the completion, and returns the cached response from then on.
+     * Events logged after completion, such as later views of the documents, are not seen until the entry is evicted or
+     * removed. The cached responses are shared between callers and must not be modified. The cache may be shared by
+     * services of different accounts and users, as the trails are kept against the credentials they were read with.
+     * 
+     * @param auditEventsCache the audit events cache, null to stop caching
+     */
+    public void setAuditEventsCache(final AuditEventsCache auditEventsCache) {
+        this.auditEventsCache = auditEventsCache;
+    }
+
+    /**
+     * Gets a link to or a copy of the cached document, caching it first if the envelope is complete.
+     * 
+     * @param envelopeId the envelope id
+     * @param key the cache key
+     * @param opener opens the document on a cache miss
+     * @return the document file, or null if the document is not cached
+     * @throws EnvelopeException the envelope exception
+     */
+    private DocumentFile getCachedDocument(final String envelopeId, final String key, final DocumentStreamOpener opener)
+        throws EnvelopeException {
+        final DocumentCache cache = documentCache;
+        if (cache == null || !cacheDocument(cache, envelopeId, key, opener)) {
+            return null;
+        }
+        try {
+            return cache.get(key);
+        } catch (final IOException ioe) {
+            throw new EnvelopeException("Error occurred while reading cached document " + key, ioe);
+        }
+    }
+
+    /**
+     * Copies the cached document to the target file, caching it first if the envelope is complete.
+     * 
+     * @param envelopeId the envelope id
+     * @param key the cache key
+     * @param opener opens the document on a cache miss
+     * @param target the target file
+     * @return the number of bytes written, or -1 if the document is not cached
+     * @throws EnvelopeException the envelope exception
+     */
+    private long downloadCachedDocument(final String envelopeId, final String key, final DocumentStreamOpener opener,
+        final Path target) throws EnvelopeException {
+        final DocumentCache cache = documentCache;
+        if (cache == null || !cacheDocument(cache, envelopeId, key, opener)) {
+            return -1;
+        }
+        try {
+            return cache.transferTo(key, target);
+        } catch (final IOException ioe) {
+            throw new EnvelopeException("Error occurred while copying cached document " + key + " to " + target, ioe);
+        }
+    }
+
+    /**
+     * Opens the cached document, without caching it on a miss.
+     * 
+     * @param envelopeId the envelope id
+     * @param key the cache key
+     * @return the document stream, or null if the document is not cached
+     * @throws EnvelopeException the envelope exception
+     */
+    private DocumentStream openCachedDocument(final String envelopeId, final String key) throws EnvelopeException {
+        final DocumentCache cache = documentCache;
+        if (cache == null || !cache.contains(key) || !isCompletedEnvelope(envelopeId)) {
+            return null;
+        }
+        try {
+            return cache.openStream(key);
+        } catch (final IOException ioe) {
+            throw new EnvelopeException("Error occurred while reading cached document " + key, ioe);
+        }
+    }
+
+    /**
+     * Caches the document unless it is already cached or the envelope is not complete. The status of the envelope is
+     * checked even when the document is cached, so that a cache shared with other users or accounts only serves the
+     * envelopes the credentials of this service can read.
+     * 
+     * @return true, if the document is cached
+     */
+    private boolean cacheDocument(final DocumentCache cache, final String envelopeId, final String key,
+        final DocumentStreamOpener opener) throws EnvelopeException {
+        if (!isCompletedEnvelope(envelopeId)) {
+            return false;
+        }
+        if (cache.contains(key)) {
+            return true;
+        }
+        final DocumentStream documentStream = opener.open();
+        try {
+            try {
+                cache.put(key, documentStream);
+            } finally {
+                documentStream.close();
+            }
+        } catch (final IOException ioe) {
+            throw new EnvelopeException("Error occurred while caching document " + key, ioe);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the status of the envelope with the credentials of this service, failing if they do not give access to it.
+     * 
+     * @return true, if the envelope is complete
+     */
+    private boolean isCompletedEnvelope(final String envelopeId) throws EnvelopeException {
+        final EnvelopeInfo envelope = getEnvelopeStatus(envelopeId);
+        return envelope != null && envelope.getStatus() == Status.completed;
+    }
+
+    /**
+     * Opens the document stream over the response, or throws the mapped exception if the request failed.
+     * 
+     * @param clientResponse the client response
+     * @return the document stream
+     * @throws EnvelopeException the envelope exception
+     */
+    private DocumentStream openDocumentStream(final Response clientResponse) throws EnvelopeException {
+        boolean opened = false;
+        try {
+            validateResponseSuccess(clientResponse, EnvelopeException.class);
+            final DocumentStream documentStream = new DocumentStream(clientResponse);
+            opened = true;
+            return documentStream;
+        } finally {
+            if (!opened) {
+                clientResponse.close();
+            }
+        }
+    }
+
+    /**
+     * Writes the document stream to the target file and closes it.
+     * 
+     * @param documentStream the document stream
+     * @param target the target file
+     * @return the number of bytes written
+     * @throws EnvelopeException the envelope exception
+     */
+    private long download(final DocumentStream documentStream, final Path target) throws EnvelopeException {
+        try {
+            try {
+                return documentStream.transferTo(target);
+            } finally {
+                documentStream.close();
+            }
+        } catch (final IOException ioe) {
+            throw new EnvelopeException("Error occurred while downloading document to " + target, ioe);
+        }
+    }
+
     /**
      * Gets information about the custom fields included in the envelope.
      * 
@@ -347,6 +782,23 @@ public class EnvelopeService extends BaseService<EnvelopeResource> {
         return parseEntityFromResponse(clientResponse, RecipientStatusCollection.class, EnvelopeException.class);
     }
 
+    /**
+     * Gets the status for all recipients of a single envelope with their tabs, leaving the tabs of each recipient as
+     * JSON until they are used. The tabs of every recipient are a {@link LazyDocumentTabCollection}, which reads all
+     * the tabs on the first call to one of its getters, or a single type of tab through
+     * {@link LazyDocumentTabCollection#getTabs(Class)}.
+     * 
+     * @param envelopeId the envelope id
+     * @param includeExtended If set to true, the extended properties are returned
+     * @return the recipient status
+     * @throws EnvelopeException the envelope exception
+     */
+    public LazyRecipientStatusCollection getRecipientStatusWithLazyTabs(final String envelopeId, final Boolean includeExtended)
+        throws EnvelopeException {
+        final Response clientResponse = resourceProxy.getRecipientStatus(envelopeId, true, includeExtended);
+        return parseEntityFromResponse(clientResponse, LazyRecipientStatusCollection.class, EnvelopeException.class);
+    }
+
     /**
      * Modify or Correct and Resend Recipient Information.
      * 
@@ -372,6 +824,250 @@ public class EnvelopeService extends BaseService<EnvelopeResource> {
         return parseEntityFromResponse(clientResponse, String.class, EnvelopeException.class);
     }
 
+    /**
+     * Gets the envelope asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @return the future envelope, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<EnvelopeDetailInfo> getEnvelopeAsync(final String envelopeId) {
+        return supplyAsync(new ServiceCall<EnvelopeDetailInfo>() {
+            @Override
+            public EnvelopeDetailInfo call() throws EnvelopeException {
+                return getEnvelope(envelopeId);
+            }
+        });
+    }
+
+    /**
+     * Gets the audit events asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @return the future audit events, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<AuditEventsResponse> getAuditEventsAsync(final String envelopeId) {
+        return supplyAsync(new ServiceCall<AuditEventsResponse>() {
+            @Override
+            public AuditEventsResponse call() throws EnvelopeException {
+                return getAuditEvents(envelopeId);
+            }
+        });
+    }
+
+    /**
+     * Gets the envelope status changes asynchronously.
+     * 
+     * @param statusQueryForm the status query form
+     * @return the future envelope status changes, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<EnvelopeStatusResponse> getEnvelopeStatusAsync(final EnvelopeStatusQueryForm statusQueryForm) {
+        return supplyAsync(new ServiceCall<EnvelopeStatusResponse>() {
+            @Override
+            public EnvelopeStatusResponse call() throws EnvelopeException {
+                return getEnvelopeStatus(statusQueryForm);
+            }
+        });
+    }
+
+    /**
+     * Iterates over the envelope status changes page by page, prefetching the next pages in the background. The
+     * iterator should be closed if it is not read to the end.
+     * 
+     * @param statusQueryForm the status query form
+     * @return the envelope status iterator
+     * @see EnvelopeStatusIterator
+     */
+    public EnvelopeStatusIterator iterateEnvelopeStatus(final EnvelopeStatusQueryForm statusQueryForm) {
+        return new EnvelopeStatusIterator(this, statusQueryForm);
+    }
+
+    /**
+     * Iterates over the envelope status changes page by page, prefetching the next pages in the background. The
+     * iterator should be closed if it is not read to the end.
+     * 
+     * @param statusQueryForm the status query form
+     * @param pageSize the number of envelopes requested per page
+     * @param prefetchPages the number of pages requested ahead of the current one
+     * @return the envelope status iterator
+     * @see EnvelopeStatusIterator
+     */
+    public EnvelopeStatusIterator iterateEnvelopeStatus(final EnvelopeStatusQueryForm statusQueryForm,
+        final int pageSize, final int prefetchPages) {
+        return new EnvelopeStatusIterator(this, statusQueryForm, pageSize, prefetchPages);
+    }
+
+    /**
+     * Streams the envelope status changes page by page, prefetching the next pages in the background. Closing the
+     * stream cancels the outstanding page requests.
+     * 
+     * @param statusQueryForm the status query form
+     * @return the envelope status stream
+     * @see EnvelopeStatusIterator
+     */
+    public Stream<EnvelopeInfo> streamEnvelopeStatus(final EnvelopeStatusQueryForm statusQueryForm) {
+        return streamEnvelopeStatus(statusQueryForm, EnvelopeStatusIterator.DEFAULT_PAGE_SIZE,
+            EnvelopeStatusIterator.DEFAULT_PREFETCH_PAGES);
+    }
+
+    /**
+     * Streams the envelope status changes page by page, prefetching the next pages in the background. Closing the
+     * stream cancels the outstanding page requests.
+     * 
+     * @param statusQueryForm the status query form
+     * @param pageSize the number of envelopes requested per page
+     * @param prefetchPages the number of pages requested ahead of the current one
+     * @return the envelope status stream
+     * @see EnvelopeStatusIterator
+     */
+    public Stream<EnvelopeInfo> streamEnvelopeStatus(final EnvelopeStatusQueryForm statusQueryForm,
+        final int pageSize, final int prefetchPages) {
+        final EnvelopeStatusIterator iterator = iterateEnvelopeStatus(statusQueryForm, pageSize, prefetchPages);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+            Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+    }
+
+    /**
+     * Gets the envelope status asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @return the future envelope status, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<EnvelopeInfo> getEnvelopeStatusAsync(final String envelopeId) {
+        return supplyAsync(new ServiceCall<EnvelopeInfo>() {
+            @Override
+            public EnvelopeInfo call() throws EnvelopeException {
+                return getEnvelopeStatus(envelopeId);
+            }
+        });
+    }
+
+    /**
+     * Gets the certificate asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @param watermark the watermark
+     * @param certificate the certificate
+     * @return the future certificate, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<DocumentFile> getCertificateAsync(final String envelopeId, final Boolean watermark, final Boolean certificate) {
+        return supplyAsync(new ServiceCall<DocumentFile>() {
+            @Override
+            public DocumentFile call() throws EnvelopeException {
+                return getCertificate(envelopeId, watermark, certificate);
+            }
+        });
+    }
+
+    /**
+     * Gets the documents combined asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @return the future documents combined, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<DocumentFile> getDocumentsCombinedAsync(final String envelopeId) {
+        return supplyAsync(new ServiceCall<DocumentFile>() {
+            @Override
+            public DocumentFile call() throws EnvelopeException {
+                return getDocumentsCombined(envelopeId);
+            }
+        });
+    }
+
+    /**
+     * Gets the documents info asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @return the future documents info, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<EnvelopeDocumentInfo> getDocumentsInfoAsync(final String envelopeId) {
+        return supplyAsync(new ServiceCall<EnvelopeDocumentInfo>() {
+            @Override
+            public EnvelopeDocumentInfo call() throws EnvelopeException {
+                return getDocumentsInfo(envelopeId);
+            }
+        });
+    }
+
+    /**
+     * Gets the document asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @param documentId the document id
+     * @return the future document, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<DocumentFile> getDocumentAsync(final String envelopeId, final String documentId) {
+        return supplyAsync(new ServiceCall<DocumentFile>() {
+            @Override
+            public DocumentFile call() throws EnvelopeException {
+                return getDocument(envelopeId, documentId);
+            }
+        });
+    }
+
+    /**
+     * Gets the custom fields asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @return the future custom fields, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<CustomFields> getCustomFieldsAsync(final String envelopeId) {
+        return supplyAsync(new ServiceCall<CustomFields>() {
+            @Override
+            public CustomFields call() throws EnvelopeException {
+                return getCustomFields(envelopeId);
+            }
+        });
+    }
+
+    /**
+     * Gets the notification info asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @return the future notification info, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<EnvelopeNotificationInfo> getNotificationInfoAsync(final String envelopeId) {
+        return supplyAsync(new ServiceCall<EnvelopeNotificationInfo>() {
+            @Override
+            public EnvelopeNotificationInfo call() throws EnvelopeException {
+                return getNotificationInfo(envelopeId);
+            }
+        });
+    }
+
+    /**
+     * Gets the status for all recipients of a single envelope asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @param includeTabs If set to true, the tabs associated with the recipient are returned.
+     * @param includeExtended If set to true, the extended properties are returned
+     * @return the future recipient status, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<RecipientStatusCollection> getRecipientStatusAsync(final String envelopeId, final Boolean includeTabs,
+        final Boolean includeExtended) {
+        return supplyAsync(new ServiceCall<RecipientStatusCollection>() {
+            @Override
+            public RecipientStatusCollection call() throws EnvelopeException {
+                return getRecipientStatus(envelopeId, includeTabs, includeExtended);
+            }
+        });
+    }
+
+    /**
+     * Gets the recipient signature asynchronously.
+     * 
+     * @param envelopeId the envelope id
+     * @param recipientId the recipient id
+     * @return the future recipient signature, completed exceptionally with {@link EnvelopeException} on failure
+     */
+    public CompletableFuture<String> getRecipientSignatureAsync(final String envelopeId, final String recipientId) {
+        return supplyAsync(new ServiceCall<String>() {
+            @Override
+            public String call() throws EnvelopeException {
+                return getRecipientSignature(envelopeId, recipientId);
+            }
+        });
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -381,4 +1077,13 @@ public class EnvelopeService extends BaseService<EnvelopeResource> {
     protected Class<EnvelopeResource> getResourceClass() {
         return EnvelopeResource.class;
     }
+
+    /**
+     * Opens a document on a cache miss.
+     */
+    @FunctionalInterface
+    private interface DocumentStreamOpener {
+
+        DocumentStream open() throws EnvelopeException;
+    }
 }
@@ -15,9 +15,10 @@
  ******************************************************************************/
 package uk.co.techblue.docusign.client.services;
 
-import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.util.Map;
 
-import org.jboss.resteasy.plugins.providers.multipart.MultipartFormDataOutput;
+import javax.ws.rs.core.Response;
 
 import uk.co.techblue.docusign.client.BaseService;
 import uk.co.techblue.docusign.client.credential.DocuSignCredentials;
@@ -27,6 +28,8 @@ import uk.co.techblue.docusign.client.dto.TemplateSignatureRequest;
 import uk.co.techblue.docusign.client.dto.user.LoginAccount;
 import uk.co.techblue.docusign.client.exception.ServiceInitException;
 import uk.co.techblue.docusign.client.exception.SignatureRequestException;
+import uk.co.techblue.docusign.client.multipart.DocumentSource;
+import uk.co.techblue.docusign.client.multipart.StreamingMultipart;
 import uk.co.techblue.docusign.client.resources.RequestSignatureResource;
 import uk.co.techblue.docusign.client.utils.DocuSignUtils;
 
@@ -82,7 +85,7 @@ public class RequestSignatureService extends BaseService<RequestSignatureResourc
     }
 
     /**
-     * Send document.
+     * Send document. The documents are streamed from the files at their paths.
      * 
      * @param signatureRequest
      *            the signature request
@@ -91,8 +94,49 @@ public class RequestSignatureService extends BaseService<RequestSignatureResourc
      *             the signature request exception
      */
     public SignatureResponse sendDocument(final DocumentSignatureRequest signatureRequest) throws SignatureRequestException {
-        final MultipartFormDataOutput dataOut = DocuSignUtils.generateMultipartFormDataOutput(signatureRequest);
-        final Response clientResponse = resourceProxy.sendDocument(dataOut);
+        return sendDocument(signatureRequest, null, null);
+    }
+
+    /**
+     * Send document. The request carries the idempotency key, so that it is retried when throttled or when the
+     * connection could not be established, but never after it may have reached the server.
+     * 
+     * @param signatureRequest
+     *            the signature request
+     * @param idempotencyKey
+     *            the idempotency key, unique to this signature request
+     * @return the signature response
+     * @throws SignatureRequestException
+     *             the signature request exception
+     */
+    public SignatureResponse sendDocument(final DocumentSignatureRequest signatureRequest, final String idempotencyKey)
+        throws SignatureRequestException {
+        return sendDocument(signatureRequest, null, idempotencyKey);
+    }
+
+    /**
+     * Send document. Each document is streamed from its source, or from the file at its path if it has no source, so
+     * that no document is held in memory.
+     * 
+     * @param signatureRequest
+     *            the signature request
+     * @param documentSources
+     *            the document sources by document id, may be null
+     * @param idempotencyKey
+     *            the idempotency key, unique to this signature request, or null to send the request once
+     * @return the signature response
+     * @throws SignatureRequestException
+     *             the signature request exception
+     */
+    public SignatureResponse sendDocument(final DocumentSignatureRequest signatureRequest,
+        final Map<String, DocumentSource> documentSources, final String idempotencyKey) throws SignatureRequestException {
+        final StreamingMultipart multipart;
+        try {
+            multipart = DocuSignUtils.generateStreamingMultipart(signatureRequest, documentSources);
+        } catch (final IOException ioe) {
+            throw new SignatureRequestException("Error occurred while reading the documents to send", ioe);
+        }
+        final Response clientResponse = resourceProxy.sendDocument(idempotencyKey, multipart);
         return parseEntityFromResponse(clientResponse, SignatureResponse.class, SignatureRequestException.class);
     }
 
@@ -4,9 +4,12 @@
  ******************************************************************************/
 package uk.co.techblue.docusign.client.services;
 
+import java.util.concurrent.CompletableFuture;
+
 import javax.ws.rs.core.Response;
 
 import uk.co.techblue.docusign.client.BaseService;
+import uk.co.techblue.docusign.client.cache.TemplateCache;
 import uk.co.techblue.docusign.client.credential.DocuSignCredentials;
 import uk.co.techblue.docusign.client.dto.Template;
 import uk.co.techblue.docusign.client.dto.TemplateInfo;
@@ -20,6 +23,9 @@ import uk.co.techblue.docusign.client.resources.TemplateResource;
  */
 public class TemplateService extends BaseService<TemplateResource> {
 
+    /** The cache of the templates, null if disabled. */
+    private volatile TemplateCache templateCache;
+
     /**
      * Instantiates a new template service.
      * 
@@ -53,6 +59,20 @@ public class TemplateService extends BaseService<TemplateResource> {
      * @throws TemplateException the template exception
      */
     public TemplateInfo retrieveTemplates() throws TemplateException {
+        TemplateCache cache = templateCache;
+        if (cache != null) {
+            return cache.getTemplates(getRestBaseUri(), credentials, restBaseUri -> loadTemplates());
+        }
+        return loadTemplates();
+    }
+
+    /**
+     * Loads the templates from DocuSign.
+     *
+     * @return the templates
+     * @throws TemplateException the template exception
+     */
+    private TemplateInfo loadTemplates() throws TemplateException {
         Response clientResponse = resourceProxy.retrieveTemplates();
         return parseEntityFromResponse(clientResponse, TemplateInfo.class, TemplateException.class);
     }
@@ -65,10 +85,97 @@ public class TemplateService extends BaseService<TemplateResource> {
      * @throws TemplateException the template exception
      */
     public Template retrieveTemplate(String templateId) throws TemplateException {
+        TemplateCache cache = templateCache;
+        if (cache != null) {
+            return cache.getTemplate(getRestBaseUri(), credentials, templateId, this::loadTemplate);
+        }
+        return loadTemplate(templateId);
+    }
+
+    /**
+     * Loads the template from DocuSign.
+     *
+     * @param templateId the template id
+     * @return the template
+     * @throws TemplateException the template exception
+     */
+    private Template loadTemplate(String templateId) throws TemplateException {
         Response clientResponse = resourceProxy.retrieveTemplate(templateId);
         return parseEntityFromResponse(clientResponse, Template.class, TemplateException.class);
     }
 
+    /**
+     * Gets the template cache.
+     *
+     * @return the template cache, null if templates are not cached
+     */
+    public TemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    /**
+     * Sets the cache of the templates and template lists returned by {@link #retrieveTemplate(String)} and
+     * {@link #retrieveTemplates()}. The cache may be shared by several services.
+     *
+     * @param templateCache the template cache, null to stop caching
+     */
+    public void setTemplateCache(TemplateCache templateCache) {
+        this.templateCache = templateCache;
+    }
+
+    /**
+     * Removes the template from the cache, so that the next {@link #retrieveTemplate(String)} reloads it. To be called
+     * once the template is known to have changed.
+     *
+     * @param templateId the template id
+     */
+    public void invalidateTemplate(String templateId) {
+        TemplateCache cache = templateCache;
+        if (cache != null) {
+            cache.invalidateTemplate(getRestBaseUri(), credentials, templateId);
+        }
+    }
+
+    /**
+     * Removes the template list from the cache, so that the next {@link #retrieveTemplates()} reloads it. To be called
+     * once a template is known to have been added or removed.
+     */
+    public void invalidateTemplates() {
+        TemplateCache cache = templateCache;
+        if (cache != null) {
+            cache.invalidateTemplates(getRestBaseUri(), credentials);
+        }
+    }
+
+    /**
+     * Retrieve templates asynchronously.
+     *
+     * @return the future templates, completed exceptionally with {@link TemplateException} on failure
+     */
+    public CompletableFuture<TemplateInfo> retrieveTemplatesAsync() {
+        return supplyAsync(new ServiceCall<TemplateInfo>() {
+            @Override
+            public TemplateInfo call() throws TemplateException {
+                return retrieveTemplates();
+            }
+        });
+    }
+
+    /**
+     * Retrieve template asynchronously.
+     *
+     * @param templateId the template id
+     * @return the future template, completed exceptionally with {@link TemplateException} on failure
+     */
+    public CompletableFuture<Template> retrieveTemplateAsync(String templateId) {
+        return supplyAsync(new ServiceCall<Template>() {
+            @Override
+            public Template call() throws TemplateException {
+                return retrieveTemplate(templateId);
+            }
+        });
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.sync;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusQueryForm;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.paging.EnvelopeStatusIterator;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+
+/**
+ * Incrementally synchronizes envelope status changes. Each {@link #sync(Consumer)} queries only the changes made since
+ * the previous one, starting from the latest <code>statusChangedDateTime</code> seen, the watermark, and walks the
+ * results page by page. The query starts a little before the watermark so changes recorded late or with a skewed
+ * clock are not missed; the changes it returns again are recognized from the cursor and not delivered twice.
+ * <p>
+ * The cursor is saved to a file after every successful sync and read back on construction, so a restarted process
+ * resumes where it stopped instead of rescanning. It only moves once all the changes of a query have been delivered:
+ * if the listener or the query fails, the next sync delivers the same changes again.
+ */
+public class EnvelopeStatusSync {
+
+    /** The default time in milliseconds the delta queries start before the watermark. */
+    public static final long DEFAULT_OVERLAP_MILLIS = 60000;
+
+    /** The envelope service. */
+    private final EnvelopeService envelopeService;
+
+    /** The query whose changes are synchronized. */
+    private final EnvelopeStatusQueryForm queryForm;
+
+    /** The file holding the cursor. */
+    private final Path cursorFile;
+
+    /** The time in milliseconds the delta queries start before the watermark. */
+    private final long overlapMillis;
+
+    /** The number of envelopes requested per page. */
+    private final int pageSize;
+
+    /** The current cursor. */
+    private SyncCursor cursor;
+
+    /**
+     * Instantiates a new envelope status sync with the default overlap and page size.
+     *
+     * @param envelopeService the envelope service
+     * @param cursorFile the file holding the cursor
+     * @param initialFromDate the date the first sync starts from, when no cursor has been saved yet
+     * @throws IOException if the saved cursor cannot be read
+     */
+    public EnvelopeStatusSync(final EnvelopeService envelopeService, final Path cursorFile, final Date initialFromDate)
+        throws IOException {
+        this(envelopeService, new EnvelopeStatusQueryForm(), cursorFile, initialFromDate, DEFAULT_OVERLAP_MILLIS,
+            EnvelopeStatusIterator.DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Instantiates a new envelope status sync.
+     *
+     * @param envelopeService the envelope service
+     * @param queryForm the filters of the synchronized query; its dates and paging parameters are ignored
+     * @param cursorFile the file holding the cursor
+     * @param initialFromDate the date the first sync starts from, when no cursor has been saved yet
+     * @param overlapMillis the time in milliseconds the delta queries start before the watermark
+     * @param pageSize the number of envelopes requested per page
+     * @throws IOException if the saved cursor cannot be read
+     */
+    public EnvelopeStatusSync(final EnvelopeService envelopeService, final EnvelopeStatusQueryForm queryForm,
+        final Path cursorFile, final Date initialFromDate, final long overlapMillis, final int pageSize)
+        throws IOException {
+        if (overlapMillis < 0) {
+            throw new IllegalArgumentException("The overlap must not be negative: " + overlapMillis);
+        }
+        this.envelopeService = envelopeService;
+        this.queryForm = new EnvelopeStatusQueryForm(queryForm);
+        this.queryForm.setToDate(null);
+        this.cursorFile = cursorFile;
+        this.overlapMillis = overlapMillis;
+        this.pageSize = pageSize;
+        final SyncCursor saved = SyncCursor.load(cursorFile);
+        this.cursor = saved != null ? saved : new SyncCursor(initialFromDate, new HashMap<String, Long>());
+    }
+
+    /**
+     * Gets the current cursor.
+     *
+     * @return the cursor
+     */
+    public synchronized SyncCursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Queries the status changes made since the previous sync and passes each of them to the listener, then saves the
+     * new cursor.
+     *
+     * @param listener the listener receiving the changed envelopes
+     * @return the number of changes delivered
+     * @throws EnvelopeException if the query fails
+     * @throws IOException if the cursor cannot be saved
+     */
+    public synchronized int sync(final Consumer<EnvelopeInfo> listener) throws EnvelopeException, IOException {
+        final long fromTime = cursor.getWatermark().getTime() - overlapMillis;
+        final EnvelopeStatusQueryForm deltaForm = new EnvelopeStatusQueryForm(queryForm);
+        deltaForm.setFromDate(new Date(fromTime));
+
+        long watermark = cursor.getWatermark().getTime();
+        final Map<String, Long> delivered = new HashMap<String, Long>();
+        int count = 0;
+        try (EnvelopeStatusIterator changes = envelopeService.iterateEnvelopeStatus(deltaForm, pageSize,
+            EnvelopeStatusIterator.DEFAULT_PREFETCH_PAGES)) {
+            while (changes.hasNext()) {
+                final EnvelopeInfo envelope = changes.next();
+                final Date statusChanged = envelope.getStatusChangedDateTime();
+                if (statusChanged == null) {
+                    listener.accept(envelope);
+                    count++;
+                    continue;
+                }
+                final long statusChangedTime = statusChanged.getTime();
+                if (cursor.isDelivered(envelope.getEnvelopeId(), statusChangedTime)) {
+                    continue;
+                }
+                final Long previous = delivered.get(envelope.getEnvelopeId());
+                if (previous != null && previous.longValue() >= statusChangedTime) {
+                    continue;
+                }
+                listener.accept(envelope);
+                count++;
+                delivered.put(envelope.getEnvelopeId(), statusChangedTime);
+                watermark = Math.max(watermark, statusChangedTime);
+            }
+        } catch (final CompletionException ce) {
+            if (ce.getCause() instanceof EnvelopeException) {
+                throw (EnvelopeException) ce.getCause();
+            }
+            throw new EnvelopeException("Error occurred while synchronizing the envelope status", ce.getCause());
+        } catch (final CancellationException ce) {
+            throw new EnvelopeException("Envelope status query cancelled", ce);
+        }
+
+        final Map<String, Long> boundary = new HashMap<String, Long>();
+        collectBoundary(cursor.getBoundary(), watermark - overlapMillis, boundary);
+        collectBoundary(delivered, watermark - overlapMillis, boundary);
+        final SyncCursor next = new SyncCursor(new Date(watermark), boundary);
+        next.save(cursorFile);
+        cursor = next;
+        return count;
+    }
+
+    /**
+     * Keeps the changes the next delta query can return again, the latest one of each envelope winning.
+     */
+    private static void collectBoundary(final Map<String, Long> changes, final long fromTime,
+        final Map<String, Long> boundary) {
+        for (final Map.Entry<String, Long> change : changes.entrySet()) {
+            if (change.getValue().longValue() >= fromTime) {
+                final Long kept = boundary.get(change.getKey());
+                if (kept == null || kept.longValue() < change.getValue().longValue()) {
+                    boundary.put(change.getKey(), change.getValue());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.sync;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import uk.co.techblue.docusign.client.dto.utils.ISO8601DateCodec;
+
+/**
+ * The position of an {@link EnvelopeStatusSync}: the latest status change time seen, the watermark, and the status
+ * changes already delivered near it. The next delta query starts slightly before the watermark so late or clock
+ * skewed changes are not missed, and the boundary changes are used to skip the ones delivered by the previous query.
+ * Instances are immutable.
+ */
+public final class SyncCursor {
+
+    private static final String WATERMARK = "watermark";
+
+    private static final String BOUNDARY_PREFIX = "boundary.";
+
+    /** The latest status change time seen, in milliseconds since the epoch. */
+    private final long watermark;
+
+    /** The status change time, in milliseconds since the epoch, of each envelope delivered near the watermark. */
+    private final Map<String, Long> boundary;
+
+    /**
+     * Instantiates a new sync cursor.
+     *
+     * @param watermark the latest status change time seen
+     * @param boundary the status change time of each envelope delivered near the watermark
+     */
+    public SyncCursor(final Date watermark, final Map<String, Long> boundary) {
+        this(watermark.getTime(), boundary);
+    }
+
+    private SyncCursor(final long watermark, final Map<String, Long> boundary) {
+        this.watermark = watermark;
+        this.boundary = Collections.unmodifiableMap(new HashMap<String, Long>(boundary));
+    }
+
+    /**
+     * Gets the latest status change time seen.
+     *
+     * @return the watermark
+     */
+    public Date getWatermark() {
+        return new Date(watermark);
+    }
+
+    /**
+     * Gets the status change time, in milliseconds since the epoch, of each envelope delivered near the watermark.
+     *
+     * @return the boundary changes, keyed by envelope id
+     */
+    public Map<String, Long> getBoundary() {
+        return boundary;
+    }
+
+    /**
+     * Checks if the status change has already been delivered.
+     *
+     * @param envelopeId the envelope id
+     * @param statusChangedTime the status change time, in milliseconds since the epoch
+     * @return true, if the change is one of the boundary changes
+     */
+    public boolean isDelivered(final String envelopeId, final long statusChangedTime) {
+        final Long delivered = boundary.get(envelopeId);
+        return delivered != null && delivered.longValue() == statusChangedTime;
+    }
+
+    /**
+     * Reads the cursor saved in the file.
+     *
+     * @param file the file
+     * @return the cursor, or null if the file does not exist
+     * @throws IOException if the file cannot be read or is not a saved cursor
+     */
+    public static SyncCursor load(final Path file) throws IOException {
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (final NoSuchFileException nsfe) {
+            return null;
+        }
+        final String watermark = properties.getProperty(WATERMARK);
+        if (watermark == null) {
+            throw new IOException("No " + WATERMARK + " in sync cursor " + file);
+        }
+        final Map<String, Long> boundary = new HashMap<String, Long>();
+        try {
+            for (final String name : properties.stringPropertyNames()) {
+                if (name.startsWith(BOUNDARY_PREFIX)) {
+                    boundary.put(name.substring(BOUNDARY_PREFIX.length()),
+                        ISO8601DateCodec.parse(properties.getProperty(name)));
+                }
+            }
+            return new SyncCursor(ISO8601DateCodec.parse(watermark), boundary);
+        } catch (final ParseException pe) {
+            throw new IOException("Invalid date in sync cursor " + file + ": " + pe.getMessage(), pe);
+        }
+    }
+
+    /**
+     * Saves the cursor to the file. The cursor is written to a temporary file in the same directory which then
+     * replaces the file, so a crash never leaves a partially written cursor behind.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(final Path file) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(WATERMARK, ISO8601DateCodec.format(watermark));
+        for (final Map.Entry<String, Long> change : boundary.entrySet()) {
+            properties.setProperty(BOUNDARY_PREFIX + change.getKey(), ISO8601DateCodec.format(change.getValue()));
+        }
+        final Path directory = file.toAbsolutePath().getParent();
+        final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Envelope status sync cursor");
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException amnse) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SyncCursor[watermark=" + ISO8601DateCodec.format(watermark) + ", boundary=" + boundary.size() + "]";
+    }
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates named daemon threads, so that the pools owned by the client never keep the JVM alive.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    /** The thread name prefix. */
+    private final String namePrefix;
+
+    /** The number of the next thread. */
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    /**
+     * Instantiates a new daemon thread factory.
+     *
+     * @param namePrefix the thread name prefix
+     */
+    public DaemonThreadFactory(final String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+     */
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, namePrefix + "-" + threadNumber.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
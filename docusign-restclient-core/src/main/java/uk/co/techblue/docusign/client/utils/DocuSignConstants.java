@@ -33,4 +33,7 @@ public interface DocuSignConstants {
 
     /** The header param authentication. */
     String HEADER_PARAM_AUTHENTICATION = "X-DocuSign-Authentication";
+
+    /** The header param idempotency key. */
+    String HEADER_PARAM_IDEMPOTENCY_KEY = "Idempotency-Key";
 }
@@ -21,6 +21,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -33,6 +34,8 @@ import org.jboss.resteasy.plugins.providers.multipart.OutputPart;
 
 import uk.co.techblue.docusign.client.dto.Document;
 import uk.co.techblue.docusign.client.dto.DocumentSignatureRequest;
+import uk.co.techblue.docusign.client.multipart.DocumentSource;
+import uk.co.techblue.docusign.client.multipart.StreamingMultipart;
 
 /**
  * The Class DocuSignUtils.
@@ -63,6 +66,41 @@ public class DocuSignUtils {
         return dataOut;
     }
 
+    /**
+     * Generates the streamed multipart body of a signature request.
+     *
+     * @param signatureRequest
+     *            the signature request
+     * @param documentSources
+     *            the document sources by document id, documents without a source are read from their path
+     * @return the streaming multipart
+     * @throws IOException
+     *             if a document file cannot be read
+     */
+    public static StreamingMultipart generateStreamingMultipart(final DocumentSignatureRequest signatureRequest,
+            final Map<String, DocumentSource> documentSources) throws IOException {
+        final StreamingMultipart multipart = new StreamingMultipart();
+        multipart.addJsonPart(ENVELOPE_DEFINITION, signatureRequest);
+        for (final Document document : signatureRequest.getDocuments()) {
+            multipart.addDocument(document, getDocumentSource(document, documentSources));
+        }
+        return multipart;
+    }
+
+    /**
+     * Gets the source of the document.
+     *
+     * @param document
+     *            the document
+     * @param documentSources
+     *            the document sources by document id, may be null
+     * @return the document source, or null if the document is read from its path
+     */
+    public static DocumentSource getDocumentSource(final Document document,
+            final Map<String, DocumentSource> documentSources) {
+        return documentSources == null ? null : documentSources.get(document.getDocumentId());
+    }
+
     /**
      * Gets the comma separated value.
      *
@@ -195,26 +233,29 @@ public class DocuSignUtils {
      * @return the list
      * @throws ClassNotFoundException
      */
-    @SuppressWarnings("resource")
     private static List<Class<?>> findClassesInJar(final String absolutePath,
             final String packageName) throws ClassNotFoundException {
         final List<Class<?>> classes = new ArrayList<Class<?>>();
         try {
             final String jarPath = absolutePath.replaceFirst("[.]jar[!].*", ".jar")
                     .replaceFirst("file:", "");
-            final String relPath = packageName.replace('.', '/');
+            final String relPath = packageName.replace('.', '/') + '/';
             final JarFile jarFile = new JarFile(jarPath);
-            final Enumeration<JarEntry> entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                final JarEntry entry = entries.nextElement();
-                final String entryName = entry.getName();
-                if (entryName.startsWith(relPath)
-                        && entryName.length() > (relPath.length() + "/"
-                                .length())) {
-                    final String className = entryName.replace('/', '.')
-                            .replace('\\', '.').replace(".class", "");
-                    classes.add(Class.forName(className));
+            try {
+                final Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    final JarEntry entry = entries.nextElement();
+                    final String entryName = entry.getName();
+                    // skip the directory entries and the resources
+                    if (!entry.isDirectory() && entryName.startsWith(relPath)
+                            && entryName.endsWith(".class")) {
+                        final String className = entryName.substring(0,
+                                entryName.length() - 6).replace('/', '.');
+                        classes.add(Class.forName(className));
+                    }
                 }
+            } finally {
+                jarFile.close();
             }
         } catch (IOException e) {
             throw new RuntimeException(packageName + " (" + absolutePath
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.resteasy.engines;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.client.HttpClient;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+
+import uk.co.techblue.docusign.client.multipart.StreamingMultipart;
+import uk.co.techblue.docusign.client.utils.DaemonThreadFactory;
+
+/**
+ * Apache HTTP client engine which writes a {@link StreamingMultipart} request body straight to the connection. The base
+ * engine serializes every request body up front, into memory or a temporary file, before sending it.
+ */
+public class StreamingApacheHttpClient4Engine extends ApacheHttpClient4Engine {
+
+    /**
+     * Instantiates a new streaming engine.
+     *
+     * @param httpClient the HTTP client
+     * @param closeHttpClient whether closing the engine closes the HTTP client
+     */
+    public StreamingApacheHttpClient4Engine(final HttpClient httpClient, final boolean closeHttpClient) {
+        super(httpClient, closeHttpClient);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine#buildEntity(org.jboss.resteasy.client.jaxrs.
+     * internal.ClientInvocation)
+     */
+    @Override
+    protected HttpEntity buildEntity(final ClientInvocation request) throws IOException {
+        if (!(request.getEntity() instanceof StreamingMultipart)) {
+            return super.buildEntity(request);
+        }
+        final StreamingMultipart multipart = (StreamingMultipart) request.getEntity();
+        request.getHeaders().setMediaType(multipart.getMediaType());
+        return new StreamingMultipartEntity(multipart);
+    }
+
+    /**
+     * HTTP entity writing the multipart body when the request is sent. The body can also be read through
+     * {@link #getContent()}, for instance by an interceptor, which writes it on a separate thread into a pipe; unless the
+     * multipart is repeatable, this consumes the body, so the entity cannot be sent afterwards.
+     */
+    static final class StreamingMultipartEntity extends AbstractHttpEntity {
+        private static final int PIPE_SIZE = 64 * 1024;
+        private static final DaemonThreadFactory WRITER_THREAD_FACTORY = new DaemonThreadFactory("docusign-multipart-writer");
+
+        private final StreamingMultipart multipart;
+
+        StreamingMultipartEntity(final StreamingMultipart multipart) {
+            this.multipart = multipart;
+            setContentType(multipart.getMediaType().toString());
+            setChunked(multipart.getContentLength() < 0);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return multipart.isRepeatable();
+        }
+
+        @Override
+        public long getContentLength() {
+            return multipart.getContentLength();
+        }
+
+        /**
+         * Gets the multipart body as a stream. The body is written by a daemon thread as the stream is read, so the
+         * stream must be read to the end or closed to release the thread. A failure of the writer is rethrown by the
+         * stream once the body read so far has been consumed.
+         *
+         * @return the multipart body stream
+         * @throws IOException Signals that the pipe could not be created
+         */
+        @Override
+        public InputStream getContent() throws IOException {
+            final PipedOutputStream output = new PipedOutputStream();
+            final MultipartInputStream input = new MultipartInputStream(output);
+            WRITER_THREAD_FACTORY.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        multipart.writeTo(output);
+                    } catch (final IOException ioe) {
+                        input.failure = ioe;
+                    } finally {
+                        try {
+                            output.close();
+                        } catch (final IOException ioe) {
+                            /* Ignore */
+                        }
+                    }
+                }
+            }).start();
+            return input;
+        }
+
+        @Override
+        public void writeTo(final OutputStream outstream) throws IOException {
+            multipart.writeTo(outstream);
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+    /**
+     * Pipe end reading the multipart body, which reports a failure of the writer instead of a truncated body.
+     */
+    private static final class MultipartInputStream extends PipedInputStream {
+        private volatile IOException failure;
+
+        MultipartInputStream(final PipedOutputStream output) throws IOException {
+            super(output, StreamingMultipartEntity.PIPE_SIZE);
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            final int read = super.read();
+            if (read < 0) {
+                checkFailure();
+            }
+            return read;
+        }
+
+        @Override
+        public synchronized int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            if (read < 0) {
+                checkFailure();
+            }
+            return read;
+        }
+
+        private void checkFailure() throws IOException {
+            if (failure != null) {
+                throw new IOException("Failed to write the multipart body", failure);
+            }
+        }
+    }
+}
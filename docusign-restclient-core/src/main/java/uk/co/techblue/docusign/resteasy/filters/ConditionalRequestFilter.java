@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.resteasy.filters;
+
+import java.io.IOException;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+
+import uk.co.techblue.docusign.client.cache.ConditionalGetInvocationHandler;
+import uk.co.techblue.docusign.client.cache.ResponseCache;
+
+/**
+ * Client request filter that writes the <code>If-None-Match</code> and <code>If-Modified-Since</code> headers of the
+ * cached response a {@link ConditionalGetInvocationHandler} is revalidating on the calling thread.
+ */
+public class ConditionalRequestFilter implements ClientRequestFilter {
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see javax.ws.rs.client.ClientRequestFilter#filter(javax.ws.rs.client.ClientRequestContext)
+     */
+    @Override
+    public void filter(final ClientRequestContext requestContext) throws IOException {
+        final ResponseCache.Entry entry = ConditionalGetInvocationHandler.getRevalidatedEntry();
+        if (entry == null || !HttpMethod.GET.equals(requestContext.getMethod())) {
+            return;
+        }
+        final MultivaluedMap<String, Object> requestHeaders = requestContext.getHeaders();
+        if (entry.getEntityTag() != null) {
+            requestHeaders.putSingle(HttpHeaders.IF_NONE_MATCH, entry.getEntityTag());
+        }
+        if (entry.getLastModified() != null) {
+            requestHeaders.putSingle(HttpHeaders.IF_MODIFIED_SINCE, entry.getLastModified());
+        }
+    }
+}
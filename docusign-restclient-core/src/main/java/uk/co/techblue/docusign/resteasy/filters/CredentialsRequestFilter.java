@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.resteasy.filters;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.http.Header;
+
+import uk.co.techblue.docusign.client.credential.CredentialsContext;
+import uk.co.techblue.docusign.client.credential.DocuSignCredentials;
+
+/**
+ * Client request filter that writes the DocuSign authentication headers on every outgoing request. The headers are
+ * taken from the credentials bound to the calling thread by the {@link CredentialsContext}, or from the default
+ * credentials of the filter if none are bound, so that one resource proxy and one connection pool serve any number of
+ * credentials.
+ */
+public class CredentialsRequestFilter implements ClientRequestFilter {
+
+    /** The credentials used when none are bound to the calling thread. */
+    private final DocuSignCredentials credentials;
+
+    /**
+     * Instantiates a new credentials request filter writing the headers of the credentials bound to the calling thread.
+     */
+    public CredentialsRequestFilter() {
+        this(null);
+    }
+
+    /**
+     * Instantiates a new credentials request filter.
+     *
+     * @param credentials the credentials used when none are bound to the calling thread
+     */
+    public CredentialsRequestFilter(final DocuSignCredentials credentials) {
+        this.credentials = credentials;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see javax.ws.rs.client.ClientRequestFilter#filter(javax.ws.rs.client.ClientRequestContext)
+     */
+    @Override
+    public void filter(final ClientRequestContext requestContext) throws IOException {
+        DocuSignCredentials requestCredentials = CredentialsContext.getCredentials();
+        if (requestCredentials == null) {
+            requestCredentials = credentials;
+        }
+        if (requestCredentials == null) {
+            return;
+        }
+        final List<Header> headers = requestCredentials.getHeader();
+        if (headers == null) {
+            return;
+        }
+        // the credentials hand out the same prebuilt list on every call, so nothing is allocated here
+        final MultivaluedMap<String, Object> requestHeaders = requestContext.getHeaders();
+        for (int i = 0; i < headers.size(); i++) {
+            final Header header = headers.get(i);
+            requestHeaders.putSingle(header.getName(), header.getValue());
+        }
+    }
+
+    /**
+     * Gets the credentials used when none are bound to the calling thread.
+     *
+     * @return the credentials
+     */
+    public DocuSignCredentials getCredentials() {
+        return credentials;
+    }
+}
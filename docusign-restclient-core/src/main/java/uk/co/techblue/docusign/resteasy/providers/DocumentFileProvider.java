@@ -40,8 +40,15 @@ import org.apache.james.mime4j.field.FieldName;
 import org.jboss.logging.Logger;
 import org.jboss.resteasy.plugins.providers.ProviderHelper;
 
+import uk.co.techblue.docusign.client.DocuSignClient;
 import uk.co.techblue.docusign.client.dto.DocumentFile;
 
+/**
+ * Spools a downloaded document to a temporary file, created in the directory configured through
+ * {@link DocuSignClient#getDownloadDirectory()} or the system temporary directory. The file is owned by the caller, who
+ * must delete it once done. To read a document without spooling it use the streaming methods of the envelope service,
+ * which return a {@link uk.co.techblue.docusign.client.document.DocumentStream}.
+ */
 @Provider
 @Produces("*/*")
 @Consumes("*/*")
@@ -54,8 +61,6 @@ public class DocumentFileProvider implements MessageBodyReader<DocumentFile> {
     private static final String PARAM_FILENAME = "filename";
     private static final String PARAM_DOCUMENT_ID = "documentId";
 
-    private final String downloadDirectory = null; // by default temp dir, consider allowing it to be defined at runtime
-
     private final static Logger logger = Logger.getLogger(DocumentFileProvider.class);
 
     @Override
@@ -98,6 +103,7 @@ public class DocumentFileProvider implements MessageBodyReader<DocumentFile> {
         if (StringUtils.isBlank(suffix)) {
             suffix = SUFFIX;
         }
+        final String downloadDirectory = DocuSignClient.getDownloadDirectory();
         if (downloadDirectory != null) {
             try {
                 downloadedFile = File.createTempFile(prefix, suffix, new File(
@@ -114,13 +120,20 @@ public class DocumentFileProvider implements MessageBodyReader<DocumentFile> {
             downloadedFile = File.createTempFile(prefix, suffix);
         }
 
-        final OutputStream output = new BufferedOutputStream(new FileOutputStream(
-            downloadedFile));
-
+        boolean written = false;
         try {
-            ProviderHelper.writeTo(entityStream, output);
+            final OutputStream output = new BufferedOutputStream(new FileOutputStream(
+                downloadedFile));
+            try {
+                ProviderHelper.writeTo(entityStream, output);
+            } finally {
+                output.close();
+            }
+            written = true;
         } finally {
-            output.close();
+            if (!written && !downloadedFile.delete()) {
+                logger.warn("Could not delete partially downloaded file " + downloadedFile);
+            }
         }
         documentFile.setDocFile(downloadedFile);
 
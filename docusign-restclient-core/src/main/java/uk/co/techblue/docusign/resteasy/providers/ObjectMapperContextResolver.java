@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.resteasy.providers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import uk.co.techblue.docusign.client.dto.BaseDto;
+import uk.co.techblue.docusign.jackson.ISO8601DateDeserializer;
+import uk.co.techblue.docusign.jackson.ISO8601DateSerializer;
+
+/**
+ * Supplies the Jackson provider with a single {@link ObjectMapper} shared by all the requests, instead of the default
+ * mapper of the provider. Every {@link Date} is read and written in the ISO 8601 form of DocuSign, whether or not its
+ * property names the ISO 8601 handlers. The field names read are canonicalized and interned, so the names of the DTO
+ * properties are matched without allocating a string for each. When <code>jackson-module-afterburner</code> is on the
+ * classpath its module is registered, replacing the reflective property access with generated bytecode. The
+ * serializers and deserializers of the DTOs can be built ahead of the first request by {@link #prewarm()}.
+ */
+@Provider
+public class ObjectMapperContextResolver implements ContextResolver<ObjectMapper> {
+
+    private final static Logger logger = LoggerFactory.getLogger(ObjectMapperContextResolver.class);
+
+    /** The Afterburner module, registered when on the classpath. */
+    static final String AFTERBURNER_MODULE = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
+    /** The resources listing the DTOs prepared by {@link #prewarm()}, written at compile time by the DTO processor. */
+    static final String DTO_INDEX = "META-INF/docusign/dtos";
+
+    private static final ObjectMapper objectMapper = createObjectMapper();
+
+    @Override
+    public ObjectMapper getContext(final Class<?> type) {
+        return objectMapper;
+    }
+
+    /**
+     * Gets the shared object mapper. It must not be reconfigured, as it is used by all the requests.
+     * 
+     * @return the object mapper
+     */
+    public static ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Creates an object mapper configured as the shared one.
+     * 
+     * @return the object mapper
+     */
+    static ObjectMapper createObjectMapper() {
+        final JsonFactory jsonFactory = new JsonFactory();
+        jsonFactory.enable(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES);
+        jsonFactory.enable(JsonFactory.Feature.INTERN_FIELD_NAMES);
+        final ObjectMapper mapper = new ObjectMapper(jsonFactory);
+        final SimpleModule dates = new SimpleModule("ISO8601Dates");
+        dates.addSerializer(Date.class, new ISO8601DateSerializer());
+        dates.addDeserializer(Date.class, new ISO8601DateDeserializer());
+        mapper.registerModule(dates);
+        final Module afterburner = loadModule(AFTERBURNER_MODULE);
+        if (afterburner != null) {
+            mapper.registerModule(afterburner);
+        }
+        return mapper;
+    }
+
+    private static Module loadModule(final String moduleClassName) {
+        try {
+            return (Module) Class.forName(moduleClassName, true, ObjectMapperContextResolver.class.getClassLoader())
+                .getConstructor().newInstance();
+        } catch (final ClassNotFoundException cnfe) {
+            logger.debug("{} is not on the classpath", moduleClassName);
+        } catch (final Exception e) {
+            logger.warn("Unable to register the Jackson module " + moduleClassName, e);
+        }
+        return null;
+    }
+
+    /**
+     * Builds and caches the serializers and deserializers of the concrete DTOs of the shared mapper, so the first
+     * request of each type does not pay for introspecting it. The DTOs are read from the {@value #DTO_INDEX} resources
+     * rather than found by scanning the classpath; DTOs which cannot be loaded are left to be built on first use. It is
+     * not called by the client unless <code>docusign.jackson.prewarm</code> is enabled.
+     * 
+     * @return the number of DTOs prepared
+     */
+    public static int prewarm() {
+        final List<Class<?>> classes;
+        try {
+            classes = loadDtoIndex();
+        } catch (final IOException ioe) {
+            logger.warn("Unable to list the DTOs to prepare their serializers", ioe);
+            return 0;
+        }
+        int prepared = 0;
+        for (final Class<?> dtoClass : classes) {
+            if (BaseDto.class.isAssignableFrom(dtoClass) && Modifier.isPublic(dtoClass.getModifiers())
+                && !Modifier.isAbstract(dtoClass.getModifiers()) && !dtoClass.isAnonymousClass()) {
+                final boolean serializable = objectMapper.canSerialize(dtoClass);
+                final boolean deserializable = objectMapper.canDeserialize(objectMapper.constructType(dtoClass));
+                if (serializable && deserializable) {
+                    prepared++;
+                }
+            }
+        }
+        logger.debug("Prepared the serializers and deserializers of {} DTOs", prepared);
+        return prepared;
+    }
+
+    /**
+     * Loads the DTOs listed by the {@value #DTO_INDEX} resources of the class loader of the mapper. Each module of
+     * DTOs has its own; a jar merging several modules must append them, as the benchmarks jar does.
+     * 
+     * @return the DTO classes
+     * @throws IOException if an index cannot be read
+     */
+    static List<Class<?>> loadDtoIndex() throws IOException {
+        final ClassLoader classLoader = ObjectMapperContextResolver.class.getClassLoader();
+        final Set<String> dtoNames = new LinkedHashSet<String>();
+        final Enumeration<URL> indexes = classLoader.getResources(DTO_INDEX);
+        while (indexes.hasMoreElements()) {
+            final BufferedReader reader =
+                new BufferedReader(new InputStreamReader(indexes.nextElement().openStream(), StandardCharsets.UTF_8));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        dtoNames.add(line.trim());
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        final List<Class<?>> classes = new ArrayList<Class<?>>(dtoNames.size());
+        for (final String dtoName : dtoNames) {
+            try {
+                classes.add(Class.forName(dtoName, false, classLoader));
+            } catch (final ClassNotFoundException cnfe) {
+                logger.debug("Indexed DTO {} is not on the classpath", dtoName);
+            } catch (final LinkageError le) {
+                logger.debug("Unable to load the indexed DTO " + dtoName, le);
+            }
+        }
+        return classes;
+    }
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.resteasy.providers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import uk.co.techblue.docusign.client.multipart.StreamingMultipart;
+
+/**
+ * Writes a {@link StreamingMultipart} request body when it is not sent through the streaming engine, for instance by a
+ * client built on another HTTP engine.
+ */
+@Provider
+@Produces(MediaType.MULTIPART_FORM_DATA)
+public class StreamingMultipartProvider implements MessageBodyWriter<StreamingMultipart> {
+
+    @Override
+    public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+        final MediaType mediaType) {
+        return StreamingMultipart.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public long getSize(final StreamingMultipart multipart, final Class<?> type, final Type genericType,
+        final Annotation[] annotations, final MediaType mediaType) {
+        return multipart.getContentLength();
+    }
+
+    @Override
+    public void writeTo(final StreamingMultipart multipart, final Class<?> type, final Type genericType,
+        final Annotation[] annotations, final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders,
+        final OutputStream entityStream) throws IOException {
+        httpHeaders.putSingle(HttpHeaders.CONTENT_TYPE, multipart.getMediaType());
+        multipart.writeTo(entityStream);
+    }
+}
@@ -0,0 +1,85 @@
+package uk.co.techblue.docusign.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.credential.BasicDocusignCredential;
+import uk.co.techblue.docusign.client.dto.EnvelopeDetailInfo;
+import uk.co.techblue.docusign.client.dto.user.LoginAccount;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.exception.ServiceInitException;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+
+public class ServiceTest {
+
+    /** Answers envelope reads locally on the given executor. */
+    private static class LocalEnvelopeService extends EnvelopeService {
+        private final Executor executor;
+
+        LocalEnvelopeService(final Executor executor) throws ServiceInitException {
+            super(new BasicDocusignCredential("username", "password", "intKey"), loginAccount());
+            this.executor = executor;
+        }
+
+        @Override
+        public EnvelopeDetailInfo getEnvelope(final String envelopeId) throws EnvelopeException {
+            if ("failing".equals(envelopeId)) {
+                throw new EnvelopeException("Envelope not found");
+            }
+            final EnvelopeDetailInfo envelope = new EnvelopeDetailInfo();
+            envelope.setEnvelopeId(envelopeId);
+            return envelope;
+        }
+
+        @Override
+        protected Executor getAsyncExecutor() {
+            return executor;
+        }
+
+        private static LoginAccount loginAccount() {
+            final LoginAccount loginAccount = new LoginAccount();
+            loginAccount.setBaseUrl("http://localhost/restapi/v2/accounts/1");
+            return loginAccount;
+        }
+    }
+
+    @Test
+    public void testAsyncCallCompletesWithResult() throws Exception {
+        final LocalEnvelopeService service = new LocalEnvelopeService(DocuSignClient.getAsyncExecutor());
+        Assert.assertEquals("envelope", service.getEnvelopeAsync("envelope").get(5, TimeUnit.SECONDS).getEnvelopeId());
+    }
+
+    @Test
+    public void testAsyncCallFailsWithServiceException() throws Exception {
+        final LocalEnvelopeService service = new LocalEnvelopeService(DocuSignClient.getAsyncExecutor());
+        try {
+            service.getEnvelopeAsync("failing").get(5, TimeUnit.SECONDS);
+            Assert.fail("The future should complete exceptionally");
+        } catch (final ExecutionException ee) {
+            Assert.assertTrue(ee.getCause() instanceof EnvelopeException);
+        }
+    }
+
+    @Test
+    public void testRejectedCallFailsTheFuture() throws Exception {
+        final LocalEnvelopeService service = new LocalEnvelopeService(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                throw new RejectedExecutionException("Queue full");
+            }
+        });
+        final CompletableFuture<EnvelopeDetailInfo> future = service.getEnvelopeAsync("envelope");
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("The future should complete exceptionally");
+        } catch (final ExecutionException ee) {
+            Assert.assertTrue(ee.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package uk.co.techblue.docusign.client.archive;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.co.techblue.docusign.client.credential.BasicDocusignCredential;
+import uk.co.techblue.docusign.client.document.DocumentStream;
+import uk.co.techblue.docusign.client.document.DocumentStreamFixtures;
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusQueryForm;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusResponse;
+import uk.co.techblue.docusign.client.dto.user.LoginAccount;
+import uk.co.techblue.docusign.client.envelope.attributes.Status;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.exception.ServiceInitException;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+
+public class EnvelopeArchiverTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Serves completed envelopes and their artifacts, recording the envelopes whose artifacts are downloaded. */
+    private static class ArchiveEnvelopeService extends EnvelopeService {
+        final Set<String> downloaded = ConcurrentHashMap.newKeySet();
+        final Set<String> failing = ConcurrentHashMap.newKeySet();
+        final int envelopes;
+
+        ArchiveEnvelopeService(final int envelopes) throws ServiceInitException {
+            super(new BasicDocusignCredential("username", "password", "intKey"), loginAccount());
+            this.envelopes = envelopes;
+        }
+
+        @Override
+        public EnvelopeStatusResponse getEnvelopeStatus(final EnvelopeStatusQueryForm statusQueryForm) throws EnvelopeException {
+            Assert.assertEquals("completed", statusQueryForm.getStatuses());
+            final List<EnvelopeInfo> page = new ArrayList<EnvelopeInfo>();
+            final int end = Math.min(envelopes, statusQueryForm.getStartPosition() + statusQueryForm.getCount());
+            for (int i = statusQueryForm.getStartPosition(); i < end; i++) {
+                final EnvelopeInfo envelope = new EnvelopeInfo();
+                envelope.setEnvelopeId("env-" + i);
+                envelope.setStatus(Status.completed);
+                page.add(envelope);
+            }
+            final EnvelopeStatusResponse response = new EnvelopeStatusResponse();
+            response.setEnvelopes(page);
+            response.setTotalSetSize(envelopes);
+            return response;
+        }
+
+        @Override
+        public DocumentStream getDocumentsCombinedStream(final String envelopeId) throws EnvelopeException {
+            downloaded.add(envelopeId);
+            return stream("combined " + envelopeId);
+        }
+
+        @Override
+        public DocumentStream getCertificateStream(final String envelopeId, final Boolean watermark, final Boolean certificate)
+            throws EnvelopeException {
+            if (failing.contains(envelopeId)) {
+                throw new EnvelopeException("certificate of " + envelopeId + " unavailable");
+            }
+            return stream("certificate " + envelopeId);
+        }
+
+        @Override
+        public DocumentStream getAuditEventsStream(final String envelopeId) throws EnvelopeException {
+            return stream("{\"auditEvents\":[]}");
+        }
+
+        private static DocumentStream stream(final String content) {
+            return DocumentStreamFixtures.newDocumentStream(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static LoginAccount loginAccount() {
+            final LoginAccount loginAccount = new LoginAccount();
+            loginAccount.setBaseUrl("http://localhost/restapi/v2/accounts/1");
+            return loginAccount;
+        }
+    }
+
+    @Test
+    public void testArchivesToZipAndResumes() throws Exception {
+        final ArchiveEnvelopeService service = new ArchiveEnvelopeService(5);
+        service.failing.add("env-3");
+        final Path root = folder.getRoot().toPath();
+        final EnvelopeArchiver archiver = new EnvelopeArchiver(service, root, EnvelopeArchiver.Layout.ZIP, 2);
+
+        final ArchiveReport first = archiver.archive(new EnvelopeStatusQueryForm());
+        Assert.assertEquals(4, first.getArchived());
+        Assert.assertEquals(0, first.getSkipped());
+        Assert.assertEquals(1, first.getFailures().size());
+        Assert.assertTrue(first.getFailures().containsKey("env-3"));
+        Assert.assertFalse("no partial archive is left", Files.exists(root.resolve("env-3.zip.part")));
+        Assert.assertFalse(Files.exists(root.resolve("env-3.zip")));
+
+        final List<String> entries = new ArrayList<String>();
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(root.resolve("env-1.zip")))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+            }
+        }
+        Assert.assertEquals(Arrays.asList(EnvelopeArchiver.COMBINED_PDF, EnvelopeArchiver.CERTIFICATE_PDF,
+            EnvelopeArchiver.AUDIT_EVENTS_JSON), entries);
+
+        service.failing.clear();
+        service.downloaded.clear();
+        final ArchiveReport second = archiver.archive(new EnvelopeStatusQueryForm());
+        Assert.assertEquals(1, second.getArchived());
+        Assert.assertEquals(4, second.getSkipped());
+        Assert.assertTrue(second.getFailures().isEmpty());
+        Assert.assertEquals("only the failed envelope is downloaded again", 1, service.downloaded.size());
+        Assert.assertTrue(service.downloaded.contains("env-3"));
+    }
+
+    @Test
+    public void testArchivesToDirectories() throws Exception {
+        final ArchiveEnvelopeService service = new ArchiveEnvelopeService(1);
+        final Path root = folder.getRoot().toPath();
+        final ArchiveReport report =
+            new EnvelopeArchiver(service, root, EnvelopeArchiver.Layout.DIRECTORY).archive(new EnvelopeStatusQueryForm());
+        Assert.assertEquals(1, report.getArchived());
+        final Path directory = root.resolve("env-0");
+        Assert.assertEquals("combined env-0",
+            new String(Files.readAllBytes(directory.resolve(EnvelopeArchiver.COMBINED_PDF)), StandardCharsets.UTF_8));
+        Assert.assertEquals("certificate env-0",
+            new String(Files.readAllBytes(directory.resolve(EnvelopeArchiver.CERTIFICATE_PDF)), StandardCharsets.UTF_8));
+        Assert.assertTrue(Files.exists(directory.resolve(EnvelopeArchiver.AUDIT_EVENTS_JSON)));
+    }
+
+    @Test
+    public void testJournalDiscardsIncompleteRecord() throws Exception {
+        final Path file = folder.getRoot().toPath().resolve(EnvelopeArchiver.JOURNAL_FILE);
+        Files.write(file, "env-1\nenv-2\nenv-".getBytes(StandardCharsets.UTF_8));
+        try (ArchiveJournal journal = new ArchiveJournal(file)) {
+            Assert.assertEquals(2, journal.size());
+            Assert.assertTrue(journal.isArchived("env-2"));
+            journal.record("env-3");
+        }
+        try (ArchiveJournal journal = new ArchiveJournal(file)) {
+            Assert.assertEquals(3, journal.size());
+            Assert.assertTrue(journal.isArchived("env-3"));
+            Assert.assertFalse(journal.isArchived("env-"));
+        }
+    }
+}
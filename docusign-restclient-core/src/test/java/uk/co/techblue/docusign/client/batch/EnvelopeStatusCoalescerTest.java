@@ -0,0 +1,102 @@
+package uk.co.techblue.docusign.client.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.credential.BasicDocusignCredential;
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusQueryForm;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusResponse;
+import uk.co.techblue.docusign.client.dto.user.LoginAccount;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.exception.ServiceInitException;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+
+public class EnvelopeStatusCoalescerTest {
+
+    /** Records the batched queries instead of calling DocuSign. */
+    private static class RecordingEnvelopeService extends EnvelopeService {
+        final List<String> queries = new CopyOnWriteArrayList<String>();
+
+        RecordingEnvelopeService() throws ServiceInitException {
+            super(new BasicDocusignCredential("username", "password", "intKey"), loginAccount());
+        }
+
+        @Override
+        public EnvelopeStatusResponse getEnvelopeStatus(final EnvelopeStatusQueryForm statusQueryForm) throws EnvelopeException {
+            queries.add(statusQueryForm.getEnvelopeIds());
+            final List<EnvelopeInfo> envelopes = new ArrayList<EnvelopeInfo>();
+            for (final String envelopeId : statusQueryForm.getEnvelopeIds().split(",")) {
+                if (!envelopeId.startsWith("missing")) {
+                    final EnvelopeInfo envelope = new EnvelopeInfo();
+                    // DocuSign answers with the ids in upper case
+                    envelope.setEnvelopeId(envelopeId.startsWith("lower") ? envelopeId.toUpperCase() : envelopeId);
+                    envelopes.add(envelope);
+                }
+            }
+            final EnvelopeStatusResponse response = new EnvelopeStatusResponse();
+            response.setEnvelopes(envelopes);
+            return response;
+        }
+
+        private static LoginAccount loginAccount() {
+            final LoginAccount loginAccount = new LoginAccount();
+            loginAccount.setBaseUrl("http://localhost/restapi/v2/accounts/1");
+            return loginAccount;
+        }
+    }
+
+    @Test
+    public void testLookupsWithinWindowShareOneQuery() throws Exception {
+        final RecordingEnvelopeService service = new RecordingEnvelopeService();
+        final EnvelopeStatusCoalescer coalescer = new EnvelopeStatusCoalescer(service, 200, 10);
+        try {
+            final CompletableFuture<EnvelopeInfo> first = coalescer.getEnvelopeStatusAsync("env-1");
+            final CompletableFuture<EnvelopeInfo> second = coalescer.getEnvelopeStatusAsync("env-2");
+            final CompletableFuture<EnvelopeInfo> duplicate = coalescer.getEnvelopeStatusAsync("env-1");
+            final CompletableFuture<EnvelopeInfo> missing = coalescer.getEnvelopeStatusAsync("missing-1");
+            Assert.assertEquals("env-1", first.get(5, TimeUnit.SECONDS).getEnvelopeId());
+            Assert.assertEquals("env-2", second.get(5, TimeUnit.SECONDS).getEnvelopeId());
+            Assert.assertEquals("env-1", duplicate.get(5, TimeUnit.SECONDS).getEnvelopeId());
+            Assert.assertNull(missing.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(Arrays.asList("env-1,env-2,missing-1"), service.queries);
+        } finally {
+            coalescer.close();
+        }
+    }
+
+    @Test
+    public void testFullBatchIsSentImmediately() throws Exception {
+        final RecordingEnvelopeService service = new RecordingEnvelopeService();
+        final EnvelopeStatusCoalescer coalescer = new EnvelopeStatusCoalescer(service, 60000, 2);
+        try {
+            final CompletableFuture<EnvelopeInfo> first = coalescer.getEnvelopeStatusAsync("env-1");
+            final CompletableFuture<EnvelopeInfo> second = coalescer.getEnvelopeStatusAsync("env-2");
+            Assert.assertEquals("env-1", first.get(5, TimeUnit.SECONDS).getEnvelopeId());
+            Assert.assertEquals("env-2", second.get(5, TimeUnit.SECONDS).getEnvelopeId());
+            Assert.assertEquals(1, service.queries.size());
+        } finally {
+            coalescer.close();
+        }
+    }
+
+    @Test
+    public void testEnvelopeIdsAreMatchedIgnoringCase() throws Exception {
+        final RecordingEnvelopeService service = new RecordingEnvelopeService();
+        final EnvelopeStatusCoalescer coalescer = new EnvelopeStatusCoalescer(service, 60000, 10);
+        try {
+            final CompletableFuture<EnvelopeInfo> lookup = coalescer.getEnvelopeStatusAsync("lower-env-1");
+            coalescer.flush();
+            Assert.assertEquals("LOWER-ENV-1", lookup.get(5, TimeUnit.SECONDS).getEnvelopeId());
+        } finally {
+            coalescer.close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package uk.co.techblue.docusign.client.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.credential.BasicDocusignCredential;
+import uk.co.techblue.docusign.client.credential.TokenDocuSignCredential;
+import uk.co.techblue.docusign.client.dto.AuditEventsResponse;
+
+public class AuditEventsCacheTest {
+
+    private static final String REST_BASE_URI = "http://localhost/restapi/v2/accounts/1";
+
+    @Test
+    public void testTrailsAreKeptPerCredentials() {
+        final AuditEventsCache cache = new AuditEventsCache(10);
+        final AuditEventsResponse auditEvents = new AuditEventsResponse();
+        final BasicDocusignCredential owner = new BasicDocusignCredential("owner", "password", "intKey");
+        Assert.assertSame(auditEvents, cache.putIfAbsent(REST_BASE_URI, owner, "env-1", auditEvents));
+
+        Assert.assertSame(auditEvents,
+            cache.get(REST_BASE_URI, new BasicDocusignCredential("owner", "password", "intKey"), "env-1"));
+        Assert.assertNull("another user of the account must read the trail itself",
+            cache.get(REST_BASE_URI, new BasicDocusignCredential("other", "password", "intKey"), "env-1"));
+        Assert.assertNull(cache.get(REST_BASE_URI, new TokenDocuSignCredential("token", "owner", "other"), "env-1"));
+        Assert.assertNull(cache.get("http://localhost/restapi/v2/accounts/2", owner, "env-1"));
+
+        cache.invalidate(REST_BASE_URI, owner, "env-1");
+        Assert.assertEquals(0, cache.size());
+    }
+}
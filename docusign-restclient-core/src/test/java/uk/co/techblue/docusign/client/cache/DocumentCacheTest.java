@@ -0,0 +1,214 @@
+package uk.co.techblue.docusign.client.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.co.techblue.docusign.client.credential.BasicDocusignCredential;
+import uk.co.techblue.docusign.client.document.DocumentStream;
+import uk.co.techblue.docusign.client.document.DocumentStreamFixtures;
+import uk.co.techblue.docusign.client.dto.DocumentFile;
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.user.LoginAccount;
+import uk.co.techblue.docusign.client.envelope.attributes.Status;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.exception.ServiceInitException;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+
+public class DocumentCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Serves one document, counting the downloads. */
+    private static class CountingEnvelopeService extends EnvelopeService {
+        final AtomicInteger downloads = new AtomicInteger();
+        final AtomicInteger statusCalls = new AtomicInteger();
+        volatile Status status = Status.completed;
+        volatile boolean denied;
+
+        CountingEnvelopeService() throws ServiceInitException {
+            super(new BasicDocusignCredential("username", "password", "intKey"), loginAccount());
+        }
+
+        @Override
+        public EnvelopeInfo getEnvelopeStatus(final String envelopeId) throws EnvelopeException {
+            statusCalls.incrementAndGet();
+            if (denied) {
+                throw new EnvelopeException("no access");
+            }
+            final EnvelopeInfo envelope = new EnvelopeInfo();
+            envelope.setEnvelopeId(envelopeId);
+            envelope.setStatus(status);
+            return envelope;
+        }
+
+        @Override
+        public DocumentStream getDocumentStream(final String envelopeId, final String documentId) throws EnvelopeException {
+            downloads.incrementAndGet();
+            return stream(envelopeId + "/" + documentId);
+        }
+
+        private static LoginAccount loginAccount() {
+            final LoginAccount loginAccount = new LoginAccount();
+            loginAccount.setBaseUrl("http://localhost/restapi/v2/accounts/1");
+            return loginAccount;
+        }
+    }
+
+    private static DocumentStream stream(final String content) {
+        return DocumentStreamFixtures.newDocumentStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(final Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testSameContentIsStoredOnce() throws Exception {
+        final DocumentCache cache = new DocumentCache(folder.getRoot().toPath(), 1024);
+        cache.put(DocumentCache.key("env-1", "certificate", null, null), stream("signed"));
+        cache.put(DocumentCache.key("env-1", "certificate", Boolean.FALSE, null), stream("signed"));
+        Assert.assertEquals(6, cache.getSize());
+        Assert.assertEquals(1, folder.getRoot().toPath().resolve(DocumentCache.BLOBS).toFile().list().length);
+
+        final Path target = folder.newFile().toPath();
+        Assert.assertEquals(6, cache.transferTo(DocumentCache.key("env-1", "certificate", Boolean.FALSE, null), target));
+        Assert.assertEquals("signed", read(target));
+        Assert.assertEquals(-1, cache.transferTo(DocumentCache.key("env-2", "certificate", null, null), target));
+
+        cache.remove(DocumentCache.key("env-1", "certificate", null, null));
+        Assert.assertEquals("content still referenced is kept", 6, cache.getSize());
+        final DocumentFile documentFile = cache.get(DocumentCache.key("env-1", "certificate", Boolean.FALSE, null));
+        try {
+            Assert.assertEquals("signed", read(documentFile.getDocFile().toPath()));
+        } finally {
+            documentFile.getDocFile().delete();
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvictedAndIndexSurvivesRestart() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+        final DocumentCache cache = new DocumentCache(directory, 10);
+        cache.put("a", stream("aaaa"));
+        cache.put("b", stream("bbbb"));
+        Assert.assertTrue(cache.transferTo("a", folder.newFile().toPath()) > 0);
+        cache.put("c", stream("cccc"));
+        Assert.assertTrue(cache.contains("a"));
+        Assert.assertFalse("the least recently used entry is evicted", cache.contains("b"));
+        Assert.assertTrue(cache.contains("c"));
+        Assert.assertEquals(8, cache.getSize());
+
+        Files.write(directory.resolve(DocumentCache.BLOBS).resolve("leftover.tmp"), new byte[] { 1 });
+        final DocumentCache reopened = new DocumentCache(directory, 10);
+        Assert.assertTrue(reopened.contains("a"));
+        Assert.assertTrue(reopened.contains("c"));
+        Assert.assertEquals(8, reopened.getSize());
+        Assert.assertEquals(2, directory.resolve(DocumentCache.BLOBS).toFile().list().length);
+    }
+
+    @Test
+    public void testServiceCachesDocumentsOfCompletedEnvelopesOnly() throws Exception {
+        final CountingEnvelopeService service = new CountingEnvelopeService();
+        service.setDocumentCache(new DocumentCache(folder.newFolder("cache").toPath(), 1024));
+        final Path target = folder.newFile().toPath();
+
+        service.status = Status.sent;
+        service.downloadDocument("env-1", "1", target);
+        service.downloadDocument("env-1", "1", target);
+        Assert.assertEquals(2, service.downloads.get());
+
+        service.status = Status.completed;
+        Assert.assertEquals(7, service.downloadDocument("env-1", "1", target));
+        Assert.assertEquals(7, service.downloadDocument("env-1", "1", target));
+        Assert.assertEquals("env-1/1", read(target));
+        Assert.assertEquals(3, service.downloads.get());
+        Assert.assertEquals("every hit checks the envelope", 4, service.statusCalls.get());
+
+        Assert.assertEquals(7, service.downloadDocument("env-1", "2", target));
+        Assert.assertEquals(5, service.statusCalls.get());
+        Assert.assertEquals(4, service.downloads.get());
+    }
+
+    @Test
+    public void testHitsRequireAccessToTheEnvelope() throws Exception {
+        final CountingEnvelopeService service = new CountingEnvelopeService();
+        final DocumentCache cache = new DocumentCache(folder.newFolder("cache").toPath(), 1024);
+        cache.put(DocumentCache.key("env-1", "combined", null, null), stream("combined"));
+        service.setDocumentCache(cache);
+
+        final DocumentStream documentStream = service.getDocumentsCombinedStream("env-1");
+        try {
+            Assert.assertEquals(8, documentStream.getContentLength());
+        } finally {
+            documentStream.close();
+        }
+        Assert.assertEquals(1, service.statusCalls.get());
+
+        service.denied = true;
+        try {
+            service.getDocumentsCombinedStream("env-1");
+            Assert.fail("a cached document must not be served without access to the envelope");
+        } catch (final EnvelopeException expected) {
+            Assert.assertEquals("no access", expected.getMessage());
+        }
+        try {
+            service.downloadDocumentsCombined("env-1", folder.newFile().toPath());
+            Assert.fail("a cached document must not be served without access to the envelope");
+        } catch (final EnvelopeException expected) {
+            Assert.assertEquals("no access", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testHitsAreServedFromTheStoredContent() throws Exception {
+        final CountingEnvelopeService service = new CountingEnvelopeService();
+        service.setDocumentCache(new DocumentCache(folder.newFolder("cache").toPath(), 1024));
+        final DocumentFile documentFile = service.getDocument("env-1", "1");
+        try {
+            Assert.assertEquals("env-1/1", read(documentFile.getDocFile().toPath()));
+        } finally {
+            Assert.assertTrue(documentFile.getDocFile().delete());
+        }
+        Assert.assertTrue("deleting the returned file keeps the cached content",
+            service.getDocumentCache().contains(DocumentCache.key("env-1", "1", null, null)));
+
+        Assert.assertEquals(1, service.downloads.get());
+
+        final DocumentStream documentStream =
+            service.getDocumentCache().openStream(DocumentCache.key("env-1", "1", null, null));
+        try {
+            Assert.assertEquals(7, documentStream.getContentLength());
+            Assert.assertEquals(7, documentStream.transferTo(folder.newFile().toPath()));
+        } finally {
+            documentStream.close();
+        }
+    }
+
+    @Test
+    public void testIndexIsAppendedAndReplayed() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+        final DocumentCache cache = new DocumentCache(directory, 1024);
+        cache.put(DocumentCache.key("env-1", "1", null, null), stream("one"));
+        cache.put(DocumentCache.key("env-2", "1", null, null), stream("two"));
+        cache.remove(DocumentCache.key("env-1", "1", null, null));
+        Assert.assertEquals(3, Files.readAllLines(directory.resolve(DocumentCache.INDEX)).size());
+        Assert.assertFalse(cache.containsEnvelope("env-1"));
+        Assert.assertTrue(cache.containsEnvelope("env-2"));
+
+        final DocumentCache reopened = new DocumentCache(directory, 1024);
+        Assert.assertFalse(reopened.contains(DocumentCache.key("env-1", "1", null, null)));
+        Assert.assertTrue(reopened.containsEnvelope("env-2"));
+        Assert.assertEquals(3, reopened.getSize());
+        Assert.assertEquals("the stale lines are dropped", 1,
+            Files.readAllLines(directory.resolve(DocumentCache.INDEX)).size());
+        Assert.assertEquals(1, directory.resolve(DocumentCache.BLOBS).toFile().list().length);
+    }
+}
@@ -0,0 +1,111 @@
+package uk.co.techblue.docusign.client.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExpiringCacheTest {
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() throws Exception {
+        final ExpiringCache<String, String> cache = new ExpiringCache<String, String>(0, 10);
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExpiringCache.Loader<String, String, IOException> loader = new ExpiringCache.Loader<String, String, IOException>() {
+            @Override
+            public String load(final String key) throws IOException {
+                loads.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+                return key.toUpperCase();
+            }
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return cache.get("key", loader);
+                    }
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (final Future<String> result : results) {
+                Assert.assertEquals("KEY", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() throws Exception {
+        final ExpiringCache<String, String> cache = new ExpiringCache<String, String>(0, 10);
+        final AtomicInteger loads = new AtomicInteger();
+        final ExpiringCache.Loader<String, String, IOException> loader = new ExpiringCache.Loader<String, String, IOException>() {
+            @Override
+            public String load(final String key) throws IOException {
+                if (loads.incrementAndGet() == 1) {
+                    throw new IOException("first load fails");
+                }
+                return "value";
+            }
+        };
+        try {
+            cache.get("key", loader);
+            Assert.fail("Expected the loader exception");
+        } catch (final IOException expected) {
+            Assert.assertEquals("first load fails", expected.getMessage());
+        }
+        Assert.assertEquals("value", cache.get("key", loader));
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testExpiredEntryIsReloaded() throws Exception {
+        final ExpiringCache<String, Integer> cache = new ExpiringCache<String, Integer>(20, 10);
+        final AtomicInteger loads = new AtomicInteger();
+        final ExpiringCache.Loader<String, Integer, RuntimeException> loader = new ExpiringCache.Loader<String, Integer, RuntimeException>() {
+            @Override
+            public Integer load(final String key) {
+                return loads.incrementAndGet();
+            }
+        };
+        Assert.assertEquals(Integer.valueOf(1), cache.get("key", loader));
+        Assert.assertEquals(Integer.valueOf(1), cache.get("key", loader));
+        Thread.sleep(50);
+        Assert.assertEquals(Integer.valueOf(2), cache.get("key", loader));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        final ExpiringCache<Integer, Integer> cache = new ExpiringCache<Integer, Integer>(0, 3);
+        final ExpiringCache.Loader<Integer, Integer, RuntimeException> loader = new ExpiringCache.Loader<Integer, Integer, RuntimeException>() {
+            @Override
+            public Integer load(final Integer key) {
+                return key;
+            }
+        };
+        for (int i = 0; i < 10; i++) {
+            cache.get(i, loader);
+        }
+        Assert.assertEquals(3, cache.size());
+    }
+}
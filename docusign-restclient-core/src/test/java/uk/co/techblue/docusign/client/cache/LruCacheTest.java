@@ -0,0 +1,34 @@
+package uk.co.techblue.docusign.client.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LruCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        final LruCache<String, String> cache = new LruCache<String, String>(2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        // touch "a" so that "b" becomes the eldest entry
+        Assert.assertEquals("1", cache.get("a"));
+        cache.put("c", "3");
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("1", cache.get("a"));
+        Assert.assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    public void testPutIfAbsentKeepsExistingValue() {
+        final LruCache<String, String> cache = new LruCache<String, String>(2);
+        Assert.assertEquals("1", cache.putIfAbsent("a", "1"));
+        Assert.assertEquals("1", cache.putIfAbsent("a", "2"));
+        Assert.assertEquals("1", cache.get("a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonPositiveSize() {
+        new LruCache<String, String>(0);
+    }
+}
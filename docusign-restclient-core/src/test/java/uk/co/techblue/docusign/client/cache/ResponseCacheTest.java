@@ -0,0 +1,102 @@
+package uk.co.techblue.docusign.client.cache;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import uk.co.techblue.docusign.client.DocuSignClient;
+import uk.co.techblue.docusign.client.credential.BasicDocusignCredential;
+import uk.co.techblue.docusign.client.dto.EnvelopeDetailInfo;
+import uk.co.techblue.docusign.client.dto.user.LoginAccount;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+
+public class ResponseCacheTest {
+
+    private static ResponseCache.Entry entry(final int size) {
+        return new ResponseCache.Entry("\"1\"", null, new MultivaluedHashMap<String, Object>(), new byte[size]);
+    }
+
+    private static ResponseCache.Key key(final String envelopeId) throws Exception {
+        return new ResponseCache.Key("http://localhost", Object.class.getMethod("toString"), new Object[] {envelopeId},
+            new BasicDocusignCredential("username", "password", "intKey"));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedBeyondEntriesOrBytes() throws Exception {
+        final ResponseCache cache = new ResponseCache(3, 100);
+        cache.put(key("a"), entry(40));
+        cache.put(key("b"), entry(40));
+        Assert.assertNotNull(cache.get(key("a")));
+        cache.put(key("c"), entry(40));
+        Assert.assertNotNull(cache.get(key("a")));
+        Assert.assertNull("the least recently used entry is evicted once the bytes are exceeded", cache.get(key("b")));
+        Assert.assertEquals(80, cache.getBytes());
+
+        cache.put(key("d"), entry(1));
+        cache.put(key("e"), entry(1));
+        Assert.assertEquals(3, cache.size());
+        Assert.assertNull("the least recently used entry is evicted once the entries are exceeded", cache.get(key("c")));
+
+        cache.put(key("f"), entry(101));
+        Assert.assertNull("an entry larger than the cache is not kept", cache.get(key("f")));
+    }
+
+    @Test
+    public void testNotModifiedResponseIsServedFromCache() throws Exception {
+        final List<String> validators = new CopyOnWriteArrayList<String>();
+        final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/restapi/v2/accounts/1/envelopes/env-1", (final HttpExchange exchange) -> {
+            final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            validators.add(String.valueOf(ifNoneMatch));
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            final byte[] body = "{\"emailSubject\":\"Please sign\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+        final ResponseCache previous = DocuSignClient.getResponseCache();
+        final ResponseCache cache = new ResponseCache(10, 1024);
+        DocuSignClient.setResponseCache(cache);
+        try {
+            final LoginAccount loginAccount = new LoginAccount();
+            loginAccount.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/restapi/v2/accounts/1");
+            final EnvelopeService service =
+                new EnvelopeService(new BasicDocusignCredential("username", "password", "intKey"), loginAccount);
+
+            final EnvelopeDetailInfo first = service.getEnvelope("env-1");
+            final EnvelopeDetailInfo second = service.getEnvelope("env-1");
+            Assert.assertEquals("Please sign", first.getEmailSubject());
+            Assert.assertSame("a 304 hands out the cached entity", first, second);
+            Assert.assertEquals("null", validators.get(0));
+            Assert.assertEquals("\"v1\"", validators.get(1));
+            Assert.assertEquals(1, cache.getHitCount());
+            Assert.assertEquals(1, cache.getMissCount());
+
+            final EnvelopeService otherUser =
+                new EnvelopeService(new BasicDocusignCredential("other", "password", "intKey"), loginAccount);
+            Assert.assertNotSame("responses are cached per credentials", first, otherUser.getEnvelope("env-1"));
+            Assert.assertEquals("null", validators.get(2));
+        } finally {
+            DocuSignClient.setResponseCache(previous);
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package uk.co.techblue.docusign.client.cache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.credential.BasicDocusignCredential;
+import uk.co.techblue.docusign.client.credential.DocuSignCredentials;
+import uk.co.techblue.docusign.client.dto.Template;
+import uk.co.techblue.docusign.client.exception.TemplateException;
+
+public class TemplateCacheTest {
+
+    private static final String REST_BASE_URI = "http://localhost/restapi/v2/accounts/1";
+
+    private final DocuSignCredentials credentials = new BasicDocusignCredential("username", "password", "intKey");
+
+    @Test
+    public void testEntryIsRefreshedAheadWithoutBlocking() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final TemplateCache cache = new TemplateCache(5000, 4900, 10, executor);
+            final AtomicInteger loads = new AtomicInteger();
+            final CountDownLatch refreshStarted = new CountDownLatch(1);
+            final CountDownLatch releaseRefresh = new CountDownLatch(1);
+            final ExpiringCache.Loader<String, Template, TemplateException> loader = templateId -> {
+                final int load = loads.incrementAndGet();
+                if (load > 1) {
+                    refreshStarted.countDown();
+                    try {
+                        releaseRefresh.await(5, TimeUnit.SECONDS);
+                    } catch (final InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return new Template();
+            };
+            final Template first = cache.getTemplate(REST_BASE_URI, credentials, "t-1", loader);
+            Assert.assertSame(first, cache.getTemplate(REST_BASE_URI, credentials, "t-1", loader));
+
+            Thread.sleep(150);
+            Assert.assertSame("the current value is returned while refreshing", first,
+                cache.getTemplate(REST_BASE_URI, credentials, "t-1", loader));
+            Assert.assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+            Assert.assertSame("only one refresh runs", first, cache.getTemplate(REST_BASE_URI, credentials, "t-1", loader));
+            releaseRefresh.countDown();
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+            Assert.assertNotSame("the refreshed value replaces the current one", first,
+                cache.getTemplate(REST_BASE_URI, credentials, "t-1", loader));
+            Assert.assertEquals(2, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInvalidatedEntryIsReloaded() throws Exception {
+        final TemplateCache cache = new TemplateCache(60000, 0, 10, null);
+        final AtomicInteger loads = new AtomicInteger();
+        final ExpiringCache.Loader<String, Template, TemplateException> loader = templateId -> {
+            loads.incrementAndGet();
+            return new Template();
+        };
+        cache.getTemplate(REST_BASE_URI, credentials, "t-1", loader);
+        cache.getTemplate(REST_BASE_URI, credentials, "t-1", loader);
+        cache.getTemplate(REST_BASE_URI, new BasicDocusignCredential("other", "password", "intKey"), "t-1", loader);
+        Assert.assertEquals("templates are cached per credentials", 2, loads.get());
+
+        cache.invalidateTemplate(REST_BASE_URI, credentials, "t-1");
+        cache.getTemplate(REST_BASE_URI, credentials, "t-1", loader);
+        Assert.assertEquals(3, loads.get());
+    }
+}
@@ -4,7 +4,13 @@
  ******************************************************************************/
 package uk.co.techblue.docusign.client.credential;
 
-import org.jboss.resteasy.client.ClientRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+import org.apache.http.Header;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -31,13 +37,30 @@ public class BasicDocusignCredentialTest {
 
     @Test
     public void testSetHeader() {
-        new BasicDocusignCredential(USERNAME, PASSWORD, INTERGRATION_KEY);
-        final ClientRequest request = new ClientRequest("uriTemplate");
-        // make sure auth header is not set
-        Assert.assertNull(request.getHeaders().getFirst(DocuSignConstants.HEADER_PARAM_AUTHENTICATION));
-//        credential.setHeader(request);
-        // verify auth header was set
-        Assert.assertEquals(getCredentialString(), request.getHeaders().getFirst(DocuSignConstants.HEADER_PARAM_AUTHENTICATION));
+        final BasicDocusignCredential credential = new BasicDocusignCredential(USERNAME, PASSWORD, INTERGRATION_KEY);
+        final List<Header> headers = credential.getHeader();
+        Assert.assertEquals(1, headers.size());
+        Assert.assertEquals(DocuSignConstants.HEADER_PARAM_AUTHENTICATION, headers.get(0).getName());
+        Assert.assertEquals(getCredentialString(), headers.get(0).getValue());
+        // the header is built once
+        Assert.assertSame(headers, credential.getHeader());
+    }
+
+    @Test
+    public void testEqualsAndSerialization() throws Exception {
+        final BasicDocusignCredential credential = new BasicDocusignCredential(USERNAME, PASSWORD, INTERGRATION_KEY, SEND_ON_BEHALF_OF);
+        Assert.assertEquals(credential, new BasicDocusignCredential(USERNAME, PASSWORD, INTERGRATION_KEY, SEND_ON_BEHALF_OF));
+        Assert.assertNotEquals(credential, new BasicDocusignCredential(USERNAME, PASSWORD, INTERGRATION_KEY));
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(credential);
+        out.close();
+        final BasicDocusignCredential copy = (BasicDocusignCredential) new ObjectInputStream(
+            new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        Assert.assertEquals(credential, copy);
+        Assert.assertEquals(credential.hashCode(), copy.hashCode());
+        Assert.assertEquals(getCredentialString(true), copy.getHeader().get(0).getValue());
     }
 
     private String getCredentialString() {
@@ -0,0 +1,59 @@
+package uk.co.techblue.docusign.client.credential;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CredentialBindingInvocationHandlerTest {
+
+    public interface ProbeResource {
+        DocuSignCredentials currentCredentials();
+
+        void fail();
+    }
+
+    private static final ProbeResource SHARED = new ProbeResource() {
+        @Override
+        public DocuSignCredentials currentCredentials() {
+            return CredentialsContext.getCredentials();
+        }
+
+        @Override
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+    };
+
+    @Test
+    public void testBindsCredentialsPerCall() {
+        final DocuSignCredentials tenantA = new BasicDocusignCredential("a", "password", "key", "onBehalfOfA");
+        final DocuSignCredentials tenantB = new TokenDocuSignCredential("token", "b", "actAsB");
+        final ProbeResource resourceA = CredentialBindingInvocationHandler.wrap(ProbeResource.class, SHARED, tenantA);
+        final ProbeResource resourceB = CredentialBindingInvocationHandler.wrap(ProbeResource.class, SHARED, tenantB);
+
+        Assert.assertSame(tenantA, resourceA.currentCredentials());
+        Assert.assertSame(tenantB, resourceB.currentCredentials());
+        Assert.assertNull(CredentialsContext.getCredentials());
+
+        final DocuSignCredentials previous = CredentialsContext.bind(tenantB);
+        try {
+            Assert.assertSame(tenantA, resourceA.currentCredentials());
+            Assert.assertSame(tenantB, CredentialsContext.getCredentials());
+        } finally {
+            CredentialsContext.restore(previous);
+        }
+        Assert.assertNull(CredentialsContext.getCredentials());
+    }
+
+    @Test
+    public void testRestoresCredentialsOnFailure() {
+        final DocuSignCredentials tenant = new BasicDocusignCredential("a", "password", "key");
+        final ProbeResource resource = CredentialBindingInvocationHandler.wrap(ProbeResource.class, SHARED, tenant);
+        try {
+            resource.fail();
+            Assert.fail();
+        } catch (final IllegalStateException ise) {
+            Assert.assertEquals("failed", ise.getMessage());
+        }
+        Assert.assertNull(CredentialsContext.getCredentials());
+    }
+}
@@ -0,0 +1,33 @@
+package uk.co.techblue.docusign.client.credential;
+
+import java.util.List;
+
+import org.apache.http.Header;
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.utils.DocuSignConstants;
+
+public class TokenDocuSignCredentialTest {
+
+    @Test
+    public void testGetHeader() {
+        final List<Header> headers = new TokenDocuSignCredential("token", "username", "actAs").getHeader();
+        Assert.assertEquals(2, headers.size());
+        Assert.assertEquals(DocuSignConstants.HEADER_PARAM_AUTHORIZATION, headers.get(0).getName());
+        Assert.assertEquals("bearer token", headers.get(0).getValue());
+        Assert.assertEquals(DocuSignConstants.HEADER_PARAM_ACT_AS_USER, headers.get(1).getName());
+        Assert.assertEquals("actAs", headers.get(1).getValue());
+
+        Assert.assertEquals(1, new TokenDocuSignCredential("token", "username", null).getHeader().size());
+    }
+
+    @Test
+    public void testEquals() {
+        final TokenDocuSignCredential credential = new TokenDocuSignCredential("token", "username", null);
+        Assert.assertEquals(credential, new TokenDocuSignCredential("token", "username", null));
+        Assert.assertEquals(credential.hashCode(), new TokenDocuSignCredential("token", "username", null).hashCode());
+        Assert.assertNotEquals(credential, new TokenDocuSignCredential("token", "username", "actAs"));
+        Assert.assertFalse(credential.toString().contains("token"));
+    }
+}
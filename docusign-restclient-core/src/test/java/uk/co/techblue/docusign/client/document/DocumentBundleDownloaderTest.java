@@ -0,0 +1,215 @@
+package uk.co.techblue.docusign.client.document;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.co.techblue.docusign.client.credential.BasicDocusignCredential;
+import uk.co.techblue.docusign.client.dto.EnvelopeDocument;
+import uk.co.techblue.docusign.client.dto.EnvelopeDocumentInfo;
+import uk.co.techblue.docusign.client.dto.user.LoginAccount;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.exception.ServiceInitException;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+
+public class DocumentBundleDownloaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    /** Serves generated documents, tracking how many are downloaded at the same time. */
+    private static class DocumentEnvelopeService extends EnvelopeService {
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final int documents;
+        volatile String failingDocumentId;
+        volatile String brokenDocumentId;
+
+        DocumentEnvelopeService(final int documents) throws ServiceInitException {
+            super(new BasicDocusignCredential("username", "password", "intKey"), loginAccount());
+            this.documents = documents;
+        }
+
+        @Override
+        public EnvelopeDocumentInfo getDocumentsInfo(final String envelopeId) throws EnvelopeException {
+            final List<EnvelopeDocument> envelopeDocuments = new ArrayList<EnvelopeDocument>();
+            for (int i = 1; i <= documents; i++) {
+                envelopeDocuments.add(document(String.valueOf(i), "contract " + i + ".docx"));
+            }
+            envelopeDocuments.add(document(DocumentBundleDownloader.CERTIFICATE_ID, "Summary"));
+            final EnvelopeDocumentInfo info = new EnvelopeDocumentInfo();
+            info.setEnvelopeId(envelopeId);
+            info.setEnvelopeDocuments(envelopeDocuments);
+            return info;
+        }
+
+        @Override
+        public DocumentStream getDocumentStream(final String envelopeId, final String documentId) throws EnvelopeException {
+            if (documentId.equals(failingDocumentId)) {
+                throw new EnvelopeException("document " + documentId + " unavailable");
+            }
+            if (documentId.equals(brokenDocumentId)) {
+                throw new IllegalStateException("document " + documentId + " broken");
+            }
+            return stream(content(documentId));
+        }
+
+        @Override
+        public DocumentStream getCertificateStream(final String envelopeId, final Boolean watermark, final Boolean certificate)
+            throws EnvelopeException {
+            return stream(content(DocumentBundleDownloader.CERTIFICATE_ID));
+        }
+
+        private DocumentStream stream(final byte[] content) {
+            final int now = active.incrementAndGet();
+            maxActive.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return new DocumentStream(Response.ok(null, "application/pdf").build(), new ByteArrayInputStream(content)) {
+                @Override
+                public void close() {
+                    active.decrementAndGet();
+                }
+            };
+        }
+
+        private static EnvelopeDocument document(final String documentId, final String name) {
+            final EnvelopeDocument document = new EnvelopeDocument();
+            document.setDocumentId(documentId);
+            document.setName(name);
+            return document;
+        }
+
+        private static LoginAccount loginAccount() {
+            final LoginAccount loginAccount = new LoginAccount();
+            loginAccount.setBaseUrl("http://localhost/restapi/v2/accounts/1");
+            return loginAccount;
+        }
+    }
+
+    private static byte[] content(final String documentId) {
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            content.append("document ").append(documentId).append(" line ").append(i).append('\n');
+        }
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDownloadsDocumentsAndCertificateWithChecksums() throws Exception {
+        final DocumentEnvelopeService service = new DocumentEnvelopeService(6);
+        final Path directory = folder.getRoot().toPath().resolve("env-1");
+        final DocumentBundle bundle = new DocumentBundleDownloader(service, 3, executor).download("env-1", directory);
+
+        Assert.assertEquals(7, bundle.getEntries().size());
+        Assert.assertTrue("at most three downloads at a time", service.maxActive.get() <= 3);
+        Assert.assertTrue("downloads run in parallel", service.maxActive.get() > 1);
+        final DocumentBundle.Entry first = bundle.getEntries().get(0);
+        Assert.assertEquals("1", first.getDocumentId());
+        Assert.assertEquals(directory.resolve("1_contract_1.docx.pdf"), first.getFile());
+        final DocumentBundle.Entry certificate = bundle.getEntries().get(6);
+        Assert.assertEquals(DocumentBundleDownloader.CERTIFICATE_ID, certificate.getDocumentId());
+        Assert.assertEquals(directory.resolve("certificate.pdf"), certificate.getFile());
+
+        long total = 0;
+        for (final DocumentBundle.Entry entry : bundle.getEntries()) {
+            final byte[] expected = content(entry.getDocumentId());
+            Assert.assertTrue(Arrays.equals(expected, Files.readAllBytes(entry.getFile())));
+            Assert.assertEquals(expected.length, entry.getSize());
+            Assert.assertEquals(hex(MessageDigest.getInstance("SHA-256").digest(expected)), entry.getSha256());
+            total += expected.length;
+        }
+        Assert.assertEquals(total, bundle.getTotalSize());
+        try (Stream<Path> files = Files.list(directory)) {
+            Assert.assertEquals("no partial files are left", 7, files.count());
+        }
+    }
+
+    @Test
+    public void testFailedDocumentFailsTheBundle() throws Exception {
+        final DocumentEnvelopeService service = new DocumentEnvelopeService(4);
+        service.failingDocumentId = "2";
+        try {
+            new DocumentBundleDownloader(service, 2, executor).download("env-1", folder.getRoot().toPath());
+            Assert.fail("the failed document should fail the bundle");
+        } catch (final EnvelopeException expected) {
+            Assert.assertTrue(expected.getMessage().contains("document 2"));
+        }
+        Assert.assertEquals(0, service.active.get());
+    }
+
+    @Test
+    public void testRuntimeExceptionFailsTheBundle() throws Exception {
+        final DocumentEnvelopeService service = new DocumentEnvelopeService(4);
+        service.brokenDocumentId = "3";
+        try {
+            new DocumentBundleDownloader(service, 2, executor).download("env-1", folder.getRoot().toPath());
+            Assert.fail("the broken document should fail the bundle");
+        } catch (final EnvelopeException expected) {
+            Assert.assertTrue(expected.getMessage().contains("document 3"));
+            Assert.assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(0, service.active.get());
+    }
+
+    @Test
+    public void testRejectedWorkersAreLeftOut() throws Exception {
+        final DocumentEnvelopeService service = new DocumentEnvelopeService(5);
+        final AtomicInteger submitted = new AtomicInteger();
+        final Executor rejecting = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                if (submitted.incrementAndGet() > 1) {
+                    throw new RejectedExecutionException("saturated");
+                }
+                executor.execute(command);
+            }
+        };
+        final DocumentBundle bundle = new DocumentBundleDownloader(service, 4, rejecting)
+            .download("env-1", folder.getRoot().toPath());
+
+        Assert.assertEquals(6, bundle.getEntries().size());
+        Assert.assertEquals(2, submitted.get());
+        Assert.assertTrue("at most the calling thread and one worker", service.maxActive.get() <= 2);
+        for (final DocumentBundle.Entry entry : bundle.getEntries()) {
+            Assert.assertTrue(Arrays.equals(content(entry.getDocumentId()), Files.readAllBytes(entry.getFile())));
+        }
+    }
+
+    private static String hex(final byte[] bytes) {
+        final StringBuilder hex = new StringBuilder();
+        for (final byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package uk.co.techblue.docusign.client.document;
+
+import java.io.ByteArrayInputStream;
+
+import javax.ws.rs.core.Response;
+
+/**
+ * Creates document streams over in-memory content for the tests of other packages, as outbound responses cannot
+ * hand their entity back as a stream.
+ */
+public final class DocumentStreamFixtures {
+
+    private DocumentStreamFixtures() {
+    }
+
+    public static DocumentStream newDocumentStream(final byte[] content) {
+        return new DocumentStream(Response.ok(null, "application/octet-stream").build(), new ByteArrayInputStream(content));
+    }
+}
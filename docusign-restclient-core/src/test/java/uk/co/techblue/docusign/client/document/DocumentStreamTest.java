@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.document;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DocumentStreamTest {
+
+    private static final byte[] CONTENT = new byte[200000];
+
+    static {
+        for (int i = 0; i < CONTENT.length; i++) {
+            CONTENT[i] = (byte) i;
+        }
+    }
+
+    private DocumentStream newDocumentStream() {
+        final Response response = Response.ok(null, "application/pdf")
+            .header("Content-Disposition", "file; filename=\"contract.pdf\"; documentId=1").build();
+        return new DocumentStream(response, new ByteArrayInputStream(CONTENT));
+    }
+
+    @Test
+    public void testTransferToFile() throws Exception {
+        final Path target = Files.createTempFile("document", ".pdf");
+        try {
+            final DocumentStream documentStream = newDocumentStream();
+            try {
+                Assert.assertEquals("contract.pdf", documentStream.getName());
+                Assert.assertEquals("1", documentStream.getDocumentId());
+                Assert.assertEquals(CONTENT.length, documentStream.transferTo(target));
+            } finally {
+                documentStream.close();
+            }
+            Assert.assertTrue(Arrays.equals(CONTENT, Files.readAllBytes(target)));
+        } finally {
+            Files.delete(target);
+        }
+    }
+
+    @Test
+    public void testTransferToChannel() throws Exception {
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        final DocumentStream documentStream = newDocumentStream();
+        try {
+            Assert.assertEquals(CONTENT.length, documentStream.transferTo(Channels.newChannel(target)));
+        } finally {
+            documentStream.close();
+        }
+        Assert.assertTrue(Arrays.equals(CONTENT, target.toByteArray()));
+    }
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.multipart;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.dto.Document;
+
+public class StreamingMultipartTest {
+
+    private static Document newDocument(final String documentId, final String name) {
+        final Document document = new Document();
+        document.setDocumentId(documentId);
+        document.setName(name);
+        return document;
+    }
+
+    @Test
+    public void testContentLengthMatchesWrittenBody() throws Exception {
+        final Path file = Files.createTempFile("contract", ".pdf");
+        try {
+            Files.write(file, new byte[100000]);
+            final StreamingMultipart multipart = new StreamingMultipart();
+            multipart.addJsonPart("envelope_definition", newDocument("1", "contract.pdf"));
+            multipart.addDocument(newDocument("1", "contract.pdf"), DocumentSource.fromPath(file));
+            multipart.addDocument(newDocument("2", "terms.txt"),
+                DocumentSource.fromBuffer(ByteBuffer.wrap("terms".getBytes(StandardCharsets.US_ASCII))));
+            multipart.addDocument(newDocument("3", "annex.txt"),
+                DocumentSource.fromStream(new ByteArrayInputStream(new byte[10]), 10));
+
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            multipart.writeTo(output);
+            Assert.assertEquals(multipart.getContentLength(), output.size());
+            Assert.assertFalse(multipart.isRepeatable());
+
+            final String body = new String(output.toByteArray(), StandardCharsets.ISO_8859_1);
+            Assert.assertTrue(body.contains("Content-Disposition: file; filename=\"terms.txt\"; documentId=2\r\n"));
+            Assert.assertTrue(body.contains("\r\n\r\nterms\r\n"));
+            Assert.assertTrue(body.endsWith("--\r\n"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testUnknownStreamLengthIsChunked() throws Exception {
+        final StreamingMultipart multipart = new StreamingMultipart();
+        multipart.addDocument(newDocument("1", "contract.pdf"),
+            DocumentSource.fromStream(new ByteArrayInputStream(new byte[10]), -1));
+        Assert.assertEquals(-1, multipart.getContentLength());
+    }
+}
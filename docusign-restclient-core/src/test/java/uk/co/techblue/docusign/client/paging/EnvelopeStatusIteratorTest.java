@@ -0,0 +1,129 @@
+package uk.co.techblue.docusign.client.paging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.credential.BasicDocusignCredential;
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusQueryForm;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusResponse;
+import uk.co.techblue.docusign.client.dto.user.LoginAccount;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.exception.ServiceInitException;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+
+public class EnvelopeStatusIteratorTest {
+
+    /** Serves the pages of a fixed result set instead of calling DocuSign. */
+    private static class PagingEnvelopeService extends EnvelopeService {
+        final List<String> requests = new CopyOnWriteArrayList<String>();
+        final int total;
+        final int maxCount;
+        final boolean reportTotal;
+        volatile int failAt = -1;
+
+        PagingEnvelopeService(final int total, final int maxCount, final boolean reportTotal) throws ServiceInitException {
+            super(new BasicDocusignCredential("username", "password", "intKey"), loginAccount());
+            this.total = total;
+            this.maxCount = maxCount;
+            this.reportTotal = reportTotal;
+        }
+
+        @Override
+        public EnvelopeStatusResponse getEnvelopeStatus(final EnvelopeStatusQueryForm statusQueryForm) throws EnvelopeException {
+            final int start = statusQueryForm.getStartPosition();
+            requests.add(start + "+" + statusQueryForm.getCount());
+            if (start == failAt) {
+                throw new EnvelopeException("page unavailable");
+            }
+            final int end = Math.min(total, start + Math.min(maxCount, statusQueryForm.getCount()));
+            final List<EnvelopeInfo> envelopes = new ArrayList<EnvelopeInfo>();
+            for (int i = start; i < end; i++) {
+                final EnvelopeInfo envelope = new EnvelopeInfo();
+                envelope.setEnvelopeId("env-" + i);
+                envelopes.add(envelope);
+            }
+            final EnvelopeStatusResponse response = new EnvelopeStatusResponse();
+            response.setEnvelopes(envelopes);
+            response.setResultSetSize(envelopes.size());
+            if (reportTotal) {
+                response.setTotalSetSize(total);
+            }
+            return response;
+        }
+
+        private static LoginAccount loginAccount() {
+            final LoginAccount loginAccount = new LoginAccount();
+            loginAccount.setBaseUrl("http://localhost/restapi/v2/accounts/1");
+            return loginAccount;
+        }
+    }
+
+    @Test
+    public void testWalksAllPagesInOrder() throws Exception {
+        final PagingEnvelopeService service = new PagingEnvelopeService(25, 100, true);
+        final EnvelopeStatusQueryForm form = new EnvelopeStatusQueryForm();
+        final List<String> ids;
+        try (Stream<EnvelopeInfo> envelopes = service.streamEnvelopeStatus(form, 10, 2)) {
+            ids = envelopes.map(EnvelopeInfo::getEnvelopeId).collect(Collectors.toList());
+        }
+        Assert.assertEquals(25, ids.size());
+        Assert.assertEquals("env-0", ids.get(0));
+        Assert.assertEquals("env-24", ids.get(24));
+        Assert.assertEquals("prefetched pages are requested concurrently", new HashSet<String>(Arrays.asList("0+10", "10+10", "20+10")),
+            new HashSet<String>(service.requests));
+        Assert.assertEquals(3, service.requests.size());
+        Assert.assertNull("the caller's form is left untouched", form.getStartPosition());
+    }
+
+    @Test
+    public void testShortPageEndsIterationWithoutTotal() throws Exception {
+        final PagingEnvelopeService service = new PagingEnvelopeService(20, 100, false);
+        final EnvelopeStatusIterator iterator = service.iterateEnvelopeStatus(new EnvelopeStatusQueryForm(), 10, 1);
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        Assert.assertEquals(20, count);
+        Assert.assertEquals(Arrays.asList("0+10", "10+10", "20+10"), service.requests);
+    }
+
+    @Test
+    public void testServerCappedPageSizeIsFollowed() throws Exception {
+        final PagingEnvelopeService service = new PagingEnvelopeService(12, 4, true);
+        final List<String> ids;
+        try (Stream<EnvelopeInfo> envelopes = service.streamEnvelopeStatus(new EnvelopeStatusQueryForm(), 10, 1)) {
+            ids = envelopes.map(EnvelopeInfo::getEnvelopeId).collect(Collectors.toList());
+        }
+        Assert.assertEquals(12, ids.size());
+        Assert.assertEquals(12, ids.stream().distinct().count());
+        Assert.assertEquals("env-11", ids.get(11));
+    }
+
+    @Test
+    public void testFailedPageIsReported() throws Exception {
+        final PagingEnvelopeService service = new PagingEnvelopeService(30, 100, true);
+        service.failAt = 10;
+        final EnvelopeStatusIterator iterator = service.iterateEnvelopeStatus(new EnvelopeStatusQueryForm(), 10, 1);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("env-" + i, iterator.next().getEnvelopeId());
+        }
+        try {
+            iterator.hasNext();
+            Assert.fail("the failed page should be reported");
+        } catch (final CompletionException ce) {
+            Assert.assertTrue(ce.getCause() instanceof EnvelopeException);
+        }
+        Assert.assertFalse(iterator.hasNext());
+    }
+}
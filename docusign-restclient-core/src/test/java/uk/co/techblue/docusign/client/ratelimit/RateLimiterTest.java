@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.ratelimit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testUnknownBudgetIsNotLimited() {
+        final RateLimiter rateLimiter = new RateLimiter(2);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(0, rateLimiter.reserve(1000, 0));
+        }
+    }
+
+    @Test
+    public void testRemainingCallsAreSpreadUntilReset() {
+        final RateLimiter rateLimiter = new RateLimiter(2);
+        // 12 calls left over the next 10 seconds: a burst of 2, then one call per second
+        rateLimiter.update(12, 11000, 1000);
+        Assert.assertEquals(0, rateLimiter.reserve(1000, 0));
+        Assert.assertEquals(0, rateLimiter.reserve(1000, 0));
+        Assert.assertEquals(1000, rateLimiter.reserve(1000, 5000));
+        Assert.assertEquals(2000, rateLimiter.reserve(1000, 5000));
+    }
+
+    @Test
+    public void testExhaustedBudgetFailsFastUntilReset() {
+        final RateLimiter rateLimiter = new RateLimiter(5);
+        rateLimiter.update(0, 61000, 1000);
+        try {
+            rateLimiter.reserve(1000, 0);
+            Assert.fail("Expected the call to be refused");
+        } catch (final RateLimitExceededException rlee) {
+            Assert.assertEquals(60000, rlee.getWaitMillis());
+        }
+        Assert.assertEquals(0, rateLimiter.reserve(61000, 0));
+    }
+
+    @Test
+    public void testInvalidHeadersAreIgnored() {
+        final RateLimiter rateLimiter = new RateLimiter(1);
+        rateLimiter.update("none", "1");
+        rateLimiter.update(null, null);
+        Assert.assertTrue(rateLimiter.tryAcquire());
+        Assert.assertTrue(rateLimiter.tryAcquire());
+    }
+
+    @Test
+    public void testCancelledPermitIsGivenBack() throws Exception {
+        final RateLimiter rateLimiter = new RateLimiter(1);
+        rateLimiter.update(5, System.currentTimeMillis() + 60000, System.currentTimeMillis());
+        rateLimiter.acquireAsync(0).get();
+        Assert.assertEquals(0, rateLimiter.getAvailablePermits());
+        rateLimiter.holdPermit();
+        rateLimiter.cancel();
+        Assert.assertEquals(1, rateLimiter.getAvailablePermits());
+        Assert.assertTrue("the permit held by the thread is left alone", rateLimiter.consumeHeldPermit());
+    }
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.retry;
+
+import java.io.ByteArrayInputStream;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.dto.Document;
+import uk.co.techblue.docusign.client.multipart.DocumentSource;
+import uk.co.techblue.docusign.client.multipart.StreamingMultipart;
+
+public class RetryingInvocationHandlerTest {
+
+    public interface TestResource {
+
+        @GET
+        Response read();
+
+        @POST
+        Response create(@IdempotencyKey String idempotencyKey);
+
+        @POST
+        Response upload(@IdempotencyKey String idempotencyKey, StreamingMultipart multipart);
+    }
+
+    private static class ScriptedResource implements TestResource {
+        private final Queue<Integer> statuses;
+        private int calls;
+
+        ScriptedResource(final Integer... statuses) {
+            this.statuses = new LinkedList<Integer>(Arrays.asList(statuses));
+        }
+
+        @Override
+        public Response read() {
+            calls++;
+            return Response.status(statuses.remove()).header(HttpHeaders.RETRY_AFTER, "0").build();
+        }
+
+        @Override
+        public Response create(final String idempotencyKey) {
+            calls++;
+            final int status = statuses.remove();
+            if (status == 0) {
+                throw new ProcessingException(new ConnectException("Connection refused"));
+            }
+            if (status == -1) {
+                throw new ProcessingException(new SocketTimeoutException("Read timed out"));
+            }
+            return Response.status(status).build();
+        }
+
+        @Override
+        public Response upload(final String idempotencyKey, final StreamingMultipart multipart) {
+            calls++;
+            return Response.status(statuses.remove()).build();
+        }
+    }
+
+    private final RetryPolicy policy = new RetryPolicy(3, 1, 5, 10000);
+
+    @Test
+    public void testRetriesReadUntilSuccess() {
+        final RetryMetrics metrics = new RetryMetrics();
+        final ScriptedResource target = new ScriptedResource(429, 503, 200);
+        final TestResource resource = RetryingInvocationHandler.wrap(TestResource.class, target, policy, metrics);
+
+        Assert.assertEquals(200, resource.read().getStatus());
+        Assert.assertEquals(3, target.calls);
+        Assert.assertEquals(2, metrics.getRetries());
+        Assert.assertEquals(1, metrics.getThrottledRetries());
+        Assert.assertEquals(1, metrics.getRecoveredCalls());
+    }
+
+    @Test
+    public void testReturnsLastResponseOnceExhausted() {
+        final RetryMetrics metrics = new RetryMetrics();
+        final ScriptedResource target = new ScriptedResource(500, 502, 504);
+        final TestResource resource = RetryingInvocationHandler.wrap(TestResource.class, target, policy, metrics);
+
+        Assert.assertEquals(504, resource.read().getStatus());
+        Assert.assertEquals(3, target.calls);
+        Assert.assertEquals(1, metrics.getExhaustedCalls());
+    }
+
+    @Test
+    public void testRetriesPostOnlyWithIdempotencyKey() {
+        final RetryMetrics metrics = new RetryMetrics();
+        final ScriptedResource target = new ScriptedResource(429, 429, 0, 201);
+        final TestResource resource = RetryingInvocationHandler.wrap(TestResource.class, target, policy, metrics);
+
+        Assert.assertEquals(429, resource.create(null).getStatus());
+        Assert.assertEquals(1, target.calls);
+        Assert.assertEquals(201, resource.create("key").getStatus());
+        Assert.assertEquals(4, target.calls);
+    }
+
+    @Test
+    public void testDoesNotRetryPostWhichMayHaveBeenProcessed() {
+        final RetryMetrics metrics = new RetryMetrics();
+        final ScriptedResource target = new ScriptedResource(503, -1, 201);
+        final TestResource resource = RetryingInvocationHandler.wrap(TestResource.class, target, policy, metrics);
+
+        Assert.assertEquals(503, resource.create("key").getStatus());
+        try {
+            resource.create("key");
+            Assert.fail("The read timeout should not be retried");
+        } catch (final ProcessingException pe) {
+            Assert.assertTrue(pe.getCause() instanceof SocketTimeoutException);
+        }
+        Assert.assertEquals(2, target.calls);
+        Assert.assertEquals(0, metrics.getRetries());
+    }
+
+    @Test
+    public void testDoesNotRetryUnrepeatableBody() throws Exception {
+        final RetryMetrics metrics = new RetryMetrics();
+        final ScriptedResource target = new ScriptedResource(429, 201);
+        final TestResource resource = RetryingInvocationHandler.wrap(TestResource.class, target, policy, metrics);
+        final Document document = new Document();
+        document.setDocumentId("1");
+        document.setName("contract.pdf");
+        final StreamingMultipart multipart = new StreamingMultipart();
+        multipart.addDocument(document, DocumentSource.fromStream(new ByteArrayInputStream(new byte[10]), 10));
+
+        Assert.assertEquals("the first response is returned", 429, resource.upload("key", multipart).getStatus());
+        Assert.assertEquals(1, target.calls);
+    }
+
+    @Test
+    public void testParseRetryAfter() {
+        Assert.assertEquals(2000, RetryPolicy.parseRetryAfterMillis("2", 0));
+        Assert.assertEquals(-1, RetryPolicy.parseRetryAfterMillis("soon", 0));
+        Assert.assertEquals(-1, RetryPolicy.parseRetryAfterMillis(null, 0));
+        final long now = 1445212800000L;
+        Assert.assertEquals(30000, RetryPolicy.parseRetryAfterMillis("Mon, 19 Oct 2015 00:00:30 GMT", now));
+    }
+}
@@ -0,0 +1,143 @@
+package uk.co.techblue.docusign.client.sync;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.co.techblue.docusign.client.credential.BasicDocusignCredential;
+import uk.co.techblue.docusign.client.dto.EnvelopeInfo;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusQueryForm;
+import uk.co.techblue.docusign.client.dto.EnvelopeStatusResponse;
+import uk.co.techblue.docusign.client.dto.user.LoginAccount;
+import uk.co.techblue.docusign.client.dto.utils.DtoHelper;
+import uk.co.techblue.docusign.client.exception.EnvelopeException;
+import uk.co.techblue.docusign.client.exception.ServiceInitException;
+import uk.co.techblue.docusign.client.services.EnvelopeService;
+
+public class EnvelopeStatusSyncTest {
+
+    private static final long T0 = 1445212800000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Answers delta queries from an in-memory set of status changes. */
+    private static class ChangeLogEnvelopeService extends EnvelopeService {
+        final Map<String, Long> changes = new LinkedHashMap<String, Long>();
+        final List<String> fromDates = new CopyOnWriteArrayList<String>();
+
+        ChangeLogEnvelopeService() throws ServiceInitException {
+            super(new BasicDocusignCredential("username", "password", "intKey"), loginAccount());
+        }
+
+        @Override
+        public synchronized EnvelopeStatusResponse getEnvelopeStatus(final EnvelopeStatusQueryForm statusQueryForm)
+            throws EnvelopeException {
+            final long from;
+            try {
+                fromDates.add(statusQueryForm.getFromDate());
+                from = DtoHelper.parseISO8601Date(statusQueryForm.getFromDate()).getTime();
+            } catch (final Exception e) {
+                throw new EnvelopeException(e);
+            }
+            final List<EnvelopeInfo> envelopes = new ArrayList<EnvelopeInfo>();
+            for (final Map.Entry<String, Long> change : changes.entrySet()) {
+                if (change.getValue() >= from) {
+                    final EnvelopeInfo envelope = new EnvelopeInfo();
+                    envelope.setEnvelopeId(change.getKey());
+                    envelope.setStatusChangedDateTime(new Date(change.getValue()));
+                    envelopes.add(envelope);
+                }
+            }
+            final int start = statusQueryForm.getStartPosition();
+            final List<EnvelopeInfo> page =
+                envelopes.subList(Math.min(start, envelopes.size()), Math.min(start + statusQueryForm.getCount(), envelopes.size()));
+            final EnvelopeStatusResponse response = new EnvelopeStatusResponse();
+            response.setEnvelopes(new ArrayList<EnvelopeInfo>(page));
+            response.setTotalSetSize(envelopes.size());
+            return response;
+        }
+
+        synchronized void change(final String envelopeId, final long time) {
+            changes.remove(envelopeId);
+            changes.put(envelopeId, time);
+        }
+
+        private static LoginAccount loginAccount() {
+            final LoginAccount loginAccount = new LoginAccount();
+            loginAccount.setBaseUrl("http://localhost/restapi/v2/accounts/1");
+            return loginAccount;
+        }
+    }
+
+    @Test
+    public void testDeliversEachChangeOnce() throws Exception {
+        final ChangeLogEnvelopeService service = new ChangeLogEnvelopeService();
+        final Path cursorFile = folder.getRoot().toPath().resolve("status.cursor");
+        service.change("env-1", T0 + 1000);
+        service.change("env-2", T0 + 2000);
+        service.change("env-3", T0 + 2000);
+
+        final EnvelopeStatusSync sync = new EnvelopeStatusSync(service, new EnvelopeStatusQueryForm(), cursorFile,
+            new Date(T0), 5000, 2);
+        final List<String> received = new ArrayList<String>();
+        Assert.assertEquals(3, sync.sync(envelope -> received.add(envelope.getEnvelopeId())));
+        Assert.assertEquals(T0 + 2000, sync.getCursor().getWatermark().getTime());
+
+        Assert.assertEquals("changes at the watermark are not delivered again", 0,
+            sync.sync(envelope -> received.add(envelope.getEnvelopeId())));
+
+        service.change("env-2", T0 + 2500);
+        service.change("env-4", T0 + 1500);
+        Assert.assertEquals(2, sync.sync(envelope -> received.add(envelope.getEnvelopeId())));
+        Assert.assertEquals(Arrays.asList("env-1", "env-2", "env-3", "env-2", "env-4"), received);
+        Assert.assertEquals("2015-10-18T23:59:57.0000000Z", service.fromDates.get(service.fromDates.size() - 1));
+    }
+
+    @Test
+    public void testRestartResumesFromSavedCursor() throws Exception {
+        final ChangeLogEnvelopeService service = new ChangeLogEnvelopeService();
+        final Path cursorFile = folder.getRoot().toPath().resolve("status.cursor");
+        service.change("env-1", T0 + 1000);
+        new EnvelopeStatusSync(service, new EnvelopeStatusQueryForm(), cursorFile, new Date(T0), 5000, 10)
+            .sync(envelope -> { });
+
+        service.change("env-2", T0 + 3000);
+        final EnvelopeStatusSync restarted =
+            new EnvelopeStatusSync(service, new EnvelopeStatusQueryForm(), cursorFile, new Date(0), 5000, 10);
+        Assert.assertEquals(T0 + 1000, restarted.getCursor().getWatermark().getTime());
+        final List<String> received = new ArrayList<String>();
+        Assert.assertEquals(1, restarted.sync(envelope -> received.add(envelope.getEnvelopeId())));
+        Assert.assertEquals(Arrays.asList("env-2"), received);
+    }
+
+    @Test
+    public void testFailedListenerKeepsCursor() throws Exception {
+        final ChangeLogEnvelopeService service = new ChangeLogEnvelopeService();
+        final Path cursorFile = folder.getRoot().toPath().resolve("status.cursor");
+        service.change("env-1", T0 + 1000);
+        final EnvelopeStatusSync sync = new EnvelopeStatusSync(service, new EnvelopeStatusQueryForm(), cursorFile,
+            new Date(T0), 5000, 10);
+        try {
+            sync.sync(envelope -> {
+                throw new IllegalStateException("listener failed");
+            });
+            Assert.fail("the listener failure should propagate");
+        } catch (final IllegalStateException expected) {
+            // expected
+        }
+        Assert.assertEquals(T0, sync.getCursor().getWatermark().getTime());
+        Assert.assertNull(SyncCursor.load(cursorFile));
+        Assert.assertEquals(1, sync.sync(envelope -> { }));
+    }
+}
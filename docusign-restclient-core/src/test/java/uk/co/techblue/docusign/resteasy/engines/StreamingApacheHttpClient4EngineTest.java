@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.resteasy.engines;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.dto.Document;
+import uk.co.techblue.docusign.client.multipart.DocumentSource;
+import uk.co.techblue.docusign.client.multipart.StreamingMultipart;
+import uk.co.techblue.docusign.resteasy.engines.StreamingApacheHttpClient4Engine.StreamingMultipartEntity;
+
+public class StreamingApacheHttpClient4EngineTest {
+
+    private static StreamingMultipart newMultipart(final DocumentSource source) throws IOException {
+        final Document document = new Document();
+        document.setDocumentId("1");
+        document.setName("contract.pdf");
+        final StreamingMultipart multipart = new StreamingMultipart();
+        multipart.addJsonPart("envelope_definition", document);
+        multipart.addDocument(document, source);
+        return multipart;
+    }
+
+    private static byte[] readFully(final InputStream input) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) >= 0) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    @Test
+    public void testContentReadsTheWrittenBody() throws Exception {
+        final byte[] document = new byte[200000];
+        document[document.length - 1] = 1;
+        final StreamingMultipart multipart = newMultipart(DocumentSource.fromBuffer(ByteBuffer.wrap(document)));
+        Assert.assertTrue(multipart.isRepeatable());
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        multipart.writeTo(expected);
+
+        final StreamingMultipartEntity entity = new StreamingMultipartEntity(multipart);
+        final InputStream content = entity.getContent();
+        try {
+            Assert.assertArrayEquals(expected.toByteArray(), readFully(content));
+        } finally {
+            content.close();
+        }
+    }
+
+    @Test
+    public void testContentReportsWriterFailure() throws Exception {
+        final InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Disk unplugged");
+            }
+        };
+        final InputStream content = new StreamingMultipartEntity(newMultipart(DocumentSource.fromStream(failing, 10))).getContent();
+        try {
+            readFully(content);
+            Assert.fail("The writer failure should be reported");
+        } catch (final IOException ioe) {
+            Assert.assertEquals("Disk unplugged", ioe.getCause().getMessage());
+        } finally {
+            content.close();
+        }
+    }
+}
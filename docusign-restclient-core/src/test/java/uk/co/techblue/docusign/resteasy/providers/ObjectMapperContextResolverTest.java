@@ -0,0 +1,67 @@
+package uk.co.techblue.docusign.resteasy.providers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+import org.jboss.resteasy.specimpl.MultivaluedMapImpl;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import uk.co.techblue.docusign.client.DocuSignClient;
+import uk.co.techblue.docusign.client.dto.EnvelopeTemplateDefinition;
+
+public class ObjectMapperContextResolverTest {
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    private static final String DEFINITION = "{\"lastModified\":\"2015-10-19T00:00:00.1230000Z\"}";
+
+    @Test
+    public void testJacksonProviderUsesSharedMapper() throws Exception {
+        DocuSignClient.getResponseCache();
+        final ResteasyProviderFactory providerFactory = ResteasyProviderFactory.getInstance();
+        final ContextResolver<ObjectMapper> resolver =
+            providerFactory.getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE);
+        Assert.assertSame(ObjectMapperContextResolver.getObjectMapper(), resolver.getContext(EnvelopeTemplateDefinition.class));
+
+        ResteasyProviderFactory.pushContext(Providers.class, providerFactory);
+        try {
+            final MessageBodyReader<EnvelopeTemplateDefinition> reader = providerFactory.getMessageBodyReader(
+                EnvelopeTemplateDefinition.class, EnvelopeTemplateDefinition.class, NO_ANNOTATIONS,
+                MediaType.APPLICATION_JSON_TYPE);
+            final EnvelopeTemplateDefinition definition = reader.readFrom(EnvelopeTemplateDefinition.class,
+                EnvelopeTemplateDefinition.class, NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE,
+                new MultivaluedMapImpl<String, String>(),
+                new ByteArrayInputStream(DEFINITION.getBytes(StandardCharsets.UTF_8)));
+            Assert.assertEquals("dates without a handler of their own are read as ISO 8601", 1445212800123L,
+                definition.getLastModified().getTime());
+
+            final MessageBodyWriter<EnvelopeTemplateDefinition> writer = providerFactory.getMessageBodyWriter(
+                EnvelopeTemplateDefinition.class, EnvelopeTemplateDefinition.class, NO_ANNOTATIONS,
+                MediaType.APPLICATION_JSON_TYPE);
+            final ByteArrayOutputStream json = new ByteArrayOutputStream();
+            writer.writeTo(definition, EnvelopeTemplateDefinition.class, EnvelopeTemplateDefinition.class,
+                NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE, new MultivaluedMapImpl<String, Object>(), json);
+            Assert.assertTrue(json.toString("UTF-8"), json.toString("UTF-8").contains(DEFINITION.substring(1, DEFINITION.length() - 1)));
+        } finally {
+            ResteasyProviderFactory.popContextData(Providers.class);
+        }
+    }
+
+    @Test
+    public void testPrewarmPreparesIndexedDtos() throws Exception {
+        Assert.assertTrue(ObjectMapperContextResolver.loadDtoIndex().contains(EnvelopeTemplateDefinition.class));
+        Assert.assertTrue(ObjectMapperContextResolver.prewarm() > 50);
+    }
+}
@@ -1,8 +1,7 @@
 package uk.co.techblue.docusign.client.dto;
 
-import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -11,10 +10,11 @@ import java.util.Map;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.jboss.resteasy.logging.Logger;
 
+import uk.co.techblue.docusign.client.dto.utils.ISO8601DateCodec;
+
 public class AuditEvent {
 	private final static Logger logger = Logger.getLogger(AuditEvent.class);
 	
-	private DateFormat iso8601DateFormat = new SimpleDateFormat ("yyyy-MM-dd'T'HH:mm:ssZ");
 	public static final String LOG_TIME = "logTime";
 	public static final String SOURCE = "Source";
 	public static final String USERNAME = "UserName";
@@ -26,53 +26,79 @@ public class AuditEvent {
 	public static final String INFORMATION = "Information";
 	public static final String GEO_LOCATION = "GeoLocation";
 	public static final String LANGUAGE = "Language";
+
+	/**
+	 * The field names above, so the names read from every event share the
+	 * same instances instead of holding a copy each.
+	 */
+	private static final Map<String, String> FIELD_NAMES = new HashMap<String, String>();
+
+	static {
+		for (String name : new String[] { LOG_TIME, SOURCE, USERNAME, USER_ID, ACTION, MESSAGE, ENVELOPE_STATUS,
+				CLIENT_IP_ADDRESS, INFORMATION, GEO_LOCATION, LANGUAGE }) {
+			FIELD_NAMES.put(name, name);
+		}
+	}
 	
 	/** The envelope fields. */
 	@JsonProperty
 	private List<AuditEventField> eventFields;
 
-	private Map<String, String> eventFieldMap;
+	/**
+	 * The fields by name, built on first use. The map is immutable, so
+	 * threads racing to build it each publish an equal copy and no lock is
+	 * needed.
+	 */
+	private transient volatile Map<String, String> eventFieldMap;
 	
 	public List<AuditEventField> getEventFields() {
 		return eventFields;
 	}
 	
 	public Map<String, String> getMap() {
-		if (eventFieldMap == null) {
-			synchronized (AuditEvent.class) {
-				if (eventFieldMap == null) {
-					synchronized (AuditEvent.class) {
-						eventFieldMap = new HashMap<String, String>(eventFields.size());
-						for (AuditEventField field : eventFields) {
-							eventFieldMap.put(field.getName(), field.getValue());
-						}
-					}
-				}
-			}
+		Map<String, String> map = eventFieldMap;
+		if (map == null) {
+			map = buildMap();
+			eventFieldMap = map;
 		}
-		
-		return eventFieldMap;
+		return map;
+	}
+
+	private Map<String, String> buildMap() {
+		if (eventFields == null || eventFields.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		final Map<String, String> map = new HashMap<String, String>(eventFields.size() * 4 / 3 + 1);
+		for (AuditEventField field : eventFields) {
+			final String name = field.getName();
+			final String canonicalName = name == null ? null : FIELD_NAMES.get(name);
+			map.put(canonicalName != null ? canonicalName : name, field.getValue());
+		}
+		return Collections.unmodifiableMap(map);
 	}
 	
 	public String getEventField (String key) {
 		return getMap().get(key);
 	}
 	
+	/**
+	 * Gets the time the event was logged. The time is read as UTC unless it
+	 * carries an offset.
+	 * 
+	 * @return the log time, or null if the event has none or it cannot be
+	 *         parsed
+	 */
 	public Date getLogTime() {
 		String value = getEventField(LOG_TIME);
-		logger.info(value);
-		String patchedValue = value.split("\\.")[0].substring(0, 19) + "+0000";
-		logger.info("Before parsing: " + patchedValue);
-		Date datetime = null;
-		if (value != null) {
-			try {
-				datetime = iso8601DateFormat.parse(patchedValue);
-			} 
-			catch (ParseException e) {
-				e.printStackTrace();
-			}
+		if (value == null) {
+			return null;
+		}
+		try {
+			return new Date(ISO8601DateCodec.parse(value));
+		} catch (ParseException e) {
+			logger.warn("Ignoring invalid " + LOG_TIME + " of audit event: " + value);
+			return null;
 		}
-		return datetime;
 	}
 	
 	public String getMessage() {
@@ -26,6 +26,9 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import uk.co.techblue.docusign.client.dto.utils.DtoSupport;
+import uk.co.techblue.docusign.client.dto.utils.DtoSupports;
 @JsonSerialize
 @JsonInclude(value = Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -37,19 +40,61 @@ public class BaseDto  implements Serializable {
 	 */
 	private static final long serialVersionUID = 921456413952166446L;
 
+	/**
+	 * Uses the implementation generated for the class, falling back to
+	 * reflection for classes compiled without the DTO support processor.
+	 */
 	@Override
 	public String toString() {
-		return ToStringBuilder.reflectionToString(this,
-				ToStringStyle.SHORT_PREFIX_STYLE);
+		final DtoSupport support = DtoSupports.forClass(getClass());
+		if (support == null) {
+			return ToStringBuilder.reflectionToString(this,
+					ToStringStyle.SHORT_PREFIX_STYLE);
+		}
+		return support.toString(this);
 	}
 
+	/**
+	 * Uses the implementation generated for the class, falling back to
+	 * reflection for classes compiled without the DTO support processor.
+	 * Instances of a class and of one of its subclasses are compared on the
+	 * fields of the superclass, so that a lazily read DTO equals the eagerly
+	 * read one with the same content.
+	 */
 	@Override
 	public boolean equals(Object obj) {
-		return EqualsBuilder.reflectionEquals(this, obj);
+		if (obj == this) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		final Class<?> type = getClass();
+		final Class<?> otherType = obj.getClass();
+		if (type != otherType && type.isAssignableFrom(otherType)) {
+			// the subclass may have to read its fields first
+			return obj.equals(this);
+		}
+		if (!otherType.isAssignableFrom(type)) {
+			return false;
+		}
+		final DtoSupport support = DtoSupports.forClass(otherType);
+		if (support == null) {
+			return EqualsBuilder.reflectionEquals(this, obj);
+		}
+		return support.equals(this, obj);
 	}
 
+	/**
+	 * Uses the implementation generated for the class, falling back to
+	 * reflection for classes compiled without the DTO support processor.
+	 */
 	@Override
 	public int hashCode() {
-		return HashCodeBuilder.reflectionHashCode(this);
+		final DtoSupport support = DtoSupports.forClass(getClass());
+		if (support == null) {
+			return HashCodeBuilder.reflectionHashCode(this);
+		}
+		return support.hashCode(this);
 	}
 }
@@ -55,6 +55,38 @@ public class EnvelopeStatusQueryForm extends BaseDto {
 	@QueryParam("ac_status")
 	private AuthoritativeCopyStatus authoritativeCopyStatus;
 
+	/** The position of the first envelope of the page, starting at zero. */
+	@QueryParam("start_position")
+	private Integer startPosition;
+
+	/** The maximum number of envelopes of the page. */
+	@QueryParam("count")
+	private Integer count;
+
+	/**
+	 * Instantiates a new envelope status query form.
+	 */
+	public EnvelopeStatusQueryForm() {
+	}
+
+	/**
+	 * Instantiates a new envelope status query form with the same parameters
+	 * as another one, typically to request another page of the same query.
+	 * 
+	 * @param other
+	 *            the form to copy
+	 */
+	public EnvelopeStatusQueryForm(EnvelopeStatusQueryForm other) {
+		this.fromDate = other.fromDate;
+		this.toDate = other.toDate;
+		this.statuses = other.statuses;
+		this.statusChangedTo = other.statusChangedTo;
+		this.envelopeIds = other.envelopeIds;
+		this.authoritativeCopyStatus = other.authoritativeCopyStatus;
+		this.startPosition = other.startPosition;
+		this.count = other.count;
+	}
+
 	/**
 	 * Gets the from date.
 	 * 
@@ -204,4 +236,45 @@ public class EnvelopeStatusQueryForm extends BaseDto {
 		this.authoritativeCopyStatus = authoritativeCopyStatus;
 	}
 
+	/**
+	 * Gets the start position.
+	 * 
+	 * @return the start position
+	 */
+	public Integer getStartPosition() {
+		return startPosition;
+	}
+
+	/**
+	 * <b>Optional</b><br/>
+	 * Sets the position, starting at zero, of the first envelope to return.
+	 * Used with {@link #setCount(Integer)} to page through large result sets.
+	 * 
+	 * @param startPosition
+	 *            the new start position
+	 */
+	public void setStartPosition(Integer startPosition) {
+		this.startPosition = startPosition;
+	}
+
+	/**
+	 * Gets the count.
+	 * 
+	 * @return the count
+	 */
+	public Integer getCount() {
+		return count;
+	}
+
+	/**
+	 * <b>Optional</b><br/>
+	 * Sets the maximum number of envelopes to return.
+	 * 
+	 * @param count
+	 *            the new count
+	 */
+	public void setCount(Integer count) {
+		this.count = count;
+	}
+
 }
@@ -37,6 +37,26 @@ public class EnvelopeStatusResponse  extends BaseDto{
 	@JsonProperty
 	private int resultSetSize;
 
+	/** The position of the first envelope of the page. */
+	@JsonProperty
+	private Integer startPosition;
+
+	/** The position of the last envelope of the page. */
+	@JsonProperty
+	private Integer endPosition;
+
+	/** The number of envelopes matching the query, across all pages. */
+	@JsonProperty
+	private Integer totalSetSize;
+
+	/** The uri of the next page, if any. */
+	@JsonProperty
+	private String nextUri;
+
+	/** The uri of the previous page, if any. */
+	@JsonProperty
+	private String previousUri;
+
 	/**
 	 * Gets the envelopes.
 	 * 
@@ -74,4 +94,99 @@ public class EnvelopeStatusResponse  extends BaseDto{
 	public void setResultSetSize(int resultSetSize) {
 		this.resultSetSize = resultSetSize;
 	}
+
+	/**
+	 * Gets the start position.
+	 * 
+	 * @return the start position
+	 */
+	public Integer getStartPosition() {
+		return startPosition;
+	}
+
+	/**
+	 * Sets the start position.
+	 * 
+	 * @param startPosition
+	 *            the new start position
+	 */
+	public void setStartPosition(Integer startPosition) {
+		this.startPosition = startPosition;
+	}
+
+	/**
+	 * Gets the end position.
+	 * 
+	 * @return the end position
+	 */
+	public Integer getEndPosition() {
+		return endPosition;
+	}
+
+	/**
+	 * Sets the end position.
+	 * 
+	 * @param endPosition
+	 *            the new end position
+	 */
+	public void setEndPosition(Integer endPosition) {
+		this.endPosition = endPosition;
+	}
+
+	/**
+	 * Gets the total set size.
+	 * 
+	 * @return the total set size
+	 */
+	public Integer getTotalSetSize() {
+		return totalSetSize;
+	}
+
+	/**
+	 * Sets the total set size.
+	 * 
+	 * @param totalSetSize
+	 *            the new total set size
+	 */
+	public void setTotalSetSize(Integer totalSetSize) {
+		this.totalSetSize = totalSetSize;
+	}
+
+	/**
+	 * Gets the next uri.
+	 * 
+	 * @return the next uri
+	 */
+	public String getNextUri() {
+		return nextUri;
+	}
+
+	/**
+	 * Sets the next uri.
+	 * 
+	 * @param nextUri
+	 *            the new next uri
+	 */
+	public void setNextUri(String nextUri) {
+		this.nextUri = nextUri;
+	}
+
+	/**
+	 * Gets the previous uri.
+	 * 
+	 * @return the previous uri
+	 */
+	public String getPreviousUri() {
+		return previousUri;
+	}
+
+	/**
+	 * Sets the previous uri.
+	 * 
+	 * @param previousUri
+	 *            the new previous uri
+	 */
+	public void setPreviousUri(String previousUri) {
+		this.previousUri = previousUri;
+	}
 }
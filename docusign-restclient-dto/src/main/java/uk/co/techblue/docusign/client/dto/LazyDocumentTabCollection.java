@@ -0,0 +1,713 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.dto;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import uk.co.techblue.docusign.client.dto.tabs.ApproveTab;
+import uk.co.techblue.docusign.client.dto.tabs.CheckboxTab;
+import uk.co.techblue.docusign.client.dto.tabs.CompanyTab;
+import uk.co.techblue.docusign.client.dto.tabs.DateSignedTab;
+import uk.co.techblue.docusign.client.dto.tabs.DateTab;
+import uk.co.techblue.docusign.client.dto.tabs.DeclineTab;
+import uk.co.techblue.docusign.client.dto.tabs.EmailTab;
+import uk.co.techblue.docusign.client.dto.tabs.EnvelopeIdTab;
+import uk.co.techblue.docusign.client.dto.tabs.FullNameTab;
+import uk.co.techblue.docusign.client.dto.tabs.InitialHereTab;
+import uk.co.techblue.docusign.client.dto.tabs.ListTab;
+import uk.co.techblue.docusign.client.dto.tabs.NoteTab;
+import uk.co.techblue.docusign.client.dto.tabs.NumberTab;
+import uk.co.techblue.docusign.client.dto.tabs.RadioGroupTab;
+import uk.co.techblue.docusign.client.dto.tabs.SSNTab;
+import uk.co.techblue.docusign.client.dto.tabs.SignHereTab;
+import uk.co.techblue.docusign.client.dto.tabs.SignerAttachmentTab;
+import uk.co.techblue.docusign.client.dto.tabs.Tab;
+import uk.co.techblue.docusign.client.dto.tabs.TextTab;
+import uk.co.techblue.docusign.client.dto.tabs.TitleTab;
+import uk.co.techblue.docusign.client.dto.tabs.ZipTab;
+import uk.co.techblue.docusign.jackson.RawDocumentTabsDeserializer;
+
+/**
+ * A {@link DocumentTabCollection} which keeps the tabs as the JSON returned
+ * by DocuSign until they are used. The first call to a getter or setter reads
+ * all the tabs into the typed lists, while {@link #getTabs(Class)} reads a
+ * single type of tab without binding the others. Envelopes with hundreds of
+ * tabs then cost a byte array per recipient rather than an object per tab.
+ * 
+ * @see uk.co.techblue.docusign.client.dto.recipients.LazyRecipientStatus
+ */
+@JsonDeserialize(using = RawDocumentTabsDeserializer.class)
+public class LazyDocumentTabCollection extends DocumentTabCollection {
+
+	private static final long serialVersionUID = -2407262011355373815L;
+
+	/** The fields of the tab lists, by the class of their tabs. */
+	private static final Map<Class<?>, Field> TAB_FIELDS = tabFields();
+
+	/** The JSON of the tabs, null once they have been read. */
+	private transient volatile byte[] json;
+
+	/** The codec reading the JSON. */
+	private transient ObjectCodec codec;
+
+	/**
+	 * Instantiates a new tab collection with no tabs.
+	 */
+	public LazyDocumentTabCollection() {
+	}
+
+	/**
+	 * Instantiates a new tab collection read from the JSON object on first
+	 * use.
+	 * 
+	 * @param json
+	 *            the UTF-8 JSON object of the tabs
+	 * @param codec
+	 *            the codec reading the tabs
+	 */
+	public LazyDocumentTabCollection(byte[] json, ObjectCodec codec) {
+		this.codec = codec;
+		this.json = json;
+	}
+
+	private static Map<Class<?>, Field> tabFields() {
+		final Map<Class<?>, Field> fields = new HashMap<Class<?>, Field>();
+		for (Field field : DocumentTabCollection.class.getDeclaredFields()) {
+			final Type type = field.getGenericType();
+			if (field.getType() == List.class && type instanceof ParameterizedType) {
+				field.setAccessible(true);
+				fields.put((Class<?>) ((ParameterizedType) type).getActualTypeArguments()[0], field);
+			}
+		}
+		return Collections.unmodifiableMap(fields);
+	}
+
+	/**
+	 * Checks whether the tabs have been read into the typed lists.
+	 * 
+	 * @return true if the tabs have been read
+	 */
+	public boolean isMaterialized() {
+		return json == null;
+	}
+
+	/**
+	 * Reads all the tabs into the typed lists, unless already read.
+	 * 
+	 * @throws UncheckedIOException
+	 *             if the tabs cannot be read
+	 */
+	public void materialize() {
+		if (json != null) {
+			readTabs();
+		}
+	}
+
+	private synchronized void readTabs() {
+		final byte[] tabsJson = json;
+		if (tabsJson == null) {
+			return;
+		}
+		try {
+			final JsonParser parser = codec.getFactory().createParser(tabsJson);
+			try {
+				final DocumentTabCollection tabs = codec.readValue(parser, DocumentTabCollection.class);
+				for (Field field : TAB_FIELDS.values()) {
+					field.set(this, field.get(tabs));
+				}
+			} finally {
+				parser.close();
+			}
+		} catch (IOException ioe) {
+			throw new UncheckedIOException("Error occurred while reading the tabs", ioe);
+		} catch (IllegalAccessException iae) {
+			throw new IllegalStateException(iae);
+		}
+		codec = null;
+		json = null;
+	}
+
+	/**
+	 * Gets the tabs of one type. Until all the tabs have been read, only the
+	 * tabs of the requested type are bound, and they are bound again on every
+	 * call.
+	 * 
+	 * @param <T>
+	 *            the tab type
+	 * @param tabType
+	 *            the class of the tabs, such as <code>SignHereTab.class</code>
+	 * @return the tabs, or null if the recipient has none of the type
+	 * @throws IllegalArgumentException
+	 *             if the class is not one of the tab types of the collection
+	 * @throws UncheckedIOException
+	 *             if the tabs cannot be read
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Tab> List<T> getTabs(Class<T> tabType) {
+		final Field field = TAB_FIELDS.get(tabType);
+		if (field == null) {
+			throw new IllegalArgumentException("Not a type of tab of the collection: " + tabType.getName());
+		}
+		final ObjectCodec tabsCodec;
+		final byte[] tabsJson;
+		synchronized (this) {
+			tabsCodec = codec;
+			tabsJson = json;
+		}
+		try {
+			if (tabsJson == null) {
+				return (List<T>) field.get(this);
+			}
+			return readTabs(tabsJson, tabsCodec, field.getAnnotation(JsonProperty.class).value(), tabType);
+		} catch (IOException ioe) {
+			throw new UncheckedIOException("Error occurred while reading the tabs of type " + tabType.getName(), ioe);
+		} catch (IllegalAccessException iae) {
+			throw new IllegalStateException(iae);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> readTabs(byte[] tabsJson, ObjectCodec tabsCodec, String name, Class<T> tabType)
+			throws IOException {
+		final JsonParser parser = tabsCodec.getFactory().createParser(tabsJson);
+		try {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				return null;
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				final String fieldName = parser.getCurrentName();
+				if (parser.nextToken() != JsonToken.VALUE_NULL && name.equals(fieldName)) {
+					final T[] tabs = (T[]) tabsCodec.readValue(parser, Array.newInstance(tabType, 0).getClass());
+					return new ArrayList<T>(Arrays.asList(tabs));
+				}
+				parser.skipChildren();
+			}
+			return null;
+		} finally {
+			parser.close();
+		}
+	}
+
+	/**
+	 * Gets the initial here tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the initial here tabs
+	 */
+	@Override
+	public List<InitialHereTab> getInitialHereTabs() {
+		materialize();
+		return super.getInitialHereTabs();
+	}
+
+	/**
+	 * Sets the initial here tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param initialHereTabs
+	 *            the new initial here tabs
+	 */
+	@Override
+	public void setInitialHereTabs(List<InitialHereTab> initialHereTabs) {
+		materialize();
+		super.setInitialHereTabs(initialHereTabs);
+	}
+
+	/**
+	 * Gets the email tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the email tabs
+	 */
+	@Override
+	public List<EmailTab> getEmailTabs() {
+		materialize();
+		return super.getEmailTabs();
+	}
+
+	/**
+	 * Sets the email tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param emailTabs
+	 *            the new email tabs
+	 */
+	@Override
+	public void setEmailTabs(List<EmailTab> emailTabs) {
+		materialize();
+		super.setEmailTabs(emailTabs);
+	}
+
+	/**
+	 * Gets the full name tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the full name tabs
+	 */
+	@Override
+	public List<FullNameTab> getFullNameTabs() {
+		materialize();
+		return super.getFullNameTabs();
+	}
+
+	/**
+	 * Sets the full name tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param fullNameTabs
+	 *            the new full name tabs
+	 */
+	@Override
+	public void setFullNameTabs(List<FullNameTab> fullNameTabs) {
+		materialize();
+		super.setFullNameTabs(fullNameTabs);
+	}
+
+	/**
+	 * Gets the approve tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the approve tabs
+	 */
+	@Override
+	public List<ApproveTab> getApproveTabs() {
+		materialize();
+		return super.getApproveTabs();
+	}
+
+	/**
+	 * Sets the approve tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param approveTabs
+	 *            the new approve tabs
+	 */
+	@Override
+	public void setApproveTabs(List<ApproveTab> approveTabs) {
+		materialize();
+		super.setApproveTabs(approveTabs);
+	}
+
+	/**
+	 * Gets the checkbox tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the checkbox tabs
+	 */
+	@Override
+	public List<CheckboxTab> getCheckboxTabs() {
+		materialize();
+		return super.getCheckboxTabs();
+	}
+
+	/**
+	 * Sets the checkbox tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param checkboxTabs
+	 *            the new checkbox tabs
+	 */
+	@Override
+	public void setCheckboxTabs(List<CheckboxTab> checkboxTabs) {
+		materialize();
+		super.setCheckboxTabs(checkboxTabs);
+	}
+
+	/**
+	 * Gets the company tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the company tabs
+	 */
+	@Override
+	public List<CompanyTab> getCompanyTabs() {
+		materialize();
+		return super.getCompanyTabs();
+	}
+
+	/**
+	 * Sets the company tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param companyTabs
+	 *            the new company tabs
+	 */
+	@Override
+	public void setCompanyTabs(List<CompanyTab> companyTabs) {
+		materialize();
+		super.setCompanyTabs(companyTabs);
+	}
+
+	/**
+	 * Gets the date signed tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the date signed tabs
+	 */
+	@Override
+	public List<DateSignedTab> getDateSignedTabs() {
+		materialize();
+		return super.getDateSignedTabs();
+	}
+
+	/**
+	 * Sets the date signed tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param dateSignedTabs
+	 *            the new date signed tabs
+	 */
+	@Override
+	public void setDateSignedTabs(List<DateSignedTab> dateSignedTabs) {
+		materialize();
+		super.setDateSignedTabs(dateSignedTabs);
+	}
+
+	/**
+	 * Gets the date tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the date tabs
+	 */
+	@Override
+	public List<DateTab> getDateTabs() {
+		materialize();
+		return super.getDateTabs();
+	}
+
+	/**
+	 * Sets the date tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param dateTabs
+	 *            the new date tabs
+	 */
+	@Override
+	public void setDateTabs(List<DateTab> dateTabs) {
+		materialize();
+		super.setDateTabs(dateTabs);
+	}
+
+	/**
+	 * Gets the decline tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the decline tabs
+	 */
+	@Override
+	public List<DeclineTab> getDeclineTabs() {
+		materialize();
+		return super.getDeclineTabs();
+	}
+
+	/**
+	 * Sets the decline tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param declineTabs
+	 *            the new decline tabs
+	 */
+	@Override
+	public void setDeclineTabs(List<DeclineTab> declineTabs) {
+		materialize();
+		super.setDeclineTabs(declineTabs);
+	}
+
+	/**
+	 * Gets the envelope id tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the envelope id tabs
+	 */
+	@Override
+	public List<EnvelopeIdTab> getEnvelopeIdTabs() {
+		materialize();
+		return super.getEnvelopeIdTabs();
+	}
+
+	/**
+	 * Sets the envelope id tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param envelopeIdTabs
+	 *            the new envelope id tabs
+	 */
+	@Override
+	public void setEnvelopeIdTabs(List<EnvelopeIdTab> envelopeIdTabs) {
+		materialize();
+		super.setEnvelopeIdTabs(envelopeIdTabs);
+	}
+
+	/**
+	 * Gets the list tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the list tabs
+	 */
+	@Override
+	public List<ListTab> getListTabs() {
+		materialize();
+		return super.getListTabs();
+	}
+
+	/**
+	 * Sets the list tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param listTabs
+	 *            the new list tabs
+	 */
+	@Override
+	public void setListTabs(List<ListTab> listTabs) {
+		materialize();
+		super.setListTabs(listTabs);
+	}
+
+	/**
+	 * Gets the note tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the note tabs
+	 */
+	@Override
+	public List<NoteTab> getNoteTabs() {
+		materialize();
+		return super.getNoteTabs();
+	}
+
+	/**
+	 * Sets the note tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param noteTabs
+	 *            the new note tabs
+	 */
+	@Override
+	public void setNoteTabs(List<NoteTab> noteTabs) {
+		materialize();
+		super.setNoteTabs(noteTabs);
+	}
+
+	/**
+	 * Gets the number tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the number tabs
+	 */
+	@Override
+	public List<NumberTab> getNumberTabs() {
+		materialize();
+		return super.getNumberTabs();
+	}
+
+	/**
+	 * Sets the number tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param numberTabs
+	 *            the new number tabs
+	 */
+	@Override
+	public void setNumberTabs(List<NumberTab> numberTabs) {
+		materialize();
+		super.setNumberTabs(numberTabs);
+	}
+
+	/**
+	 * Gets the radio group tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the radio group tabs
+	 */
+	@Override
+	public List<RadioGroupTab> getRadioGroupTabs() {
+		materialize();
+		return super.getRadioGroupTabs();
+	}
+
+	/**
+	 * Sets the radio group tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param radioGroupTabs
+	 *            the new radio group tabs
+	 */
+	@Override
+	public void setRadioGroupTabs(List<RadioGroupTab> radioGroupTabs) {
+		materialize();
+		super.setRadioGroupTabs(radioGroupTabs);
+	}
+
+	/**
+	 * Gets the sign here tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the sign here tabs
+	 */
+	@Override
+	public List<SignHereTab> getSignHereTabs() {
+		materialize();
+		return super.getSignHereTabs();
+	}
+
+	/**
+	 * Sets the sign here tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param signHereTabs
+	 *            the new sign here tabs
+	 */
+	@Override
+	public void setSignHereTabs(List<SignHereTab> signHereTabs) {
+		materialize();
+		super.setSignHereTabs(signHereTabs);
+	}
+
+	/**
+	 * Gets the signer attachment tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the signer attachment tabs
+	 */
+	@Override
+	public List<SignerAttachmentTab> getSignerAttachmentTabs() {
+		materialize();
+		return super.getSignerAttachmentTabs();
+	}
+
+	/**
+	 * Sets the signer attachment tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param signerAttachmentTabs
+	 *            the new signer attachment tabs
+	 */
+	@Override
+	public void setSignerAttachmentTabs(List<SignerAttachmentTab> signerAttachmentTabs) {
+		materialize();
+		super.setSignerAttachmentTabs(signerAttachmentTabs);
+	}
+
+	/**
+	 * Gets the ssn tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the ssn tabs
+	 */
+	@Override
+	public List<SSNTab> getSsnTabs() {
+		materialize();
+		return super.getSsnTabs();
+	}
+
+	/**
+	 * Sets the ssn tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param ssnTabs
+	 *            the new ssn tabs
+	 */
+	@Override
+	public void setSsnTabs(List<SSNTab> ssnTabs) {
+		materialize();
+		super.setSsnTabs(ssnTabs);
+	}
+
+	/**
+	 * Gets the text tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the text tabs
+	 */
+	@Override
+	public List<TextTab> getTextTabs() {
+		materialize();
+		return super.getTextTabs();
+	}
+
+	/**
+	 * Sets the text tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param textTabs
+	 *            the new text tabs
+	 */
+	@Override
+	public void setTextTabs(List<TextTab> textTabs) {
+		materialize();
+		super.setTextTabs(textTabs);
+	}
+
+	/**
+	 * Gets the title tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the title tabs
+	 */
+	@Override
+	public List<TitleTab> getTitleTabs() {
+		materialize();
+		return super.getTitleTabs();
+	}
+
+	/**
+	 * Sets the title tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param titleTabs
+	 *            the new title tabs
+	 */
+	@Override
+	public void setTitleTabs(List<TitleTab> titleTabs) {
+		materialize();
+		super.setTitleTabs(titleTabs);
+	}
+
+	/**
+	 * Gets the zip tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @return the zip tabs
+	 */
+	@Override
+	public List<ZipTab> getZipTabs() {
+		materialize();
+		return super.getZipTabs();
+	}
+
+	/**
+	 * Sets the zip tabs, reading all the tabs first if they have not been read.
+	 * 
+	 * @param zipTabs
+	 *            the new zip tabs
+	 */
+	@Override
+	public void setZipTabs(List<ZipTab> zipTabs) {
+		materialize();
+		super.setZipTabs(zipTabs);
+	}
+
+	@Override
+	public List<Tab> getAllTabs() {
+		materialize();
+		return super.getAllTabs();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		materialize();
+		if (obj instanceof LazyDocumentTabCollection) {
+			((LazyDocumentTabCollection) obj).materialize();
+		}
+		return super.equals(obj);
+	}
+
+	@Override
+	public int hashCode() {
+		materialize();
+		return super.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		materialize();
+		return super.toString();
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		materialize();
+		out.defaultWriteObject();
+	}
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.dto.recipients;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import uk.co.techblue.docusign.client.dto.DocumentTabCollection;
+import uk.co.techblue.docusign.client.dto.LazyDocumentTabCollection;
+
+/**
+ * A {@link RecipientStatus} whose tabs are read as a
+ * {@link LazyDocumentTabCollection}, so they are only bound when used.
+ */
+public class LazyRecipientStatus extends RecipientStatus {
+
+	private static final long serialVersionUID = 4620932914117502384L;
+
+	/**
+	 * Sets the tabs.
+	 * 
+	 * @param tabs
+	 *            the new tabs
+	 */
+	@Override
+	@JsonDeserialize(as = LazyDocumentTabCollection.class)
+	public void setTabs(DocumentTabCollection tabs) {
+		super.setTabs(tabs);
+	}
+}
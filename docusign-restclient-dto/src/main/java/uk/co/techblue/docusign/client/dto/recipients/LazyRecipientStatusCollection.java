@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.dto.recipients;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * A {@link RecipientStatusCollection} read with the tabs of every recipient
+ * left as JSON until used. Each recipient is a {@link LazyRecipientStatus}
+ * whose tabs are a
+ * {@link uk.co.techblue.docusign.client.dto.LazyDocumentTabCollection}.
+ */
+public class LazyRecipientStatusCollection extends RecipientStatusCollection {
+
+	private static final long serialVersionUID = -3148562240957711730L;
+
+	/**
+	 * Sets the signers.
+	 *
+	 * @param signers the new signers
+	 */
+	@Override
+	@JsonDeserialize(contentAs = LazyRecipientStatus.class)
+	public void setSigners(List<RecipientStatus> signers) {
+		super.setSigners(signers);
+	}
+
+	/**
+	 * Sets the agents.
+	 *
+	 * @param agents the new agents
+	 */
+	@Override
+	@JsonDeserialize(contentAs = LazyRecipientStatus.class)
+	public void setAgents(List<RecipientStatus> agents) {
+		super.setAgents(agents);
+	}
+
+	/**
+	 * Sets the editors.
+	 *
+	 * @param editors the new editors
+	 */
+	@Override
+	@JsonDeserialize(contentAs = LazyRecipientStatus.class)
+	public void setEditors(List<RecipientStatus> editors) {
+		super.setEditors(editors);
+	}
+
+	/**
+	 * Sets the in person signers.
+	 *
+	 * @param inPersonSigners the new in person signers
+	 */
+	@Override
+	@JsonDeserialize(contentAs = LazyRecipientStatus.class)
+	public void setInPersonSigners(List<RecipientStatus> inPersonSigners) {
+		super.setInPersonSigners(inPersonSigners);
+	}
+
+	/**
+	 * Sets the intermediaries.
+	 *
+	 * @param intermediaries the new intermediaries
+	 */
+	@Override
+	@JsonDeserialize(contentAs = LazyRecipientStatus.class)
+	public void setIntermediaries(List<RecipientStatus> intermediaries) {
+		super.setIntermediaries(intermediaries);
+	}
+
+	/**
+	 * Sets the carbon copies.
+	 *
+	 * @param carbonCopies the new carbon copies
+	 */
+	@Override
+	@JsonDeserialize(contentAs = LazyRecipientStatus.class)
+	public void setCarbonCopies(List<RecipientStatus> carbonCopies) {
+		super.setCarbonCopies(carbonCopies);
+	}
+
+	/**
+	 * Sets the certified deliveries.
+	 *
+	 * @param certifiedDeliveries the new certified deliveries
+	 */
+	@Override
+	@JsonDeserialize(contentAs = LazyRecipientStatus.class)
+	public void setCertifiedDeliveries(List<RecipientStatus> certifiedDeliveries) {
+		super.setCertifiedDeliveries(certifiedDeliveries);
+	}
+}
@@ -27,8 +27,7 @@ import java.util.TimeZone;
  */
 public class DtoHelper {
 
-	private static final String ISO8601_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSSSSSz";
-
+	private static final String ISO8601_OUTPUT_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS'0000Z'";
 	/**
 	 * Parses the ISO8601 date string.
 	 * 
@@ -40,20 +39,7 @@ public class DtoHelper {
 	 */
 	public static Date parseISO8601Date(String dateString)
 			throws ParseException {
-	    if(!dateString.endsWith("Z")) {
-            dateString+="Z";
-        }
-        SimpleDateFormat sdf = new SimpleDateFormat(ISO8601_PATTERN);
-        dateString = dateString.replaceAll("(\\.[0-9]{3})[0-9]*(Z)", "$1$2");
-        if (dateString.endsWith("Z")) {
-            dateString = dateString.substring(0, dateString.length() - 1) + "GMT-00:00";
-        } else {
-            int inset = 6;
-            String strPrefix = dateString.substring(0, dateString.length() - inset);
-            String strSuffix = dateString.substring(dateString.length() - inset, dateString.length());
-            dateString = strPrefix + "GMT" + strSuffix;
-        }
-        return sdf.parse(dateString);
+		return new Date(ISO8601DateCodec.parse(dateString));
 	}
 
 	/**
@@ -66,7 +52,10 @@ public class DtoHelper {
 	 *             the parse exception
 	 */
 	public static String formatISO8601Date(Date date) throws ParseException {
-		return formatDate(date, "yyyy-MM-dd'T'HH:mm:ss.SSS'0000Z'", true);
+		if (!ISO8601DateCodec.canFormat(date.getTime())) {
+			return formatDate(date, ISO8601_OUTPUT_PATTERN, true);
+		}
+		return ISO8601DateCodec.format(date.getTime());
 	}
 
 	/**
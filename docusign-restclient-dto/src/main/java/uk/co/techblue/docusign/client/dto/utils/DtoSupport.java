@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.dto.utils;
+
+/**
+ * The equals, hashCode and toString implementations of a DTO class, generated
+ * at compile time by the DTO support annotation processor.
+ */
+public interface DtoSupport {
+
+	/**
+	 * Compares the fields of two instances of the DTO class.
+	 * 
+	 * @param dto
+	 *            the dto
+	 * @param other
+	 *            the other instance, of the same class
+	 * @return true, if all the fields are equal
+	 */
+	boolean equals(Object dto, Object other);
+
+	/**
+	 * Computes the hash code of the DTO from its fields.
+	 * 
+	 * @param dto
+	 *            the dto
+	 * @return the hash code
+	 */
+	int hashCode(Object dto);
+
+	/**
+	 * Formats the DTO in the commons-lang short prefix style, e.g.
+	 * <code>Signer[name=John,email=&lt;null&gt;]</code>.
+	 * 
+	 * @param dto
+	 *            the dto
+	 * @return the string
+	 */
+	String toString(Object dto);
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.dto.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+
+/**
+ * Finds the generated {@link DtoSupport} of a DTO class and provides the
+ * helpers the generated code relies on.
+ */
+public final class DtoSupports {
+
+	/** The suffix of the generated support class names. */
+	private static final String SUFFIX = "_DtoSupport";
+
+	private static final ClassValue<DtoSupport> SUPPORTS = new ClassValue<DtoSupport>() {
+		@Override
+		protected DtoSupport computeValue(Class<?> type) {
+			final String supportName = type.getName().replace('$', '_') + SUFFIX;
+			try {
+				final Class<?> supportClass = Class.forName(supportName, true,
+						type.getClassLoader());
+				if (!DtoSupport.class.isAssignableFrom(supportClass)) {
+					return null;
+				}
+				return (DtoSupport) supportClass.getDeclaredConstructor()
+						.newInstance();
+			} catch (ClassNotFoundException cnfe) {
+				return null;
+			} catch (ReflectiveOperationException roe) {
+				return null;
+			}
+		}
+	};
+
+	private DtoSupports() {
+	}
+
+	/**
+	 * Gets the generated support of the DTO class.
+	 * 
+	 * @param type
+	 *            the DTO class
+	 * @return the support, or null if none was generated for the class
+	 */
+	public static DtoSupport forClass(Class<?> type) {
+		return SUPPORTS.get(type);
+	}
+
+	/**
+	 * Creates a method handle reading the field, adapted to take an
+	 * <code>Object</code> and return either the primitive field type or
+	 * <code>Object</code>.
+	 * 
+	 * @param declaringClass
+	 *            the class declaring the field
+	 * @param fieldName
+	 *            the field name
+	 * @return the method handle
+	 */
+	public static MethodHandle getter(Class<?> declaringClass, String fieldName) {
+		try {
+			final Field field = declaringClass.getDeclaredField(fieldName);
+			field.setAccessible(true);
+			final Class<?> returnType = field.getType().isPrimitive() ? field
+					.getType() : Object.class;
+			return MethodHandles.lookup().unreflectGetter(field)
+					.asType(MethodType.methodType(returnType, Object.class));
+		} catch (ReflectiveOperationException roe) {
+			throw new IllegalStateException("Unable to access field "
+					+ fieldName + " of " + declaringClass.getName(), roe);
+		}
+	}
+
+	/**
+	 * Appends a field in the commons-lang short prefix style.
+	 * 
+	 * @param builder
+	 *            the builder
+	 * @param fieldName
+	 *            the field name
+	 * @param value
+	 *            the field value
+	 * @param first
+	 *            true, if this is the first field
+	 */
+	public static void appendField(StringBuilder builder, String fieldName,
+			Object value, boolean first) {
+		if (!first) {
+			builder.append(',');
+		}
+		builder.append(fieldName).append('=');
+		appendValue(builder, value);
+	}
+
+	private static void appendValue(StringBuilder builder, Object value) {
+		if (value == null) {
+			builder.append("<null>");
+		} else if (value.getClass().isArray()) {
+			builder.append('{');
+			final int length = Array.getLength(value);
+			for (int i = 0; i < length; i++) {
+				if (i > 0) {
+					builder.append(',');
+				}
+				appendValue(builder, Array.get(value, i));
+			}
+			builder.append('}');
+		} else {
+			builder.append(value);
+		}
+	}
+
+	/**
+	 * Rethrows an exception raised while reading a field through its method
+	 * handle.
+	 * 
+	 * @param t
+	 *            the exception
+	 * @return nothing, declared so that callers can write
+	 *         <code>throw rethrow(t)</code>
+	 */
+	public static RuntimeException rethrow(Throwable t) {
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		}
+		if (t instanceof Error) {
+			throw (Error) t;
+		}
+		throw new IllegalStateException(t);
+	}
+}
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.client.dto.utils;
+
+import java.text.ParseException;
+
+/**
+ * Parses and formats the ISO 8601 dates exchanged with DocuSign, e.g.
+ * <code>2015-10-19T01:00:00.1230000Z</code> or
+ * <code>2015-10-19T01:00:00.123+01:00</code>, directly from and into
+ * character arrays. It holds no state and is therefore thread-safe.
+ *
+ * <p>
+ * Parsing accepts an optional seconds field, a fraction of any length (only
+ * the milliseconds are kept) and either <code>Z</code>, an offset in the
+ * <code>+HH:mm</code>, <code>+HHmm</code> or <code>+HH</code> form, or no zone
+ * at all, which is read as UTC. Formatting always writes UTC with seven
+ * fractional digits.
+ */
+public final class ISO8601DateCodec {
+
+	/** The length of a formatted date. */
+	public static final int FORMATTED_LENGTH = 28;
+
+	/** The first instant of year 0000. */
+	private static final long MIN_FORMATTED_TIME = -62167219200000L;
+
+	/** The last instant of year 9999. */
+	private static final long MAX_FORMATTED_TIME = 253402300799999L;
+
+	private static final long MILLIS_PER_DAY = 86400000L;
+
+	private static final int MIN_LENGTH = 16;
+
+	private ISO8601DateCodec() {
+	}
+
+	/**
+	 * Parses the ISO 8601 date string.
+	 *
+	 * @param text
+	 *            the text
+	 * @return the milliseconds since the epoch
+	 * @throws ParseException
+	 *             if the text is not an ISO 8601 date
+	 */
+	public static long parse(final String text) throws ParseException {
+		return parse(text.toCharArray(), 0, text.length());
+	}
+
+	/**
+	 * Parses the ISO 8601 date held in a region of the character buffer.
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param offset
+	 *            the offset of the date in the buffer
+	 * @param length
+	 *            the length of the date
+	 * @return the milliseconds since the epoch
+	 * @throws ParseException
+	 *             if the region is not an ISO 8601 date, the error offset being
+	 *             relative to the start of the region
+	 */
+	public static long parse(final char[] buffer, final int offset,
+			final int length) throws ParseException {
+		if (length < MIN_LENGTH) {
+			throw error(buffer, offset, length, length);
+		}
+		final int end = offset + length;
+		int pos = offset;
+		final int year = digits(buffer, offset, length, pos, 4);
+		pos = expect(buffer, offset, length, pos + 4, '-');
+		final int month = digits(buffer, offset, length, pos, 2);
+		pos = expect(buffer, offset, length, pos + 2, '-');
+		final int day = digits(buffer, offset, length, pos, 2);
+		pos = expect(buffer, offset, length, pos + 2, 'T');
+		final int hour = digits(buffer, offset, length, pos, 2);
+		pos = expect(buffer, offset, length, pos + 2, ':');
+		final int minute = digits(buffer, offset, length, pos, 2);
+		pos += 2;
+		int second = 0;
+		int millis = 0;
+		if (pos < end && buffer[pos] == ':') {
+			second = digits(buffer, offset, length, pos + 1, 2);
+			pos += 3;
+			if (pos < end && buffer[pos] == '.') {
+				pos++;
+				final int fractionStart = pos;
+				while (pos < end && isDigit(buffer[pos])) {
+					if (pos - fractionStart < 3) {
+						millis = millis * 10 + buffer[pos] - '0';
+					}
+					pos++;
+				}
+				final int fractionLength = pos - fractionStart;
+				if (fractionLength == 0) {
+					throw error(buffer, offset, length, pos - offset);
+				}
+				for (int i = fractionLength; i < 3; i++) {
+					millis *= 10;
+				}
+			}
+		}
+		if (month < 1 || month > 12 || day < 1
+				|| day > daysInMonth(year, month) || hour > 23 || minute > 59
+				|| second > 59) {
+			throw error(buffer, offset, length, 0);
+		}
+		int offsetMinutes = 0;
+		if (pos < end) {
+			final char zone = buffer[pos];
+			if (zone == 'Z' || zone == 'z') {
+				pos++;
+			} else if (zone == '+' || zone == '-') {
+				final int offsetHours = digits(buffer, offset, length, pos + 1, 2);
+				pos += 3;
+				int offsetMins = 0;
+				if (pos < end) {
+					if (buffer[pos] == ':') {
+						pos++;
+					}
+					offsetMins = digits(buffer, offset, length, pos, 2);
+					pos += 2;
+				}
+				if (offsetHours > 18 || offsetMins > 59) {
+					throw error(buffer, offset, length, pos - offset);
+				}
+				offsetMinutes = offsetHours * 60 + offsetMins;
+				if (zone == '-') {
+					offsetMinutes = -offsetMinutes;
+				}
+			}
+		}
+		if (pos != end) {
+			throw error(buffer, offset, length, pos - offset);
+		}
+		return daysFromCivil(year, month, day) * MILLIS_PER_DAY
+				+ ((hour * 60L + minute - offsetMinutes) * 60L + second) * 1000L
+				+ millis;
+	}
+
+	/**
+	 * Checks if the time falls in the years 0000 to 9999, which are the only
+	 * ones the four digit year of the format can hold.
+	 *
+	 * @param time
+	 *            the milliseconds since the epoch
+	 * @return true, if the time can be formatted
+	 */
+	public static boolean canFormat(final long time) {
+		return time >= MIN_FORMATTED_TIME && time <= MAX_FORMATTED_TIME;
+	}
+
+	/**
+	 * Formats the time in UTC as <code>yyyy-MM-dd'T'HH:mm:ss.SSS0000Z</code>.
+	 *
+	 * @param time
+	 *            the milliseconds since the epoch
+	 * @param buffer
+	 *            the buffer receiving the formatted date
+	 * @param offset
+	 *            the offset in the buffer, which must have room for
+	 *            {@link #FORMATTED_LENGTH} characters
+	 * @return the number of characters written
+	 * @throws IllegalArgumentException
+	 *             if the year is not between 0 and 9999
+	 */
+	public static int format(final long time, final char[] buffer,
+			final int offset) {
+		if (!canFormat(time)) {
+			throw new IllegalArgumentException("Year out of range: " + time);
+		}
+		final long days = Math.floorDiv(time, MILLIS_PER_DAY);
+		int millisOfDay = (int) Math.floorMod(time, MILLIS_PER_DAY);
+
+		// civil from days, see http://howardhinnant.github.io/date_algorithms.html
+		final long z = days + 719468;
+		final long era = Math.floorDiv(z, 146097);
+		final int dayOfEra = (int) (z - era * 146097);
+		final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		final int monthIndex = (5 * dayOfYear + 2) / 153;
+		final int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+		final int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+		final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+		final int millis = millisOfDay % 1000;
+		millisOfDay /= 1000;
+		final int second = millisOfDay % 60;
+		millisOfDay /= 60;
+		final int minute = millisOfDay % 60;
+		final int hour = millisOfDay / 60;
+
+		int pos = offset;
+		pos = write(buffer, pos, (int) year, 4);
+		buffer[pos++] = '-';
+		pos = write(buffer, pos, month, 2);
+		buffer[pos++] = '-';
+		pos = write(buffer, pos, day, 2);
+		buffer[pos++] = 'T';
+		pos = write(buffer, pos, hour, 2);
+		buffer[pos++] = ':';
+		pos = write(buffer, pos, minute, 2);
+		buffer[pos++] = ':';
+		pos = write(buffer, pos, second, 2);
+		buffer[pos++] = '.';
+		pos = write(buffer, pos, millis, 3);
+		for (int i = 0; i < 4; i++) {
+			buffer[pos++] = '0';
+		}
+		buffer[pos++] = 'Z';
+		return pos - offset;
+	}
+
+	/**
+	 * Formats the time in UTC as <code>yyyy-MM-dd'T'HH:mm:ss.SSS0000Z</code>.
+	 *
+	 * @param time
+	 *            the milliseconds since the epoch
+	 * @return the formatted date
+	 * @throws IllegalArgumentException
+	 *             if the year is not between 0 and 9999
+	 */
+	public static String format(final long time) {
+		final char[] buffer = new char[FORMATTED_LENGTH];
+		return new String(buffer, 0, format(time, buffer, 0));
+	}
+
+	private static long daysFromCivil(final int year, final int month,
+			final int day) {
+		final int y = month <= 2 ? year - 1 : year;
+		final int era = (y >= 0 ? y : y - 399) / 400;
+		final int yearOfEra = y - era * 400;
+		final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097L + dayOfEra - 719468;
+	}
+
+	private static int daysInMonth(final int year, final int month) {
+		if (month == 2) {
+			return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+		}
+		return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+	}
+
+	private static int digits(final char[] buffer, final int offset,
+			final int length, final int pos, final int count)
+			throws ParseException {
+		if (pos + count > offset + length) {
+			throw error(buffer, offset, length, pos - offset);
+		}
+		int value = 0;
+		for (int i = pos; i < pos + count; i++) {
+			final char c = buffer[i];
+			if (!isDigit(c)) {
+				throw error(buffer, offset, length, i - offset);
+			}
+			value = value * 10 + c - '0';
+		}
+		return value;
+	}
+
+	private static int expect(final char[] buffer, final int offset,
+			final int length, final int pos, final char expected)
+			throws ParseException {
+		if (pos >= offset + length || buffer[pos] != expected) {
+			throw error(buffer, offset, length, pos - offset);
+		}
+		return pos + 1;
+	}
+
+	private static boolean isDigit(final char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static int write(final char[] buffer, int pos, int value,
+			final int width) {
+		for (int i = pos + width - 1; i >= pos; i--) {
+			buffer[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		return pos + width;
+	}
+
+	private static ParseException error(final char[] buffer, final int offset,
+			final int length, final int errorOffset) {
+		return new ParseException("Unparseable ISO 8601 date: \""
+				+ new String(buffer, offset, length) + "\"", errorOffset);
+	}
+}
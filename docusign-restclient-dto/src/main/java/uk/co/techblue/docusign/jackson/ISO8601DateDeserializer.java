@@ -21,22 +21,29 @@ import java.util.Date;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 
 
-import uk.co.techblue.docusign.client.dto.utils.DtoHelper;
+import uk.co.techblue.docusign.client.dto.utils.ISO8601DateCodec;
 
 public class ISO8601DateDeserializer extends JsonDeserializer<Date> {
 
     @Override
     public Date deserialize(JsonParser jsonparser, DeserializationContext deserializationcontext)
             throws IOException, JsonProcessingException {
-        String dateString = jsonparser.getText();
+        if (jsonparser.getCurrentToken() != JsonToken.VALUE_STRING) {
+            throw deserializationcontext.mappingException(Date.class, jsonparser.getCurrentToken());
+        }
+        // read straight from the parser's buffer to avoid materialising the string
+        final char[] buffer = jsonparser.getTextCharacters();
+        final int offset = jsonparser.getTextOffset();
+        final int length = jsonparser.getTextLength();
         try {
-            return DtoHelper.parseISO8601Date(dateString);
+            return new Date(ISO8601DateCodec.parse(buffer, offset, length));
         } catch (ParseException pe) {
-            throw new IOException("Error occurred while parsing date '" + dateString + "'", pe);
+            throw new IOException("Error occurred while parsing date '" + new String(buffer, offset, length) + "'", pe);
         }
     }
 }
@@ -25,6 +25,7 @@ import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 
 import uk.co.techblue.docusign.client.dto.utils.DtoHelper;
+import uk.co.techblue.docusign.client.dto.utils.ISO8601DateCodec;
 
 public class ISO8601DateSerializer extends JsonSerializer<Date> {
 
@@ -33,8 +34,12 @@ public class ISO8601DateSerializer extends JsonSerializer<Date> {
 			SerializerProvider provider) throws IOException,
 			JsonProcessingException {
 		try {
-			String dateString = DtoHelper.formatISO8601Date(value);
-			jgen.writeString(dateString);
+			if (!ISO8601DateCodec.canFormat(value.getTime())) {
+				jgen.writeString(DtoHelper.formatISO8601Date(value));
+				return;
+			}
+			final char[] buffer = new char[ISO8601DateCodec.FORMATTED_LENGTH];
+			jgen.writeString(buffer, 0, ISO8601DateCodec.format(value.getTime(), buffer, 0));
 		} catch (ParseException pe) {
 			throw new IOException(
 					"Error occurred while formatting date to ISO8601 format",
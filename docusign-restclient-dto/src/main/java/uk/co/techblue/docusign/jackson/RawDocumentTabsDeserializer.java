@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.jackson;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import uk.co.techblue.docusign.client.dto.LazyDocumentTabCollection;
+
+/**
+ * Copies the JSON object of the tabs into a {@link LazyDocumentTabCollection} without binding any of the tabs.
+ */
+public class RawDocumentTabsDeserializer extends JsonDeserializer<LazyDocumentTabCollection> {
+
+    @Override
+    public LazyDocumentTabCollection deserialize(JsonParser jsonparser, DeserializationContext deserializationcontext)
+            throws IOException, JsonProcessingException {
+        final ObjectCodec codec = jsonparser.getCodec();
+        if (jsonparser.getCurrentToken() != JsonToken.START_OBJECT || codec == null) {
+            throw deserializationcontext.mappingException(LazyDocumentTabCollection.class, jsonparser.getCurrentToken());
+        }
+        final ByteArrayOutputStream json = new ByteArrayOutputStream();
+        final JsonGenerator generator = codec.getFactory().createGenerator(json);
+        try {
+            generator.copyCurrentStructure(jsonparser);
+        } finally {
+            generator.close();
+        }
+        return new LazyDocumentTabCollection(json.toByteArray(), codec);
+    }
+}
@@ -0,0 +1,48 @@
+package uk.co.techblue.docusign.client.dto;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class AuditEventTest {
+
+	private static final String EVENTS = "{\"auditEvents\":[{\"eventFields\":["
+			+ "{\"name\":\"logTime\",\"value\":\"2015-10-19T09:30:15.1270000Z\"},"
+			+ "{\"name\":\"UserName\",\"value\":\"John Smith\"},"
+			+ "{\"name\":\"Action\",\"value\":\"Signed\"},"
+			+ "{\"name\":\"EnvelopeStatus\",\"value\":\"completed\"}]},"
+			+ "{\"eventFields\":[{\"name\":\"logTime\",\"value\":\"not a date\"}]},"
+			+ "{}]}";
+
+	@Test
+	public void testFieldsAreIndexedOnce() throws Exception {
+		final AuditEvent event = new ObjectMapper().readValue(EVENTS, AuditEventsResponse.class).getAuditEvents().get(0);
+		final Map<String, String> map = event.getMap();
+		Assert.assertSame(map, event.getMap());
+		Assert.assertEquals("Signed", event.getAction());
+		Assert.assertEquals("John Smith", event.getEventField(AuditEvent.USERNAME));
+		for (String name : map.keySet()) {
+			if (name.equals(AuditEvent.ENVELOPE_STATUS)) {
+				Assert.assertSame("field names share the constant", AuditEvent.ENVELOPE_STATUS, name);
+			}
+		}
+		try {
+			map.put(AuditEvent.ACTION, "Voided");
+			Assert.fail("the field map is read-only");
+		} catch (UnsupportedOperationException expected) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testLogTime() throws Exception {
+		final AuditEventsResponse response = new ObjectMapper().readValue(EVENTS, AuditEventsResponse.class);
+		Assert.assertEquals(1445247015127L, response.getAuditEvents().get(0).getLogTime().getTime());
+		Assert.assertNull(response.getAuditEvents().get(1).getLogTime());
+		Assert.assertNull(response.getAuditEvents().get(2).getLogTime());
+		Assert.assertTrue(response.getAuditEvents().get(2).getMap().isEmpty());
+	}
+}
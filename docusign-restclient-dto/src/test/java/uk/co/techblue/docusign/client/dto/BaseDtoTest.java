@@ -0,0 +1,55 @@
+package uk.co.techblue.docusign.client.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.junit.Assert;
+import org.junit.Test;
+
+import uk.co.techblue.docusign.client.dto.recipients.Signer;
+import uk.co.techblue.docusign.client.dto.tabs.SignHereTab;
+import uk.co.techblue.docusign.client.dto.utils.DtoSupports;
+
+public class BaseDtoTest {
+
+	private Signer newSigner() {
+		final SignHereTab signHereTab = new SignHereTab();
+		signHereTab.setDocumentId("1");
+		signHereTab.setxPosition(100);
+		signHereTab.setScaleValue(1.5);
+		final DocumentTabCollection tabs = new DocumentTabCollection();
+		tabs.setSignHereTabs(Collections.singletonList(signHereTab));
+		final Signer signer = new Signer();
+		signer.setName("John Smith");
+		signer.setEmail("john@example.com");
+		signer.setLetterIds(Arrays.asList(1L, 2L));
+		signer.setTabs(tabs);
+		return signer;
+	}
+
+	@Test
+	public void testSupportIsGenerated() {
+		Assert.assertNotNull(DtoSupports.forClass(Signer.class));
+		Assert.assertNotNull(DtoSupports.forClass(SignHereTab.class));
+		Assert.assertNull(DtoSupports.forClass(BaseDto.class));
+	}
+
+	@Test
+	public void testMatchesReflectiveImplementation() {
+		final Signer signer = newSigner();
+		final Signer other = newSigner();
+		Assert.assertEquals(ToStringBuilder.reflectionToString(signer, ToStringStyle.SHORT_PREFIX_STYLE),
+				signer.toString());
+		Assert.assertTrue(EqualsBuilder.reflectionEquals(signer, other));
+		Assert.assertEquals(signer, other);
+		Assert.assertEquals(signer.hashCode(), other.hashCode());
+
+		other.getTabs().getSignHereTabs().get(0).setxPosition(101);
+		Assert.assertFalse(EqualsBuilder.reflectionEquals(signer, other));
+		Assert.assertNotEquals(signer, other);
+		Assert.assertNotEquals(signer, new BaseDto());
+	}
+}
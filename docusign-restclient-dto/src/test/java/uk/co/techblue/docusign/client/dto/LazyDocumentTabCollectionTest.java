@@ -0,0 +1,92 @@
+package uk.co.techblue.docusign.client.dto;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import uk.co.techblue.docusign.client.dto.recipients.LazyRecipientStatusCollection;
+import uk.co.techblue.docusign.client.dto.recipients.RecipientStatus;
+import uk.co.techblue.docusign.client.dto.recipients.RecipientStatusCollection;
+import uk.co.techblue.docusign.client.dto.tabs.DateTab;
+import uk.co.techblue.docusign.client.dto.tabs.SignHereTab;
+import uk.co.techblue.docusign.client.dto.tabs.TextTab;
+
+public class LazyDocumentTabCollectionTest {
+
+	private static final String RECIPIENTS = "{\"recipientCount\":2,\"signers\":["
+			+ "{\"recipientId\":\"1\",\"name\":\"John Smith\",\"tabs\":{"
+			+ "\"textTabs\":[{\"tabLabel\":\"company\",\"documentId\":\"1\"}],"
+			+ "\"signHereTabs\":[{\"documentId\":\"1\",\"xPosition\":100},{\"documentId\":\"2\",\"xPosition\":200}],"
+			+ "\"dateTabs\":null}},"
+			+ "{\"recipientId\":\"2\",\"name\":\"Jane Smith\"}]}";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	public void testTabsAreReadOnUse() throws Exception {
+		final RecipientStatusCollection lazy = objectMapper.readValue(RECIPIENTS, LazyRecipientStatusCollection.class);
+		final RecipientStatusCollection eager = objectMapper.readValue(RECIPIENTS, RecipientStatusCollection.class);
+		final RecipientStatus signer = lazy.getSigners().get(0);
+		Assert.assertEquals("John Smith", signer.getName());
+		Assert.assertNull(lazy.getSigners().get(1).getTabs());
+
+		final LazyDocumentTabCollection tabs = (LazyDocumentTabCollection) signer.getTabs();
+		Assert.assertFalse(tabs.isMaterialized());
+		final List<SignHereTab> signHereTabs = tabs.getTabs(SignHereTab.class);
+		Assert.assertEquals(2, signHereTabs.size());
+		Assert.assertEquals(Integer.valueOf(200), signHereTabs.get(1).getxPosition());
+		Assert.assertNull(tabs.getTabs(DateTab.class));
+		Assert.assertFalse("reading one type of tab leaves the others as JSON", tabs.isMaterialized());
+
+		final List<TextTab> textTabs = tabs.getTextTabs();
+		Assert.assertTrue(tabs.isMaterialized());
+		Assert.assertEquals("company", textTabs.get(0).getTabLabel());
+		Assert.assertSame(textTabs, tabs.getTabs(TextTab.class));
+		Assert.assertEquals(eager.getSigners().get(0).getTabs().getSignHereTabs(), tabs.getSignHereTabs());
+	}
+
+	@Test
+	public void testSetterKeepsOtherTabs() throws Exception {
+		final LazyDocumentTabCollection tabs = (LazyDocumentTabCollection) objectMapper
+				.readValue(RECIPIENTS, LazyRecipientStatusCollection.class).getSigners().get(0).getTabs();
+		tabs.setTextTabs(null);
+		Assert.assertNull(tabs.getTextTabs());
+		Assert.assertEquals(2, tabs.getSignHereTabs().size());
+		Assert.assertTrue(objectMapper.writeValueAsString(tabs).contains("\"xPosition\":200"));
+	}
+
+	@Test
+	public void testLazyEqualsEager() throws Exception {
+		final RecipientStatusCollection lazy = objectMapper.readValue(RECIPIENTS, LazyRecipientStatusCollection.class);
+		final RecipientStatusCollection eager = objectMapper.readValue(RECIPIENTS, RecipientStatusCollection.class);
+		final RecipientStatus lazySigner = lazy.getSigners().get(0);
+		final RecipientStatus eagerSigner = eager.getSigners().get(0);
+		Assert.assertNotSame(eagerSigner.getClass(), lazySigner.getClass());
+
+		Assert.assertEquals(eagerSigner.getTabs(), lazySigner.getTabs());
+		Assert.assertEquals(lazySigner.getTabs(), eagerSigner.getTabs());
+		Assert.assertEquals(eagerSigner, lazySigner);
+		Assert.assertEquals(lazySigner, eagerSigner);
+		Assert.assertEquals(eagerSigner.hashCode(), lazySigner.hashCode());
+		Assert.assertEquals(eager, lazy);
+		Assert.assertEquals(lazy, eager);
+
+		eagerSigner.setName("Jane Smith");
+		Assert.assertFalse(eagerSigner.equals(lazySigner));
+		Assert.assertFalse(lazySigner.equals(eagerSigner));
+	}
+
+	@Test
+	public void testEagerEqualsUnreadLazyTabs() throws Exception {
+		final DocumentTabCollection eagerTabs = objectMapper.readValue(RECIPIENTS, RecipientStatusCollection.class)
+				.getSigners().get(0).getTabs();
+		final LazyDocumentTabCollection lazyTabs = (LazyDocumentTabCollection) objectMapper
+				.readValue(RECIPIENTS, LazyRecipientStatusCollection.class).getSigners().get(0).getTabs();
+		Assert.assertFalse(lazyTabs.isMaterialized());
+		Assert.assertEquals(eagerTabs, lazyTabs);
+		Assert.assertEquals(eagerTabs.hashCode(), lazyTabs.hashCode());
+	}
+}
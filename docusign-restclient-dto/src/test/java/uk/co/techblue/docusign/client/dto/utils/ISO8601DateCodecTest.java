@@ -0,0 +1,55 @@
+package uk.co.techblue.docusign.client.dto.utils;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ISO8601DateCodecTest {
+
+	private static final long TIME = 1445212800123L;
+
+	@Test
+	public void testParse() throws Exception {
+		Assert.assertEquals(TIME, ISO8601DateCodec.parse("2015-10-19T00:00:00.1234567Z"));
+		Assert.assertEquals(TIME, ISO8601DateCodec.parse("2015-10-19T00:00:00.123"));
+		Assert.assertEquals(TIME, ISO8601DateCodec.parse("2015-10-19T01:00:00.123+01:00"));
+		Assert.assertEquals(TIME, ISO8601DateCodec.parse("2015-10-18T19:30:00.123-0430"));
+		Assert.assertEquals(TIME - 123, ISO8601DateCodec.parse("2015-10-19T00:00Z"));
+		Assert.assertEquals(TIME - 23, ISO8601DateCodec.parse("2015-10-19T00:00:00.1Z"));
+
+		final char[] buffer = "\"2015-10-19T00:00:00.1230000Z\"".toCharArray();
+		Assert.assertEquals(TIME, ISO8601DateCodec.parse(buffer, 1, buffer.length - 2));
+	}
+
+	@Test
+	public void testParseInvalid() {
+		final String[] invalid = {"", "2015-10-19", "2015-13-19T00:00:00Z", "2015-02-29T00:00:00Z",
+				"2015-10-19T24:00:00Z", "2015-10-19T00:00:00.Z", "2015-10-19T00:00:00+1", "2015-10-19T00:00:00ZZ"};
+		for (final String text : invalid) {
+			try {
+				ISO8601DateCodec.parse(text);
+				Assert.fail("Parsed " + text);
+			} catch (final ParseException pe) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testFormatMatchesSimpleDateFormat() throws Exception {
+		final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'0000Z'");
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		final Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			// 1900 to 2100
+			final long time = -2208988800000L + (long) (random.nextDouble() * 6311433600000L);
+			final String formatted = ISO8601DateCodec.format(time);
+			Assert.assertEquals(format.format(new java.util.Date(time)), formatted);
+			Assert.assertEquals(time, ISO8601DateCodec.parse(formatted));
+		}
+	}
+}
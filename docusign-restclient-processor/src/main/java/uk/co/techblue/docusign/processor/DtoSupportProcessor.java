@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright 2012 Technology Blueprint Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package uk.co.techblue.docusign.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates field-based <code>equals</code>, <code>hashCode</code> and <code>toString</code> implementations for every
+ * concrete subclass of <code>BaseDto</code> in the compilation. For a DTO <code>com.example.Foo</code> the processor
+ * writes <code>com.example.Foo_DtoSupport</code>, which <code>BaseDto</code> looks up by name at runtime. The fields
+ * are the ones the reflective builders of commons-lang would use: every non-static, non-transient field of the class
+ * and its superclasses up to <code>BaseDto</code>, read through method handles rather than walked by reflection on
+ * every call. Classes the generated code cannot reference are skipped and keep the reflective implementations.
+ * <p>
+ * The binary names of all the concrete DTOs of the compilation are also listed, one per line, in the {@value #INDEX}
+ * resource, so the DTOs can be enumerated at runtime without scanning the classpath. Every module compiled with the
+ * processor writes the resource under the same name, like a service file, so shaded jars must append them, for instance
+ * with the <code>AppendingTransformer</code> of the shade plugin.
+ */
+@SupportedAnnotationTypes("*")
+public class DtoSupportProcessor extends AbstractProcessor {
+
+    /** The root of the DTO hierarchy. */
+    static final String BASE_DTO = "uk.co.techblue.docusign.client.dto.BaseDto";
+
+    /** The suffix appended to the name of the DTO to name its generated support class. */
+    static final String SUFFIX = "_DtoSupport";
+
+    /** The resource listing the concrete DTOs of the compilation. */
+    static final String INDEX = "META-INF/docusign/dtos";
+
+    private static final String SUPPORT_INTERFACE = "uk.co.techblue.docusign.client.dto.utils.DtoSupport";
+
+    private static final String SUPPORTS = "uk.co.techblue.docusign.client.dto.utils.DtoSupports";
+
+    /** The DTOs whose support class has already been written. */
+    private final Set<String> generated = new HashSet<String>();
+
+    /** The binary names of the concrete DTOs of the compilation, in the order they were found. */
+    private final Set<String> indexed = new LinkedHashSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        final TypeElement baseDto = processingEnv.getElementUtils().getTypeElement(BASE_DTO);
+        if (baseDto == null) {
+            return false;
+        }
+        final TypeMirror baseDtoType = processingEnv.getTypeUtils().erasure(baseDto.asType());
+        for (final TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            process(type, baseDto, baseDtoType);
+        }
+        if (roundEnv.processingOver() && !indexed.isEmpty()) {
+            try {
+                writeIndex();
+            } catch (final IOException ioe) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write the DTO index " + INDEX + ": " + ioe.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() throws IOException {
+        final Writer writer =
+            processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX).openWriter();
+        try {
+            for (final String dtoName : indexed) {
+                writer.write(dtoName);
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void process(final TypeElement type, final TypeElement baseDto, final TypeMirror baseDtoType) {
+        for (final TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            process(nested, baseDto, baseDtoType);
+        }
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+            || type.equals(baseDto) || !processingEnv.getTypeUtils().isSubtype(
+                processingEnv.getTypeUtils().erasure(type.asType()), baseDtoType)) {
+            return;
+        }
+        final String dtoName = type.getQualifiedName().toString();
+        if (!generated.add(dtoName)) {
+            return;
+        }
+        indexed.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+        final PackageElement dtoPackage = processingEnv.getElementUtils().getPackageOf(type);
+        final List<VariableElement> fields = new ArrayList<VariableElement>();
+        for (TypeElement current = type; current != null && !current.equals(baseDto); current = superclass(current)) {
+            if (!isAccessible(current, dtoPackage)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    current + " is not accessible from " + dtoPackage + ", " + dtoName
+                        + " keeps the reflective equals, hashCode and toString", type);
+                return;
+            }
+            for (final VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC) && !field.getModifiers().contains(Modifier.TRANSIENT)
+                    && !field.getSimpleName().toString().contains("$")) {
+                    fields.add(field);
+                }
+            }
+        }
+        try {
+            write(type, dtoPackage, fields);
+        } catch (final IOException ioe) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Unable to write the support class of " + dtoName + ": " + ioe.getMessage(), type);
+        }
+    }
+
+    private TypeElement superclass(final TypeElement type) {
+        final TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private boolean isAccessible(final TypeElement type, final PackageElement fromPackage) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            final Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || ((TypeElement) element).getNestingKind() == NestingKind.LOCAL
+                || ((TypeElement) element).getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC)
+                && !processingEnv.getElementUtils().getPackageOf(element).equals(fromPackage)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void write(final TypeElement type, final PackageElement dtoPackage, final List<VariableElement> fields)
+        throws IOException {
+        final String packageName = dtoPackage.isUnnamed() ? "" : dtoPackage.getQualifiedName().toString();
+        final String simpleName = simpleName(type, packageName);
+        final String supportName = simpleName.replace('.', '_') + SUFFIX;
+
+        final StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import java.lang.invoke.MethodHandle;\n\n");
+        source.append("/**\n * Field-based equals, hashCode and toString of {@link ").append(simpleName)
+            .append("}, generated by ").append(getClass().getName()).append(".\n */\n");
+        source.append("public final class ").append(supportName).append(" implements ").append(SUPPORT_INTERFACE)
+            .append(" {\n\n");
+
+        final List<String> handles = new ArrayList<String>(fields.size());
+        for (final VariableElement field : fields) {
+            final String handle = "FIELD_" + handles.size();
+            handles.add(handle);
+            source.append("    private static final MethodHandle ").append(handle).append(" = ").append(SUPPORTS)
+                .append(".getter(").append(((TypeElement) field.getEnclosingElement()).getQualifiedName())
+                .append(".class, \"").append(field.getSimpleName()).append("\");\n");
+        }
+        if (!fields.isEmpty()) {
+            source.append('\n');
+        }
+
+        source.append("    @Override\n    public boolean equals(final Object dto, final Object other) {\n");
+        source.append("        try {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            final TypeMirror fieldType = fields.get(i).asType();
+            final String left = read(fieldType, handles.get(i), "dto");
+            final String right = read(fieldType, handles.get(i), "other");
+            source.append("            if (!");
+            switch (fieldType.getKind()) {
+            case FLOAT:
+                source.append("(Float.compare(").append(left).append(", ").append(right).append(") == 0)");
+                break;
+            case DOUBLE:
+                source.append("(Double.compare(").append(left).append(", ").append(right).append(") == 0)");
+                break;
+            case ARRAY:
+                source.append("java.util.Objects.deepEquals(").append(left).append(", ").append(right).append(')');
+                break;
+            default:
+                if (fieldType.getKind().isPrimitive()) {
+                    source.append('(').append(left).append(" == ").append(right).append(')');
+                } else {
+                    source.append("java.util.Objects.equals(").append(left).append(", ").append(right).append(')');
+                }
+            }
+            source.append(") {\n                return false;\n            }\n");
+        }
+        source.append("            return true;\n");
+        appendCatch(source);
+
+        source.append("    @Override\n    public int hashCode(final Object dto) {\n");
+        source.append("        try {\n            int result = 17;\n");
+        for (int i = 0; i < fields.size(); i++) {
+            final TypeMirror fieldType = fields.get(i).asType();
+            final String value = read(fieldType, handles.get(i), "dto");
+            source.append("            result = 31 * result + ");
+            if (fieldType.getKind().isPrimitive()) {
+                source.append(boxed(fieldType.getKind())).append(".hashCode(").append(value).append(')');
+            } else if (fieldType.getKind() == TypeKind.ARRAY) {
+                source.append("java.util.Arrays.deepHashCode(new Object[] {").append(value).append("})");
+            } else {
+                source.append("java.util.Objects.hashCode(").append(value).append(')');
+            }
+            source.append(";\n");
+        }
+        source.append("            return result;\n");
+        appendCatch(source);
+
+        source.append("    @Override\n    public String toString(final Object dto) {\n");
+        source.append("        try {\n");
+        source.append("            final StringBuilder builder = new StringBuilder(\"").append(simpleName)
+            .append("[\");\n");
+        for (int i = 0; i < fields.size(); i++) {
+            source.append("            ").append(SUPPORTS).append(".appendField(builder, \"")
+                .append(fields.get(i).getSimpleName()).append("\", ")
+                .append(read(fields.get(i).asType(), handles.get(i), "dto")).append(", ").append(i == 0)
+                .append(");\n");
+        }
+        source.append("            return builder.append(']').toString();\n");
+        appendCatch(source);
+        source.append("}\n");
+
+        final String qualifiedSupportName = packageName.isEmpty() ? supportName : packageName + "." + supportName;
+        final Writer writer = processingEnv.getFiler().createSourceFile(qualifiedSupportName, type).openWriter();
+        try {
+            writer.write(source.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private String simpleName(final TypeElement type, final String packageName) {
+        final String qualifiedName = type.getQualifiedName().toString();
+        return packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+    }
+
+    /**
+     * Gets the expression reading the field through its method handle. Handles are adapted to take an
+     * <code>Object</code> and return either the primitive field type or <code>Object</code>, so the exact invocation
+     * must cast to the same.
+     */
+    private String read(final TypeMirror fieldType, final String handle, final String target) {
+        final String type = fieldType.getKind().isPrimitive() ? fieldType.toString() : "Object";
+        return "((" + type + ") " + handle + ".invokeExact(" + target + "))";
+    }
+
+    private String boxed(final TypeKind kind) {
+        switch (kind) {
+        case BOOLEAN:
+            return "Boolean";
+        case BYTE:
+            return "Byte";
+        case SHORT:
+            return "Short";
+        case CHAR:
+            return "Character";
+        case INT:
+            return "Integer";
+        case LONG:
+            return "Long";
+        case FLOAT:
+            return "Float";
+        default:
+            return "Double";
+        }
+    }
+
+    private void appendCatch(final StringBuilder source) {
+        source.append("        } catch (final Throwable t) {\n");
+        source.append("            throw ").append(SUPPORTS).append(".rethrow(t);\n");
+        source.append("        }\n    }\n\n");
+    }
+}